@@ -335,6 +335,15 @@ public class BlueGigaBridgeHandler extends AbstractBluetoothBridgeHandler<BlueGi
         discoveryTask = scheduler.scheduleWithFixedDelay(this::refreshDiscoveredDevices, 0, 10, TimeUnit.SECONDS);
     }
 
+    @Override
+    protected void refreshDiscoveredDevices() {
+        super.refreshDiscoveredDevices();
+        transactionManager.thenAccept(manager -> logger.debug(
+                "BlueGiga transactions sent: {}, queued: {}, average queue wait time: {} ms, max queue wait time: {} ms",
+                manager.getSentFrames(), manager.getQueueSize(),
+                String.format("%.1f", manager.getAverageQueueWaitTime()), manager.getMaxQueueWaitTime()));
+    }
+
     private void stopScheduledTasks() {
         cancelScheduledPassiveScan();
         if (removeInactiveDevicesTask != null) {
@@ -12,12 +12,10 @@
  */
 package org.openhab.binding.bluetooth.bluegiga.internal;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
@@ -34,6 +32,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class provides transaction management and queuing of {@link BlueGigaCommand} frames.
+ * <p>
+ * The BlueGiga controller processes one command at a time, so only one transaction is sent at a time. The waiting
+ * transactions are queued per connection, see {@link BlueGigaTransactionQueue}, and the next one is sent as soon as
+ * the response of the ongoing transaction has been received.
  *
  * @author Pauli Anttila - Initial contribution
  *
@@ -65,9 +67,10 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
      */
     private final Set<BlueGigaEventListener> eventListeners = new CopyOnWriteArraySet<>();
 
-    private final Queue<BlueGigaUniqueCommand> sendQueue = new LinkedList<>();
+    private final BlueGigaTransactionQueue sendQueue = new BlueGigaTransactionQueue();
     private final ScheduledExecutorService executor;
     private final BlueGigaSerialHandler serialHandler;
+    private final long transactionTimeoutMillis;
 
     private @Nullable Future<?> transactionTimeoutTimer;
 
@@ -81,8 +84,14 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
     }
 
     public BlueGigaTransactionManager(BlueGigaSerialHandler serialHandler, ScheduledExecutorService executor) {
+        this(serialHandler, executor, TRANSACTION_TIMEOUT_PERIOD_MS);
+    }
+
+    BlueGigaTransactionManager(BlueGigaSerialHandler serialHandler, ScheduledExecutorService executor,
+            long transactionTimeoutMillis) {
         this.serialHandler = serialHandler;
         this.executor = executor;
+        this.transactionTimeoutMillis = transactionTimeoutMillis;
         serialHandler.addEventListener(this);
     }
 
@@ -98,52 +107,34 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
         logger.debug("Closed");
     }
 
-    private void startTransactionTimer() {
+    private void startTransactionTimer(int transactionId) {
         transactionTimeoutTimer = executor.schedule(() -> {
-            notifyTransactionTimeout(ongoingTransactionId);
-        }, TRANSACTION_TIMEOUT_PERIOD_MS, TimeUnit.MILLISECONDS);
+            notifyTransactionTimeout(transactionId);
+        }, transactionTimeoutMillis, TimeUnit.MILLISECONDS);
     }
 
     private void cancelTransactionTimer() {
         if (transactionTimeoutTimer != null) {
-            transactionTimeoutTimer.cancel(true);
+            transactionTimeoutTimer.cancel(false);
             transactionTimeoutTimer = null;
         }
     }
 
     private void sendNextFrame() {
-        getNextFrame().ifPresent(frame -> {
+        BlueGigaUniqueCommand frame = sendQueue.poll();
+        if (frame != null) {
             cancelTransactionTimer();
             logger.debug("Send frame #{}: {}", frame.getTransactionId(), frame.getMessage());
             ongoingTransactionId = Optional.of(frame.getTransactionId());
+            startTransactionTimer(frame.getTransactionId());
             serialHandler.sendFrame(frame.getMessage());
-            startTransactionTimer();
-        });
-    }
-
-    @SuppressWarnings({ "null", "unused" })
-    private Optional<BlueGigaUniqueCommand> getNextFrame() {
-        while (!sendQueue.isEmpty()) {
-            BlueGigaUniqueCommand frame = sendQueue.poll();
-            if (frame != null) {
-                if (frame.getMessage() != null) {
-                    return Optional.of(frame);
-                } else {
-                    logger.debug("Null message found from queue, skip it");
-                    continue;
-                }
-            } else {
-                logger.debug("Null frame found from queue, skip it");
-                continue;
-            }
         }
-        return Optional.empty();
     }
 
     /**
-     * Add a {@link BlueGigaUniqueCommand} frame to the send queue. The sendQueue is a
-     * FIFO queue. This method queues a {@link BlueGigaCommand} frame without
-     * waiting for a response.
+     * Add a {@link BlueGigaUniqueCommand} frame to the send queue. The frames of each
+     * connection are sent in FIFO order. This method queues a {@link BlueGigaCommand}
+     * frame without waiting for a response.
      *
      * @param transaction
      *            {@link BlueGigaUniqueCommand}
@@ -163,11 +154,14 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
         }
     }
 
-    private void clearOngoingTransactionAndSendNext() {
+    private void transactionFinished(int transactionId) {
         synchronized (this) {
-            logger.trace("Clear ongoing transaction and send next frame from queue");
-            ongoingTransactionId = Optional.empty();
-            sendNextFrame();
+            if (ongoingTransactionId.isPresent() && ongoingTransactionId.get() == transactionId) {
+                logger.trace("Clear ongoing transaction and send next frame from queue");
+                cancelTransactionTimer();
+                ongoingTransactionId = Optional.empty();
+                sendNextFrame();
+            }
         }
     }
 
@@ -191,48 +185,11 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
      */
     private <T extends BlueGigaResponse> Future<T> sendBleRequestAsync(final BlueGigaCommand bleCommand,
             final Class<T> expected) {
-        class TransactionWaiter implements Callable<T>, BluetoothListener<T> {
-            private volatile boolean complete;
-            private Optional<BlueGigaResponse> response = Optional.empty();
-            private BlueGigaUniqueCommand query = new BlueGigaUniqueCommand(bleCommand,
+        class TransactionWaiter implements BluetoothListener<T> {
+            private final CompletableFuture<T> future = new CompletableFuture<>();
+            private final BlueGigaUniqueCommand query = new BlueGigaUniqueCommand(bleCommand,
                     transactionId.getAndIncrement());
 
-            @SuppressWarnings("unchecked")
-            @Override
-            public T call() throws TimeoutException {
-                // Register a listener
-                addTransactionListener(this);
-
-                // Send the transaction
-                queueFrame(query);
-                sendNextTransactionIfNoOngoing();
-
-                // Wait transaction completed or timeout
-                synchronized (this) {
-                    while (!complete) {
-                        try {
-                            wait();
-                        } catch (InterruptedException e) {
-                            complete = true;
-                        }
-                    }
-                }
-
-                cancelTransactionTimer();
-
-                // Remove the listener
-                removeTransactionListener(this);
-
-                // Send next transaction if any
-                executor.submit(BlueGigaTransactionManager.this::clearOngoingTransactionAndSendNext);
-
-                if (response.isPresent()) {
-                    return (T) response.get();
-                } else {
-                    throw new TimeoutException("No response from BlueGiga controller");
-                }
-            }
-
             @Override
             public boolean transactionEvent(BlueGigaResponse bleResponse, int transactionId) {
                 logger.trace("Expected transactionId: {}, received transactionId: {}", query.getTransactionId(),
@@ -267,12 +224,8 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
                 }
 
                 // Response received, notify waiter
-                response = Optional.of(bleResponse);
-                complete = true;
                 logger.debug("Received frame #{}: {}", transactionId, bleResponse);
-                synchronized (this) {
-                    notify();
-                }
+                future.complete(expected.cast(bleResponse));
                 return true;
             }
 
@@ -282,16 +235,33 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
                     return false;
                 }
                 logger.debug("Timeout, no response received for transaction {}", query.getTransactionId());
-                complete = true;
-                synchronized (this) {
-                    notify();
-                }
+                future.completeExceptionally(new TimeoutException("No response from BlueGiga controller"));
                 return true;
             }
         }
 
-        Callable<T> worker = new TransactionWaiter();
-        return executor.submit(worker);
+        TransactionWaiter waiter = new TransactionWaiter();
+        waiter.future.whenComplete((response, error) -> {
+            // Remove the listener
+            removeTransactionListener(waiter);
+            if (error != null) {
+                // Not waited for anymore, make room for the next transaction
+                sendQueue.remove(waiter.query);
+                transactionFinished(waiter.query.getTransactionId());
+            }
+        });
+
+        // Register a listener
+        addTransactionListener(waiter);
+
+        // Send the transaction, the caller waits on the future instead of occupying a thread of the executor
+        queueFrame(waiter.query);
+        try {
+            sendNextTransactionIfNoOngoing();
+        } catch (IllegalStateException | BlueGigaException e) {
+            waiter.future.completeExceptionally(e);
+        }
+        return waiter.future;
     }
 
     /**
@@ -332,6 +302,34 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
         }
     }
 
+    /**
+     * @return number of frames waiting to be sent
+     */
+    public int getQueueSize() {
+        return sendQueue.size();
+    }
+
+    /**
+     * @return average time the sent frames waited in the send queue, in milliseconds
+     */
+    public double getAverageQueueWaitTime() {
+        return sendQueue.getAverageWaitTime();
+    }
+
+    /**
+     * @return longest time a sent frame waited in the send queue, in milliseconds
+     */
+    public long getMaxQueueWaitTime() {
+        return sendQueue.getMaxWaitTime();
+    }
+
+    /**
+     * @return number of frames sent to the BlueGiga controller
+     */
+    public long getSentFrames() {
+        return sendQueue.getSentFrames();
+    }
+
     /**
      * Notify any event listeners when we receive a response.
      * This uses a separate thread to separate the processing of the event.
@@ -360,23 +358,24 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
                     processed = true;
                 }
             }
-            if (!processed) {
+            if (processed) {
+                transactionFinished(id);
+            } else {
                 logger.debug("No listener found for received response: {}", response);
             }
         });
     }
 
-    private void notifyTransactionTimeout(final Optional<Integer> transactionId) {
-        transactionId.ifPresent(id -> {
-            boolean processed = false;
-            for (BluetoothListener<? extends BlueGigaResponse> listener : transactionListeners) {
-                if (listener.transactionTimeout(id)) {
-                    processed = true;
-                }
-            }
-            if (!processed) {
-                logger.debug("No listener found for transaction timeout event, transaction id {}", id);
+    private void notifyTransactionTimeout(final int transactionId) {
+        boolean processed = false;
+        for (BluetoothListener<? extends BlueGigaResponse> listener : transactionListeners) {
+            if (listener.transactionTimeout(transactionId)) {
+                processed = true;
             }
-        });
+        }
+        if (!processed) {
+            logger.debug("No listener found for transaction timeout event, transaction id {}", transactionId);
+        }
+        transactionFinished(transactionId);
     }
 }
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.connection.BlueGigaDisconnectCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaConnectDirectCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaConnectSelectiveCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaDiscoverCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaEndProcedureCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaSetModeCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaSetScanParametersCommand;
+
+/**
+ * This class queues the {@link BlueGigaUniqueCommand} frames waiting to be sent to the BlueGiga controller.
+ * <p>
+ * The frames are queued in channels: a channel for each connection handle, a channel for the commands not related
+ * to a connection and a priority channel for the scan and connection control commands. Frames of the priority channel
+ * are sent first. The other channels take turns, one frame at a time, so that a device with many transactions does
+ * not hold up the transactions of the other connections.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+class BlueGigaTransactionQueue {
+
+    /**
+     * Channel of the commands not related to a connection
+     */
+    private static final int NO_CONNECTION = -1;
+
+    /**
+     * Scan and connection control commands, which are sent before any other queued commands
+     */
+    private static final Set<Class<? extends BlueGigaCommand>> PRIORITY_COMMANDS = Set.of(
+            BlueGigaDiscoverCommand.class, BlueGigaEndProcedureCommand.class, BlueGigaSetModeCommand.class,
+            BlueGigaSetScanParametersCommand.class, BlueGigaConnectDirectCommand.class,
+            BlueGigaConnectSelectiveCommand.class, BlueGigaDisconnectCommand.class);
+
+    private static class QueuedFrame {
+        private final BlueGigaUniqueCommand frame;
+        private final long queueTime = System.nanoTime();
+
+        private QueuedFrame(BlueGigaUniqueCommand frame) {
+            this.frame = frame;
+        }
+    }
+
+    private final Queue<QueuedFrame> priorityChannel = new ArrayDeque<>();
+    private final Map<Integer, Queue<QueuedFrame>> channels = new HashMap<>();
+
+    /**
+     * Channels with queued frames, in the order of their turns
+     */
+    private final Queue<Integer> turns = new ArrayDeque<>();
+
+    private int size = 0;
+
+    private long sentFrames = 0;
+    private long totalWaitTime = 0;
+    private long maxWaitTime = 0;
+
+    /**
+     * Add a frame to the end of its channel.
+     *
+     * @param frame the frame to queue
+     */
+    synchronized void add(BlueGigaUniqueCommand frame) {
+        BlueGigaCommand command = frame.getMessage();
+        if (PRIORITY_COMMANDS.contains(command.getClass())) {
+            priorityChannel.add(new QueuedFrame(frame));
+        } else {
+            int channel = command instanceof BlueGigaDeviceCommand ? ((BlueGigaDeviceCommand) command).getConnection()
+                    : NO_CONNECTION;
+            Queue<QueuedFrame> queue = channels.computeIfAbsent(channel, c -> new ArrayDeque<>());
+            if (queue.isEmpty()) {
+                turns.add(channel);
+            }
+            queue.add(new QueuedFrame(frame));
+        }
+        size++;
+    }
+
+    /**
+     * Take the next frame to be sent.
+     *
+     * @return the frame, or null if the queue is empty
+     */
+    synchronized @Nullable BlueGigaUniqueCommand poll() {
+        QueuedFrame next = priorityChannel.poll();
+        if (next == null) {
+            Integer channel = turns.poll();
+            if (channel == null) {
+                return null;
+            }
+            Queue<QueuedFrame> queue = channels.get(channel);
+            if (queue == null || (next = queue.poll()) == null) {
+                return null;
+            }
+            if (!queue.isEmpty()) {
+                turns.add(channel);
+            }
+        }
+        size--;
+
+        long waitTime = System.nanoTime() - next.queueTime;
+        sentFrames++;
+        totalWaitTime += waitTime;
+        maxWaitTime = Math.max(maxWaitTime, waitTime);
+        return next.frame;
+    }
+
+    /**
+     * Remove a frame which is no longer waited for.
+     *
+     * @param frame the frame to remove
+     * @return true if the frame was still queued
+     */
+    synchronized boolean remove(BlueGigaUniqueCommand frame) {
+        if (priorityChannel.removeIf(queued -> queued.frame == frame)) {
+            size--;
+            return true;
+        }
+        for (Map.Entry<Integer, Queue<QueuedFrame>> entry : channels.entrySet()) {
+            Queue<QueuedFrame> queue = entry.getValue();
+            if (queue.removeIf(queued -> queued.frame == frame)) {
+                if (queue.isEmpty()) {
+                    turns.remove(entry.getKey());
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void clear() {
+        priorityChannel.clear();
+        channels.clear();
+        turns.clear();
+        size = 0;
+    }
+
+    /**
+     * @return number of frames taken from the queue to be sent
+     */
+    synchronized long getSentFrames() {
+        return sentFrames;
+    }
+
+    /**
+     * @return average time the sent frames waited in the queue, in milliseconds
+     */
+    synchronized double getAverageWaitTime() {
+        return sentFrames == 0 ? 0 : (double) totalWaitTime / sentFrames / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return longest time a sent frame waited in the queue, in milliseconds
+     */
+    synchronized long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTime);
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.attributeclient.BlueGigaReadByHandleCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.attributeclient.BlueGigaReadByHandleResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaDiscoverCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaDiscoverResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.enumeration.BgApiResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.enumeration.GapDiscoverMode;
+
+/**
+ * Tests {@link BlueGigaTransactionManager} with a {@link BlueGigaSerialHandler} talking to a simulated controller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BlueGigaTransactionManagerTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    /**
+     * Simulates the serial interface of a BlueGiga controller, which answers every command with a successful
+     * response. Responses can be held back to let transactions queue up, or dropped for a connection.
+     */
+    private static class SimulatedController {
+        private final BlockingQueue<Integer> rxBytes = new LinkedBlockingQueue<>();
+        private final List<String> receivedCommands = new CopyOnWriteArrayList<>();
+        private final Set<Integer> droppedConnections = new CopyOnWriteArraySet<>();
+        private final List<int[]> heldResponses = new ArrayList<>();
+        private final int[] txBuffer = new int[64];
+        private int txCount = 0;
+        private boolean holdResponses = false;
+
+        private final InputStream inputStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    Integer value = rxBytes.poll(100, TimeUnit.MILLISECONDS);
+                    return value == null ? -1 : value;
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+
+            @Override
+            public int available() {
+                return rxBytes.size();
+            }
+        };
+
+        private final OutputStream outputStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                synchronized (SimulatedController.this) {
+                    txBuffer[txCount++] = b & 0xFF;
+                    if (txCount >= 4 && txCount == txBuffer[1] + 4) {
+                        int[] frame = new int[txCount];
+                        System.arraycopy(txBuffer, 0, frame, 0, txCount);
+                        txCount = 0;
+                        commandReceived(frame);
+                    }
+                }
+            }
+        };
+
+        private void commandReceived(int[] frame) {
+            int commandClass = frame[2];
+            int commandMethod = frame[3];
+            boolean deviceCommand = commandClass == 0x03 || commandClass == 0x04;
+            if (commandClass == 0x04 && commandMethod == 0x04) {
+                receivedCommands.add("read " + frame[4] + ":" + (frame[5] | frame[6] << 8));
+            } else if (commandClass == 0x06 && commandMethod == 0x02) {
+                receivedCommands.add("discover");
+            }
+            if (deviceCommand && droppedConnections.contains(frame[4])) {
+                return;
+            }
+
+            int[] response = deviceCommand ? new int[] { 0x00, 0x03, commandClass, commandMethod, frame[4], 0, 0 }
+                    : new int[] { 0x00, 0x02, commandClass, commandMethod, 0, 0 };
+            if (holdResponses) {
+                heldResponses.add(response);
+            } else {
+                respond(response);
+            }
+        }
+
+        private void respond(int[] response) {
+            for (int b : response) {
+                rxBytes.add(b);
+            }
+        }
+
+        synchronized void holdResponses() {
+            holdResponses = true;
+        }
+
+        synchronized void releaseResponses() {
+            holdResponses = false;
+            heldResponses.forEach(this::respond);
+            heldResponses.clear();
+        }
+    }
+
+    private final SimulatedController controller = new SimulatedController();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private @Nullable BlueGigaSerialHandler serialHandler;
+    private @Nullable BlueGigaTransactionManager manager;
+
+    @AfterEach
+    public void tearDown() {
+        BlueGigaTransactionManager manager = this.manager;
+        if (manager != null) {
+            manager.close();
+        }
+        BlueGigaSerialHandler serialHandler = this.serialHandler;
+        if (serialHandler != null) {
+            serialHandler.close(1000);
+        }
+        callers.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    private BlueGigaTransactionManager createManager(long transactionTimeoutMillis) {
+        BlueGigaSerialHandler serialHandler = new BlueGigaSerialHandler("test", controller.inputStream,
+                controller.outputStream);
+        this.serialHandler = serialHandler;
+        BlueGigaTransactionManager manager = new BlueGigaTransactionManager(serialHandler, scheduler,
+                transactionTimeoutMillis);
+        this.manager = manager;
+        // forget the commands sent by the serial handler on startup
+        controller.receivedCommands.clear();
+        return manager;
+    }
+
+    private CompletableFuture<BlueGigaReadByHandleResponse> read(BlueGigaTransactionManager manager, int connection,
+            int handle) {
+        BlueGigaReadByHandleCommand command = new BlueGigaReadByHandleCommand.CommandBuilder()
+                .withConnection(connection).withChrHandle(handle).build();
+        return CompletableFuture.supplyAsync(
+                () -> manager.sendTransaction(command, BlueGigaReadByHandleResponse.class, TIMEOUT_MS), callers);
+    }
+
+    private CompletableFuture<BlueGigaDiscoverResponse> discover(BlueGigaTransactionManager manager) {
+        BlueGigaDiscoverCommand command = new BlueGigaDiscoverCommand.CommandBuilder()
+                .withMode(GapDiscoverMode.GAP_DISCOVER_OBSERVATION).build();
+        return CompletableFuture.supplyAsync(
+                () -> manager.sendTransaction(command, BlueGigaDiscoverResponse.class, TIMEOUT_MS), callers);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testConnectionsTakeTurns() throws Exception {
+        BlueGigaTransactionManager manager = createManager(TIMEOUT_MS);
+        controller.holdResponses();
+
+        List<CompletableFuture<BlueGigaReadByHandleResponse>> reads = new ArrayList<>();
+        reads.add(read(manager, 0, 1));
+        waitFor(() -> controller.receivedCommands.size() == 1);
+        reads.add(read(manager, 0, 2));
+        waitFor(() -> manager.getQueueSize() == 1);
+        reads.add(read(manager, 0, 3));
+        waitFor(() -> manager.getQueueSize() == 2);
+        reads.add(read(manager, 1, 4));
+        waitFor(() -> manager.getQueueSize() == 3);
+        reads.add(read(manager, 1, 5));
+        waitFor(() -> manager.getQueueSize() == 4);
+        CompletableFuture<BlueGigaDiscoverResponse> discover = discover(manager);
+        waitFor(() -> manager.getQueueSize() == 5);
+
+        Thread.sleep(200);
+        controller.releaseResponses();
+
+        assertEquals(BgApiResponse.SUCCESS, discover.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).getResult());
+        int[] expectedConnections = { 0, 0, 0, 1, 1 };
+        for (int i = 0; i < reads.size(); i++) {
+            BlueGigaReadByHandleResponse response = reads.get(i).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            assertEquals(expectedConnections[i], response.getConnection());
+            assertEquals(BgApiResponse.SUCCESS, response.getResult());
+        }
+
+        // the scan command is sent first, then the connections take turns
+        assertEquals(List.of("read 0:1", "discover", "read 0:2", "read 1:4", "read 0:3", "read 1:5"),
+                controller.receivedCommands);
+        assertEquals(0, manager.getQueueSize());
+        assertEquals(6, manager.getSentFrames());
+        assertTrue(manager.getMaxQueueWaitTime() >= 200);
+        assertTrue(manager.getAverageQueueWaitTime() > 0);
+    }
+
+    @Test
+    public void testTimeoutDoesNotBlockOtherConnections() throws Exception {
+        BlueGigaTransactionManager manager = createManager(100);
+        controller.droppedConnections.add(0);
+
+        CompletableFuture<BlueGigaReadByHandleResponse> unanswered = read(manager, 0, 1);
+        waitFor(() -> controller.receivedCommands.size() == 1);
+        CompletableFuture<BlueGigaReadByHandleResponse> answered = read(manager, 1, 2);
+
+        assertEquals(1, answered.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).getConnection());
+        CompletionException e = assertThrows(CompletionException.class, unanswered::join);
+        assertTrue(e.getCause() instanceof BlueGigaException);
+        assertEquals(List.of("read 0:1", "read 1:2"), controller.receivedCommands);
+    }
+}
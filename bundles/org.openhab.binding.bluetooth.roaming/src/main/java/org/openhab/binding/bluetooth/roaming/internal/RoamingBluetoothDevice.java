@@ -24,6 +24,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.bluetooth.BluetoothAdapter;
 import org.openhab.binding.bluetooth.BluetoothAddress;
+import org.openhab.binding.bluetooth.BluetoothAdvertisementPipeline;
 import org.openhab.binding.bluetooth.BluetoothCharacteristic;
 import org.openhab.binding.bluetooth.BluetoothCompletionStatus;
 import org.openhab.binding.bluetooth.BluetoothDescriptor;
@@ -48,8 +49,11 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
 
     private final AtomicReference<@Nullable BluetoothDevice> currentDelegateRef = new AtomicReference<>();
 
+    private final BluetoothAdvertisementPipeline advertisementPipeline;
+
     protected RoamingBluetoothDevice(RoamingBridgeHandler roamingAdapter, BluetoothAddress address) {
         super(roamingAdapter, address);
+        this.advertisementPipeline = roamingAdapter.getAdvertisementPipeline();
     }
 
     public void addBluetoothDevice(BluetoothDevice device) {
@@ -115,7 +119,8 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
         @Override
         public void onScanRecordReceived(BluetoothScanNotification scanNotification) {
             if (device == getDelegate()) {
-                notifyListeners(BluetoothEventType.SCAN_RECORD, scanNotification);
+                advertisementPipeline.process(address, scanNotification,
+                        notification -> notifyListeners(BluetoothEventType.SCAN_RECORD, notification));
             }
         }
 
@@ -17,12 +17,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.bluetooth.BluetoothAdapter;
 import org.openhab.binding.bluetooth.BluetoothAddress;
+import org.openhab.binding.bluetooth.BluetoothAdvertisementPipeline;
 import org.openhab.binding.bluetooth.BluetoothBindingConstants;
 import org.openhab.binding.bluetooth.BluetoothDiscoveryListener;
 import org.openhab.core.thing.Bridge;
@@ -52,6 +55,9 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
     private Map<BluetoothAddress, RoamingBluetoothDevice> devices = new HashMap<>();
     private ThingUID[] groupUIDs = new ThingUID[0];
 
+    private final BluetoothAdvertisementPipeline advertisementPipeline = new BluetoothAdvertisementPipeline();
+    private @Nullable ScheduledFuture<?> advertisementFlushJob;
+
     public RoamingBridgeHandler(Bridge bridge) {
         super(bridge);
     }
@@ -66,6 +72,15 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
             groupUIDs = Stream.of(groupIds.split(",")).map(ThingUID::new).toArray(ThingUID[]::new);
         }
 
+        advertisementPipeline.configure(
+                TimeUnit.SECONDS.toMillis(
+                        getIntConfig(BluetoothBindingConstants.CONFIGURATION_ADVERTISEMENT_UPDATE_INTERVAL, 0)),
+                getIntConfig(BluetoothBindingConstants.CONFIGURATION_RSSI_SMOOTHING, 1));
+        if (advertisementPipeline.isBatching()) {
+            advertisementFlushJob = scheduler.scheduleWithFixedDelay(advertisementPipeline::flush, 1, 1,
+                    TimeUnit.SECONDS);
+        }
+
         if (adapters.stream().map(BluetoothAdapter::getUID).anyMatch(this::isGroupMember)) {
             updateStatus(ThingStatus.ONLINE);
         } else {
@@ -74,6 +89,21 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
         }
     }
 
+    private int getIntConfig(String name, int defaultValue) {
+        Object value = getConfig().get(name);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+        }
+        return defaultValue;
+    }
+
     private void updateStatus() {
         if (adapters.stream().anyMatch(this::isRoamingMember)) {
             updateStatus(ThingStatus.ONLINE);
@@ -85,8 +115,22 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
 
     @Override
     public void dispose() {
-        // nothing that needs to be done here.
-        // Listener cleanup will be performed by the discovery participant anyway.
+        // Listener cleanup will be performed by the discovery participant.
+        ScheduledFuture<?> advertisementFlushJob = this.advertisementFlushJob;
+        if (advertisementFlushJob != null) {
+            advertisementFlushJob.cancel(true);
+        }
+        this.advertisementFlushJob = null;
+        advertisementPipeline.clear();
+    }
+
+    /**
+     * Returns the pipeline the scan records of the roaming devices pass through
+     *
+     * @return the {@link BluetoothAdvertisementPipeline} of this adapter
+     */
+    public BluetoothAdvertisementPipeline getAdvertisementPipeline() {
+        return advertisementPipeline;
     }
 
     @Override
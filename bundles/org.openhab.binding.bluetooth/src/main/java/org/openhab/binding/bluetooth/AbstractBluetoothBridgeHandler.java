@@ -61,6 +61,11 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     private @Nullable ScheduledFuture<?> inactiveRemovalJob;
 
+    // Pipeline the scan records of the devices pass through
+    protected final BluetoothAdvertisementPipeline advertisementPipeline = new BluetoothAdvertisementPipeline();
+
+    private @Nullable ScheduledFuture<?> advertisementFlushJob;
+
     /**
      * Constructor
      *
@@ -92,6 +97,13 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         int intervalSecs = config.inactiveDeviceCleanupInterval;
         inactiveRemovalJob = scheduler.scheduleWithFixedDelay(this::removeInactiveDevices, intervalSecs, intervalSecs,
                 TimeUnit.SECONDS);
+
+        advertisementPipeline.configure(TimeUnit.SECONDS.toMillis(config.advertisementUpdateInterval),
+                config.rssiSmoothing);
+        if (advertisementPipeline.isBatching()) {
+            advertisementFlushJob = scheduler.scheduleWithFixedDelay(advertisementPipeline::flush, 1, 1,
+                    TimeUnit.SECONDS);
+        }
     }
 
     @Override
@@ -102,6 +114,13 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         }
         this.inactiveRemovalJob = null;
 
+        ScheduledFuture<?> advertisementFlushJob = this.advertisementFlushJob;
+        if (advertisementFlushJob != null) {
+            advertisementFlushJob.cancel(true);
+        }
+        this.advertisementFlushJob = null;
+        advertisementPipeline.clear();
+
         synchronized (devices) {
             for (BD device : devices.values()) {
                 removeDevice(device);
@@ -114,6 +133,8 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     }
 
     private void removeInactiveDevices() {
+        logger.debug("Advertisements received by adapter '{}': {} forwarded, {} dropped", getUID(),
+                advertisementPipeline.getForwardedCount(), advertisementPipeline.getDroppedCount());
         // clean up orphaned entries
         synchronized (devices) {
             for (BD device : devices.values()) {
@@ -130,6 +151,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         synchronized (devices) {
             devices.remove(device.getAddress());
         }
+        advertisementPipeline.removeDevice(device.getAddress());
         discoveryListeners.forEach(listener -> listener.deviceRemoved(device));
     }
 
@@ -187,12 +209,25 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     @Override
     public BD getDevice(BluetoothAddress address) {
         synchronized (devices) {
-            return Objects.requireNonNull(devices.computeIfAbsent(address, this::createDevice));
+            return Objects.requireNonNull(devices.computeIfAbsent(address, addr -> {
+                BD device = createDevice(addr);
+                device.setAdvertisementPipeline(advertisementPipeline);
+                return device;
+            }));
         }
     }
 
     protected abstract BD createDevice(BluetoothAddress address);
 
+    /**
+     * Returns the pipeline the scan records of the devices of this adapter pass through
+     *
+     * @return the {@link BluetoothAdvertisementPipeline} of this adapter
+     */
+    public BluetoothAdvertisementPipeline getAdvertisementPipeline() {
+        return advertisementPipeline;
+    }
+
     @Override
     public boolean hasHandlerForDevice(BluetoothAddress address) {
         String addrStr = address.toString();
@@ -22,6 +22,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +81,11 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
      */
     private final Set<BluetoothDeviceListener> eventListeners = new CopyOnWriteArraySet<>();
 
+    /**
+     * The pipeline of the adapter the scan records are passed through
+     */
+    private @Nullable BluetoothAdvertisementPipeline advertisementPipeline = null;
+
     /**
      * Construct a Bluetooth device taking the Bluetooth address
      *
@@ -108,6 +114,15 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
         lastSeenTime = ZonedDateTime.now();
     }
 
+    /**
+     * Sets the pipeline the scan records of this device are passed through before they are delivered to the listeners
+     *
+     * @param advertisementPipeline the pipeline of the adapter
+     */
+    public void setAdvertisementPipeline(BluetoothAdvertisementPipeline advertisementPipeline) {
+        this.advertisementPipeline = advertisementPipeline;
+    }
+
     /**
      * Returns the name of the Bluetooth device.
      *
@@ -262,6 +277,14 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
     protected void notifyListeners(BluetoothEventType event, Object... args) {
         switch (event) {
             case SCAN_RECORD:
+                updateLastSeenTime();
+                BluetoothAdvertisementPipeline pipeline = advertisementPipeline;
+                if (pipeline != null) {
+                    pipeline.process(address, (BluetoothScanNotification) args[0],
+                            notification -> super.notifyListeners(BluetoothEventType.SCAN_RECORD, notification));
+                    return;
+                }
+                break;
             case CHARACTERISTIC_UPDATED:
             case DESCRIPTOR_UPDATED:
             case SERVICES_DISCOVERED:
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+
+/**
+ * The {@link BluetoothAdvertisementPipeline} thins out the advertisements received by an adapter before they are
+ * delivered to the listeners of the devices.
+ * <p>
+ * Advertisements are tracked per device and per kind of payload, i.e. the manufacturer data of each manufacturer,
+ * the raw data, the name and plain RSSI updates. Within the minimum update interval of a kind of payload
+ * <ul>
+ * <li>an advertisement with the same payload as the last delivered one is dropped and</li>
+ * <li>an advertisement with a new payload is held back. When the interval has passed, the latest held back
+ * advertisement is delivered with the next batch, see {@link #flush()}.</li>
+ * </ul>
+ * The RSSI of the advertisements is smoothed with an exponential moving average before delivery.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BluetoothAdvertisementPipeline {
+
+    private static class PayloadState {
+        private boolean delivered = false;
+        private int hash;
+        private long lastDeliveryTime;
+        private @Nullable BluetoothScanNotification pending;
+        private int pendingHash;
+        private @Nullable Consumer<BluetoothScanNotification> pendingSink;
+    }
+
+    private static class DeviceState {
+        private double rssi = Double.NaN;
+        private final Map<Integer, PayloadState> payloads = new HashMap<>();
+    }
+
+    private final Map<BluetoothAddress, DeviceState> devices = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+    private final AtomicLong forwardedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile long minUpdateIntervalNanos = 0;
+    private volatile int rssiSmoothing = 1;
+
+    public BluetoothAdvertisementPipeline() {
+        this(System::nanoTime);
+    }
+
+    BluetoothAdvertisementPipeline(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Configures the pipeline. With the defaults all advertisements are delivered unchanged.
+     *
+     * @param minUpdateIntervalMillis minimum interval between delivered advertisements of the same kind of a device, or
+     *            zero to deliver all advertisements
+     * @param rssiSmoothing number of advertisements the RSSI is averaged over, or 1 to deliver the RSSI unchanged
+     */
+    public void configure(long minUpdateIntervalMillis, int rssiSmoothing) {
+        this.minUpdateIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minUpdateIntervalMillis));
+        this.rssiSmoothing = Math.max(1, rssiSmoothing);
+        clear();
+    }
+
+    /**
+     * @return true if advertisements are held back for the next batch, and {@link #flush()} should be called
+     *         periodically
+     */
+    public boolean isBatching() {
+        return minUpdateIntervalNanos > 0;
+    }
+
+    /**
+     * Processes an advertisement of a device
+     *
+     * @param address the address of the device
+     * @param notification the advertisement
+     * @param sink delivers the advertisement to the listeners of the device
+     */
+    public void process(BluetoothAddress address, BluetoothScanNotification notification,
+            Consumer<BluetoothScanNotification> sink) {
+        long minUpdateIntervalNanos = this.minUpdateIntervalNanos;
+        int rssiSmoothing = this.rssiSmoothing;
+        if (minUpdateIntervalNanos == 0 && rssiSmoothing == 1) {
+            forwardedCount.incrementAndGet();
+            sink.accept(notification);
+            return;
+        }
+
+        DeviceState device = devices.computeIfAbsent(address, addr -> new DeviceState());
+        boolean deliver;
+        synchronized (device) {
+            int rssi = notification.getRssi();
+            if (rssi != Integer.MIN_VALUE) {
+                device.rssi = Double.isNaN(device.rssi) ? rssi : device.rssi + (rssi - device.rssi) / rssiSmoothing;
+                notification.setRssi((int) Math.round(device.rssi));
+            }
+            if (minUpdateIntervalNanos == 0) {
+                deliver = true;
+            } else {
+                PayloadState payload = device.payloads.computeIfAbsent(payloadKind(notification),
+                        kind -> new PayloadState());
+                int hash = payloadHash(notification);
+                long now = nanoTime.getAsLong();
+                if (payload.pending != null) {
+                    // superseded by this advertisement
+                    payload.pending = null;
+                    payload.pendingSink = null;
+                    droppedCount.incrementAndGet();
+                }
+                if (!payload.delivered || now - payload.lastDeliveryTime >= minUpdateIntervalNanos) {
+                    payload.delivered = true;
+                    payload.hash = hash;
+                    payload.lastDeliveryTime = now;
+                    deliver = true;
+                } else if (hash != payload.hash) {
+                    payload.pending = notification;
+                    payload.pendingHash = hash;
+                    payload.pendingSink = sink;
+                    deliver = false;
+                } else {
+                    droppedCount.incrementAndGet();
+                    deliver = false;
+                }
+            }
+        }
+        if (deliver) {
+            forwardedCount.incrementAndGet();
+            sink.accept(notification);
+        }
+    }
+
+    /**
+     * Delivers the held back advertisements whose minimum update interval has passed
+     */
+    public void flush() {
+        long now = nanoTime.getAsLong();
+        long minUpdateIntervalNanos = this.minUpdateIntervalNanos;
+        List<BluetoothScanNotification> batch = new ArrayList<>();
+        List<Consumer<BluetoothScanNotification>> sinks = new ArrayList<>();
+        for (DeviceState device : devices.values()) {
+            synchronized (device) {
+                for (PayloadState payload : device.payloads.values()) {
+                    BluetoothScanNotification pending = payload.pending;
+                    Consumer<BluetoothScanNotification> pendingSink = payload.pendingSink;
+                    if (pending != null && pendingSink != null
+                            && now - payload.lastDeliveryTime >= minUpdateIntervalNanos) {
+                        payload.hash = payload.pendingHash;
+                        payload.lastDeliveryTime = now;
+                        payload.pending = null;
+                        payload.pendingSink = null;
+                        batch.add(pending);
+                        sinks.add(pendingSink);
+                    }
+                }
+            }
+        }
+        forwardedCount.addAndGet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            sinks.get(i).accept(batch.get(i));
+        }
+    }
+
+    /**
+     * Forgets the state of a device, e.g. when it has been removed from the adapter
+     *
+     * @param address the address of the device
+     */
+    public void removeDevice(BluetoothAddress address) {
+        devices.remove(address);
+    }
+
+    /**
+     * Forgets the state of all devices. Held back advertisements are not delivered.
+     */
+    public void clear() {
+        devices.clear();
+    }
+
+    /**
+     * @return number of advertisements delivered to the listeners
+     */
+    public long getForwardedCount() {
+        return forwardedCount.get();
+    }
+
+    /**
+     * @return number of advertisements dropped as duplicates or superseded by a newer advertisement
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private static int payloadKind(BluetoothScanNotification notification) {
+        int kind;
+        byte[] manufacturerData = notification.getManufacturerData();
+        if (manufacturerData != null && manufacturerData.length >= 2) {
+            kind = 0x10000 | (manufacturerData[0] & 0xFF) | (manufacturerData[1] & 0xFF) << 8;
+        } else if (notification.getData() != null) {
+            kind = 1;
+        } else if (!notification.getDeviceName().isEmpty()) {
+            kind = 2;
+        } else {
+            kind = 0;
+        }
+        return kind | notification.getBeaconType().ordinal() << 20;
+    }
+
+    private static int payloadHash(BluetoothScanNotification notification) {
+        int hash = Arrays.hashCode(notification.getManufacturerData());
+        hash = 31 * hash + Arrays.hashCode(notification.getData());
+        return 31 * hash + notification.getDeviceName().hashCode();
+    }
+}
@@ -43,6 +43,8 @@ public class BluetoothBindingConstants {
 
     public static final String CONFIGURATION_ADDRESS = "address";
     public static final String CONFIGURATION_DISCOVERY = "backgroundDiscovery";
+    public static final String CONFIGURATION_ADVERTISEMENT_UPDATE_INTERVAL = "advertisementUpdateInterval";
+    public static final String CONFIGURATION_RSSI_SMOOTHING = "rssiSmoothing";
 
     public static final long BLUETOOTH_BASE_UUID = 0x800000805f9b34fbL;
 
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+
+/**
+ * Tests {@link BluetoothAdvertisementPipeline}.
+ *
+ * @author agent - Initial contribution
+ */
+class BluetoothAdvertisementPipelineTest {
+
+    private long now = 0;
+    private BluetoothAdvertisementPipeline pipeline;
+    private List<BluetoothScanNotification> delivered;
+    private BluetoothAddress address;
+
+    @BeforeEach
+    public void setUp() {
+        pipeline = new BluetoothAdvertisementPipeline(() -> now);
+        delivered = new ArrayList<>();
+        address = TestUtils.randomAddress();
+    }
+
+    private static BluetoothScanNotification advertisement(int rssi, int manufacturerId, int value) {
+        BluetoothScanNotification notification = new BluetoothScanNotification();
+        notification.setRssi(rssi);
+        notification.setManufacturerData(new byte[] { (byte) manufacturerId, 0, (byte) value });
+        return notification;
+    }
+
+    private void process(BluetoothScanNotification notification) {
+        pipeline.process(address, notification, delivered::add);
+    }
+
+    private void advance(long seconds) {
+        now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    public void testDefaultsDeliverEverything() {
+        BluetoothScanNotification first = advertisement(-60, 0x4c, 1);
+        BluetoothScanNotification second = advertisement(-70, 0x4c, 1);
+        process(first);
+        process(second);
+
+        assertFalse(pipeline.isBatching());
+        assertEquals(List.of(first, second), delivered);
+        assertEquals(-70, second.getRssi());
+        assertEquals(2, pipeline.getForwardedCount());
+        assertEquals(0, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void testDuplicatesDropped() {
+        pipeline.configure(10000, 1);
+        process(advertisement(-60, 0x4c, 1));
+        process(advertisement(-61, 0x4c, 1));
+        advance(5);
+        process(advertisement(-62, 0x4c, 1));
+        pipeline.flush();
+
+        assertTrue(pipeline.isBatching());
+        assertEquals(1, delivered.size());
+        assertEquals(1, pipeline.getForwardedCount());
+        assertEquals(2, pipeline.getDroppedCount());
+
+        advance(5);
+        process(advertisement(-63, 0x4c, 1));
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void testChangedPayloadDeliveredWithNextBatch() {
+        pipeline.configure(10000, 1);
+        process(advertisement(-60, 0x4c, 1));
+        advance(2);
+        process(advertisement(-60, 0x4c, 2));
+        BluetoothScanNotification latest = advertisement(-60, 0x4c, 3);
+        process(latest);
+
+        pipeline.flush();
+        assertEquals(1, delivered.size());
+
+        advance(8);
+        pipeline.flush();
+        assertEquals(2, delivered.size());
+        assertSame(latest, delivered.get(1));
+        assertEquals(2, pipeline.getForwardedCount());
+        assertEquals(1, pipeline.getDroppedCount());
+
+        pipeline.flush();
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void testKindsOfPayloadLimitedSeparately() {
+        pipeline.configure(10000, 1);
+        process(advertisement(-60, 0x4c, 1));
+        process(advertisement(-60, 0x59, 1));
+        BluetoothScanNotification named = new BluetoothScanNotification();
+        named.setDeviceName("sensor");
+        process(named);
+
+        assertEquals(3, delivered.size());
+        assertEquals(0, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void testDevicesLimitedSeparately() {
+        pipeline.configure(10000, 1);
+        process(advertisement(-60, 0x4c, 1));
+        pipeline.process(TestUtils.randomAddress(), advertisement(-60, 0x4c, 1), delivered::add);
+
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void testRssiSmoothing() {
+        pipeline.configure(0, 4);
+        BluetoothScanNotification first = advertisement(-60, 0x4c, 1);
+        BluetoothScanNotification second = advertisement(-80, 0x4c, 1);
+        process(first);
+        process(second);
+
+        assertEquals(2, delivered.size());
+        assertEquals(-60, first.getRssi());
+        assertEquals(-65, second.getRssi());
+    }
+
+    @Test
+    public void testRemovedDeviceStartsOver() {
+        pipeline.configure(10000, 1);
+        process(advertisement(-60, 0x4c, 1));
+        pipeline.removeDevice(address);
+        process(advertisement(-60, 0x4c, 1));
+
+        assertEquals(2, delivered.size());
+    }
+}
@@ -12,9 +12,10 @@
  */
 package org.openhab.binding.deconz.internal.netutils;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -33,6 +34,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * Establishes and keeps a websocket connection to the deCONZ software.
@@ -53,6 +56,7 @@ public class WebSocketConnection {
 
     private final WebSocketConnectionListener connectionListener;
     private final Map<String, WebSocketMessageListener> listeners = new ConcurrentHashMap<>();
+    private final Map<String, String> lastStateMessages = new ConcurrentHashMap<>();
 
     private ConnectionState connectionState = ConnectionState.DISCONNECTED;
     private @Nullable Session session;
@@ -95,11 +99,15 @@ public class WebSocketConnection {
     }
 
     public void registerListener(ResourceType resourceType, String sensorID, WebSocketMessageListener listener) {
-        listeners.put(getListenerId(resourceType, sensorID), listener);
+        String listenerId = getListenerId(resourceType, sensorID);
+        listeners.put(listenerId, listener);
+        lastStateMessages.remove(listenerId);
     }
 
     public void unregisterListener(ResourceType resourceType, String sensorID) {
-        listeners.remove(getListenerId(resourceType, sensorID));
+        String listenerId = getListenerId(resourceType, sensorID);
+        listeners.remove(listenerId);
+        lastStateMessages.remove(listenerId);
     }
 
     @SuppressWarnings("unused")
@@ -108,6 +116,7 @@ public class WebSocketConnection {
         connectionState = ConnectionState.CONNECTED;
         logger.debug("{} successfully connected to {}: {}", socketName, session.getRemoteAddress().getAddress(),
                 session.hashCode());
+        lastStateMessages.clear();
         connectionListener.connectionEstablished();
         this.session = session;
     }
@@ -122,34 +131,40 @@ public class WebSocketConnection {
         logger.trace("{} received raw data: {}", socketName, message);
 
         try {
-            DeconzBaseMessage changedMessage = Objects.requireNonNull(gson.fromJson(message, DeconzBaseMessage.class));
-            if (changedMessage.r == ResourceType.UNKNOWN) {
+            MessageHeader header = scanHeader(message);
+            if (header.resourceType == ResourceType.UNKNOWN) {
                 logger.trace("Received message has unknown resource type. Skipping message.");
                 return;
             }
 
-            WebSocketMessageListener listener = listeners.get(getListenerId(changedMessage.r, changedMessage.id));
+            String listenerId = getListenerId(header.resourceType, header.id);
+            WebSocketMessageListener listener = listeners.get(listenerId);
             if (listener == null) {
                 logger.debug(
                         "Couldn't find listener for id {} with resource type {}. Either no thing for this id has been defined or this is a bug.",
-                        changedMessage.id, changedMessage.r);
+                        header.id, header.resourceType);
                 return;
             }
 
-            Class<? extends DeconzBaseMessage> expectedMessageType = changedMessage.r.getExpectedMessageType();
+            if (header.hasState && message.equals(lastStateMessages.put(listenerId, message))) {
+                logger.trace("Received message is identical to the last state of {}. Skipping message.", listenerId);
+                return;
+            }
+
+            Class<? extends DeconzBaseMessage> expectedMessageType = header.resourceType.getExpectedMessageType();
             if (expectedMessageType == null) {
                 logger.warn(
                         "BUG! Could not get expected message type for resource type {}. Please report this incident.",
-                        changedMessage.r);
+                        header.resourceType);
                 return;
             }
 
             DeconzBaseMessage deconzMessage = gson.fromJson(message, expectedMessageType);
             if (deconzMessage != null) {
-                listener.messageReceived(changedMessage.id, deconzMessage);
+                listener.messageReceived(header.id, deconzMessage);
 
             }
-        } catch (RuntimeException e) {
+        } catch (RuntimeException | IOException e) {
             // we need to catch all processing exceptions, otherwise they could affect the connection
             logger.warn("{} encountered an error while processing the message {}: {}", socketName, message,
                     e.getMessage());
@@ -213,6 +228,60 @@ public class WebSocketConnection {
         return resourceType.name() + "$" + id;
     }
 
+    /**
+     * read the routing information of a message without parsing the whole message
+     *
+     * only the top-level members are scanned, all other values are skipped without creating objects
+     *
+     * @param message the raw message
+     * @return the resource type, id and whether the message contains a state
+     * @throws IOException if the message is not a valid JSON object
+     */
+    private MessageHeader scanHeader(String message) throws IOException {
+        MessageHeader header = new MessageHeader();
+        try (JsonReader reader = new JsonReader(new StringReader(message))) {
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "r":
+                        header.resourceType = ResourceType.fromString(reader.nextString());
+                        break;
+                    case "id":
+                        header.id = reader.nextString();
+                        break;
+                    case "e":
+                        header.changed = "changed".equals(reader.nextString());
+                        break;
+                    case "state":
+                        header.hasState = true;
+                        reader.skipValue();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+        }
+        header.hasState &= header.changed;
+        return header;
+    }
+
+    /**
+     * used internally to route a message to its listener
+     */
+    private static class MessageHeader {
+        ResourceType resourceType = ResourceType.UNKNOWN;
+        String id = "";
+        boolean changed;
+        boolean hasState;
+    }
+
     /**
      * used internally to represent the connection state
      */
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.deconz;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openhab.binding.deconz.internal.dto.DeconzBaseMessage;
+import org.openhab.binding.deconz.internal.dto.GroupMessage;
+import org.openhab.binding.deconz.internal.dto.LightMessage;
+import org.openhab.binding.deconz.internal.dto.SensorMessage;
+import org.openhab.binding.deconz.internal.netutils.WebSocketConnection;
+import org.openhab.binding.deconz.internal.netutils.WebSocketConnectionListener;
+import org.openhab.binding.deconz.internal.netutils.WebSocketMessageListener;
+import org.openhab.binding.deconz.internal.types.*;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * This class provides tests for the deconz websocket message processing, using recorded websocket traffic
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@NonNullByDefault
+public class WebSocketConnectionTest {
+    private @NonNullByDefault({}) WebSocketConnection connection;
+    private @NonNullByDefault({}) List<String> recordedMessages;
+    private final List<DeconzBaseMessage> receivedMessages = new ArrayList<>();
+
+    private @Mock @NonNullByDefault({}) WebSocketClient client;
+    private @Mock @NonNullByDefault({}) WebSocketConnectionListener connectionListener;
+    private @Mock @NonNullByDefault({}) Session session;
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        gsonBuilder.registerTypeAdapter(LightType.class, new LightTypeDeserializer());
+        gsonBuilder.registerTypeAdapter(GroupType.class, new GroupTypeDeserializer());
+        gsonBuilder.registerTypeAdapter(ResourceType.class, new ResourceTypeDeserializer());
+        gsonBuilder.registerTypeAdapter(ThermostatMode.class, new ThermostatModeGsonTypeAdapter());
+        Gson gson = gsonBuilder.create();
+
+        Mockito.doAnswer(answer -> new InetSocketAddress("127.0.0.1", 8088)).when(session).getRemoteAddress();
+
+        connection = new WebSocketConnection(connectionListener, client, gson);
+        connection.onConnect(session);
+
+        WebSocketMessageListener listener = (sensorID, message) -> receivedMessages.add(message);
+        connection.registerListener(ResourceType.SENSORS, "5", listener);
+        connection.registerListener(ResourceType.SENSORS, "8", listener);
+        connection.registerListener(ResourceType.LIGHTS, "1", listener);
+        connection.registerListener(ResourceType.LIGHTS, "2", listener);
+        connection.registerListener(ResourceType.GROUPS, "1", listener);
+
+        try (InputStream inputStream = WebSocketConnectionTest.class.getResourceAsStream("websocket.txt")) {
+            if (inputStream == null) {
+                throw new IOException("inputstream is null");
+            }
+            String traffic = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            recordedMessages = traffic.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void messageRoutingTest() {
+        recordedMessages.forEach(message -> connection.onMessage(session, message));
+
+        // messages without listener, unknown resource types and repeated states are dropped
+        assertEquals(11, receivedMessages.size());
+        assertEquals(5, receivedMessages.stream().filter(m -> m instanceof SensorMessage).count());
+        assertEquals(5, receivedMessages.stream().filter(m -> m instanceof LightMessage).count());
+        assertEquals(1, receivedMessages.stream().filter(m -> m instanceof GroupMessage).count());
+
+        SensorMessage sensorMessage = (SensorMessage) receivedMessages.get(0);
+        assertEquals("5", sensorMessage.id);
+        assertEquals(ResourceType.SENSORS, sensorMessage.r);
+        assertNotNull(sensorMessage.state);
+        assertEquals(2150f, sensorMessage.state.temperature);
+
+        LightMessage lightMessage = (LightMessage) receivedMessages.get(5);
+        assertEquals("2", lightMessage.id);
+        assertNotNull(lightMessage.state);
+        assertEquals(Boolean.FALSE, lightMessage.state.on);
+    }
+
+    @Test
+    public void repeatedStateTest() {
+        String message = recordedMessages.get(4);
+        connection.onMessage(session, message);
+        connection.onMessage(session, message);
+        assertEquals(1, receivedMessages.size());
+
+        // a re-registered listener and a new connection need the current state again
+        connection.registerListener(ResourceType.LIGHTS, "1", (sensorID, m) -> receivedMessages.add(m));
+        connection.onMessage(session, message);
+        assertEquals(2, receivedMessages.size());
+
+        connection.onConnect(session);
+        connection.onMessage(session, message);
+        assertEquals(3, receivedMessages.size());
+    }
+
+    @Test
+    public void invalidMessageTest() {
+        connection.onMessage(session, "[1, 2, 3]");
+        connection.onMessage(session, "{\"e\":\"changed\",\"id\":\"5\",\"r\":\"sensors\",\"state\":");
+        assertTrue(receivedMessages.isEmpty());
+    }
+
+    @Test
+    public void replayRecordedTrafficTest() {
+        // replays the recorded traffic as a mesh with chatty sensors would send it, can be used for profiling
+        for (int i = 0; i < 1000; i++) {
+            recordedMessages.forEach(message -> connection.onMessage(session, message));
+        }
+
+        // after the first round the repeated light and group states are not delivered anymore
+        assertEquals(11 + 999 * 8, receivedMessages.size());
+    }
+}
@@ -22,6 +22,7 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -70,8 +71,10 @@ public class SmartyDecrypter implements TelegramParser {
     private final Logger logger = LoggerFactory.getLogger(SmartyDecrypter.class);
     private final ByteBuffer iv = ByteBuffer.allocate(IV_BUFFER_LENGTH);
     private final ByteBuffer cipherText = ByteBuffer.allocate(MESSAGES_BUFFER_SIZE);
+    private final byte[] plainText = new byte[MESSAGES_BUFFER_SIZE];
     private final TelegramParser parser;
     private @Nullable final SecretKeySpec secretKeySpec;
+    private @Nullable Cipher cipher;
 
     private State state = State.WAITING_FOR_START_BYTE;
     private int currentBytePosition;
@@ -187,36 +190,43 @@ public class SmartyDecrypter implements TelegramParser {
     }
 
     private void processCompleted() {
-        final byte[] plainText = decrypt();
+        final int plainTextLength = decrypt();
 
         reset();
-        if (plainText == null) {
+        if (plainTextLength < 0) {
             telegramListener
                     .telegramReceived(new P1Telegram(Collections.emptyList(), TelegramState.INVALID_ENCRYPTION_KEY));
         } else {
-            parser.parse(plainText, plainText.length);
+            parser.parse(plainText, plainTextLength);
         }
     }
 
     /**
-     * Decrypts the collected message.
+     * Decrypts the collected message into the plain text buffer. The cipher is created once and initialized for each
+     * message with the iv of the message.
      *
-     * @return the decrypted message
+     * @return the length of the decrypted message or -1 if decrypting failed
      */
-    private byte @Nullable [] decrypt() {
+    private int decrypt() {
         try {
             if (secretKeySpec != null) {
-                final Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+                Cipher cipher = this.cipher;
+
+                if (cipher == null) {
+                    cipher = Cipher.getInstance("AES/GCM/NoPadding");
+                    this.cipher = cipher;
+                }
                 cipher.init(Cipher.DECRYPT_MODE, secretKeySpec,
                         new GCMParameterSpec(GCM_BITS, iv.array(), 0, ivLength));
                 cipher.updateAAD(ADD_DECODED);
-                return cipher.doFinal(cipherText.array(), 0, cipherText.position());
+                return cipher.doFinal(cipherText.array(), 0, cipherText.position(), plainText, 0);
             }
         } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException
-                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
+                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException
+                | ShortBufferException e) {
             logger.warn("Decrypting smarty telegram failed: ", e);
         }
-        return null;
+        return -1;
     }
 
     @Override
@@ -33,19 +33,19 @@ public class CosemObjectFactory {
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
     /**
-     * Lookup cache for fixed OBIS Identifiers
+     * Lookup cache for fixed OBIS Identifiers, by the key of the OBIS Identifier
      */
-    private final Map<OBISIdentifier, CosemObjectType> obisLookupTableFixed = new HashMap<>();
+    private final Map<Long, CosemObjectType> obisLookupTableFixed = new HashMap<>();
 
     /**
      * Lookup cache for fixed OBIS Identifiers that has the same id for different data types
      */
-    private final Map<OBISIdentifier, List<CosemObjectType>> obisLookupTableMultipleFixed = new HashMap<>();
+    private final Map<Long, List<CosemObjectType>> obisLookupTableMultipleFixed = new HashMap<>();
 
     /**
      * Lookup cache for dynamic OBIS Identifiers
      */
-    private final Map<OBISIdentifier, CosemObjectType> obisLookupTableDynamic = new HashMap<>();
+    private final Map<Long, CosemObjectType> obisLookupTableDynamic = new HashMap<>();
 
     /**
      * Lookup cache for wild card Cosem Object types
@@ -70,14 +70,18 @@ public class CosemObjectFactory {
          *
          * To facilitate autodiscovery the list has all supported CosemObjectTypes. To improve performance once the
          * correct OBISIdentifier is discovered for a certain OBISMsgType this is added to the obisLookupTableDynamic.
+         *
+         * The lookup tables are keyed by the key of the OBISIdentifier (see OBISIdentifier.getKey()), so a lookup
+         * doesn't need to construct OBISIdentifier objects.
          */
         for (CosemObjectType msgType : CosemObjectType.values()) {
             if (msgType.obisId.reducedOBISIdentifierIsWildCard()) {
                 obisWildcardCosemTypeList.add(msgType);
             } else if (msgType.obisId.isConflict()) {
-                obisLookupTableMultipleFixed.computeIfAbsent(msgType.obisId, r -> new ArrayList<>()).add(msgType);
+                obisLookupTableMultipleFixed.computeIfAbsent(msgType.obisId.getKey(), r -> new ArrayList<>())
+                        .add(msgType);
             } else {
-                obisLookupTableFixed.put(msgType.obisId, msgType);
+                obisLookupTableFixed.put(msgType.obisId.getKey(), msgType);
             }
         }
     }
@@ -92,55 +96,73 @@ public class CosemObjectFactory {
      */
     public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
         OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-        OBISIdentifier reducedObisIdGroupE;
 
         try {
             obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
         } catch (final ParseException pe) {
             logger.debug("Received invalid OBIS identifier: {}", obisIdString);
             return null;
         }
+        return getCosemObject(obisId.getKey(), cosemStringValues);
+    }
+
+    /**
+     * Return Cosem Object from specified OBIS Identifier key or null if the values couldn't be parsed correctly or no
+     * corresponding Cosem Object was found
+     *
+     * @param obisKey key of the OBIS message identifier, see {@link OBISIdentifier#parseKey(byte[], int)}
+     * @param cosemStringValues String containing Cosem values
+     * @return CosemObject or null if parsing failed
+     */
+    public @Nullable CosemObject getCosemObject(long obisKey, String cosemStringValues) {
+        OBISIdentifier obisId;
+
+        try {
+            obisId = OBISIdentifier.fromKey(obisKey);
+        } catch (final ParseException pe) {
+            logger.debug("Received invalid OBIS identifier");
+            return null;
+        }
+        final Long reducedObisKey = OBISIdentifier.getReducedKey(obisKey);
 
-        logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
+        logger.trace("Received obisId: {}, values: {}", obisId, cosemStringValues);
 
-        CosemObjectType objectType = obisLookupTableFixed.get(reducedObisId);
+        CosemObjectType objectType = obisLookupTableFixed.get(reducedObisKey);
         if (objectType != null) {
-            logger.trace("Found obisId {} in the fixed lookup table", reducedObisId);
+            logger.trace("Found obisId {} in the fixed lookup table", obisId);
             return getCosemObjectInternal(objectType, obisId, cosemStringValues);
         }
 
-        List<CosemObjectType> objectTypeList = obisLookupTableMultipleFixed.get(reducedObisId);
+        List<CosemObjectType> objectTypeList = obisLookupTableMultipleFixed.get(reducedObisKey);
         if (objectTypeList != null) {
             for (CosemObjectType cosemObjectType : objectTypeList) {
                 CosemObject cosemObject = getCosemObjectInternal(cosemObjectType, obisId, cosemStringValues);
                 if (cosemObject != null) {
-                    logger.trace("Found obisId {} in the fixed lookup table", reducedObisId);
+                    logger.trace("Found obisId {} in the fixed lookup table", obisId);
                     return cosemObject;
                 }
             }
         }
 
-        objectType = obisLookupTableDynamic.get(reducedObisId);
+        objectType = obisLookupTableDynamic.get(reducedObisKey);
         if (objectType != null) {
-            logger.trace("Found obisId {} in the dynamic lookup table", reducedObisId);
+            logger.trace("Found obisId {} in the dynamic lookup table", obisId);
             return getCosemObjectInternal(objectType, obisId, cosemStringValues);
         }
 
-        objectType = obisLookupTableFixed.get(reducedObisIdGroupE);
+        objectType = obisLookupTableFixed.get(OBISIdentifier.getReducedKeyGroupE(obisKey));
         if (objectType != null) {
             return getCosemObjectInternal(objectType, obisId, cosemStringValues);
         }
 
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
         for (CosemObjectType obisMsgType : obisWildcardCosemTypeList) {
             if (obisMsgType.obisId.equalsWildCard(reducedObisId)) {
                 CosemObject cosemObject = getCosemObjectInternal(obisMsgType, obisId, cosemStringValues);
                 if (cosemObject != null) {
                     logger.trace("Searched reducedObisId {} in the wild card type list, result: {}", reducedObisId,
                             cosemObject);
-                    obisLookupTableDynamic.put(reducedObisId, obisMsgType);
+                    obisLookupTableDynamic.put(reducedObisKey, obisMsgType);
                     return cosemObject;
                 }
             }
@@ -14,8 +14,6 @@ package org.openhab.binding.dsmr.internal.device.cosem;
 
 import java.text.ParseException;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -29,14 +27,30 @@ import org.eclipse.jdt.annotation.Nullable;
 @NonNullByDefault
 public class OBISIdentifier {
     /**
-     * String representing a-b:c.d.e.f OBIS ID
+     * Key returned by {@link #parseKey(byte[], int)} if the data is not a valid OBIS ID
      */
-    private static final String OBISID_REGEX = "((\\d+)\\-)?((\\d+):)?((\\d+)\\.)(\\d+)(\\.(\\d+))?(.(\\d+))?";
+    public static final long INVALID_KEY = -1;
 
     /**
-     * OBIS ID pattern
+     * Number of bits of a group in the key of an OBIS ID
      */
-    private static final Pattern OBIS_ID_PATTERN = Pattern.compile(OBISID_REGEX);
+    private static final int GROUP_BITS = 10;
+
+    /**
+     * Value of a group in the key if the group is not present. The groups of an OBIS ID have values up to 255, so
+     * larger values are rejected when parsing
+     */
+    private static final int GROUP_ABSENT = (1 << GROUP_BITS) - 1;
+
+    /**
+     * Value of a group in the key if the group has a value that can't be parsed, like the negative values of
+     * {@link CosemObjectType#UNKNOWN}
+     */
+    private static final int GROUP_OUT_OF_RANGE = GROUP_ABSENT - 1;
+    private static final int GROUP_MAX_VALUE = GROUP_OUT_OF_RANGE - 1;
+
+    private static final long GROUP_F_MASK = GROUP_ABSENT;
+    private static final long GROUP_E_F_MASK = ((long) GROUP_ABSENT << GROUP_BITS) | GROUP_ABSENT;
 
     /* the six individual group values of the OBIS ID */
     private int groupA;
@@ -92,35 +106,200 @@ public class OBISIdentifier {
      * @throws ParseException if obisIDString is not a valid OBIS Identifier
      */
     public OBISIdentifier(String obisIDString) throws ParseException {
-        Matcher m = OBIS_ID_PATTERN.matcher(obisIDString);
+        this(parseKey(obisIDString));
+    }
 
-        if (m.matches()) {
-            // Optional value A
-            if (m.group(2) != null) {
-                this.groupA = Integer.parseInt(m.group(2));
-            }
+    /**
+     * Creates a new {@link OBISIdentifier} of the specified key
+     *
+     * @param key the key of the OBIS ID, see {@link #getKey()}
+     * @throws ParseException if the key is {@link #INVALID_KEY}
+     */
+    private OBISIdentifier(long key) throws ParseException {
+        if (key == INVALID_KEY) {
+            throw new ParseException("Invalid OBIS identifier key", 0);
+        }
+        this.groupA = group(key, 5);
+        this.groupB = optionalGroup(key, 4);
+        this.groupC = group(key, 3);
+        this.groupD = group(key, 2);
+        this.groupE = optionalGroup(key, 1);
+        this.groupF = optionalGroup(key, 0);
+    }
 
-            // Optional value B
-            if (m.group(4) != null) {
-                this.groupB = Integer.valueOf(m.group(4));
-            }
+    /**
+     * Creates a new {@link OBISIdentifier} of the specified key
+     *
+     * @param key the key of the OBIS ID, see {@link #getKey()}
+     * @return the OBIS Identifier
+     * @throws ParseException if the key is {@link #INVALID_KEY}
+     */
+    public static OBISIdentifier fromKey(long key) throws ParseException {
+        return new OBISIdentifier(key);
+    }
 
-            // Required value C & D
-            this.groupC = Integer.parseInt(m.group(6));
-            this.groupD = Integer.parseInt(m.group(7));
+    private static int group(long key, int index) {
+        int value = (int) (key >>> (index * GROUP_BITS)) & GROUP_ABSENT;
+        return value == GROUP_ABSENT ? 0 : value;
+    }
+
+    private static @Nullable Integer optionalGroup(long key, int index) {
+        int value = (int) (key >>> (index * GROUP_BITS)) & GROUP_ABSENT;
+        return value == GROUP_ABSENT ? null : value;
+    }
 
-            // Optional value E
-            if (m.group(9) != null) {
-                this.groupE = Integer.valueOf(m.group(9));
+    /**
+     * Parses an OBIS ID String to its key.
+     *
+     * @param obisIDString the OBIS String ID
+     * @return the key or {@link #INVALID_KEY} if the String is not a valid OBIS ID
+     * @throws ParseException if obisIDString is not a valid OBIS Identifier
+     */
+    private static long parseKey(String obisIDString) throws ParseException {
+        int length = obisIDString.length();
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char c = obisIDString.charAt(i);
+            data[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        long key = parseKey(data, length);
+        if (key == INVALID_KEY) {
+            throw new ParseException("Invalid OBIS identifier:" + obisIDString, 0);
+        }
+        return key;
+    }
+
+    /**
+     * Parses the bytes of an OBIS ID (A-B:C.D.E*F, where A, B, E and F are optional) to a key packing the groups in a
+     * long. Absent groups B, E and F are stored distinct from 0, an absent group A is stored as 0.
+     *
+     * @param data bytes containing the OBIS ID
+     * @param length number of bytes to parse
+     * @return the key or {@link #INVALID_KEY} if the data is not a valid OBIS ID
+     */
+    public static long parseKey(byte[] data, int length) {
+        int[] groups = { 0, GROUP_ABSENT, 0, 0, GROUP_ABSENT, GROUP_ABSENT };
+        int position = 0;
+
+        // a number followed by '-' is group A, followed by ':' group B, otherwise it is group C
+        int value = parseGroup(data, position, length);
+        if (value < 0) {
+            return INVALID_KEY;
+        }
+        position = skipDigits(data, position, length);
+        if (position < length && data[position] == '-') {
+            groups[0] = value;
+            value = parseGroup(data, ++position, length);
+            if (value < 0) {
+                return INVALID_KEY;
+            }
+            position = skipDigits(data, position, length);
+        }
+        if (position < length && data[position] == ':') {
+            groups[1] = value;
+            value = parseGroup(data, ++position, length);
+            if (value < 0) {
+                return INVALID_KEY;
             }
+            position = skipDigits(data, position, length);
+        }
+        // Required groups C & D
+        if (position >= length || data[position] != '.') {
+            return INVALID_KEY;
+        }
+        groups[2] = value;
+        value = parseGroup(data, ++position, length);
+        if (value < 0) {
+            return INVALID_KEY;
+        }
+        groups[3] = value;
+        position = skipDigits(data, position, length);
 
-            // Optional value F
-            if (m.group(11) != null) {
-                this.groupF = Integer.valueOf(m.group(11));
+        // Optional group E separated by a '.'
+        if (position < length && data[position] == '.' && parseGroup(data, position + 1, length) >= 0) {
+            groups[4] = parseGroup(data, ++position, length);
+            position = skipDigits(data, position, length);
+        }
+        // Optional group F separated by any character
+        if (position < length) {
+            value = parseGroup(data, ++position, length);
+            if (value < 0) {
+                return INVALID_KEY;
             }
-        } else {
-            throw new ParseException("Invalid OBIS identifier:" + obisIDString, 0);
+            groups[5] = value;
+            position = skipDigits(data, position, length);
+        }
+        if (position != length) {
+            return INVALID_KEY;
         }
+        return toKey(groups[0], groups[1], groups[2], groups[3], groups[4], groups[5]);
+    }
+
+    /**
+     * @return value of the decimal number at the given position, or -1 if there is no number or it is too large
+     */
+    private static int parseGroup(byte[] data, int position, int length) {
+        int value = -1;
+        for (int i = position; i < length && data[i] >= '0' && data[i] <= '9'; i++) {
+            value = (value < 0 ? 0 : value * 10) + (data[i] - '0');
+            if (value > GROUP_MAX_VALUE) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    private static int skipDigits(byte[] data, int position, int length) {
+        int i = position;
+        while (i < length && data[i] >= '0' && data[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static long toKey(int groupA, int groupB, int groupC, int groupD, int groupE, int groupF) {
+        return ((long) groupA << (5 * GROUP_BITS)) | ((long) groupB << (4 * GROUP_BITS))
+                | ((long) groupC << (3 * GROUP_BITS)) | ((long) groupD << (2 * GROUP_BITS))
+                | ((long) groupE << GROUP_BITS) | groupF;
+    }
+
+    private static int toKeyGroup(@Nullable Integer group) {
+        return group == null ? GROUP_ABSENT : toKeyGroup(group.intValue());
+    }
+
+    private static int toKeyGroup(int group) {
+        return group < 0 || group > GROUP_MAX_VALUE ? GROUP_OUT_OF_RANGE : group;
+    }
+
+    /**
+     * Returns the key of this OBIS Identifier, which packs all groups in a long. Two OBIS Identifiers are equal if
+     * their keys are equal.
+     *
+     * @return the key of this OBIS Identifier
+     */
+    public long getKey() {
+        return toKey(toKeyGroup(groupA), toKeyGroup(groupB), toKeyGroup(groupC), toKeyGroup(groupD),
+                toKeyGroup(groupE), toKeyGroup(groupF));
+    }
+
+    /**
+     * Returns the key of the reduced OBIS Identifier, see {@link #getReducedOBISIdentifier()}
+     *
+     * @param key the key of the OBIS Identifier
+     * @return the key with group F set to not applicable
+     */
+    public static long getReducedKey(long key) {
+        return key | GROUP_F_MASK;
+    }
+
+    /**
+     * Returns the key of the reduced OBIS Identifier, see {@link #getReducedOBISIdentifierGroupE()}
+     *
+     * @param key the key of the OBIS Identifier
+     * @return the key with group E and F set to not applicable
+     */
+    public static long getReducedKeyGroupE(long key) {
+        return key | GROUP_E_F_MASK;
     }
 
     public boolean isConflict() {
@@ -15,14 +15,15 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectFactory;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,9 +61,37 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal digits of the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int CRC_LENGTH = 4;
+
+    /**
+     * Buffer for the bytes of an element of the telegram. The buffer grows as needed and is reused for all telegrams.
+     */
+    private static class DataBuffer {
+        private byte[] data = new byte[64];
+        private int length;
+
+        void append(byte b) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, length * 2);
+            }
+            data[length++] = b;
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        boolean isEmpty() {
+            return length == 0;
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -71,12 +100,12 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private final DataBuffer obisId = new DataBuffer();
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder obisValue = new StringBuilder();
+    private final DataBuffer obisValue = new DataBuffer();
 
     /**
      * In lenient mode store raw data and log when a complete message is received.
@@ -84,9 +113,11 @@ public class P1TelegramParser implements TelegramParser {
     private final StringBuilder rawData = new StringBuilder();
 
     /**
-     * Current crc value read.
+     * Current crc value read, the number of characters read and whether all characters were valid
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+    private int crcValueLength;
+    private boolean crcValueValid = true;
 
     /**
      * CRC calculation helper
@@ -242,18 +273,17 @@ public class P1TelegramParser implements TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                        logger.trace("telegramState {}, crcValue to check {} digits", telegramState, crcValueLength);
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength > 0) {
+                            if (crcValueValid && crcValueLength == CRC_LENGTH) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcValue), String.format("%04X", calculatedCRC));
                                 }
-                                if (crcP1Telegram != calculatedCRC) {
+                                if (crcValue != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
 
                                     telegramState = TelegramState.CRC_ERROR;
@@ -324,22 +354,22 @@ public class P1TelegramParser implements TelegramParser {
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
+                obisId.append((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE:
-                obisValue.append(c);
+                obisValue.append((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE_END:
-                obisValue.append(c);
+                obisValue.append((byte) c);
                 crc.processByte((byte) c);
                 break;
             case CRC_VALUE:
                 if (c == '!') {
                     crc.processByte((byte) c);
                 } else {
-                    crcValue.append(c);
+                    handleCRCCharacter(c);
                 }
                 // CRC data is not part of received data
                 break;
@@ -348,14 +378,36 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    /**
+     * Adds a character of the CRC-code to the CRC value read. The CRC-code consists of uppercase hexadecimal digits.
+     *
+     * @param c the character to process
+     */
+    private void handleCRCCharacter(char c) {
+        int digit;
+
+        if (c >= '0' && c <= '9') {
+            digit = c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            digit = c - 'A' + 10;
+        } else {
+            digit = 0;
+            crcValueValid = false;
+        }
+        crcValue = (crcValue << 4 | digit) & 0xFFFF;
+        crcValueLength++;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisId.clear();
+        obisValue.clear();
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        crcValueValid = true;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
@@ -367,23 +419,27 @@ public class P1TelegramParser implements TelegramParser {
      * - current OBIS value
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisId.clear();
+        obisValue.clear();
     }
 
     /**
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
+        if (!obisId.isEmpty()) {
+            final long obisKey = OBISIdentifier.parseKey(obisId.data, obisId.length);
             final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+            CosemObject cosemObject = null;
 
+            if (obisKey == OBISIdentifier.INVALID_KEY) {
+                logger.debug("Received invalid OBIS identifier: {}", obisId);
+            } else {
+                cosemObject = factory.getCosemObject(obisKey, obisValueString);
+            }
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<>(obisId.toString(), obisValueString));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.cosem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test class for {@link OBISIdentifier}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class OBISIdentifierTest {
+
+    private static long parseKey(String obisIdString) {
+        byte[] data = obisIdString.getBytes(StandardCharsets.US_ASCII);
+
+        return OBISIdentifier.parseKey(data, data.length);
+    }
+
+    @Test
+    public void testParse() throws ParseException {
+        assertGroups(new OBISIdentifier("1-0:1.8.1"), 1, 0, 1, 8, 1, null);
+        assertGroups(new OBISIdentifier("0-1:24.2.1"), 0, 1, 24, 2, 1, null);
+        assertGroups(new OBISIdentifier("1-3:0.2.8"), 1, 3, 0, 2, 8, null);
+        assertGroups(new OBISIdentifier("0-0:96.13"), 0, 0, 96, 13, null, null);
+        assertGroups(new OBISIdentifier("1:1.8.1"), 0, 1, 1, 8, 1, null);
+        assertGroups(new OBISIdentifier("1-1.8"), 1, null, 1, 8, null, null);
+        assertGroups(new OBISIdentifier("1-0:1.8.1*255"), 1, 0, 1, 8, 1, 255);
+        assertGroups(new OBISIdentifier("1-0:1.8.1.2"), 1, 0, 1, 8, 1, 2);
+        assertGroups(new OBISIdentifier("1-0:1.8*2"), 1, 0, 1, 8, null, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "1", "1-0:1", "1-0:1.", "1-0:1.8.", "1-0:1.8.1*", "1-0:1.8x", "1-0:1.8.1*2*3",
+            "1-0:1.8.1 ", "a-0:1.8.1", "1-0:1.8.99999" })
+    public void testInvalid(String obisIdString) {
+        assertThrows(ParseException.class, () -> new OBISIdentifier(obisIdString));
+        assertEquals(OBISIdentifier.INVALID_KEY, parseKey(obisIdString));
+    }
+
+    @Test
+    public void testKeyRoundTrip() throws ParseException {
+        for (String obisIdString : new String[] { "1-0:1.8.1", "0-1:24.2.1", "0-0:96.13", "1-1.8", "1-0:1.8*2" }) {
+            OBISIdentifier obisId = new OBISIdentifier(obisIdString);
+            long key = parseKey(obisIdString);
+
+            assertEquals(obisId.getKey(), key);
+            assertEquals(obisId, OBISIdentifier.fromKey(key));
+        }
+    }
+
+    @Test
+    public void testReducedKeys() throws ParseException {
+        OBISIdentifier obisId = new OBISIdentifier("1-0:1.8.1*255");
+
+        assertEquals(obisId.getReducedOBISIdentifier().getKey(), OBISIdentifier.getReducedKey(obisId.getKey()));
+        assertEquals(obisId.getReducedOBISIdentifierGroupE().getKey(),
+                OBISIdentifier.getReducedKeyGroupE(obisId.getKey()));
+    }
+
+    @Test
+    public void testKeysOfCosemObjectTypesUnique() {
+        Set<Long> keys = new HashSet<>();
+
+        for (CosemObjectType type : CosemObjectType.values()) {
+            if (!type.obisId.reducedOBISIdentifierIsWildCard() && !type.obisId.isConflict()) {
+                assertTrue(keys.add(type.obisId.getKey()), "Duplicate key for " + type);
+            }
+        }
+        assertNotEquals(new OBISIdentifier(0, 0, 0, 0, 0, null).getKey(), CosemObjectType.UNKNOWN.obisId.getKey());
+    }
+
+    private static void assertGroups(OBISIdentifier obisId, int groupA, @Nullable Integer groupB, int groupC,
+            int groupD, @Nullable Integer groupE, @Nullable Integer groupF) {
+        assertEquals(groupA, obisId.getGroupA());
+        assertEquals(groupB, obisId.getGroupB());
+        assertEquals(groupC, obisId.getGroupC());
+        assertEquals(groupD, obisId.getGroupD());
+        assertEquals(groupE, obisId.getGroupE());
+        assertEquals(groupF, obisId.getGroupF());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.p1telegram;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the throughput of the {@link P1TelegramParser} on the recorded telegrams. The telegrams are parsed in
+ * chunks, like they are received from the serial port. The number of iterations can be set with the system property
+ * {@value #ITERATIONS_PROPERTY}, e.g. to profile the parser. By default only a few iterations are run to keep the build
+ * fast.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class P1TelegramParserBenchmarkTest {
+
+    private static final String ITERATIONS_PROPERTY = "dsmr.benchmark.iterations";
+    private static final int DEFAULT_ITERATIONS = 20;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int CHUNK_SIZE = 64;
+
+    private static final String[] TELEGRAMS = { "ace4000", "dsmr_40", "dsmr_42", "dsmr_50", "flu5", "Iskra_AM550",
+            "Landis_Gyr_E350", "Landis_Gyr_ZCF110", "Sagemcom_XS210", "smarty", "smarty_with_units" };
+
+    private final Logger logger = LoggerFactory.getLogger(P1TelegramParserBenchmarkTest.class);
+
+    @Test
+    public void testParsingThroughput() {
+        final List<byte[]> telegrams = new ArrayList<>();
+        long bytesPerIteration = 0;
+
+        for (String telegramName : TELEGRAMS) {
+            byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+
+            telegrams.add(telegram);
+            bytesPerIteration += telegram.length;
+        }
+        final List<P1Telegram> received = new ArrayList<>();
+        final P1TelegramParser parser = new P1TelegramParser(received::add);
+        final int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parseAll(parser, telegrams);
+        }
+        received.clear();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            parseAll(parser, telegrams);
+        }
+        final long duration = Math.max(1, System.nanoTime() - start);
+
+        assertEquals(iterations * telegrams.size(), received.size(), "Expected all telegrams to be parsed");
+        for (P1Telegram telegram : received) {
+            assertEquals(TelegramState.OK, telegram.getTelegramState());
+            assertFalse(telegram.getCosemObjects().isEmpty(), "Expected cosem objects in telegram");
+        }
+        logger.info("Parsed {} telegrams ({} bytes) in {} ms: {} telegrams/s", received.size(),
+                bytesPerIteration * iterations, TimeUnit.NANOSECONDS.toMillis(duration),
+                received.size() * TimeUnit.SECONDS.toNanos(1) / duration);
+    }
+
+    private static void parseAll(P1TelegramParser parser, List<byte[]> telegrams) {
+        final byte[] chunk = new byte[CHUNK_SIZE];
+
+        for (byte[] telegram : telegrams) {
+            for (int offset = 0; offset < telegram.length; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, telegram.length - offset);
+
+                System.arraycopy(telegram, offset, chunk, 0, length);
+                parser.parse(chunk, length);
+            }
+        }
+    }
+}
@@ -14,7 +14,11 @@ package org.openhab.binding.enocean.internal.eep;
 
 import static org.openhab.binding.enocean.internal.messages.ESP3Packet.*;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.binding.enocean.internal.eep.Base.UTEResponse;
 import org.openhab.binding.enocean.internal.eep.Base._4BSMessage;
@@ -39,27 +43,29 @@ public class EEPFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(EEPFactory.class);
 
+    private static final MethodType SENDING_CONSTRUCTOR_TYPE = MethodType.methodType(EEP.class);
+    private static final MethodType RECEIVING_CONSTRUCTOR_TYPE = MethodType.methodType(EEP.class, ERP1Message.class);
+
+    // constructors are looked up once per EEP type and invoked without reflection afterwards
+    private static final Map<EEPType, MethodHandle> sendingConstructors = new ConcurrentHashMap<>();
+    private static final Map<EEPType, MethodHandle> receivingConstructors = new ConcurrentHashMap<>();
+
     public static EEP createEEP(EEPType eepType) {
+        MethodHandle constructor = sendingConstructors.computeIfAbsent(eepType,
+                t -> findConstructor(t, SENDING_CONSTRUCTOR_TYPE));
         try {
-            Class<? extends EEP> cl = eepType.getEEPClass();
-            if (cl == null) {
-                throw new IllegalArgumentException("Message " + eepType + " not implemented");
-            }
-            return cl.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
+            return (EEP) constructor.invokeExact();
+        } catch (Throwable e) {
             throw new IllegalArgumentException(e);
         }
     }
 
     public static EEP buildEEP(EEPType eepType, ERP1Message packet) {
         try {
-            Class<? extends EEP> cl = eepType.getEEPClass();
-            if (cl == null) {
-                throw new IllegalArgumentException("Message " + eepType + " not implemented");
-            }
-            return cl.getConstructor(ERP1Message.class).newInstance(packet);
-        } catch (IllegalAccessException | InstantiationException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
+            MethodHandle constructor = receivingConstructors.computeIfAbsent(eepType,
+                    t -> findConstructor(t, RECEIVING_CONSTRUCTOR_TYPE));
+            return (EEP) constructor.invokeExact(packet);
+        } catch (Throwable e) {
             logger.error("Cannot instantiate EEP {}-{}-{}: {}",
                     HexUtils.bytesToHex(new byte[] { eepType.getRORG().getValue() }),
                     HexUtils.bytesToHex(new byte[] { (byte) eepType.getFunc() }),
@@ -69,6 +75,18 @@ public class EEPFactory {
         }
     }
 
+    private static MethodHandle findConstructor(EEPType eepType, MethodType type) {
+        Class<? extends EEP> cl = eepType.getEEPClass();
+        if (cl == null) {
+            throw new IllegalArgumentException("Message " + eepType + " not implemented");
+        }
+        try {
+            return MethodHandles.publicLookup().findConstructor(cl, type.changeReturnType(void.class)).asType(type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     public static EEP buildEEPFromTeachInERP1(ERP1Message msg) {
         if (!msg.getIsTeachIn() && !(msg.getRORG() == RORG.RPS)) {
             return null;
@@ -49,6 +49,7 @@ import org.slf4j.LoggerFactory;
 public abstract class EnOceanTransceiver implements SerialPortEventListener {
 
     public static final int ENOCEAN_MAX_DATA = 65790;
+    private static final int READ_BUFFER_SIZE = 1024;
 
     // Thread management
     protected Future<?> readingTask = null;
@@ -246,17 +247,24 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
     }
 
     private void receivePackets() {
-        byte[] buffer = new byte[1];
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
 
         while (readingTask != null && !readingTask.isCancelled()) {
-            int bytesRead = read(buffer, 1);
+            // waits for the receive threshold or timeout and returns everything received so far
+            int bytesRead = read(buffer, buffer.length);
             if (bytesRead > 0) {
-                processMessage(buffer[0]);
+                processMessage(buffer, bytesRead);
             }
         }
     }
 
-    protected abstract void processMessage(byte firstByte);
+    /**
+     * Processes the received bytes, packets can span multiple calls.
+     *
+     * @param buffer received bytes
+     * @param length number of valid bytes in buffer
+     */
+    protected abstract void processMessage(byte[] buffer, int length);
 
     protected int read(byte[] buffer, int length) {
         try {
@@ -291,8 +299,7 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
                     }
                 }
 
-                long s = Long.parseLong(HexUtils.bytesToHex(senderId), 16);
-                HashSet<PacketListener> pl = listeners.get(s);
+                HashSet<PacketListener> pl = listeners.get(getSenderIdKey(senderId));
                 if (pl != null) {
                     pl.forEach(l -> l.packetReceived(msg));
                 }
@@ -302,6 +309,18 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
         }
     }
 
+    /**
+     * Converts a sender id into the key used for the listeners, which is the same value as the hex representation of
+     * the sender id parsed as long.
+     */
+    static long getSenderIdKey(byte[] senderId) {
+        long key = 0;
+        for (byte b : senderId) {
+            key = (key << 8) | (b & 0xFF);
+        }
+        return key;
+    }
+
     protected void handleResponse(Response response) throws IOException {
         if (currentRequest != null) {
             if (currentRequest.ResponseListener != null) {
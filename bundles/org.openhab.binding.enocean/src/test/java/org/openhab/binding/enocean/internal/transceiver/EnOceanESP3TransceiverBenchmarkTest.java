@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.enocean.internal.transceiver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.enocean.internal.transceiver.EnOceanESP3TransceiverTest.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.enocean.internal.messages.BasePacket;
+import org.openhab.binding.enocean.internal.messages.ERP1Message;
+import org.openhab.binding.enocean.internal.messages.Response;
+import org.openhab.core.util.HexUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays a stream of ESP3 frames through the {@link EnOceanESP3Transceiver}, once in reads of the size of the read
+ * buffer of the transceiver and once byte by byte, and measures the packet assembly throughput of both. The number of
+ * iterations can be set with the system property {@value #ITERATIONS_PROPERTY}, e.g. to profile the transceiver. By
+ * default only a few iterations are run to keep the build fast.
+ *
+ * @author agent - Initial contribution
+ */
+public class EnOceanESP3TransceiverBenchmarkTest {
+
+    private static final String ITERATIONS_PROPERTY = "enocean.benchmark.iterations";
+    private static final int DEFAULT_ITERATIONS = 20;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int REPETITIONS = 250;
+    // same size as the read buffer of the transceiver
+    private static final int BULK_READ_SIZE = 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(EnOceanESP3TransceiverBenchmarkTest.class);
+    private final List<Throwable> errors = new ArrayList<>();
+
+    private class ReplayTransceiver extends EnOceanESP3Transceiver {
+        private final List<String> packets = new ArrayList<>();
+        private final boolean recordPackets;
+        private int packetCount;
+
+        ReplayTransceiver(boolean recordPackets) {
+            super("", errors::add, null, null);
+            this.recordPackets = recordPackets;
+            readingTask = CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        protected void informListeners(ERP1Message msg) {
+            record(msg);
+        }
+
+        @Override
+        protected void handleResponse(Response response) {
+            record(response);
+        }
+
+        private void record(BasePacket packet) {
+            packetCount++;
+            if (recordPackets) {
+                packets.add(packet.getPacketType().name() + " " + HexUtils.bytesToHex(packet.getPayload()) + " "
+                        + HexUtils.bytesToHex(packet.getOptionalPayload()));
+            }
+        }
+    }
+
+    private static byte[] replayData() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < REPETITIONS; i++) {
+            for (String frame : new String[] { RPS_FRAME, FOUR_BS_FRAME, RESPONSE_FRAME, VLD_FRAME }) {
+                stream.writeBytes(HexUtils.hexToBytes(frame));
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private ReplayTransceiver replay(byte[] data, int readSize, boolean recordPackets) {
+        ReplayTransceiver transceiver = new ReplayTransceiver(recordPackets);
+        byte[] buffer = new byte[readSize];
+
+        for (int offset = 0; offset < data.length; offset += readSize) {
+            int length = Math.min(readSize, data.length - offset);
+
+            System.arraycopy(data, offset, buffer, 0, length);
+            transceiver.processMessage(buffer, length);
+        }
+        return transceiver;
+    }
+
+    @Test
+    public void testBulkReadsAssembleSamePackets() {
+        byte[] data = replayData();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < REPETITIONS; i++) {
+            expected.addAll(EXPECTED_PACKETS);
+        }
+
+        assertEquals(expected, replay(data, 1, true).packets);
+        assertEquals(expected, replay(data, BULK_READ_SIZE, true).packets);
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testReplayThroughput() {
+        byte[] data = replayData();
+        int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+
+        measureThroughput(data, BULK_READ_SIZE, iterations);
+        measureThroughput(data, 1, iterations);
+    }
+
+    private void measureThroughput(byte[] data, int readSize, int iterations) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            replay(data, readSize, false);
+        }
+        long packets = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            packets += replay(data, readSize, false).packetCount;
+        }
+        final long duration = Math.max(1, System.nanoTime() - start);
+
+        assertEquals((long) iterations * REPETITIONS * EXPECTED_PACKETS.size(), packets);
+        assertTrue(errors.isEmpty());
+        logger.info("Assembled {} packets ({} bytes) from reads of {} bytes in {} ms: {} packets/s", packets,
+                (long) data.length * iterations, readSize, TimeUnit.NANOSECONDS.toMillis(duration),
+                packets * TimeUnit.SECONDS.toNanos(1) / duration);
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.enocean.internal.transceiver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.enocean.internal.messages.ERP1Message;
+import org.openhab.binding.enocean.internal.messages.ESP3Packet;
+import org.openhab.binding.enocean.internal.messages.Response;
+import org.openhab.core.util.HexUtils;
+
+/**
+ * Tests for the ESP3 packet assembly of {@link EnOceanESP3Transceiver}, using frames as sent by an USB 300.
+ * Apart from data lengths above 255 bytes, the expected packets are the ones the byte wise parser of earlier versions
+ * returned for the same input.
+ *
+ * @author agent - Initial contribution
+ */
+public class EnOceanESP3TransceiverTest {
+
+    // RPS telegram of a rocker switch
+    static final String RPS_FRAME = "55000707017AF630FEF0F3A13001FFFFFFFF4A00A5";
+    // 4BS telegram of a temperature sensor
+    static final String FOUR_BS_FRAME = "55000A0701EBA500000A080180F5B20001FFFFFFFF3E003E";
+    // response to CO_RD_IDBASE
+    static final String RESPONSE_FRAME = "5500050102DB00FF8000000A3E";
+    // VLD telegram of an actuator
+    static final String VLD_FRAME = "550009070156D20160E0FEF0F3A10001FFFFFFFF520093";
+
+    static final List<String> EXPECTED_PACKETS = List.of("RADIO_ERP1 F630FEF0F3A130 01FFFFFFFF4A00",
+            "RADIO_ERP1 A500000A080180F5B200 01FFFFFFFF3E00", "RESPONSE 00FF800000 0A",
+            "RADIO_ERP1 D20160E0FEF0F3A100 01FFFFFFFF5200");
+
+    private final List<String> packets = new ArrayList<>();
+    private final List<Throwable> errors = new ArrayList<>();
+
+    private class RecordingTransceiver extends EnOceanESP3Transceiver {
+        RecordingTransceiver() {
+            super("", errors::add, null, null);
+            readingTask = CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        protected void informListeners(ERP1Message msg) {
+            record(msg.getPacketType().name(), msg.getPayload(), msg.getOptionalPayload());
+        }
+
+        @Override
+        protected void handleResponse(Response response) {
+            record(response.getPacketType().name(), response.getPayload(), response.getOptionalPayload());
+        }
+
+        private void record(String type, byte[] payload, byte[] optionalPayload) {
+            packets.add(type + " " + HexUtils.bytesToHex(payload) + " " + HexUtils.bytesToHex(optionalPayload));
+        }
+    }
+
+    private static byte[] capture(String... frames) {
+        return HexUtils.hexToBytes(String.join("", frames));
+    }
+
+    private void processInChunks(byte[] data, int chunkSize) {
+        RecordingTransceiver transceiver = new RecordingTransceiver();
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(data, offset, Math.min(offset + chunkSize, data.length));
+            transceiver.processMessage(chunk, chunk.length);
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    private static byte crc8(byte[] data) {
+        for (int crc = Byte.MIN_VALUE; crc <= Byte.MAX_VALUE; crc++) {
+            if (ESP3Packet.checkCRC8(data, data.length, (byte) crc)) {
+                return (byte) crc;
+            }
+        }
+        throw new IllegalStateException("No CRC8 found");
+    }
+
+    @Test
+    public void testBackToBackFramesInOneRead() {
+        processInChunks(capture(RPS_FRAME, FOUR_BS_FRAME, RESPONSE_FRAME, VLD_FRAME), 1024);
+
+        assertEquals(EXPECTED_PACKETS, packets);
+    }
+
+    @Test
+    public void testFramesSplitAcrossReads() {
+        byte[] data = capture(RPS_FRAME, FOUR_BS_FRAME, RESPONSE_FRAME, VLD_FRAME);
+        for (int chunkSize : new int[] { 1, 2, 3, 5, 6, 7, 13 }) {
+            packets.clear();
+            processInChunks(data, chunkSize);
+
+            assertEquals(EXPECTED_PACKETS, packets, "Chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testGarbageBeforeFirstFrameIsSkipped() {
+        processInChunks(capture("0055FF12", RPS_FRAME, FOUR_BS_FRAME, RESPONSE_FRAME, VLD_FRAME), 5);
+
+        assertEquals(EXPECTED_PACKETS, packets);
+    }
+
+    @Test
+    public void testBadHeaderCrcIsFollowedByResync() {
+        String badHeaderCrc = RPS_FRAME.substring(0, 10) + "7B" + RPS_FRAME.substring(12);
+        byte[] data = capture(badHeaderCrc, FOUR_BS_FRAME, RESPONSE_FRAME, VLD_FRAME);
+        for (int chunkSize : new int[] { 1, 4, 1024 }) {
+            packets.clear();
+            processInChunks(data, chunkSize);
+
+            assertEquals(EXPECTED_PACKETS.subList(1, 4), packets, "Chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testSyncByteInBadHeaderIsUsedForResync() {
+        // the header read after the cut off frame contains the sync byte of the next frame
+        String cutOffFrame = "5500";
+        processInChunks(capture(cutOffFrame, FOUR_BS_FRAME, RESPONSE_FRAME), 1024);
+
+        assertEquals(EXPECTED_PACKETS.subList(1, 3), packets);
+    }
+
+    @Test
+    public void testBadDataCrcDropsPacket() {
+        String badDataCrc = FOUR_BS_FRAME.substring(0, FOUR_BS_FRAME.length() - 2) + "3F";
+        byte[] data = capture(RPS_FRAME, badDataCrc, RESPONSE_FRAME, VLD_FRAME);
+        for (int chunkSize : new int[] { 1, 4, 1024 }) {
+            packets.clear();
+            processInChunks(data, chunkSize);
+
+            assertEquals(List.of(EXPECTED_PACKETS.get(0), EXPECTED_PACKETS.get(2), EXPECTED_PACKETS.get(3)), packets,
+                    "Chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testDataLengthAbove255() {
+        // earlier versions only used the low byte of the data length
+        byte[] payload = new byte[300];
+        for (int i = 1; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        byte[] header = { 0x01, 0x2C, 0x00, 0x02 };
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(ESP3Packet.ESP3_SYNC_BYTE);
+        frame.writeBytes(header);
+        frame.write(crc8(header));
+        frame.writeBytes(payload);
+        frame.write(crc8(payload));
+        frame.writeBytes(HexUtils.hexToBytes(RESPONSE_FRAME));
+        processInChunks(frame.toByteArray(), 64);
+
+        assertEquals(List.of("RESPONSE " + HexUtils.bytesToHex(payload) + " ", EXPECTED_PACKETS.get(2)), packets);
+    }
+}
@@ -12,9 +12,11 @@
  */
 package org.openhab.binding.exec.internal;
 
-import static org.openhab.binding.exec.internal.ExecBindingConstants.THING_COMMAND;
+import static org.openhab.binding.exec.internal.ExecBindingConstants.*;
 
+import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -27,6 +29,7 @@ import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,10 +46,22 @@ public class ExecHandlerFactory extends BaseThingHandlerFactory {
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_COMMAND);
     private final Logger logger = LoggerFactory.getLogger(ExecHandlerFactory.class);
     private final ExecWhitelistWatchService execWhitelistWatchService;
+    private final ExecProcessPool processPool = new ExecProcessPool();
 
     @Activate
-    public ExecHandlerFactory(@Reference ExecWhitelistWatchService execWhitelistWatchService) {
+    public ExecHandlerFactory(@Reference ExecWhitelistWatchService execWhitelistWatchService,
+            Map<String, Object> config) {
         this.execWhitelistWatchService = execWhitelistWatchService;
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        // all handlers share the pool, so a changed limit applies to all of them
+        Object value = config.getOrDefault(MAX_PROCESSES, ExecProcessPool.DEFAULT_MAX_PROCESSES);
+        int maxProcesses = new BigDecimal(value.toString()).intValue();
+        processPool.setMaxProcesses(maxProcesses);
+        logger.debug("Limiting the number of running processes to {}", maxProcesses);
     }
 
     @Override
@@ -59,7 +74,7 @@ public class ExecHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(THING_COMMAND)) {
-            return new ExecHandler(thing, execWhitelistWatchService);
+            return new ExecHandler(thing, execWhitelistWatchService, processPool);
         }
 
         return null;
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal;
+
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link ExecProcessPool} limits the number of processes that are started by all exec Things together.
+ * A process occupies a slot of the pool from its start until it exits, starting a process waits for a free slot.
+ * Persistent co-processes are not started through the pool, they would occupy a slot for as long as they run.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecProcessPool {
+    public static final int DEFAULT_MAX_PROCESSES = 0;
+
+    private int maxProcesses = DEFAULT_MAX_PROCESSES;
+    private int runningProcesses = 0;
+
+    /**
+     * Sets the maximum number of processes running at the same time.
+     *
+     * @param maxProcesses the maximum number of processes, 0 or less for no limit
+     */
+    public synchronized void setMaxProcesses(int maxProcesses) {
+        this.maxProcesses = maxProcesses;
+        notifyAll();
+    }
+
+    public synchronized int getRunningProcesses() {
+        return runningProcesses;
+    }
+
+    /**
+     * Starts a process as soon as a slot of the pool is free.
+     *
+     * @param processBuilder the builder of the process
+     * @param timeout maximum time, in milliseconds, to wait for a free slot
+     * @return the started process
+     * @throws IOException if no slot was freed within the timeout or the process could not be started
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     */
+    public Process start(ProcessBuilder processBuilder, long timeout) throws IOException, InterruptedException {
+        acquire(timeout);
+        Process process;
+        try {
+            process = processBuilder.start();
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+        process.onExit().thenRun(this::release);
+        return process;
+    }
+
+    synchronized void acquire(long timeout) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (maxProcesses > 0 && runningProcesses >= maxProcesses) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new IOException(
+                        "No process slot became available within " + timeout + " ms, " + maxProcesses + " running");
+            }
+            wait(remaining);
+        }
+        runningProcesses++;
+    }
+
+    synchronized void release() {
+        runningProcesses--;
+        notifyAll();
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal.handler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecCoProcess} keeps a command running and exchanges requests and responses with it over its standard
+ * input and output, line by line.
+ * <p>
+ * Every request is a single line consisting of a request id, a space and the input. The command answers with any
+ * number of output lines <code>&lt;id&gt;:&lt;output&gt;</code> and terminates the response with the line
+ * <code>&lt;id&gt;=&lt;exit value&gt;</code>. Lines that do not belong to a pending request are logged and ignored,
+ * so late answers to timed out requests are dropped. The error output of the command is merged into its standard
+ * output.
+ * <p>
+ * A co-process is not started through the {@link org.openhab.binding.exec.internal.ExecProcessPool}, it would occupy
+ * one of its slots for as long as it runs.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ExecCoProcess {
+    private static final char OUTPUT_SEPARATOR = ':';
+    private static final char EXIT_SEPARATOR = '=';
+
+    private final Logger logger = LoggerFactory.getLogger(ExecCoProcess.class);
+
+    private final String[] cmdArray;
+    private final Process process;
+    private final Writer writer;
+    private final Map<Long, Response> pendingResponses = new ConcurrentHashMap<>();
+    private final AtomicLong lastRequestId = new AtomicLong();
+
+    /**
+     * Starts the command and the thread reading its responses.
+     *
+     * @param cmdArray the command to start
+     * @param threadName the name of the thread reading the responses
+     * @throws IOException if the command could not be started
+     */
+    ExecCoProcess(String[] cmdArray, String threadName) throws IOException {
+        this(cmdArray, new ProcessBuilder(cmdArray).redirectErrorStream(true).start(), threadName);
+    }
+
+    /**
+     * Starts the thread reading the responses of an already started command.
+     *
+     * @param cmdArray the command that was started
+     * @param process the process of the command
+     * @param threadName the name of the thread reading the responses
+     */
+    ExecCoProcess(String[] cmdArray, Process process, String threadName) {
+        this.cmdArray = cmdArray;
+        this.process = process;
+        this.writer = new OutputStreamWriter(process.getOutputStream());
+        Thread reader = new Thread(this::readResponses, threadName);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    String[] getCmdArray() {
+        return cmdArray;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Sends a request to the command and waits for its response.
+     *
+     * @param input the input of the request, line breaks are replaced by spaces
+     * @param timeout maximum time, in milliseconds, to wait for the response
+     * @return the complete response
+     * @throws IOException if the request could not be sent or the command terminated
+     * @throws TimeoutException if the response was not complete within the timeout
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    Response execute(String input, long timeout) throws IOException, TimeoutException, InterruptedException {
+        long requestId = lastRequestId.incrementAndGet();
+        Response response = new Response();
+        pendingResponses.put(requestId, response);
+        try {
+            synchronized (writer) {
+                writer.write(requestId + " " + input.replace('\r', ' ').replace('\n', ' ') + "\n");
+                writer.flush();
+            }
+            response.exitValue.get(timeout, TimeUnit.MILLISECONDS);
+            return response;
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            pendingResponses.remove(requestId);
+        }
+    }
+
+    /**
+     * Closes the standard input of the command and terminates it.
+     */
+    void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.debug("An exception occurred while closing the input of the co-process '{}' : '{}'",
+                    Arrays.asList(cmdArray), e.getMessage());
+        }
+        process.destroy();
+    }
+
+    private void readResponses() {
+        try (InputStreamReader isr = new InputStreamReader(process.getInputStream());
+                BufferedReader br = new BufferedReader(isr)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                handleLine(line);
+            }
+        } catch (IOException e) {
+            logger.debug("An exception occurred while reading the output of the co-process '{}' : '{}'",
+                    Arrays.asList(cmdArray), e.getMessage());
+        }
+
+        logger.debug("The co-process '{}' terminated", Arrays.asList(cmdArray));
+        IOException terminated = new IOException("The co-process terminated");
+        pendingResponses.values().forEach(response -> response.exitValue.completeExceptionally(terminated));
+    }
+
+    private void handleLine(String line) {
+        int idLength = 0;
+        while (idLength < line.length() && idLength < 18 && Character.isDigit(line.charAt(idLength))) {
+            idLength++;
+        }
+        if (idLength == 0 || idLength == line.length()) {
+            logger.debug("Exec [{}]: '{}'", "CO-PROCESS", line);
+            return;
+        }
+
+        Response response = pendingResponses.get(Long.parseLong(line.substring(0, idLength)));
+        if (response == null) {
+            logger.debug("Ignoring the line '{}', it does not belong to a pending request", line);
+            return;
+        }
+
+        char separator = line.charAt(idLength);
+        String value = line.substring(idLength + 1);
+        if (separator == OUTPUT_SEPARATOR) {
+            logger.debug("Exec [{}]: '{}'", "OUTPUT", value);
+            response.output.append(value).append("\n");
+        } else if (separator == EXIT_SEPARATOR) {
+            try {
+                response.exitValue.complete(value.isBlank() ? 0 : Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring the line '{}', the exit value is not a number", line);
+            }
+        } else {
+            logger.debug("Exec [{}]: '{}'", "CO-PROCESS", line);
+        }
+    }
+
+    /**
+     * The response of the command to a single request.
+     */
+    static class Response {
+        private final StringBuffer output = new StringBuffer();
+        private final CompletableFuture<Integer> exitValue = new CompletableFuture<>();
+
+        String getOutput() {
+            return output.toString();
+        }
+
+        int getExitValue() {
+            return exitValue.getNow(-1);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal.handler;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecCoProcessHolder} keeps the co-process of a Thing and restarts it when it terminated or the command
+ * line changed.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ExecCoProcessHolder {
+
+    /**
+     * Starts a new co-process.
+     */
+    @FunctionalInterface
+    interface Starter {
+        ExecCoProcess start(String[] cmdArray) throws IOException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ExecCoProcessHolder.class);
+
+    private final Starter starter;
+    private @Nullable ExecCoProcess coProcess;
+
+    ExecCoProcessHolder(Starter starter) {
+        this.starter = starter;
+    }
+
+    /**
+     * Returns the running co-process for the command, a new one is started if there is none yet, the last one
+     * terminated or was started with a different command line.
+     *
+     * @param cmdArray the command of the co-process
+     * @return the running co-process
+     * @throws IOException if the co-process could not be started
+     */
+    synchronized ExecCoProcess get(String[] cmdArray) throws IOException {
+        ExecCoProcess coProcess = this.coProcess;
+        if (coProcess != null && (!coProcess.isAlive() || !Arrays.equals(coProcess.getCmdArray(), cmdArray))) {
+            logger.debug("Restarting the co-process ('{}')", Arrays.asList(coProcess.getCmdArray()));
+            coProcess.close();
+            coProcess = null;
+        }
+        if (coProcess == null) {
+            coProcess = starter.start(cmdArray);
+            this.coProcess = coProcess;
+        }
+        return coProcess;
+    }
+
+    /**
+     * Terminates the co-process, the next call of {@link #get(String[])} starts a new one.
+     */
+    synchronized void stop() {
+        ExecCoProcess coProcess = this.coProcess;
+        if (coProcess != null) {
+            coProcess.close();
+            this.coProcess = null;
+        }
+    }
+}
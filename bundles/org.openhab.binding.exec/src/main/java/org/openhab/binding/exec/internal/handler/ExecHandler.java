@@ -25,6 +25,7 @@ import java.util.Date;
 import java.util.IllegalFormatException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -32,6 +33,7 @@ import java.util.regex.PatternSyntaxException;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.exec.internal.ExecProcessPool;
 import org.openhab.binding.exec.internal.ExecWhitelistWatchService;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.DecimalType;
@@ -72,6 +74,7 @@ public class ExecHandler extends BaseThingHandler {
     public static final String[] SHELL_WINDOWS = new String[] { "cmd" };
     public static final String[] SHELL_NIX = new String[] { "sh", "bash", "zsh", "csh" };
     private final ExecWhitelistWatchService execWhitelistWatchService;
+    private final ExecProcessPool processPool;
 
     private Logger logger = LoggerFactory.getLogger(ExecHandler.class);
 
@@ -83,19 +86,23 @@ public class ExecHandler extends BaseThingHandler {
     public static final String COMMAND = "command";
     public static final String TRANSFORM = "transform";
     public static final String AUTORUN = "autorun";
+    public static final String PERSISTENT = "persistent";
 
     // RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code>
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
 
     private @Nullable ScheduledFuture<?> executionJob;
     private @Nullable String lastInput;
+    private final ExecCoProcessHolder coProcess;
 
-    private static Runtime rt = Runtime.getRuntime();
-
-    public ExecHandler(Thing thing, ExecWhitelistWatchService execWhitelistWatchService) {
+    public ExecHandler(Thing thing, ExecWhitelistWatchService execWhitelistWatchService,
+            ExecProcessPool processPool) {
         super(thing);
         this.bundleContext = FrameworkUtil.getBundle(ExecHandler.class).getBundleContext();
         this.execWhitelistWatchService = execWhitelistWatchService;
+        this.processPool = processPool;
+        this.coProcess = new ExecCoProcessHolder(
+                cmdArray -> new ExecCoProcess(cmdArray, "OH-binding-" + thing.getUID() + "-coprocess"));
     }
 
     @Override
@@ -143,6 +150,7 @@ public class ExecHandler extends BaseThingHandler {
             executionJob.cancel(true);
             executionJob = null;
         }
+        coProcess.stop();
     }
 
     public void execute() {
@@ -230,9 +238,16 @@ public class ExecHandler extends BaseThingHandler {
 
             logger.trace("The command to be executed will be '{}'", Arrays.asList(cmdArray));
 
+            if (getConfig().get(PERSISTENT) != null && ((Boolean) getConfig().get(PERSISTENT))) {
+                executeOnCoProcess(cmdArray, timeOut);
+                return;
+            }
+
+            // the time waiting for a free slot of the pool counts towards the timeout of the execution
+            long deadline = System.currentTimeMillis() + timeOut;
             Process proc;
             try {
-                proc = rt.exec(cmdArray);
+                proc = processPool.start(new ProcessBuilder(cmdArray), timeOut);
             } catch (Exception e) {
                 logger.warn("An exception occurred while executing '{}' : '{}'", Arrays.asList(cmdArray),
                         e.getMessage());
@@ -270,7 +285,7 @@ public class ExecHandler extends BaseThingHandler {
 
             boolean exitVal = false;
             try {
-                exitVal = proc.waitFor(timeOut, TimeUnit.MILLISECONDS);
+                exitVal = proc.waitFor(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
                 logger.warn("An exception occurred while waiting for the process ('{}') to finish : '{}'", commandLine,
                         e.getMessage());
@@ -281,25 +296,59 @@ public class ExecHandler extends BaseThingHandler {
                 proc.destroyForcibly();
             }
 
-            updateState(RUN, OnOffType.OFF);
-            updateState(EXIT, new DecimalType(proc.exitValue()));
-
             outputBuilder.append(errorBuilder.toString());
 
             outputBuilder.append(errorBuilder.toString());
 
-            String transformedResponse = StringUtils.chomp(outputBuilder.toString());
-            String transformation = (String) getConfig().get(TRANSFORM);
+            updateResult(proc.exitValue(), outputBuilder.toString());
+        }
+    }
 
-            if (transformation != null && transformation.length() > 0) {
-                transformedResponse = transformResponse(transformedResponse, transformation);
-            }
+    /**
+     * Sends the last input as request to the co-process of this Thing, which is (re)started if it is not running
+     * yet, terminated or was started with a different command line. The co-process is terminated if it does not
+     * respond in time or cannot be used anymore, the next execution starts a new one.
+     *
+     * @param cmdArray the command of the co-process
+     * @param timeOut maximum time, in milliseconds, to wait for the response of the co-process
+     */
+    private void executeOnCoProcess(String[] cmdArray, int timeOut) {
+        String input = lastInput;
+        try {
+            ExecCoProcess.Response response = coProcess.get(cmdArray).execute(input != null ? input : "", timeOut);
+            updateResult(response.getExitValue(), response.getOutput());
+        } catch (TimeoutException e) {
+            logger.warn("Terminating the co-process ('{}') after a timeout of {} ms", Arrays.asList(cmdArray), timeOut);
+            coProcess.stop();
+            updateState(RUN, OnOffType.OFF);
+            updateState(OUTPUT, new StringType("No response within " + timeOut + " ms"));
+        } catch (IOException e) {
+            logger.warn("An exception occurred while executing '{}' on the co-process : '{}'", Arrays.asList(cmdArray),
+                    e.getMessage());
+            coProcess.stop();
+            updateState(RUN, OnOffType.OFF);
+            updateState(OUTPUT, new StringType(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            updateState(RUN, OnOffType.OFF);
+        }
+    }
+
+    private void updateResult(int exitValue, String output) {
+        updateState(RUN, OnOffType.OFF);
+        updateState(EXIT, new DecimalType(exitValue));
 
-            updateState(OUTPUT, new StringType(transformedResponse));
+        String transformedResponse = StringUtils.chomp(output);
+        String transformation = (String) getConfig().get(TRANSFORM);
 
-            DateTimeType stampType = new DateTimeType(ZonedDateTime.now());
-            updateState(LAST_EXECUTION, stampType);
+        if (transformation != null && transformation.length() > 0) {
+            transformedResponse = transformResponse(transformedResponse, transformation);
         }
+
+        updateState(OUTPUT, new StringType(transformedResponse));
+
+        DateTimeType stampType = new DateTimeType(ZonedDateTime.now());
+        updateState(LAST_EXECUTION, stampType);
     }
 
     protected @Nullable String transformResponse(String response, String transformation) {
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ExecProcessPool}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecProcessPoolTest {
+
+    private final ExecProcessPool pool = new ExecProcessPool();
+
+    @Test
+    public void poolIsUnlimitedByDefault() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            pool.acquire(0);
+        }
+        assertEquals(100, pool.getRunningProcesses());
+    }
+
+    @Test
+    public void acquireTimesOutWhenAllSlotsAreTaken() throws Exception {
+        pool.setMaxProcesses(1);
+        pool.acquire(0);
+
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> pool.acquire(100));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertEquals(1, pool.getRunningProcesses());
+    }
+
+    @Test
+    public void acquireWaitsForReleasedSlot() throws Exception {
+        pool.setMaxProcesses(1);
+        pool.acquire(0);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                pool.acquire(5000);
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+
+        pool.release();
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(1, pool.getRunningProcesses());
+    }
+
+    @Test
+    public void raisingTheLimitWakesWaitingStarts() throws Exception {
+        pool.setMaxProcesses(1);
+        pool.acquire(0);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                pool.acquire(5000);
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        pool.setMaxProcesses(0);
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(2, pool.getRunningProcesses());
+    }
+
+    @Test
+    public void slotIsReleasedWhenProcessExits() throws Exception {
+        pool.setMaxProcesses(1);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+        Process process = pool.start(new ProcessBuilder(java, "-version"), 1000);
+        assertEquals(1, pool.getRunningProcesses());
+        assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+        process.onExit().get(5, TimeUnit.SECONDS);
+
+        // the slot is released asynchronously after the exit
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getRunningProcesses() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getRunningProcesses());
+    }
+
+    @Test
+    public void slotIsReleasedWhenProcessCannotBeStarted() {
+        pool.setMaxProcesses(1);
+
+        assertThrows(IOException.class,
+                () -> pool.start(new ProcessBuilder("/this/command/does/not/exist"), 1000));
+        assertEquals(0, pool.getRunningProcesses());
+    }
+}
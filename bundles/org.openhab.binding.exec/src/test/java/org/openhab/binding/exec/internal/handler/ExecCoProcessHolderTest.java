@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the restart logic of {@link ExecCoProcessHolder}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecCoProcessHolderTest {
+
+    private static final String[] CMD_ARRAY = new String[] { "sh", "-c", "coprocess.sh" };
+
+    private final List<FakeCoProcess> processes = new ArrayList<>();
+    private final ExecCoProcessHolder holder = new ExecCoProcessHolder(cmdArray -> {
+        FakeCoProcess process = new FakeCoProcess(request -> List.of());
+        processes.add(process);
+        return new ExecCoProcess(cmdArray, process, "exec-test");
+    });
+
+    @Test
+    public void runningCoProcessIsReused() throws Exception {
+        ExecCoProcess first = holder.get(CMD_ARRAY);
+        ExecCoProcess second = holder.get(CMD_ARRAY.clone());
+
+        assertSame(first, second);
+        assertEquals(1, processes.size());
+    }
+
+    @Test
+    public void terminatedCoProcessIsRestarted() throws Exception {
+        ExecCoProcess first = holder.get(CMD_ARRAY);
+        processes.get(0).destroy();
+
+        ExecCoProcess second = holder.get(CMD_ARRAY);
+
+        assertNotSame(first, second);
+        assertEquals(2, processes.size());
+        assertTrue(second.isAlive());
+    }
+
+    @Test
+    public void changedCommandLineRestartsCoProcess() throws Exception {
+        ExecCoProcess first = holder.get(CMD_ARRAY);
+
+        ExecCoProcess second = holder.get(new String[] { "sh", "-c", "coprocess.sh --verbose" });
+
+        assertNotSame(first, second);
+        assertFalse(first.isAlive());
+        assertTrue(second.isAlive());
+    }
+
+    @Test
+    public void stoppedCoProcessIsRestarted() throws Exception {
+        ExecCoProcess first = holder.get(CMD_ARRAY);
+
+        holder.stop();
+        assertFalse(first.isAlive());
+
+        ExecCoProcess second = holder.get(CMD_ARRAY);
+        assertNotSame(first, second);
+        assertTrue(second.isAlive());
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the line protocol of {@link ExecCoProcess}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecCoProcessTest {
+
+    private static final String[] CMD_ARRAY = new String[] { "coprocess.sh" };
+    private static final long TIMEOUT = 5000;
+
+    private ExecCoProcess start(FakeCoProcess process) {
+        return new ExecCoProcess(CMD_ARRAY, process, "exec-test");
+    }
+
+    @Test
+    public void responseContainsOutputLinesAndExitValue() throws Exception {
+        FakeCoProcess process = new FakeCoProcess(
+                request -> List.of("1:Hello " + request.substring(2), "1:second line", "1=3"));
+        ExecCoProcess coProcess = start(process);
+
+        ExecCoProcess.Response response = coProcess.execute("world", TIMEOUT);
+
+        assertEquals(List.of("1 world"), process.getRequests());
+        assertEquals("Hello world\nsecond line\n", response.getOutput());
+        assertEquals(3, response.getExitValue());
+    }
+
+    @Test
+    public void requestIdsAreIncremented() throws Exception {
+        FakeCoProcess process = new FakeCoProcess(request -> {
+            String id = request.substring(0, request.indexOf(' '));
+            return List.of(id + ":" + id, id + "=0");
+        });
+        ExecCoProcess coProcess = start(process);
+
+        assertEquals("1\n", coProcess.execute("a", TIMEOUT).getOutput());
+        assertEquals("2\n", coProcess.execute("b", TIMEOUT).getOutput());
+        assertEquals(List.of("1 a", "2 b"), process.getRequests());
+    }
+
+    @Test
+    public void lineBreaksInInputAreReplaced() throws Exception {
+        FakeCoProcess process = new FakeCoProcess(request -> List.of("1=0"));
+        ExecCoProcess coProcess = start(process);
+
+        coProcess.execute("first\r\nsecond", TIMEOUT);
+
+        assertEquals(List.of("1 first  second"), process.getRequests());
+    }
+
+    @Test
+    public void blankExitValueIsZero() throws Exception {
+        FakeCoProcess process = new FakeCoProcess(request -> List.of("1:done", "1="));
+        ExecCoProcess coProcess = start(process);
+
+        ExecCoProcess.Response response = coProcess.execute("", TIMEOUT);
+
+        assertEquals("done\n", response.getOutput());
+        assertEquals(0, response.getExitValue());
+    }
+
+    @Test
+    public void foreignLinesAreIgnored() throws Exception {
+        FakeCoProcess process = new FakeCoProcess(request -> List.of("starting up", "", "42:not pending", "1",
+                "1;unknown separator", "1:output", "1=abc", "1=0"));
+        ExecCoProcess coProcess = start(process);
+
+        ExecCoProcess.Response response = coProcess.execute("", TIMEOUT);
+
+        assertEquals("output\n", response.getOutput());
+        assertEquals(0, response.getExitValue());
+    }
+
+    @Test
+    public void incompleteResponseTimesOut() {
+        FakeCoProcess process = new FakeCoProcess(request -> List.of("1:output", "1=abc"));
+        ExecCoProcess coProcess = start(process);
+
+        assertThrows(TimeoutException.class, () -> coProcess.execute("", 100));
+    }
+
+    @Test
+    public void lateResponseOfTimedOutRequestIsDropped() throws Exception {
+        FakeCoProcess process = new FakeCoProcess(request -> request.startsWith("2 ") ? List.of("2:fresh", "2=0")
+                : List.of());
+        ExecCoProcess coProcess = start(process);
+
+        assertThrows(TimeoutException.class, () -> coProcess.execute("slow", 100));
+        process.respond("1:stale");
+        process.respond("1=1");
+        ExecCoProcess.Response response = coProcess.execute("fast", TIMEOUT);
+
+        assertEquals("fresh\n", response.getOutput());
+        assertEquals(0, response.getExitValue());
+    }
+
+    @Test
+    public void terminationFailsPendingRequest() {
+        FakeCoProcess process = new FakeCoProcess(request -> List.of("1:partial"));
+        ExecCoProcess coProcess = start(process);
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            process.destroy();
+        }).start();
+
+        assertThrows(IOException.class, () -> coProcess.execute("", TIMEOUT));
+        assertFalse(coProcess.isAlive());
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.exec.internal.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A {@link Process} that answers every request line written to its standard input with the lines returned by a
+ * responder, without starting an operating system process.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class FakeCoProcess extends Process {
+    private static final int EOF = -1;
+
+    private final Function<String, List<String>> responder;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Integer> output = new LinkedBlockingQueue<>();
+    private volatile boolean alive = true;
+
+    private final OutputStream stdin = new OutputStream() {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        @Override
+        public synchronized void write(int b) {
+            if (b != '\n') {
+                line.write(b);
+                return;
+            }
+            String request = new String(line.toByteArray(), StandardCharsets.UTF_8);
+            line.reset();
+            requests.add(request);
+            responder.apply(request).forEach(FakeCoProcess.this::respond);
+        }
+    };
+
+    private final InputStream stdout = new InputStream() {
+        @Override
+        public int read() {
+            try {
+                int b = output.take();
+                if (b == EOF) {
+                    output.add(EOF);
+                }
+                return b;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return EOF;
+            }
+        }
+
+        @Override
+        public int read(byte @Nullable [] b, int off, int len) {
+            // return what is available instead of blocking until the buffer is full
+            if (b == null || len == 0) {
+                return 0;
+            }
+            int c = read();
+            if (c == EOF) {
+                return EOF;
+            }
+            b[off] = (byte) c;
+            int n = 1;
+            Integer next;
+            while (n < len && (next = output.peek()) != null && next != EOF) {
+                b[off + n++] = output.remove().byteValue();
+            }
+            return n;
+        }
+    };
+
+    /**
+     * @param responder returns the output lines for a request line
+     */
+    FakeCoProcess(Function<String, List<String>> responder) {
+        this.responder = responder;
+    }
+
+    List<String> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Writes a line to the standard output, e.g. a late response
+     *
+     * @param line the output line
+     */
+    void respond(String line) {
+        for (byte b : (line + "\n").getBytes(StandardCharsets.UTF_8)) {
+            output.add(b & 0xff);
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return stdin;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return stdout;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return InputStream.nullInputStream();
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        while (alive) {
+            Thread.sleep(10);
+        }
+        return 0;
+    }
+
+    @Override
+    public int exitValue() {
+        if (alive) {
+            throw new IllegalThreadStateException("process has not exited");
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return alive;
+    }
+
+    @Override
+    public void destroy() {
+        alive = false;
+        output.add(EOF);
+    }
+}
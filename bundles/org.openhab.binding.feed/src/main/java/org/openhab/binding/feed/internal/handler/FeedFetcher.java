@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.feed.internal.handler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedInput;
+
+/**
+ * The {@link FeedFetcher} downloads a feed only if it has changed since the last download.
+ * The server is asked with the <code>ETag</code> and <code>Last-Modified</code> validators of the last response,
+ * if it still sends the same content the parsing is skipped based on the hash of the content.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class FeedFetcher {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final Logger logger = LoggerFactory.getLogger(FeedFetcher.class);
+
+    private final URL url;
+    private @Nullable String eTag;
+    private @Nullable String lastModified;
+    private byte @Nullable [] contentHash;
+
+    public FeedFetcher(URL url) {
+        this.url = url;
+    }
+
+    public URL getUrl() {
+        return url;
+    }
+
+    /**
+     * Downloads and parses the feed, if it has changed since the last successful call.
+     *
+     * @return {@link SyndFeed} instance with the feed data, if the feed has changed and <code>null</code> otherwise
+     * @throws IOException if the feed could not be downloaded
+     * @throws FeedException if the content of the feed is not valid
+     */
+    public @Nullable SyndFeed fetch() throws IOException, FeedException {
+        URLConnection connection = url.openConnection();
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        String localETag = eTag;
+        if (localETag != null) {
+            connection.setRequestProperty("If-None-Match", localETag);
+        }
+        String localLastModified = lastModified;
+        if (localLastModified != null) {
+            connection.setRequestProperty("If-Modified-Since", localLastModified);
+        }
+
+        if (connection instanceof HttpURLConnection
+                && ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            logger.debug("Feed {} has not been modified", url);
+            return null;
+        }
+
+        byte[] content;
+        try (InputStream in = "gzip".equals(connection.getContentEncoding())
+                ? new GZIPInputStream(connection.getInputStream())
+                : connection.getInputStream()) {
+            content = in.readAllBytes();
+        }
+
+        byte[] hash = hash(content);
+        if (!Arrays.equals(hash, contentHash)) {
+            SyndFeedInput input = new SyndFeedInput();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new ByteArrayInputStream(content)))) {
+                SyndFeed feed = input.build(reader);
+                // the validators are only kept for content, that was parsed successfully
+                updateValidators(connection, hash);
+                return feed;
+            }
+        }
+
+        logger.debug("Content of feed {} is unchanged, skip parsing", url);
+        updateValidators(connection, hash);
+        return null;
+    }
+
+    private void updateValidators(URLConnection connection, byte[] hash) {
+        eTag = connection.getHeaderField("ETag");
+        lastModified = connection.getHeaderField("Last-Modified");
+        contentHash = hash;
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
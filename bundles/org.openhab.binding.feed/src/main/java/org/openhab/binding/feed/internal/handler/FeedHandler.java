@@ -14,20 +14,22 @@ package org.openhab.binding.feed.internal.handler;
 
 import static org.openhab.binding.feed.internal.FeedBindingConstants.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -35,6 +37,7 @@ import org.openhab.core.config.core.Configuration;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.Channel;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
@@ -50,7 +53,6 @@ import org.slf4j.LoggerFactory;
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.FeedException;
-import com.rometools.rome.io.SyndFeedInput;
 
 /**
  * The {@link FeedHandler } is responsible for handling commands, which are
@@ -61,9 +63,19 @@ import com.rometools.rome.io.SyndFeedInput;
 @NonNullByDefault
 public class FeedHandler extends BaseThingHandler {
 
+    /**
+     * Channels showing the latest entry of the feed.
+     */
+    private static final Set<String> LATEST_ENTRY_CHANNELS = Set.of(CHANNEL_LATEST_TITLE, CHANNEL_LATEST_DESCRIPTION,
+            CHANNEL_LATEST_LINK, CHANNEL_LATEST_PUBLISHED_DATE, CHANNEL_LAST_UPDATE);
+
+    private static final Set<String> ALL_CHANNELS = Set.of(CHANNEL_LATEST_TITLE, CHANNEL_LATEST_DESCRIPTION,
+            CHANNEL_LATEST_LINK, CHANNEL_LATEST_PUBLISHED_DATE, CHANNEL_LAST_UPDATE, CHANNEL_AUTHOR,
+            CHANNEL_DESCRIPTION, CHANNEL_TITLE, CHANNEL_NUMBER_OF_ENTRIES);
+
     private final Logger logger = LoggerFactory.getLogger(FeedHandler.class);
 
-    private @Nullable URL url;
+    private @Nullable FeedFetcher fetcher;
     private long refreshTime;
     private @Nullable ScheduledFuture<?> refreshTask;
     private @Nullable SyndFeed currentFeedState;
@@ -92,7 +104,7 @@ public class FeedHandler extends BaseThingHandler {
         // It is not necessary to check if the URL is valid, this will be done in fetchFeedData() method
         String urlString = (String) configuration.get(URL);
         try {
-            url = new URL(urlString);
+            fetcher = new FeedFetcher(new URL(urlString));
         } catch (MalformedURLException e) {
             logger.warn("Url '{}' is not valid: ", urlString, e);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.CONFIGURATION_ERROR, e.getMessage());
@@ -121,10 +133,10 @@ public class FeedHandler extends BaseThingHandler {
 
     private void refreshFeedState() {
         SyndFeed feed = fetchFeedData();
-        boolean feedUpdated = updateFeedIfChanged(feed);
-        if (feedUpdated) {
-            getThing().getChannels().forEach(channel -> publishChannelIfLinked(channel.getUID()));
-        }
+        Set<String> changedChannels = updateFeedIfChanged(feed);
+        getThing().getChannels().stream().map(Channel::getUID)
+                .filter(channelUID -> changedChannels.contains(channelUID.getId()))
+                .forEach(this::publishChannelIfLinked);
     }
 
     private void publishChannelIfLinked(ChannelUID channelUID) {
@@ -209,21 +221,81 @@ public class FeedHandler extends BaseThingHandler {
 
     /**
      * This method updates the {@link #currentFeedState}, only if there are changes on the server, since the last check.
-     * It compares the content on the server with the local
-     * stored {@link #currentFeedState} in the {@link FeedHandler}.
+     * It compares the entries on the server with the entries of the local stored {@link #currentFeedState} by their
+     * ID and date, and the properties of the feed itself.
      *
-     * @return <code>true</code> if new content is available on the server since the last update or <code>false</code>
-     *         otherwise
+     * @return the IDs of the channels, that have to be updated with the new content
      */
-    private synchronized boolean updateFeedIfChanged(@Nullable SyndFeed newFeedState) {
-        // SyndFeed class has implementation of equals ()
-        if (newFeedState != null && !newFeedState.equals(currentFeedState)) {
-            currentFeedState = newFeedState;
+    private synchronized Set<String> updateFeedIfChanged(@Nullable SyndFeed newFeedState) {
+        SyndFeed previousFeedState = currentFeedState;
+        if (newFeedState == null) {
+            logger.debug("Feed content has not changed!");
+            return Set.of();
+        }
+        currentFeedState = newFeedState;
+        if (previousFeedState == null) {
             logger.debug("New content available!");
-            return true;
+            return ALL_CHANNELS;
+        }
+
+        Set<String> changedChannels = new HashSet<>();
+        List<SyndEntry> newEntries = getNewEntries(previousFeedState, newFeedState);
+        SyndEntry latestEntry = getLatestEntry(newFeedState);
+        // SyndEntry class has implementation of equals (), the latest entry might have been edited
+        if (!newEntries.isEmpty() || !Objects.equals(latestEntry, getLatestEntry(previousFeedState))) {
+            changedChannels.addAll(LATEST_ENTRY_CHANNELS);
+        }
+        if (newFeedState.getEntries().size() != previousFeedState.getEntries().size()) {
+            changedChannels.add(CHANNEL_NUMBER_OF_ENTRIES);
+        }
+        if (!Objects.equals(newFeedState.getAuthor(), previousFeedState.getAuthor())) {
+            changedChannels.add(CHANNEL_AUTHOR);
+        }
+        if (!Objects.equals(newFeedState.getDescription(), previousFeedState.getDescription())) {
+            changedChannels.add(CHANNEL_DESCRIPTION);
+        }
+        if (!Objects.equals(newFeedState.getTitle(), previousFeedState.getTitle())) {
+            changedChannels.add(CHANNEL_TITLE);
+        }
+
+        if (changedChannels.isEmpty()) {
+            logger.debug("Feed content has not changed!");
+        } else {
+            logger.debug("New content available! {} new entries, updating channels {}", newEntries.size(),
+                    changedChannels);
         }
-        logger.debug("Feed content has not changed!");
-        return false;
+        return changedChannels;
+    }
+
+    /**
+     * Returns the entries of the feed, that are not contained in the previous state of the feed or have a different
+     * date there.
+     */
+    private List<SyndEntry> getNewEntries(SyndFeed previousFeedState, SyndFeed feedState) {
+        Map<String, @Nullable Date> knownEntries = new HashMap<>();
+        for (SyndEntry entry : previousFeedState.getEntries()) {
+            knownEntries.put(getEntryId(entry), getEntryDate(entry));
+        }
+        return feedState.getEntries().stream().filter(entry -> {
+            String id = getEntryId(entry);
+            return !knownEntries.containsKey(id) || !Objects.equals(knownEntries.get(id), getEntryDate(entry));
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the unique identifier of the entry, which is the link, if the feed does not provide one.
+     */
+    private String getEntryId(SyndEntry entry) {
+        String uri = entry.getUri();
+        if (uri != null) {
+            return uri;
+        }
+        return getValueSafely(entry.getLink());
+    }
+
+    private @Nullable Date getEntryDate(SyndEntry entry) {
+        Date updatedDate = entry.getUpdatedDate();
+        return updatedDate != null ? updatedDate : entry.getPublishedDate();
     }
 
     /**
@@ -233,30 +305,19 @@ public class FeedHandler extends BaseThingHandler {
      * {@link ThingStatusDetail#CONFIGURATION_ERROR} or
      * {@link ThingStatusDetail#COMMUNICATION_ERROR} and adequate message.
      *
-     * @return {@link SyndFeed} instance with the feed data, if the connection attempt was successful and
-     *         <code>null</code> otherwise
+     * @return {@link SyndFeed} instance with the feed data, if the connection attempt was successful and the feed has
+     *         changed since the last fetch, <code>null</code> otherwise
      */
     private @Nullable SyndFeed fetchFeedData() {
-        URL localUrl = url;
-        if (localUrl == null) {
-            logger.trace("Url '{}' is not valid: ", localUrl);
+        FeedFetcher localFetcher = fetcher;
+        if (localFetcher == null) {
+            logger.trace("Url is not valid");
             return null;
         }
 
+        URL localUrl = localFetcher.getUrl();
         try {
-            URLConnection connection = localUrl.openConnection();
-            connection.setRequestProperty("Accept-Encoding", "gzip");
-
-            BufferedReader in = null;
-            if ("gzip".equals(connection.getContentEncoding())) {
-                in = new BufferedReader(new InputStreamReader(new GZIPInputStream(connection.getInputStream())));
-            } else {
-                in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            }
-
-            SyndFeedInput input = new SyndFeedInput();
-            SyndFeed feed = input.build(in);
-            in.close();
+            SyndFeed feed = localFetcher.fetch();
 
             if (this.thing.getStatus() != ThingStatus.ONLINE) {
                 updateStatus(ThingStatus.ONLINE);
@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,6 +26,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +42,7 @@ import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.XmlRpcClient;
+import org.openhab.binding.homematic.internal.communicator.parser.GetParamsetDescriptionParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.server.BinRpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.RpcEventListener;
@@ -76,6 +82,7 @@ import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.internal.model.HmRssiInfo;
 import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +97,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_POOL_NAME = "homematicMetadata";
+    private static final String CACHE_FOLDER = OpenHAB.getUserDataFolder() + File.separator + "cache" + File.separator
+            + "org.openhab.binding.homematic";
+    private static final HmParamsetType[] METADATA_PARAMSET_TYPES = { HmParamsetType.MASTER, HmParamsetType.VALUES };
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -106,11 +117,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME);
+    private final ExecutorService metadataExecutor = ThreadPoolManager.getPool(METADATA_POOL_NAME);
+    private final ParamsetDescriptionCache paramsetDescriptionCache;
+    private final Object deviceLoadedLock = new Object();
 
     static {
         // loads all virtual datapoints
@@ -139,6 +153,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.paramsetDescriptionCache = new ParamsetDescriptionCache(new File(CACHE_FOLDER, id + ".paramsets"));
     }
 
     @Override
@@ -370,11 +385,46 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         cancelLoadAllMetadata = false;
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
+        paramsetDescriptionCache.load();
 
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
+        // loading datapoints for all channels, the devices of each interface are loaded in parallel
+        Map<HmInterface, List<HmDevice>> devicesByInterface = new TreeMap<>();
         for (HmDevice device : deviceDescriptions) {
+            devicesByInterface.computeIfAbsent(device.getHmInterface(), key -> new ArrayList<>()).add(device);
+        }
+        Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<HmDevice> interfaceDevices : devicesByInterface.values()) {
+            futures.add(metadataExecutor
+                    .submit(() -> loadDeviceMetadata(interfaceDevices, loadedDevices, datapointsByChannelIdCache)));
+        }
+        boolean completed = true;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancelLoadAllMetadata = true;
+                completed = false;
+            } catch (ExecutionException ex) {
+                logger.warn("Can't load metadata from gateway '{}': {}", id, ex.getMessage(), ex);
+                completed = false;
+            }
+        }
+        if (!cancelLoadAllMetadata) {
+            devices.keySet().retainAll(loadedDevices);
+        }
+        paramsetDescriptionCache.save(completed && !cancelLoadAllMetadata);
+        initialized = true;
+    }
+
+    /**
+     * Loads the metadata of all given devices, which all belong to the same interface.
+     */
+    private void loadDeviceMetadata(List<HmDevice> interfaceDevices, Set<String> loadedDevices,
+            Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache) {
+        for (HmDevice device : interfaceDevices) {
             if (!cancelLoadAllMetadata) {
                 try {
                     logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
@@ -383,47 +433,62 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
                     } else {
+                        List<HmChannel> channelsToLoad = new ArrayList<>();
                         for (HmChannel channel : device.getChannels()) {
                             logger.trace("  Loading channel {}", channel);
                             // speed up metadata generation a little bit for equal channels in the gateway devices
                             if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
                                     || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                                continue;
+                            }
+                            Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache
+                                    .get(getChannelId(channel));
+                            if (cachedDatapoints != null) {
+                                // clone all datapoints
+                                cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
                             } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
+                                logger.trace("    Loading datapoints into channel {}", channel);
+                                channelsToLoad.add(channel);
+                            }
+                        }
+                        addChannelDatapoints(channelsToLoad);
+
+                        for (HmChannel channel : channelsToLoad) {
+                            // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                            // the data point set might change depending on the selected mode.
+                            if (!channel.isReconfigurable()) {
+                                datapointsByChannelIdCache.put(getChannelId(channel), channel.getDatapoints());
+                            }
+                        }
+                        if (DEVICE_TYPE_VIRTUAL.equals(device.getType())
+                                || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) {
+                            for (HmChannel channel : device.getChannels()) {
+                                if (channel.getNumber() > 1) {
+                                    HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                                    cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
                                 }
                             }
                         }
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
+                    synchronized (deviceLoadedLock) {
+                        prepareDevice(device);
+                        loadedDevices.add(device.getAddress());
+                        gatewayAdapter.onDeviceLoaded(device);
+                    }
                 } catch (IOException ex) {
                     logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
                             ex.getMessage());
                 }
             }
         }
-        if (!cancelLoadAllMetadata) {
-            devices.keySet().retainAll(loadedDevices);
-        }
-        initialized = true;
+    }
+
+    /**
+     * Returns the id of a channel that identifies equal channels of devices with the same type and firmware.
+     */
+    private String getChannelId(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
     }
 
     /**
@@ -433,12 +498,80 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         try {
             getRpcClient(channel.getDevice().getHmInterface()).addChannelDatapoints(channel, paramsetType);
         } catch (UnknownParameterSetException ex) {
-            logger.info(
-                    "Can not load metadata for device: {}, channel: {}, paramset: {}, maybe there are no channels available",
-                    channel.getDevice().getAddress(), channel.getNumber(), paramsetType);
+            handleUnknownParamset(channel, paramsetType);
+        }
+    }
+
+    /**
+     * Loads the MASTER and VALUES datapoints of all given channels, which all belong to the same device. Paramset
+     * descriptions are taken from the {@link ParamsetDescriptionCache} if available, all others are requested from the
+     * gateway in one batch.
+     */
+    protected void addChannelDatapoints(List<HmChannel> channels) throws IOException {
+        if (channels.isEmpty()) {
+            return;
+        }
+        RpcClient<?> rpcClient = getRpcClient(channels.get(0).getDevice().getHmInterface());
+        List<HmChannel> requestChannels = new ArrayList<>();
+        List<HmParamsetType> requestParamsetTypes = new ArrayList<>();
+        List<Object[]> descriptions = new ArrayList<>();
+        List<Integer> missingIndexes = new ArrayList<>();
+        for (HmChannel channel : channels) {
+            for (HmParamsetType paramsetType : METADATA_PARAMSET_TYPES) {
+                if (rpcClient.hasParamset(channel, paramsetType)) {
+                    Object[] description = paramsetDescriptionCache.get(channel, paramsetType);
+                    if (description == null) {
+                        missingIndexes.add(descriptions.size());
+                    }
+                    requestChannels.add(channel);
+                    requestParamsetTypes.add(paramsetType);
+                    descriptions.add(description);
+                }
+            }
+        }
+
+        if (!missingIndexes.isEmpty()) {
+            List<HmChannel> missingChannels = new ArrayList<>(missingIndexes.size());
+            List<HmParamsetType> missingParamsetTypes = new ArrayList<>(missingIndexes.size());
+            for (int index : missingIndexes) {
+                missingChannels.add(requestChannels.get(index));
+                missingParamsetTypes.add(requestParamsetTypes.get(index));
+            }
+            List<Object[]> loadedDescriptions = rpcClient.getParamsetDescriptions(missingChannels,
+                    missingParamsetTypes);
+            for (int i = 0; i < missingIndexes.size(); i++) {
+                descriptions.set(missingIndexes.get(i), loadedDescriptions.get(i));
+            }
+        }
+
+        for (int i = 0; i < descriptions.size(); i++) {
+            Object[] description = descriptions.get(i);
+            if (description == null) {
+                handleUnknownParamset(requestChannels.get(i), requestParamsetTypes.get(i));
+            } else {
+                new GetParamsetDescriptionParser(requestChannels.get(i), requestParamsetTypes.get(i))
+                        .parse(description);
+            }
+        }
+
+        // the reconfigurable channels are only known after parsing, so add the new descriptions to the cache now
+        for (int index : missingIndexes) {
+            Object[] description = descriptions.get(index);
+            if (description != null) {
+                paramsetDescriptionCache.put(requestChannels.get(index), requestParamsetTypes.get(index), description);
+            }
         }
     }
 
+    /**
+     * Called if the gateway does not know the paramset of a channel.
+     */
+    protected void handleUnknownParamset(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+        logger.info(
+                "Can not load metadata for device: {}, channel: {}, paramset: {}, maybe there are no channels available",
+                channel.getDevice().getAddress(), channel.getNumber(), paramsetType);
+    }
+
     /**
      * Loads all device descriptions from the gateway.
      */
@@ -758,10 +891,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     List<HmDevice> deviceDescriptions = getDeviceDescriptions();
                     for (HmDevice device : deviceDescriptions) {
                         if (device.getAddress().equals(address)) {
-                            for (HmChannel channel : device.getChannels()) {
-                                addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                addChannelDatapoints(channel, HmParamsetType.VALUES);
-                            }
+                            addChannelDatapoints(device.getChannels());
                             prepareDevice(device);
                             gatewayAdapter.onNewDevice(device);
                         }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of the raw paramset descriptions of the gateway, so the metadata of all devices does not have to be
+ * requested from the gateway on every start. A description is identified by interface, device type, firmware, channel
+ * number and paramset type, so a firmware update of a device automatically leads to a reload of its metadata.
+ * <p>
+ * Only the classes the RPC parsers create for paramset descriptions are accepted when the file is read, any other
+ * content makes the whole file to be discarded.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private static final Set<Class<?>> ALLOWED_CLASSES = Set.of(HashMap.class, TreeMap.class, Object[].class,
+            String.class, Number.class, Integer.class, Double.class, Boolean.class, Date.class, byte[].class,
+            // checked by HashMap when reading its entries
+            Map.Entry[].class);
+    private static final long MAX_DEPTH = 16;
+
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+
+    private final File file;
+    private final Map<String, Object[]> descriptions = new ConcurrentHashMap<>();
+    private final Set<String> usedKeys = ConcurrentHashMap.newKeySet();
+    private boolean loaded;
+    private volatile boolean modified;
+
+    public ParamsetDescriptionCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the cached descriptions from the file, if not already done.
+     */
+    public synchronized void load() {
+        usedKeys.clear();
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.setObjectInputFilter(ParamsetDescriptionCache::checkInput);
+            Object content = in.readObject();
+            if (!(content instanceof Map)) {
+                throw new InvalidObjectException("Unexpected content " + content.getClass().getName());
+            }
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) content).entrySet()) {
+                if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof Object[])) {
+                    throw new InvalidObjectException("Unexpected entry " + entry.getKey());
+                }
+                descriptions.put((String) entry.getKey(), (Object[]) entry.getValue());
+            }
+            logger.debug("Loaded {} cached paramset descriptions from {}", descriptions.size(), file);
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            logger.debug("Can't load cached paramset descriptions from {}, discarding cache: {}", file,
+                    ex.getMessage());
+            descriptions.clear();
+            file.delete();
+        }
+    }
+
+    private static ObjectInputFilter.Status checkInput(ObjectInputFilter.FilterInfo info) {
+        Class<?> clazz = info.serialClass();
+        if (info.depth() > MAX_DEPTH || (clazz != null && !ALLOWED_CLASSES.contains(clazz))) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        return ObjectInputFilter.Status.UNDECIDED;
+    }
+
+    /**
+     * Saves the descriptions to the file if there are changes. Descriptions that have not been used since the last
+     * {@link #load()} are removed before saving, if requested.
+     */
+    public synchronized void save(boolean removeUnused) {
+        if (removeUnused && descriptions.keySet().retainAll(usedKeys)) {
+            modified = true;
+        }
+        if (!modified) {
+            return;
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeObject(new HashMap<>(descriptions));
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+            logger.debug("Saved {} paramset descriptions to {}", descriptions.size(), file);
+        } catch (IOException ex) {
+            logger.warn("Can't save paramset descriptions to {}: {}", file, ex.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Returns the cached description or null, if the description is not cached.
+     */
+    public Object[] get(HmChannel channel, HmParamsetType paramsetType) {
+        String key = getKey(channel, paramsetType);
+        Object[] description = descriptions.get(key);
+        if (description != null) {
+            usedKeys.add(key);
+        }
+        return description;
+    }
+
+    /**
+     * Adds the description to the cache. Descriptions of reconfigurable channels are never cached, because the
+     * datapoint set might change depending on the selected mode.
+     */
+    public void put(HmChannel channel, HmParamsetType paramsetType, Object[] description) {
+        if (!channel.isReconfigurable()) {
+            String key = getKey(channel, paramsetType);
+            descriptions.put(key, description);
+            usedKeys.add(key);
+            modified = true;
+        }
+    }
+
+    /**
+     * Removes all cached descriptions and deletes the file.
+     */
+    public synchronized void clear() {
+        descriptions.clear();
+        usedKeys.clear();
+        modified = false;
+        file.delete();
+    }
+
+    /**
+     * Returns the number of cached descriptions.
+     */
+    public int size() {
+        return descriptions.size();
+    }
+
+    private String getKey(HmChannel channel, HmParamsetType paramsetType) {
+        HmDevice device = channel.getDevice();
+        return String.format("%s:%s:%s:%s:%s", device.getHmInterface(), device.getType(), device.getFirmware(),
+                channel.getNumber(), paramsetType);
+    }
+}
@@ -15,10 +15,13 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -33,6 +36,7 @@ import org.openhab.binding.homematic.internal.communicator.parser.GetValueParser
 import org.openhab.binding.homematic.internal.communicator.parser.HomegearLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListDevicesParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
 import org.openhab.binding.homematic.internal.communicator.parser.RssiInfoParser;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -56,6 +60,9 @@ public abstract class RpcClient<T> {
 
     protected HomematicConfig config;
 
+    private final Map<Integer, Object> portLocks = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> multicallSupport = new ConcurrentHashMap<>();
+
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
@@ -80,6 +87,14 @@ public abstract class RpcClient<T> {
      */
     protected abstract Object[] sendMessage(int port, RpcRequest<T> request) throws IOException;
 
+    /**
+     * Returns the lock that serializes all messages sent to the given port. Each port belongs to a different interface
+     * on the gateway, so messages to different interfaces can be sent concurrently.
+     */
+    protected Object getPortLock(int port) {
+        return portLocks.computeIfAbsent(port, key -> new Object());
+    }
+
     /**
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
@@ -173,14 +188,98 @@ public abstract class RpcClient<T> {
      * Loads all datapoint metadata into the given channel.
      */
     public void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
-        if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
+        if (!hasParamset(channel, paramsetType)) {
             // The configuration channel only has a MASTER Paramset, so there is nothing to load
             return;
         }
+        new GetParamsetDescriptionParser(channel, paramsetType).parse(getParamsetDescription(channel, paramsetType));
+    }
+
+    /**
+     * Returns the raw paramset description of the given channel.
+     */
+    public Object[] getParamsetDescription(HmChannel channel, HmParamsetType paramsetType) throws IOException {
         RpcRequest<T> request = createRpcRequest("getParamsetDescription");
         request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
         request.addArg(paramsetType.toString());
-        new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+        return sendMessage(config.getRpcPort(channel), request);
+    }
+
+    /**
+     * Returns the raw paramset descriptions of all the given channels. Channels and paramset types are given pairwise,
+     * all channels must belong to the same interface. If the interface supports it, all descriptions are requested
+     * with a single system.multicall, otherwise one by one. The description of an unknown paramset is null.
+     */
+    public List<Object[]> getParamsetDescriptions(List<HmChannel> channels, List<HmParamsetType> paramsetTypes)
+            throws IOException {
+        List<Object[]> descriptions = new ArrayList<>(channels.size());
+        if (channels.size() > 1 && isMulticallSupported(channels.get(0).getDevice().getHmInterface())) {
+            List<Object> calls = new ArrayList<>(channels.size());
+            for (int i = 0; i < channels.size(); i++) {
+                HmChannel channel = channels.get(i);
+                Map<String, Object> call = new HashMap<>();
+                call.put("methodName", "getParamsetDescription");
+                call.put("params", Arrays.asList(
+                        getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                        paramsetTypes.get(i).toString()));
+                calls.add(call);
+            }
+            RpcRequest<T> request = createRpcRequest("system.multicall");
+            request.addArg(calls);
+            Object[] result = sendMessage(config.getRpcPort(channels.get(0)), request);
+            if (!(result[0] instanceof Object[]) || ((Object[]) result[0]).length != channels.size()) {
+                throw new IOException("Unexpected system.multicall response (sending " + request + ")");
+            }
+            for (Object callResult : (Object[]) result[0]) {
+                if (callResult instanceof Object[]) {
+                    descriptions.add((Object[]) callResult);
+                } else {
+                    try {
+                        // a failed call returns a fault struct instead of an array with the result
+                        descriptions.add(new RpcResponseParser(request).parse(new Object[] { callResult }));
+                    } catch (UnknownParameterSetException ex) {
+                        descriptions.add(null);
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < channels.size(); i++) {
+                try {
+                    descriptions.add(getParamsetDescription(channels.get(i), paramsetTypes.get(i)));
+                } catch (UnknownParameterSetException ex) {
+                    descriptions.add(null);
+                }
+            }
+        }
+        return descriptions;
+    }
+
+    /**
+     * Returns true, if the interface supports batching of requests with system.multicall.
+     */
+    private boolean isMulticallSupported(HmInterface hmInterface) {
+        int port = config.getRpcPort(hmInterface);
+        Boolean supported = multicallSupport.get(port);
+        if (supported == null) {
+            try {
+                RpcRequest<T> request = createRpcRequest("system.listMethods");
+                Object[] result = sendMessage(port, request);
+                supported = result[0] instanceof Object[]
+                        && Arrays.asList((Object[]) result[0]).contains("system.multicall");
+            } catch (IOException ex) {
+                supported = Boolean.FALSE;
+            }
+            logger.debug("Interface {} {} system.multicall", hmInterface, supported ? "supports" : "does not support");
+            multicallSupport.put(port, supported);
+        }
+        return supported;
+    }
+
+    /**
+     * Returns true, if the given paramset is available for the channel.
+     */
+    public boolean hasParamset(HmChannel channel, HmParamsetType paramsetType) {
+        return !isConfigurationChannel(channel) || paramsetType == HmParamsetType.MASTER;
     }
 
     /**
@@ -67,33 +67,36 @@ public class XmlRpcClient extends RpcClient<String> {
     }
 
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client XmlRpcRequest (port {}):\n{}", port, request);
         }
-        IOException reason = new IOException();
-        for (int rpcRetryCounter = 1; rpcRetryCounter <= MAX_RPC_RETRY; rpcRetryCounter++) {
-            try {
-                byte[] response = send(port, request);
-                if (response.length == 0 && "setInstallMode".equals(request.getMethodName())) {
-                    return new Object[] {};
+        synchronized (getPortLock(port)) {
+            IOException reason = new IOException();
+            for (int rpcRetryCounter = 1; rpcRetryCounter <= MAX_RPC_RETRY; rpcRetryCounter++) {
+                try {
+                    byte[] response = send(port, request);
+                    if (response.length == 0 && "setInstallMode".equals(request.getMethodName())) {
+                        return new Object[] {};
+                    }
+                    Object[] data = new XmlRpcResponse(new ByteArrayInputStream(response), config.getEncoding())
+                            .getResponseData();
+                    return new RpcResponseParser(request).parse(data);
+                } catch (UnknownRpcFailureException | UnknownParameterSetException ex) {
+                    throw ex;
+                } catch (SAXException | ParserConfigurationException ex) {
+                    throw new IOException(ex);
+                } catch (IOException ex) {
+                    reason = ex;
+                    if ("init".equals(request.getMethodName())) { // no retries for "init" request
+                        break;
+                    }
+                    logger.debug("XmlRpcMessage failed, sending message again {}/{}", rpcRetryCounter,
+                            MAX_RPC_RETRY);
                 }
-                Object[] data = new XmlRpcResponse(new ByteArrayInputStream(response), config.getEncoding())
-                        .getResponseData();
-                return new RpcResponseParser(request).parse(data);
-            } catch (UnknownRpcFailureException | UnknownParameterSetException ex) {
-                throw ex;
-            } catch (SAXException | ParserConfigurationException ex) {
-                throw new IOException(ex);
-            } catch (IOException ex) {
-                reason = ex;
-                if ("init".equals(request.getMethodName())) { // no retries for "init" request
-                    break;
-                }
-                logger.debug("XmlRpcMessage failed, sending message again {}/{}", rpcRetryCounter, MAX_RPC_RETRY);
             }
+            throw reason;
         }
-        throw reason;
     }
 
     private byte[] send(int port, RpcRequest<String> request) throws IOException {
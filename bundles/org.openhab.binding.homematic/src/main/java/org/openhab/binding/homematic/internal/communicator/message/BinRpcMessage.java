@@ -19,27 +19,31 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
  *
+ * Messages read from a stream are decoded from a per thread buffer that is reused for all messages, so receiving an
+ * event does not allocate anything else than the decoded values.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
-    private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
+    private static final int HEADER_LENGTH = 8;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int MAX_REUSABLE_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
 
     public enum TYPE {
         REQUEST,
@@ -47,13 +51,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private Object[] messageData;
-    private byte binRpcData[];
-    private int offset;
+    private ByteBuffer buffer;
+    private int argsPosition;
 
     private String methodName;
     private TYPE type;
     private int args;
-    private String encoding;
+    private Charset charset;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -65,7 +69,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
+        this.charset = toCharset(encoding);
         createHeader();
     }
 
@@ -73,31 +77,40 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading signature");
+        this.charset = toCharset(encoding);
+        ByteBuffer data = READ_BUFFER.get();
+        byte[] header = data.array();
+        readFully(is, header, 0, 4, "reading signature");
+        validateBinXSignature(header);
+        readFully(is, header, 4, 4, "reading message length");
+        int datasize = data.getInt(4);
+        if (datasize < 0) {
+            throw new IOException("Invalid message length " + datasize);
         }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading message length");
+
+        int length = HEADER_LENGTH + datasize;
+        if (length > data.capacity()) {
+            ByteBuffer larger = ByteBuffer
+                    .allocate(Math.max(length, Math.min(data.capacity() * 2, MAX_REUSABLE_BUFFER_SIZE)));
+            larger.put(header, 0, HEADER_LENGTH);
+            if (length <= MAX_REUSABLE_BUFFER_SIZE) {
+                READ_BUFFER.set(larger);
+            }
+            data = larger;
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
         int offset = 0;
         int currentLength;
-
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
+        while (offset < datasize
+                && (currentLength = is.read(data.array(), HEADER_LENGTH + offset, datasize - offset)) != -1) {
             offset += currentLength;
         }
         if (offset != datasize) {
             throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
                     + datasize + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
+        data.clear();
+        data.limit(length);
+        decodeMessage(data, methodHeader);
     }
 
     private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
@@ -110,51 +123,58 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
+        this.charset = toCharset(encoding);
+        if (message.length < HEADER_LENGTH) {
             throw new EOFException("Only " + message.length + " bytes received");
         }
         validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        decodeMessage(ByteBuffer.wrap(message), methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
-
-        offset = 8;
-
-        if (methodHeader) {
-            methodName = readString();
-            readInt();
+    private void decodeMessage(ByteBuffer data, boolean methodHeader) throws IOException {
+        type = data.get(3) == 1 ? TYPE.RESPONSE : TYPE.REQUEST;
+        data.position(HEADER_LENGTH);
+        try {
+            if (methodHeader) {
+                methodName = readString(data);
+                data.getInt();
+            }
+            messageData = readRpcValues(data);
+        } catch (BufferUnderflowException ex) {
+            throw new EOFException("Unexpected end of BIN-RPC message");
         }
-        generateResponseData();
     }
 
     public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+        this.type = type;
+        if (buffer != null) {
+            buffer.put(3, type == TYPE.RESPONSE ? (byte) 1 : (byte) 0);
+        }
     }
 
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
-        List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
+    private Object[] readRpcValues(ByteBuffer data) throws IOException {
+        Object[] values = new Object[4];
+        int count = 0;
+        while (data.hasRemaining()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = readRpcValue(data);
         }
-        messageData = values.toArray();
-        values.clear();
+        return count == values.length ? values : Arrays.copyOf(values, count);
     }
 
     private void createHeader() {
-        binRpcData = new byte[256];
-        addString("Bin ");
+        buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        buffer.put((byte) 'B').put((byte) 'i').put((byte) 'n').put((byte) ' ');
         setType(type);
-        addInt(0); // placeholder content length
+        buffer.putInt(0); // placeholder content length
         if (methodName != null) {
-            addInt(methodName.length());
             addString(methodName);
-            addInt(0); // placeholder arguments
+            argsPosition = buffer.position();
+            buffer.putInt(0); // placeholder arguments
         }
-        setInt(4, offset - 8);
+        buffer.putInt(4, buffer.position() - HEADER_LENGTH);
     }
 
     /**
@@ -162,11 +182,14 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     @Override
     public void addArg(Object argument) {
+        if (buffer == null) {
+            encodeMessage();
+        }
         addObject(argument);
-        setInt(4, offset - 8);
+        buffer.putInt(4, buffer.position() - HEADER_LENGTH);
 
         if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
+            buffer.putInt(argsPosition, ++args);
         }
     }
 
@@ -181,14 +204,24 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public byte[] createMessage() {
-        trimBinRpcData();
-        return binRpcData;
+        if (buffer == null) {
+            encodeMessage();
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
     }
 
-    private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+    /**
+     * Encodes a decoded message again, the raw data of a received message is not kept.
+     */
+    private void encodeMessage() {
+        Object[] values = messageData;
+        args = 0;
+        createHeader();
+        if (values != null) {
+            for (Object value : values) {
+                addArg(value);
+            }
+        }
     }
 
     @Override
@@ -196,93 +229,116 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         return messageData;
     }
 
+    private static Charset toCharset(String encoding) {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            return Charset.defaultCharset();
+        }
+    }
+
+    private static void readFully(InputStream is, byte[] data, int offset, int length, String description)
+            throws IOException {
+        int read = 0;
+        while (read < length) {
+            int currentLength = is.read(data, offset + read, length - read);
+            if (currentLength == -1) {
+                throw new EOFException("Only " + read + " bytes received " + description);
+            }
+            read += currentLength;
+        }
+    }
+
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
+    private String readString(ByteBuffer data) throws IOException {
+        int len = data.getInt();
+        if (len < 0 || len > data.remaining()) {
+            throw new EOFException("Invalid string length " + len);
+        }
+        int position = data.position();
+        data.position(position + len);
+        return new String(data.array(), data.arrayOffset() + position, len, charset);
     }
 
-    private long readInt64() {
-        byte bi[] = new byte[8];
-        System.arraycopy(binRpcData, offset, bi, 0, 8);
-        offset += 8;
-        return (new BigInteger(bi)).longValue();
+    private int readCount(ByteBuffer data) throws IOException {
+        int count = data.getInt();
+        if (count < 0 || count > data.remaining()) {
+            throw new EOFException("Invalid number of elements " + count);
+        }
+        return count;
     }
 
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
+    /**
+     * Decodes a BIN-RPC double, rounded to six decimal places.
+     */
+    private double readDouble(ByteBuffer data) {
+        int mantissa = data.getInt();
+        int exponent = data.getInt();
+        double value = Math.scalb((double) mantissa, exponent - 30);
+        if (30 - exponent - Integer.numberOfTrailingZeros(mantissa) <= 6) {
+            // no more than six binary fraction digits, which have no more than six decimal places
+            return value;
+        }
+        return new BigDecimal(value).setScale(6, RoundingMode.HALF_DOWN).doubleValue();
     }
 
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
+    private Object readRpcValue(ByteBuffer data) throws IOException {
+        int type = data.getInt();
         switch (type) {
             case 1:
-                return Integer.valueOf(readInt());
+                return Integer.valueOf(data.getInt());
             case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
+                return data.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
-                return readString();
+                return readString(data);
             case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
-                BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
-                return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+                return readDouble(data);
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(data.getInt() * 1000L);
             case 0xD1:
                 // Int64
-                return Long.valueOf(readInt64());
+                return Long.valueOf(data.getLong());
             case 0x100:
                 // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                int numElements = readCount(data);
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue(data);
                 }
-                return array.toArray();
+                return array;
             case 0x101:
                 // Struct
-                numElements = readInt();
+                numElements = readCount(data);
                 Map<String, Object> struct = new TreeMap<>();
                 while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
+                    String name = readString(data);
+                    struct.put(name, readRpcValue(data));
                 }
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
-                }
-                throw new IOException("Unknown data type " + type);
+                throw new IOException(
+                        "Unknown data type " + type + " at position " + (data.position() - 4) + " of BIN-RPC message");
         }
     }
 
-    private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
     }
 
     private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
-        }
-        binRpcData[offset++] = b;
+        ensureCapacity(1);
+        buffer.put(b);
     }
 
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        buffer.putInt(value);
     }
 
     private void addDouble(double value) {
@@ -307,16 +363,14 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         addInt(exp);
     }
 
+    /**
+     * Adds the length and the encoded bytes of the string.
+     */
     private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+        byte[] sd = string.getBytes(charset);
+        ensureCapacity(4 + sd.length);
+        buffer.putInt(sd.length);
+        buffer.put(sd);
     }
 
     private void addList(Collection<?> collection) {
@@ -328,15 +382,17 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private void addObject(Object object) {
         if (object.getClass() == String.class) {
             addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
+            addString((String) object);
         } else if (object.getClass() == Boolean.class) {
             addInt(2);
             addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
         } else if (object.getClass() == Integer.class) {
             addInt(1);
             addInt(((Integer) object).intValue());
+        } else if (object.getClass() == Long.class) {
+            addInt(0xD1);
+            ensureCapacity(8);
+            buffer.putLong(((Long) object).longValue());
         } else if (object.getClass() == Double.class) {
             addInt(4);
             addDouble(((Double) object).doubleValue());
@@ -352,12 +408,17 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             addDouble(((BigInteger) object).doubleValue());
         } else if (object.getClass() == Date.class) {
             addInt(5);
-            addInt((int) ((Date) object).getTime() / 1000);
+            addInt((int) (((Date) object).getTime() / 1000));
         } else if (object instanceof List<?>) {
             Collection<?> list = (Collection<?>) object;
             addInt(0x100);
             addInt(list.size());
             addList(list);
+        } else if (object instanceof Object[]) {
+            Object[] array = (Object[]) object;
+            addInt(0x100);
+            addInt(array.length);
+            addList(Arrays.asList(array));
         } else if (object instanceof Map<?, ?>) {
             Map<?, ?> map = (Map<?, ?>) object;
             addInt(0x101);
@@ -365,9 +426,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
                     addString(key);
-                    addList(Collections.singleton(entry.getValue()));
+                    addObject(entry.getValue());
                 }
             }
         }
@@ -380,9 +440,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
-            generateResponseData();
-            return RpcUtils.dumpRpcMessage(methodName, messageData);
+            Object[] data = messageData;
+            if (buffer != null) {
+                ByteBuffer encoded = ByteBuffer.wrap(buffer.array(), 0, buffer.position());
+                encoded.position(argsPosition > 0 ? argsPosition + 4 : HEADER_LENGTH);
+                data = readRpcValues(encoded.slice());
+            }
+            return RpcUtils.dumpRpcMessage(methodName, data);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
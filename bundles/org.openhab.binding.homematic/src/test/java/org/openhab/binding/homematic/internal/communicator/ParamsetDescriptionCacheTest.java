@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.core.test.java.JavaTest;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest extends JavaTest {
+
+    private @TempDir Path tempDir;
+    private File cacheFile;
+
+    @BeforeEach
+    public void setup() {
+        cacheFile = tempDir.resolve("gateway.paramsets").toFile();
+    }
+
+    @Test
+    public void descriptionsArePersisted() {
+        HmChannel channel = createDimmerHmChannel();
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile);
+        cache.load();
+        cache.put(channel, HmParamsetType.VALUES, createDescription());
+        cache.save(true);
+
+        ParamsetDescriptionCache reloadedCache = new ParamsetDescriptionCache(cacheFile);
+        reloadedCache.load();
+        Object[] description = reloadedCache.get(channel, HmParamsetType.VALUES);
+
+        assertThat(description, is(notNullValue()));
+        Map<?, ?> datapoints = (Map<?, ?>) description[0];
+        Map<?, ?> level = (Map<?, ?>) datapoints.get("LEVEL");
+        assertThat(level.get("MAX"), is(1.0));
+        assertThat(level.get("OPERATIONS"), is(7));
+        assertThat(((Object[]) level.get("VALUE_LIST")).length, is(2));
+        assertThat(reloadedCache.get(channel, HmParamsetType.MASTER), is(nullValue()));
+    }
+
+    @Test
+    public void unusedDescriptionsAreRemoved() {
+        HmChannel channel = createDimmerHmChannel();
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile);
+        cache.load();
+        cache.put(channel, HmParamsetType.MASTER, createDescription());
+        cache.put(channel, HmParamsetType.VALUES, createDescription());
+        cache.save(true);
+
+        // next start, only the VALUES description is still in use
+        cache.load();
+        cache.get(channel, HmParamsetType.VALUES);
+        cache.save(true);
+
+        ParamsetDescriptionCache reloadedCache = new ParamsetDescriptionCache(cacheFile);
+        reloadedCache.load();
+
+        assertThat(reloadedCache.size(), is(1));
+        assertThat(reloadedCache.get(channel, HmParamsetType.VALUES), is(notNullValue()));
+    }
+
+    @Test
+    public void invalidCacheFileIsIgnored() throws Exception {
+        Files.write(cacheFile.toPath(), new byte[] { 1, 2, 3 });
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile);
+        cache.load();
+
+        assertThat(cache.size(), is(0));
+        assertThat(cacheFile.exists(), is(false));
+    }
+
+    @Test
+    public void cacheFileWithUnexpectedClassesIsDiscarded() throws Exception {
+        Map<String, Object> content = new HashMap<>();
+        content.put("key", new Object[] { new ArrayList<>(List.of("unexpected")) });
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(cacheFile))) {
+            out.writeObject(content);
+        }
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile);
+        cache.load();
+
+        assertThat(cache.size(), is(0));
+        assertThat(cacheFile.exists(), is(false));
+    }
+
+    @Test
+    public void cacheFileWithUnexpectedStructureIsDiscarded() throws Exception {
+        Map<String, Object> content = new HashMap<>();
+        content.put("key", "not a description");
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(cacheFile))) {
+            out.writeObject(content);
+        }
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile);
+        cache.load();
+
+        assertThat(cache.size(), is(0));
+        assertThat(cacheFile.exists(), is(false));
+    }
+
+    private Object[] createDescription() {
+        Map<String, Object> level = new HashMap<>();
+        level.put("TYPE", "FLOAT");
+        level.put("MIN", 0.0);
+        level.put("MAX", 1.0);
+        level.put("OPERATIONS", 7);
+        level.put("VALUE_LIST", new Object[] { "OFF", "ON" });
+
+        Map<String, Object> datapoints = new HashMap<>();
+        datapoints.put("LEVEL", level);
+        return new Object[] { datapoints };
+    }
+}
@@ -19,6 +19,8 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -68,6 +70,32 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
     }
 
+    @Test
+    public void paramsetDescriptionsAreLoadedIndividuallyWithoutMulticall() throws IOException {
+        HmChannel channel = createDimmerHmChannel();
+
+        List<Object[]> descriptions = rpcClient.getParamsetDescriptions(Arrays.asList(channel, channel),
+                Arrays.asList(HmParamsetType.MASTER, HmParamsetType.VALUES));
+
+        assertThat(descriptions.size(), is(2));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(2));
+        assertThat(rpcClient.numberOfCalls.get(MULTICALL_NAME), is(0));
+    }
+
+    @Test
+    public void paramsetDescriptionsAreLoadedWithMulticall() throws IOException {
+        rpcClient.multicallSupported = true;
+        HmChannel channel = createDimmerHmChannel();
+
+        List<Object[]> descriptions = rpcClient.getParamsetDescriptions(Arrays.asList(channel, channel),
+                Arrays.asList(HmParamsetType.MASTER, HmParamsetType.VALUES));
+
+        assertThat(descriptions.size(), is(2));
+        assertThat(descriptions.get(1)[0], is(notNullValue()));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
+        assertThat(rpcClient.numberOfCalls.get(MULTICALL_NAME), is(1));
+    }
+
     @Test
     public void valuesParamsetIsLoadedForChannel() throws IOException {
         HmChannel channel = createDimmerHmChannel();
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BinRpcMessage}, the encoded messages are captured from the previous implementation and a CCU.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "ISO-8859-1";
+
+    private static final String RF_LEVEL_EVENT = "42696E000000004C000000056576656E7400000004000000030000000A52462D6F70656E68"
+            + "6162000000030000000C4A4551303132333435363A3100000003000000054C4556454C000000042CCCCCCDFFFFFFFF";
+    private static final String HMIP_TEMPERATURE_EVENT = "42696E000000005F000000056576656E7400000004000000030000000C486D"
+            + "49502D6F70656E686162000000030000001030303041314245394137463243333A31000000030000001241435455414C5F54454D50"
+            + "45524154555245000000042B00000000000005";
+    private static final byte[] BIN_EMPTY_STRING = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
+
+    @Test
+    public void capturedEventsAreDecoded() throws IOException {
+        BinRpcMessage message = decode(RF_LEVEL_EVENT);
+
+        assertThat(message.getMethodName(), is("event"));
+        assertThat(message.getResponseData(), is(new Object[] { "RF-openhab", "JEQ0123456:1", "LEVEL", 0.35 }));
+
+        message = decode(HMIP_TEMPERATURE_EVENT);
+
+        assertThat(message.getMethodName(), is("event"));
+        assertThat(message.getResponseData(),
+                is(new Object[] { "HmIP-openhab", "000A1BE9A7F2C3:1", "ACTUAL_TEMPERATURE", 21.5 }));
+    }
+
+    @Test
+    public void capturedEventsAreEncoded() {
+        BinRpcMessage message = new BinRpcMessage("event", ENCODING);
+        message.addArg("RF-openhab");
+        message.addArg("JEQ0123456:1");
+        message.addArg("LEVEL");
+        message.addArg(0.35);
+
+        assertThat(message.createMessage(), is(fromHex(RF_LEVEL_EVENT)));
+        assertThat(message.getArgCount(), is(4));
+    }
+
+    @Test
+    public void emptyStringResponseIsEncoded() {
+        BinRpcMessage message = new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, ENCODING);
+        message.addArg("");
+
+        assertThat(message.createMessage(), is(BIN_EMPTY_STRING));
+    }
+
+    @Test
+    public void consecutiveMessagesAreDecodedFromOneStream() throws IOException {
+        byte[] first = fromHex(RF_LEVEL_EVENT);
+        byte[] second = fromHex(HMIP_TEMPERATURE_EVENT);
+        ByteArrayInputStream stream = new ByteArrayInputStream(concat(first, second));
+
+        assertThat(new BinRpcMessage(stream, true, ENCODING).getResponseData()[2], is("LEVEL"));
+        assertThat(new BinRpcMessage(stream, true, ENCODING).getResponseData()[2], is("ACTUAL_TEMPERATURE"));
+        assertThrows(EOFException.class, () -> new BinRpcMessage(stream, true, ENCODING));
+    }
+
+    @Test
+    public void messagesLargerThanTheReadBufferAreDecoded() throws IOException {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        String longValue = new String(chars);
+        BinRpcMessage message = new BinRpcMessage("setValue", ENCODING);
+        message.addArg(longValue);
+
+        byte[] encoded = message.createMessage();
+        // deliver the message in small chunks like a socket does
+        SequenceInputStream stream = new SequenceInputStream(new ByteArrayInputStream(encoded, 0, 100),
+                new ByteArrayInputStream(encoded, 100, encoded.length - 100));
+
+        assertThat(new BinRpcMessage(stream, true, ENCODING).getResponseData(), is(new Object[] { longValue }));
+    }
+
+    @Test
+    public void allTypesSurviveRoundTrip() throws IOException, ParseException {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put("ADDRESS", "JEQ0123456:1");
+        struct.put("VALUE", -12.125);
+        struct.put("FLAGS", 3);
+        struct.put("VALUE_LIST", Arrays.asList("OFF", "ON"));
+
+        BinRpcMessage message = new BinRpcMessage("system.multicall", ENCODING);
+        message.addArg(42);
+        message.addArg(Boolean.FALSE);
+        message.addArg("Küche");
+        message.addArg(1.1);
+        message.addArg(Long.valueOf(1L << 40));
+        message.addArg(new Date(1600000000000L));
+        message.addArg(struct);
+        message.addArg(new Object[] { "a", 1 });
+
+        Object[] data = new BinRpcMessage(message.createMessage(), true, ENCODING).getResponseData();
+
+        assertThat(data[0], is(42));
+        assertThat(data[1], is(Boolean.FALSE));
+        assertThat(data[2], is("Küche"));
+        assertThat(data[3], is(1.1));
+        assertThat(data[4], is(1L << 40));
+        assertThat(data[5], is(new Date(1600000000000L)));
+        Map<?, ?> decodedStruct = (Map<?, ?>) data[6];
+        assertThat(decodedStruct.get("ADDRESS"), is("JEQ0123456:1"));
+        assertThat(decodedStruct.get("VALUE"), is(-12.125));
+        assertThat(decodedStruct.get("FLAGS"), is(3));
+        assertThat(decodedStruct.get("VALUE_LIST"), is(new Object[] { "OFF", "ON" }));
+        assertThat(data[7], is(new Object[] { "a", 1 }));
+    }
+
+    @Test
+    public void doublesAreRoundedToSixDecimalPlaces() throws IOException, ParseException {
+        BinRpcMessage message = new BinRpcMessage("event", ENCODING);
+        message.addArg(0.1234567);
+        message.addArg(-3.0000004);
+        message.addArg(0.0);
+
+        Object[] data = new BinRpcMessage(message.createMessage(), true, ENCODING).getResponseData();
+
+        assertThat(data, is(new Object[] { 0.123457, -3.0, 0.0 }));
+    }
+
+    @Test
+    public void truncatedMessageIsRejected() {
+        byte[] encoded = fromHex(RF_LEVEL_EVENT);
+
+        assertThrows(EOFException.class, () -> new BinRpcMessage(new ByteArrayInputStream(encoded, 0, 40), true,
+                ENCODING));
+        assertThrows(EOFException.class,
+                () -> new BinRpcMessage(Arrays.copyOf(encoded, encoded.length - 4), true, ENCODING));
+    }
+
+    @Test
+    public void decodedMessageCanBeEncodedAgain() throws IOException {
+        BinRpcMessage message = decode(HMIP_TEMPERATURE_EVENT);
+
+        assertThat(message.createMessage(), is(fromHex(HMIP_TEMPERATURE_EVENT)));
+    }
+
+    private BinRpcMessage decode(String hex) throws IOException {
+        return new BinRpcMessage(new ByteArrayInputStream(fromHex(hex)), true, ENCODING);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] data = new byte[hex.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return data;
+    }
+}
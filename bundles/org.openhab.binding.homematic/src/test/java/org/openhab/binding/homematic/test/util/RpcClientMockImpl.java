@@ -13,8 +13,10 @@
 package org.openhab.binding.homematic.test.util;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
@@ -28,8 +30,11 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     public static final String GET_PARAMSET_DESCRIPTION_NAME = "getParamsetDescription";
     public static final String GET_PARAMSET_NAME = "getParamset";
+    public static final String LIST_METHODS_NAME = "system.listMethods";
+    public static final String MULTICALL_NAME = "system.multicall";
 
     public Map<String, Integer> numberOfCalls = new HashMap<>();
+    public boolean multicallSupported;
 
     public RpcClientMockImpl() throws IOException {
         this(new HomematicConfig());
@@ -38,7 +43,8 @@ public class RpcClientMockImpl extends RpcClient<String> {
     public RpcClientMockImpl(HomematicConfig config) throws IOException {
         super(config);
 
-        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME).forEach(method -> numberOfCalls.put(method, 0));
+        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME, MULTICALL_NAME)
+                .forEach(method -> numberOfCalls.put(method, 0));
     }
 
     @Override
@@ -47,6 +53,16 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
         increaseNumberOfCalls(methodName);
 
+        if (LIST_METHODS_NAME.equals(methodName)) {
+            return new Object[] { multicallSupported ? new Object[] { MULTICALL_NAME } : new Object[0] };
+        } else if (MULTICALL_NAME.equals(methodName)) {
+            List<?> calls = (List<?>) ((MockRpcRequest) request).args.get(0);
+            Object[] results = new Object[calls.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = mockResponse();
+            }
+            return new Object[] { results };
+        }
         return mockResponse();
     }
 
@@ -67,22 +83,7 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     @Override
     protected RpcRequest<String> createRpcRequest(String methodName) {
-        return new RpcRequest<String>() {
-
-            @Override
-            public void addArg(Object arg) {
-            }
-
-            @Override
-            public String createMessage() {
-                return null;
-            }
-
-            @Override
-            public String getMethodName() {
-                return methodName;
-            }
-        };
+        return new MockRpcRequest(methodName);
     }
 
     @Override
@@ -93,4 +94,28 @@ public class RpcClientMockImpl extends RpcClient<String> {
     protected String getRpcCallbackUrl() {
         return null;
     }
+
+    private static class MockRpcRequest implements RpcRequest<String> {
+        private final String methodName;
+        private final List<Object> args = new ArrayList<>();
+
+        private MockRpcRequest(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public void addArg(Object arg) {
+            args.add(arg);
+        }
+
+        @Override
+        public String createMessage() {
+            return null;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
+    }
 }
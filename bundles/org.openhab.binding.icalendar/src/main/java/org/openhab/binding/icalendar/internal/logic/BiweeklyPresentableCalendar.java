@@ -20,8 +20,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -55,14 +60,25 @@ import biweekly.util.com.google.ical.compat.javautil.DateIterator;
  * use {@link AbstractPresentableCalendar#create(InputStream)} for productive
  * instantiation.
  *
+ * Occurrences of all events are materialized for a window around the queried
+ * time frames and kept in an {@link IntervalTree}, so recurrences are only
+ * expanded again when the window has to advance. Queries for time frames which
+ * are too long for a window expand the recurrences directly.
+ *
  * @author Michael Wodniok - Initial contribution
  * @author Andrew Fiddian-Green - Methods getJustBegunEvents() & getJustEndedEvents()
  * @author Michael Wodniok - Extension for filtered events
  * @author Michael Wodniok - Added logic for events moved with "RECURRENCE-ID" (issue 9647)
+ * @author agent - Interval tree occurrence index
  */
 @NonNullByDefault
 class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
+    private static final Duration OCCURRENCE_WINDOW_HISTORY = Duration.ofDays(1);
+    private static final Duration OCCURRENCE_WINDOW_ADVANCE = Duration.ofDays(7);
+    private static final Duration MAXIMUM_OCCURRENCE_WINDOW = Duration.ofDays(366);
+
     private final ICalendar usedCalendar;
+    private @Nullable OccurrenceWindow occurrenceWindow;
 
     BiweeklyPresentableCalendar(InputStream streamed) throws IOException, CalendarException {
         try (final ICalReader reader = new ICalReader(streamed)) {
@@ -87,6 +103,19 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
     @Override
     public List<Event> getJustBegunEvents(Instant frameBegin, Instant frameEnd) {
         final List<Event> eventList = new ArrayList<>();
+        final OccurrenceWindow window = getOccurrenceWindow(frameBegin, frameEnd);
+        if (window != null) {
+            final List<Occurrence> begun = window.occurrences.getStartingBetween(frameBegin, frameEnd.plusNanos(1));
+            for (final Occurrence occurrence : getFirstOfEachSeries(begun)) {
+                Duration duration = occurrence.duration;
+                if (duration == null) {
+                    duration = Duration.ofMinutes(1);
+                }
+                eventList.add(new VEventWPeriod(occurrence.vEvent, occurrence.start, occurrence.start.plus(duration))
+                        .toEvent());
+            }
+            return eventList;
+        }
         // process all the events in the iCalendar
         for (final VEvent event : usedCalendar.getEvents()) {
             // iterate over all begin dates
@@ -113,6 +142,20 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
     @Override
     public List<Event> getJustEndedEvents(Instant frameBegin, Instant frameEnd) {
         final List<Event> eventList = new ArrayList<>();
+        final OccurrenceWindow window = getOccurrenceWindow(frameBegin, frameEnd);
+        if (window != null) {
+            final List<Occurrence> ended = new ArrayList<>();
+            for (final Occurrence occurrence : window.occurrences.getEndingBetween(frameBegin,
+                    frameEnd.plusNanos(1))) {
+                if (occurrence.duration != null) {
+                    ended.add(occurrence);
+                }
+            }
+            for (final Occurrence occurrence : getFirstOfEachSeries(ended)) {
+                eventList.add(occurrence.toEvent());
+            }
+            return eventList;
+        }
         // process all the events in the iCalendar
         for (final VEvent event : usedCalendar.getEvents()) {
             final Duration duration = getEventLength(event);
@@ -139,6 +182,15 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
 
     @Override
     public @Nullable Event getNextEvent(Instant instant) {
+        final OccurrenceWindow window = getOccurrenceWindow(instant, instant);
+        if (window != null) {
+            final Occurrence next = window.occurrences.getFirstStartingAfter(instant,
+                    occurrence -> occurrence.active && occurrence.duration != null);
+            if (next != null) {
+                return next.toEvent();
+            }
+            // the next event may be after the window
+        }
         final Collection<VEventWPeriod> candidates = new ArrayList<VEventWPeriod>();
         final Collection<VEvent> negativeEvents = new ArrayList<VEvent>();
         final Collection<VEvent> positiveEvents = new ArrayList<VEvent>();
@@ -245,6 +297,21 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
      * @return All events which begin in the time frame.
      */
     private List<VEventWPeriod> getVEventWPeriodsBetween(Instant frameBegin, Instant frameEnd, int maximumPerSeries) {
+        final OccurrenceWindow window = getOccurrenceWindow(frameBegin, frameEnd);
+        if (window != null) {
+            final List<VEventWPeriod> eventList = new ArrayList<>();
+            final Map<Integer, Integer> foundInSeries = new HashMap<>();
+            for (final Occurrence occurrence : window.occurrences.getStartingBetween(frameBegin, frameEnd)) {
+                if (occurrence.active) {
+                    final int found = foundInSeries.merge(occurrence.series, 1, Integer::sum);
+                    if (maximumPerSeries == 0 || found <= maximumPerSeries) {
+                        eventList.add(occurrence);
+                    }
+                }
+            }
+            return eventList;
+        }
+
         final List<VEvent> positiveEvents = new ArrayList<>();
         final List<VEvent> negativeEvents = new ArrayList<>();
         classifyEvents(positiveEvents, negativeEvents);
@@ -316,6 +383,18 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
      * @return A VEventWPeriod describing the event or null if there is none.
      */
     private @Nullable VEventWPeriod getCurrentComponentWPeriod(Instant instant) {
+        final OccurrenceWindow window = getOccurrenceWindow(instant, instant);
+        if (window != null) {
+            Occurrence current = null;
+            for (final Occurrence occurrence : window.occurrences.getContaining(instant)) {
+                if (occurrence.active && occurrence.duration != null
+                        && (current == null || occurrence.series < current.series)) {
+                    current = occurrence;
+                }
+            }
+            return current;
+        }
+
         final List<VEvent> negativeEvents = new ArrayList<VEvent>();
         final List<VEvent> positiveEvents = new ArrayList<VEvent>();
         classifyEvents(positiveEvents, negativeEvents);
@@ -345,6 +424,84 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
         return null;
     }
 
+    /**
+     * Retrieves the window of occurrences covering the given time frame. If the
+     * current window does not cover the time frame, a new window is created
+     * which begins a bit before the time frame and reaches beyond it.
+     *
+     * @param frameBegin The begin of the time frame.
+     * @param frameEnd The end of the time frame.
+     * @return The window covering the time frame or null if the time frame is too long to materialize occurrences.
+     */
+    private synchronized @Nullable OccurrenceWindow getOccurrenceWindow(Instant frameBegin, Instant frameEnd) {
+        final Instant end = (frameEnd.isBefore(frameBegin) ? frameBegin : frameEnd);
+        final OccurrenceWindow currentWindow = occurrenceWindow;
+        if (currentWindow != null && currentWindow.covers(frameBegin, end)) {
+            return currentWindow;
+        }
+        if (Duration.between(frameBegin, end).compareTo(MAXIMUM_OCCURRENCE_WINDOW) > 0) {
+            return null;
+        }
+        final Instant windowBegin = frameBegin.minus(OCCURRENCE_WINDOW_HISTORY);
+        final Instant windowEnd = end.plus(OCCURRENCE_WINDOW_ADVANCE);
+        final OccurrenceWindow newWindow = new OccurrenceWindow(windowBegin, windowEnd,
+                materializeOccurrences(windowBegin, windowEnd));
+        occurrenceWindow = newWindow;
+        return newWindow;
+    }
+
+    /**
+     * Expands the recurrences of all events within the window. An occurrence is
+     * part of the window if it starts within the window or lasts into it.
+     *
+     * @param windowBegin The begin of the window.
+     * @param windowEnd The end of the window.
+     * @return A tree of all occurrences in the window.
+     */
+    private IntervalTree<Occurrence> materializeOccurrences(Instant windowBegin, Instant windowEnd) {
+        final List<VEvent> positiveEvents = new ArrayList<>();
+        final List<VEvent> negativeEvents = new ArrayList<>();
+        classifyEvents(positiveEvents, negativeEvents);
+        final Set<VEvent> positiveSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        positiveSet.addAll(positiveEvents);
+
+        final List<Occurrence> occurrences = new ArrayList<>();
+        final List<VEvent> events = usedCalendar.getEvents();
+        for (int series = 0; series < events.size(); series++) {
+            final VEvent event = events.get(series);
+            final boolean positive = positiveSet.contains(event);
+            final Uid eventUid = event.getUid();
+            final Duration duration = getEventLength(event);
+            final Duration length = (duration == null ? Duration.ZERO : duration);
+            final DateIterator startDates = getRecurredEventDateIterator(event);
+            startDates.advanceTo(Date.from(windowBegin.minus(length)));
+            while (startDates.hasNext()) {
+                final Instant startInstant = startDates.next().toInstant();
+                if (startInstant.isAfter(windowEnd)) {
+                    break;
+                }
+                final boolean active = positive
+                        && (eventUid == null || !isCounteredBy(startInstant, eventUid, negativeEvents));
+                occurrences.add(new Occurrence(event, series, startInstant, duration, active));
+            }
+        }
+        return new IntervalTree<>(occurrences, occurrence -> occurrence.start, occurrence -> occurrence.end);
+    }
+
+    /**
+     * Retains the first occurrence of each series.
+     *
+     * @param occurrences The occurrences in the order they happen.
+     * @return The first occurrence of each series, in order of the events in the calendar.
+     */
+    private static List<Occurrence> getFirstOfEachSeries(List<Occurrence> occurrences) {
+        final Map<Integer, Occurrence> firstOfSeries = new TreeMap<>();
+        for (final Occurrence occurrence : occurrences) {
+            firstOfSeries.putIfAbsent(occurrence.series, occurrence);
+        }
+        return new ArrayList<>(firstOfSeries.values());
+    }
+
     /**
      * Finds a duration of the event.
      *
@@ -454,4 +611,50 @@ class BiweeklyPresentableCalendar extends AbstractPresentableCalendar {
             return new Event(title, start, end, description);
         }
     }
+
+    /**
+     * An occurrence of an event materialized within the {@link OccurrenceWindow}.
+     *
+     * @author agent - Initial contribution.
+     */
+    private static class Occurrence extends VEventWPeriod {
+        final int series;
+        final @Nullable Duration duration;
+        final boolean active;
+
+        /**
+         * @param vEvent The event that occurs.
+         * @param series The position of the event within the calendar.
+         * @param start The start of the occurrence.
+         * @param duration The duration of the event or null if unknown.
+         * @param active Whether the event is positive and this occurrence is not countered.
+         */
+        public Occurrence(VEvent vEvent, int series, Instant start, @Nullable Duration duration, boolean active) {
+            super(vEvent, start, start.plus(duration == null ? Duration.ZERO : duration));
+            this.series = series;
+            this.duration = duration;
+            this.active = active;
+        }
+    }
+
+    /**
+     * The occurrences of all events within a time window.
+     *
+     * @author agent - Initial contribution.
+     */
+    private static class OccurrenceWindow {
+        final Instant begin;
+        final Instant end;
+        final IntervalTree<Occurrence> occurrences;
+
+        public OccurrenceWindow(Instant begin, Instant end, IntervalTree<Occurrence> occurrences) {
+            this.begin = begin;
+            this.end = end;
+            this.occurrences = occurrences;
+        }
+
+        boolean covers(Instant frameBegin, Instant frameEnd) {
+            return !frameBegin.isBefore(begin) && !frameEnd.isAfter(end);
+        }
+    }
 }
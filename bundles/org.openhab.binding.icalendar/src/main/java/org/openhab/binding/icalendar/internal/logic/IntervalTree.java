@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.icalendar.internal.logic;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * An immutable interval tree over elements with a start and an end. The
+ * elements are kept sorted by start, the sorted array is used as implicit
+ * balanced tree where every node knows the latest end within its subtree.
+ * This allows to find all elements containing an instant and all elements
+ * starting or ending within a time frame in logarithmic time plus the time
+ * to collect the results.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> Type of the elements.
+ */
+@NonNullByDefault
+class IntervalTree<T> {
+    private final List<T> elements;
+    private final Instant[] starts;
+    private final Instant[] ends;
+    private final Instant[] maximumEnds;
+    private final int[] endOrder;
+
+    /**
+     * Creates a tree of the given elements. Elements with the same start keep
+     * their order.
+     *
+     * @param elements The elements of the tree.
+     * @param startOf Function that retrieves the start of an element.
+     * @param endOf Function that retrieves the end of an element.
+     */
+    IntervalTree(Collection<T> elements, Function<T, Instant> startOf, Function<T, Instant> endOf) {
+        final List<T> sorted = new ArrayList<>(elements);
+        sorted.sort(Comparator.comparing(startOf));
+        final int size = sorted.size();
+        this.elements = sorted;
+        this.starts = new Instant[size];
+        this.ends = new Instant[size];
+        for (int i = 0; i < size; i++) {
+            final T element = sorted.get(i);
+            starts[i] = startOf.apply(element);
+            ends[i] = endOf.apply(element);
+        }
+        this.maximumEnds = new Instant[size];
+        if (size > 0) {
+            buildMaximumEnds(0, size);
+        }
+        this.endOrder = Arrays.stream(indices(size)).sorted(Comparator.comparing(i -> ends[i]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return The number of elements within the tree.
+     */
+    int size() {
+        return elements.size();
+    }
+
+    /**
+     * Finds all elements that contain the instant, excluding their start and end.
+     *
+     * @param instant The Instant to search elements for.
+     * @return The elements containing the instant, ordered by start.
+     */
+    List<T> getContaining(Instant instant) {
+        final List<T> results = new ArrayList<>();
+        collectContaining(0, elements.size(), instant, results);
+        return results;
+    }
+
+    /**
+     * Finds all elements that start within the time frame.
+     *
+     * @param frameBegin The begin of the time frame, inclusive.
+     * @param frameEnd The end of the time frame, exclusive.
+     * @return The elements starting within the time frame, ordered by start.
+     */
+    List<T> getStartingBetween(Instant frameBegin, Instant frameEnd) {
+        final List<T> results = new ArrayList<>();
+        for (int i = lowerBound(frameBegin, index -> starts[index]); i < starts.length
+                && starts[i].isBefore(frameEnd); i++) {
+            results.add(elements.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Finds all elements that end within the time frame.
+     *
+     * @param frameBegin The begin of the time frame, inclusive.
+     * @param frameEnd The end of the time frame, exclusive.
+     * @return The elements ending within the time frame, ordered by end.
+     */
+    List<T> getEndingBetween(Instant frameBegin, Instant frameEnd) {
+        final List<T> results = new ArrayList<>();
+        for (int i = lowerBound(frameBegin, index -> ends[endOrder[index]]); i < endOrder.length
+                && ends[endOrder[i]].isBefore(frameEnd); i++) {
+            results.add(elements.get(endOrder[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Finds the first element starting after the given instant that matches the filter.
+     *
+     * @param instant The Instant after which the element has to start.
+     * @param filter The filter the element has to match.
+     * @return The element with the earliest start or null if there is none.
+     */
+    @Nullable
+    T getFirstStartingAfter(Instant instant, Predicate<T> filter) {
+        for (int i = lowerBound(instant, index -> starts[index]); i < starts.length; i++) {
+            final T element = elements.get(i);
+            if (starts[i].isAfter(instant) && filter.test(element)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private Instant buildMaximumEnds(int low, int high) {
+        final int middle = (low + high) >>> 1;
+        Instant maximum = ends[middle];
+        if (low < middle) {
+            maximum = later(maximum, buildMaximumEnds(low, middle));
+        }
+        if (middle + 1 < high) {
+            maximum = later(maximum, buildMaximumEnds(middle + 1, high));
+        }
+        maximumEnds[middle] = maximum;
+        return maximum;
+    }
+
+    private void collectContaining(int low, int high, Instant instant, List<T> results) {
+        if (low >= high) {
+            return;
+        }
+        final int middle = (low + high) >>> 1;
+        if (!maximumEnds[middle].isAfter(instant)) {
+            // nothing in this subtree ends after the instant
+            return;
+        }
+        collectContaining(low, middle, instant, results);
+        if (starts[middle].isBefore(instant)) {
+            if (ends[middle].isAfter(instant)) {
+                results.add(elements.get(middle));
+            }
+            collectContaining(middle + 1, high, instant, results);
+        }
+    }
+
+    /**
+     * Binary search for the first position whose key is not before the instant.
+     */
+    private int lowerBound(Instant instant, IntFunction<Instant> keyAt) {
+        int low = 0;
+        int high = elements.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (keyAt.apply(middle).isBefore(instant)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static Integer[] indices(int size) {
+        final Integer[] indices = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private static Instant later(Instant first, Instant second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
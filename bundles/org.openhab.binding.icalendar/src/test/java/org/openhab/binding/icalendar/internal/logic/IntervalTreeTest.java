@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.icalendar.internal.logic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the interval tree of occurrences.
+ *
+ * @author agent - Initial contribution
+ */
+public class IntervalTreeTest {
+    private static final Instant BASE = Instant.parse("2021-01-01T00:00:00Z");
+
+    private List<Event> events;
+    private IntervalTree<Event> tree;
+
+    @BeforeEach
+    public void setUp() {
+        final Random random = new Random(4711);
+        events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final Instant start = BASE.plusSeconds(random.nextInt(1000) * 60);
+            final Instant end = start.plusSeconds(random.nextInt(120) * 60);
+            events.add(new Event("Event " + i, start, end, ""));
+        }
+        tree = new IntervalTree<>(events, event -> event.start, event -> event.end);
+    }
+
+    @Test
+    public void testEmptyTree() {
+        final IntervalTree<Event> emptyTree = new IntervalTree<>(Collections.emptyList(), event -> event.start,
+                event -> event.end);
+        assertEquals(0, emptyTree.size());
+        assertTrue(emptyTree.getContaining(BASE).isEmpty());
+        assertTrue(emptyTree.getStartingBetween(BASE, BASE.plusSeconds(60)).isEmpty());
+        assertTrue(emptyTree.getEndingBetween(BASE, BASE.plusSeconds(60)).isEmpty());
+        assertNull(emptyTree.getFirstStartingAfter(BASE, event -> true));
+    }
+
+    @Test
+    public void testGetContaining() {
+        assertEquals(events.size(), tree.size());
+        for (int minute = -10; minute < 1200; minute += 7) {
+            final Instant instant = BASE.plusSeconds(minute * 60 + (minute % 2) * 30);
+            final List<Event> expected = sortedByStart(events.stream()
+                    .filter(event -> event.start.isBefore(instant) && event.end.isAfter(instant)));
+            assertEquals(expected, tree.getContaining(instant));
+        }
+    }
+
+    @Test
+    public void testGetStartingBetween() {
+        for (int minute = -10; minute < 1200; minute += 13) {
+            final Instant begin = BASE.plusSeconds(minute * 60);
+            final Instant end = begin.plusSeconds(45 * 60);
+            final List<Event> expected = sortedByStart(
+                    events.stream().filter(event -> !event.start.isBefore(begin) && event.start.isBefore(end)));
+            assertEquals(expected, tree.getStartingBetween(begin, end));
+        }
+        assertTrue(tree.getStartingBetween(BASE.plusSeconds(600), BASE).isEmpty());
+    }
+
+    @Test
+    public void testGetEndingBetween() {
+        for (int minute = -10; minute < 1200; minute += 13) {
+            final Instant begin = BASE.plusSeconds(minute * 60);
+            final Instant end = begin.plusSeconds(45 * 60);
+            final List<Event> expected = events.stream()
+                    .filter(event -> !event.end.isBefore(begin) && event.end.isBefore(end))
+                    .sorted(Comparator.comparing(event -> event.end)).collect(Collectors.toList());
+            final List<Event> found = tree.getEndingBetween(begin, end);
+            assertEquals(expected.size(), found.size());
+            assertTrue(found.containsAll(expected));
+            for (int i = 1; i < found.size(); i++) {
+                assertFalse(found.get(i).end.isBefore(found.get(i - 1).end));
+            }
+        }
+    }
+
+    @Test
+    public void testGetFirstStartingAfter() {
+        final Event first = tree.getFirstStartingAfter(BASE.minusSeconds(1), event -> true);
+        assertNotNull(first);
+        assertEquals(sortedByStart(events.stream()).get(0), first);
+
+        final Instant instant = BASE.plusSeconds(500 * 60);
+        final Event next = tree.getFirstStartingAfter(instant, event -> event.end.isAfter(event.start));
+        assertEquals(sortedByStart(events.stream()
+                .filter(event -> event.start.isAfter(instant) && event.end.isAfter(event.start))).get(0), next);
+
+        assertNull(tree.getFirstStartingAfter(BASE.plusSeconds(1000 * 60), event -> true));
+    }
+
+    private static List<Event> sortedByStart(Stream<Event> events) {
+        // stable, so events with the same start keep their order
+        return events.sorted(Comparator.comparing(event -> event.start)).collect(Collectors.toList());
+    }
+}
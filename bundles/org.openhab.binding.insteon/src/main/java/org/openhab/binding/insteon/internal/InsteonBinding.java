@@ -48,6 +48,7 @@ import org.openhab.binding.insteon.internal.driver.Port;
 import org.openhab.binding.insteon.internal.handler.InsteonDeviceHandler;
 import org.openhab.binding.insteon.internal.handler.InsteonNetworkHandler;
 import org.openhab.binding.insteon.internal.message.FieldException;
+import org.openhab.binding.insteon.internal.message.FieldKey;
 import org.openhab.binding.insteon.internal.message.Msg;
 import org.openhab.binding.insteon.internal.message.MsgListener;
 import org.openhab.binding.insteon.internal.utils.Utils;
@@ -525,12 +526,12 @@ public class InsteonBinding {
         }
 
         private void handleInsteonMessage(Msg msg) {
-            InsteonAddress toAddr = msg.getAddr("toAddress");
+            InsteonAddress toAddr = msg.getAddr(FieldKey.TO_ADDRESS);
             if (!msg.isBroadcast() && !driver.isMsgForUs(toAddr)) {
                 // not for one of our modems, do not process
                 return;
             }
-            InsteonAddress fromAddr = msg.getAddr("fromAddress");
+            InsteonAddress fromAddr = msg.getAddr(FieldKey.FROM_ADDRESS);
             if (fromAddr == null) {
                 logger.debug("invalid fromAddress, ignoring msg {}", msg);
                 return;
@@ -14,6 +14,7 @@ package org.openhab.binding.insteon.internal.device;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -28,6 +29,7 @@ import org.openhab.binding.insteon.internal.device.DeviceType.FeatureGroup;
 import org.openhab.binding.insteon.internal.device.GroupMessageStateMachine.GroupMessage;
 import org.openhab.binding.insteon.internal.driver.Driver;
 import org.openhab.binding.insteon.internal.message.FieldException;
+import org.openhab.binding.insteon.internal.message.FieldKey;
 import org.openhab.binding.insteon.internal.message.InvalidMessageTypeException;
 import org.openhab.binding.insteon.internal.message.Msg;
 import org.openhab.core.types.Command;
@@ -248,7 +250,8 @@ public class InsteonDevice {
     /**
      * Execute poll on this device: create an array of messages,
      * add them to the request queue, and schedule the queue
-     * for processing.
+     * for processing. Queries that are already queued for the
+     * same feature are merged with the queued ones.
      *
      * @param delay scheduling delay (in milliseconds)
      */
@@ -272,7 +275,7 @@ public class InsteonDevice {
         }
         synchronized (mrequestQueue) {
             for (QEntry e : l) {
-                mrequestQueue.add(e);
+                addQuery(e);
             }
         }
         RequestQueueManager instance = RequestQueueManager.instance();
@@ -287,6 +290,35 @@ public class InsteonDevice {
         }
     }
 
+    /**
+     * Adds a query to the request queue, unless the same query for the same feature
+     * is queued already. The poller, broadcasts and related devices can all trigger
+     * polls in short succession, which would otherwise query the device repeatedly
+     * for the same thing. A merged query is sent at the earlier of both times.
+     * Must be called with the request queue locked.
+     *
+     * @param query the query to add
+     */
+    private void addQuery(QEntry query) {
+        QEntry queued = null;
+        for (QEntry e : mrequestQueue) {
+            if (e != null && e.getFeature() == query.getFeature()
+                    && Arrays.equals(e.getMsg().getData(), query.getMsg().getData())) {
+                queued = e;
+                break;
+            }
+        }
+        if (queued == null) {
+            mrequestQueue.add(query);
+        } else {
+            logger.trace("merging query of {} with queued one: {}", query.getFeature(), query.getMsg());
+            if (query.getExpirationTime() < queued.getExpirationTime()) {
+                mrequestQueue.remove(queued);
+                mrequestQueue.add(query);
+            }
+        }
+    }
+
     /**
      * Handle incoming message for this device by forwarding
      * it to all features that this device supports
@@ -358,10 +390,10 @@ public class InsteonDevice {
         } else {
             addr = getAddress();
         }
-        m.setAddress("toAddress", addr);
-        m.setByte("messageFlags", f);
-        m.setByte("command1", cmd1);
-        m.setByte("command2", cmd2);
+        m.setAddress(FieldKey.TO_ADDRESS, addr);
+        m.setByte(FieldKey.MESSAGE_FLAGS, f);
+        m.setByte(FieldKey.COMMAND1, cmd1);
+        m.setByte(FieldKey.COMMAND2, cmd2);
         return m;
     }
 
@@ -402,10 +434,10 @@ public class InsteonDevice {
     public Msg makeExtendedMessage(byte flags, byte cmd1, byte cmd2, byte[] data)
             throws FieldException, InvalidMessageTypeException {
         Msg m = Msg.makeMessage("SendExtendedMessage");
-        m.setAddress("toAddress", getAddress());
-        m.setByte("messageFlags", (byte) (((flags & 0xff) | 0x10) & 0xff));
-        m.setByte("command1", cmd1);
-        m.setByte("command2", cmd2);
+        m.setAddress(FieldKey.TO_ADDRESS, getAddress());
+        m.setByte(FieldKey.MESSAGE_FLAGS, (byte) (((flags & 0xff) | 0x10) & 0xff));
+        m.setByte(FieldKey.COMMAND1, cmd1);
+        m.setByte(FieldKey.COMMAND2, cmd2);
         m.setUserData(data);
         m.setCRC();
         return m;
@@ -425,10 +457,10 @@ public class InsteonDevice {
     public Msg makeExtendedMessageCRC2(byte flags, byte cmd1, byte cmd2, byte[] data)
             throws FieldException, InvalidMessageTypeException {
         Msg m = Msg.makeMessage("SendExtendedMessage");
-        m.setAddress("toAddress", getAddress());
-        m.setByte("messageFlags", (byte) (((flags & 0xff) | 0x10) & 0xff));
-        m.setByte("command1", cmd1);
-        m.setByte("command2", cmd2);
+        m.setAddress(FieldKey.TO_ADDRESS, getAddress());
+        m.setByte(FieldKey.MESSAGE_FLAGS, (byte) (((flags & 0xff) | 0x10) & 0xff));
+        m.setByte(FieldKey.COMMAND1, cmd1);
+        m.setByte(FieldKey.COMMAND2, cmd2);
         m.setUserData(data);
         m.setCRC2();
         return m;
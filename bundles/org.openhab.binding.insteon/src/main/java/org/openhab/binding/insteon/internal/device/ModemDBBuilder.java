@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.insteon.internal.driver.ModemDBEntry;
 import org.openhab.binding.insteon.internal.driver.Port;
 import org.openhab.binding.insteon.internal.message.FieldException;
+import org.openhab.binding.insteon.internal.message.FieldKey;
 import org.openhab.binding.insteon.internal.message.InvalidMessageTypeException;
 import org.openhab.binding.insteon.internal.message.Msg;
 import org.openhab.binding.insteon.internal.message.MsgListener;
@@ -119,15 +120,15 @@ public class ModemDBBuilder implements MsgListener {
             return;
         }
         try {
-            if (msg.getByte("Cmd") == 0x69 || msg.getByte("Cmd") == 0x6a) {
+            if (msg.getByte(FieldKey.CMD) == 0x69 || msg.getByte(FieldKey.CMD) == 0x6a) {
                 // If the flag is "ACK/NACK", a record response
                 // will follow, so we do nothing here.
                 // If its "NACK", there are none
-                if (msg.getByte("ACK/NACK") == 0x15) {
+                if (msg.getByte(FieldKey.ACK_NACK) == 0x15) {
                     logger.debug("got all link records.");
                     done();
                 }
-            } else if (msg.getByte("Cmd") == 0x57) {
+            } else if (msg.getByte(FieldKey.CMD) == 0x57) {
                 // we got the link record response
                 updateModemDB(msg.getAddress("LinkAddr"), port, msg, false);
                 port.writeMessage(Msg.makeMessage("GetNextALLLinkRecord"));
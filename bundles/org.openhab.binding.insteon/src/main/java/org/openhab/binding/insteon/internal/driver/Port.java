@@ -29,6 +29,7 @@ import org.openhab.binding.insteon.internal.device.InsteonDevice;
 import org.openhab.binding.insteon.internal.device.ModemDBBuilder;
 import org.openhab.binding.insteon.internal.handler.InsteonDeviceHandler;
 import org.openhab.binding.insteon.internal.message.FieldException;
+import org.openhab.binding.insteon.internal.message.FieldKey;
 import org.openhab.binding.insteon.internal.message.InvalidMessageTypeException;
 import org.openhab.binding.insteon.internal.message.Msg;
 import org.openhab.binding.insteon.internal.message.MsgFactory;
@@ -486,7 +487,7 @@ public class Port {
                 if (msg.isPureNack()) {
                     return;
                 }
-                if (msg.getByte("Cmd") == 0x60) {
+                if (msg.getByte(FieldKey.CMD) == 0x60) {
                     // add the modem to the device list
                     InsteonAddress a = new InsteonAddress(msg.getAddress("IMAddress"));
                     DeviceTypeLoader instance = DeviceTypeLoader.instance();
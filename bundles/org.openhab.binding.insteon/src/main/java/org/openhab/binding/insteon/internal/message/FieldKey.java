@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.insteon.internal.message;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Compiled key of a message field. Every field name gets a unique index
+ * when it is first used, and each message definition keeps its fields in an
+ * array by that index. Accessing a field by its key is therefore plain array
+ * indexing, whereas accessing it by name needs a hash lookup.
+ *
+ * Keys of frequently used fields are predefined as constants.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class FieldKey {
+    private static final Map<String, FieldKey> KEYS = new HashMap<>();
+    private static final int USER_DATA_FIELDS = 14;
+
+    public static final FieldKey CMD = of("Cmd");
+    public static final FieldKey MESSAGE_FLAGS = of("messageFlags");
+    public static final FieldKey COMMAND1 = of("command1");
+    public static final FieldKey COMMAND2 = of("command2");
+    public static final FieldKey FROM_ADDRESS = of("fromAddress");
+    public static final FieldKey TO_ADDRESS = of("toAddress");
+    public static final FieldKey ACK_NACK = of("ACK/NACK");
+
+    private static final FieldKey[] USER_DATA = new FieldKey[USER_DATA_FIELDS];
+
+    static {
+        for (int i = 0; i < USER_DATA_FIELDS; i++) {
+            USER_DATA[i] = of("userData" + (i + 1));
+        }
+    }
+
+    private final String name;
+    private final int index;
+
+    private FieldKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the key of a field, creating it if the field name is used for the first time
+     *
+     * @param name the name of the field
+     * @return the key of the field
+     */
+    public static FieldKey of(String name) {
+        synchronized (KEYS) {
+            FieldKey key = KEYS.get(name);
+            if (key == null) {
+                key = new FieldKey(name, KEYS.size());
+                KEYS.put(name, key);
+            }
+            return key;
+        }
+    }
+
+    /**
+     * Returns the key of a field, if the field name is in use
+     *
+     * @param name the name of the field
+     * @return the key of the field or null if no message has a field of this name
+     */
+    static @Nullable FieldKey find(@Nullable String name) {
+        synchronized (KEYS) {
+            return KEYS.get(name);
+        }
+    }
+
+    /**
+     * Returns the key of a user data field
+     *
+     * @param n the number of the user data field, between 1 and 14
+     * @return the key of the field userData[n]
+     */
+    public static FieldKey userData(int n) {
+        return USER_DATA[n - 1];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
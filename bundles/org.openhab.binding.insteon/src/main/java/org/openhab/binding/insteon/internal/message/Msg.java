@@ -25,7 +25,6 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.insteon.internal.device.InsteonAddress;
 import org.openhab.binding.insteon.internal.utils.Utils;
 import org.openhab.binding.insteon.internal.utils.Utils.ParsingException;
-import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -79,10 +78,10 @@ public class Msg {
 
     // has the structure of all known messages
     private static final Map<String, Msg> MSG_MAP = new HashMap<>();
-    // maps between command number and the length of the header
-    private static final Map<Integer, Integer> HEADER_MAP = new HashMap<>();
-    // has templates for all message from modem to host
-    private static final Map<Integer, Msg> REPLY_MAP = new HashMap<>();
+    // maps between command number and the length of the header, -1 if unknown
+    private static final int[] HEADER_LENGTHS = new int[256];
+    // has templates for all message from modem to host, by command number and extended flag
+    private static final @Nullable Msg[] REPLY_TEMPLATES = new Msg[512];
 
     private int headerLength = -1;
     private byte[] data;
@@ -122,7 +121,7 @@ public class Msg {
     static {
         // Use xml msg loader to load configs
         try {
-            InputStream stream = FrameworkUtil.getBundle(Msg.class).getResource("/msg_definitions.xml").openStream();
+            InputStream stream = Msg.class.getResourceAsStream("/msg_definitions.xml");
             if (stream != null) {
                 Map<String, Msg> msgs = XMLMessageReader.readMessageDefinitions(stream);
                 MSG_MAP.putAll(msgs);
@@ -187,11 +186,11 @@ public class Msg {
         if (getLength() < 2) {
             return false;
         }
-        if (!definition.containsField("messageFlags")) {
+        if (!definition.containsField(FieldKey.MESSAGE_FLAGS)) {
             return (false);
         }
         try {
-            byte flags = getByte("messageFlags");
+            byte flags = getByte(FieldKey.MESSAGE_FLAGS);
             return ((flags & 0x10) == 0x10);
         } catch (FieldException e) {
             // do nothing
@@ -202,7 +201,7 @@ public class Msg {
     public boolean isUnsolicited() {
         // if the message has an ACK/NACK, it is in response to our message,
         // otherwise it is out-of-band, i.e. unsolicited
-        return !definition.containsField("ACK/NACK");
+        return !definition.containsField(FieldKey.ACK_NACK);
     }
 
     public boolean isEcho() {
@@ -210,8 +209,11 @@ public class Msg {
     }
 
     public boolean isOfType(MsgType mt) {
+        if (!definition.containsField(FieldKey.MESSAGE_FLAGS)) {
+            return false;
+        }
         try {
-            MsgType t = MsgType.fromValue(getByte("messageFlags"));
+            MsgType t = MsgType.fromValue(getByte(FieldKey.MESSAGE_FLAGS));
             return (t == mt);
         } catch (FieldException e) {
             return false;
@@ -240,7 +242,7 @@ public class Msg {
 
     public boolean isX10() {
         try {
-            int cmd = getByte("Cmd") & 0xff;
+            int cmd = getByte(FieldKey.CMD) & 0xff;
             if (cmd == 0x63 || cmd == 0x52) {
                 return true;
             }
@@ -272,8 +274,19 @@ public class Msg {
         return a;
     }
 
+    public @Nullable InsteonAddress getAddr(FieldKey key) {
+        @Nullable
+        InsteonAddress a = null;
+        try {
+            a = definition.getField(key).getAddress(data);
+        } catch (FieldException e) {
+            // do nothing, we'll return null
+        }
+        return a;
+    }
+
     public int getHopsLeft() throws FieldException {
-        int hops = (getByte("messageFlags") & 0x0c) >> 2;
+        int hops = (getByte(FieldKey.MESSAGE_FLAGS) & 0x0c) >> 2;
         return hops;
     }
 
@@ -288,6 +301,16 @@ public class Msg {
         f.setByte(data, value);
     }
 
+    /**
+     * Will put a byte at the specified field key
+     *
+     * @param key the compiled key of the field
+     * @param value the byte to put
+     */
+    public void setByte(FieldKey key, byte value) throws FieldException {
+        definition.getField(key).setByte(data, value);
+    }
+
     /**
      * Will put an int at the specified field key
      *
@@ -310,6 +333,16 @@ public class Msg {
         f.setAddress(data, adr);
     }
 
+    /**
+     * Will put address bytes at the field
+     *
+     * @param key the compiled key of the field
+     * @param adr the address to put
+     */
+    public void setAddress(FieldKey key, InsteonAddress adr) throws FieldException {
+        definition.getField(key).setAddress(data, adr);
+    }
+
     /**
      * Will fetch a byte
      *
@@ -320,6 +353,16 @@ public class Msg {
         return (definition.getField(key).getByte(data));
     }
 
+    /**
+     * Will fetch a byte
+     *
+     * @param key the compiled key of the field
+     * @return the byte
+     */
+    public byte getByte(FieldKey key) throws FieldException {
+        return (definition.getField(key).getByte(data));
+    }
+
     /**
      * Will fetch a byte array starting at a certain field
      *
@@ -328,7 +371,22 @@ public class Msg {
      * @return the byte array
      */
     public byte[] getBytes(String key, int numBytes) throws FieldException {
-        int offset = definition.getField(key).getOffset();
+        return getBytes(definition.getField(key), numBytes);
+    }
+
+    /**
+     * Will fetch a byte array starting at a certain field
+     *
+     * @param key the compiled key of the first field
+     * @param number of bytes to get
+     * @return the byte array
+     */
+    public byte[] getBytes(FieldKey key, int numBytes) throws FieldException {
+        return getBytes(definition.getField(key), numBytes);
+    }
+
+    private byte[] getBytes(Field field, int numBytes) throws FieldException {
+        int offset = field.getOffset();
         if (offset < 0 || offset + numBytes > data.length) {
             throw new FieldException("data index out of bounds!");
         }
@@ -348,6 +406,16 @@ public class Msg {
         return (definition.getField(field).getAddress(data));
     }
 
+    /**
+     * Will fetch address from field
+     *
+     * @param key the compiled key of the field to fetch
+     * @return the address
+     */
+    public InsteonAddress getAddress(FieldKey key) throws FieldException {
+        return (definition.getField(key).getAddress(data));
+    }
+
     /**
      * Fetch 3-byte (24bit) from message
      *
@@ -374,20 +442,9 @@ public class Msg {
     public void setUserData(byte[] arg) {
         byte[] data = Arrays.copyOf(arg, 14); // appends zeros if short
         try {
-            setByte("userData1", data[0]);
-            setByte("userData2", data[1]);
-            setByte("userData3", data[2]);
-            setByte("userData4", data[3]);
-            setByte("userData5", data[4]);
-            setByte("userData6", data[5]);
-            setByte("userData7", data[6]);
-            setByte("userData8", data[7]);
-            setByte("userData9", data[8]);
-            setByte("userData10", data[9]);
-            setByte("userData11", data[10]);
-            setByte("userData12", data[11]);
-            setByte("userData13", data[12]);
-            setByte("userData14", data[13]);
+            for (int i = 0; i < data.length; i++) {
+                setByte(FieldKey.userData(i + 1), data[i]);
+            }
         } catch (FieldException e) {
             logger.warn("got field exception on msg {}:", e.getMessage());
         }
@@ -401,13 +458,13 @@ public class Msg {
     public int setCRC() {
         int crc;
         try {
-            crc = getByte("command1") + getByte("command2");
-            byte[] bytes = getBytes("userData1", 13); // skip userData14!
+            crc = getByte(FieldKey.COMMAND1) + getByte(FieldKey.COMMAND2);
+            byte[] bytes = getBytes(FieldKey.userData(1), 13); // skip userData14!
             for (byte b : bytes) {
                 crc += b;
             }
             crc = ((~crc) + 1) & 0xFF;
-            setByte("userData14", (byte) (crc & 0xFF));
+            setByte(FieldKey.userData(14), (byte) (crc & 0xFF));
         } catch (FieldException e) {
             logger.warn("got field exception on msg {}:", this, e);
             crc = 0;
@@ -423,7 +480,7 @@ public class Msg {
     public int setCRC2() {
         int crc = 0;
         try {
-            byte[] bytes = getBytes("command1", 14);
+            byte[] bytes = getBytes(FieldKey.COMMAND1, 14);
             for (int loop = 0; loop < bytes.length; loop++) {
                 int b = bytes[loop] & 0xFF;
                 for (int bit = 0; bit < 8; bit++) {
@@ -444,8 +501,8 @@ public class Msg {
                     b = b >> 1;
                 }
             }
-            setByte("userData13", (byte) ((crc >> 8) & 0xFF));
-            setByte("userData14", (byte) (crc & 0xFF));
+            setByte(FieldKey.userData(13), (byte) ((crc >> 8) & 0xFF));
+            setByte(FieldKey.userData(14), (byte) (crc & 0xFF));
         } catch (FieldException e) {
             logger.warn("got field exception on msg {}:", this, e);
             crc = 0;
@@ -499,7 +556,7 @@ public class Msg {
         if (buf.length < 2) {
             return null;
         }
-        Msg template = REPLY_MAP.get(cmdToKey(buf[1], isExtended));
+        Msg template = REPLY_TEMPLATES[cmdToKey(buf[1], isExtended)];
         if (template == null) {
             return null; // cannot find lookup map
         }
@@ -519,11 +576,7 @@ public class Msg {
      * @return the length of the header to expect
      */
     public static int getHeaderLength(byte cmd) {
-        Integer len = HEADER_MAP.get((int) cmd);
-        if (len == null) {
-            return (-1); // not found
-        }
-        return len;
+        return HEADER_LENGTHS[cmd & 0xff]; // -1 if not found
     }
 
     /**
@@ -535,7 +588,7 @@ public class Msg {
      */
     public static int getMessageLength(byte b, boolean isExtended) {
         int key = cmdToKey(b, isExtended);
-        Msg msg = REPLY_MAP.get(key);
+        Msg msg = REPLY_TEMPLATES[key];
         if (msg == null) {
             return -1;
         }
@@ -580,13 +633,14 @@ public class Msg {
     }
 
     private static int cmdToKey(byte cmd, boolean isExtended) {
-        return (cmd + (isExtended ? 256 : 0));
+        return ((cmd & 0xff) + (isExtended ? 256 : 0));
     }
 
     private static void buildHeaderMap() {
+        Arrays.fill(HEADER_LENGTHS, -1);
         for (Msg m : MSG_MAP.values()) {
             if (m.getDirection() == Direction.FROM_MODEM) {
-                HEADER_MAP.put((int) m.getCommandNumber(), m.getHeaderLength());
+                HEADER_LENGTHS[m.getCommandNumber() & 0xff] = m.getHeaderLength();
             }
         }
     }
@@ -595,7 +649,7 @@ public class Msg {
         for (Msg m : MSG_MAP.values()) {
             if (m.getDirection() == Direction.FROM_MODEM) {
                 int key = cmdToKey(m.getCommandNumber(), m.isExtended());
-                REPLY_MAP.put(key, m);
+                REPLY_TEMPLATES[key] = m;
             }
         }
     }
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.insteon.internal.message;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,12 +24,16 @@ import org.eclipse.jdt.annotation.Nullable;
  * For more info, see the public Insteon Developer's Guide, 2nd edition,
  * and the Insteon Modem Developer's Guide.
  *
+ * Besides the map by name, the fields are kept in an array indexed by their
+ * {@link FieldKey}, so looking up a field by its key needs no hashing.
+ *
  * @author Daniel Pfrommer - Initial contribution
  * @author Rob Nielsen - Port to openHAB 2 insteon binding
  */
 @NonNullByDefault
 public class MsgDefinition {
     private Map<String, Field> fields = new HashMap<>();
+    private @Nullable Field[] fieldsByKey = new Field[0];
 
     MsgDefinition() {
     }
@@ -40,6 +45,7 @@ public class MsgDefinition {
      */
     MsgDefinition(MsgDefinition m) {
         fields = new HashMap<>(m.fields);
+        fieldsByKey = m.fieldsByKey.clone();
     }
 
     public Map<String, Field> getFields() {
@@ -50,8 +56,17 @@ public class MsgDefinition {
         return fields.containsKey(name);
     }
 
+    public boolean containsField(FieldKey key) {
+        return findField(key) != null;
+    }
+
     public void addField(Field field) {
         fields.put(field.getName(), field);
+        int index = FieldKey.of(field.getName()).getIndex();
+        if (index >= fieldsByKey.length) {
+            fieldsByKey = Arrays.copyOf(fieldsByKey, index + 1);
+        }
+        fieldsByKey[index] = field;
     }
 
     /**
@@ -69,4 +84,24 @@ public class MsgDefinition {
         }
         return f;
     }
+
+    /**
+     * Finds field of a given key
+     *
+     * @param key key of the field to search for
+     * @return reference to field
+     * @throws FieldException if no such field can be found
+     */
+    public Field getField(FieldKey key) throws FieldException {
+        Field f = findField(key);
+        if (f == null) {
+            throw new FieldException("field " + key + " not found");
+        }
+        return f;
+    }
+
+    private @Nullable Field findField(FieldKey key) {
+        int index = key.getIndex();
+        return index < fieldsByKey.length ? fieldsByKey[index] : null;
+    }
 }
@@ -12,10 +12,8 @@
  */
 package org.openhab.binding.insteon.internal.message;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * Represents insteon message type flags
@@ -47,7 +45,8 @@ public enum MsgType {
     ALL_LINK_CLEANUP_NACK(0xe0),
     INVALID(0xff); // should never happen
 
-    private static Map<Integer, MsgType> hash = new HashMap<>();
+    // message types by the upper three bits of the message flags
+    private static final @Nullable MsgType[] TYPES = new MsgType[8];
 
     private byte byteValue = 0;
 
@@ -62,8 +61,9 @@ public enum MsgType {
 
     static {
         for (MsgType t : MsgType.values()) {
-            int i = t.getByteValue() & 0xff;
-            hash.put(i, t);
+            if (t != INVALID) {
+                TYPES[(t.getByteValue() & 0xe0) >> 5] = t;
+            }
         }
     }
 
@@ -73,7 +73,7 @@ public enum MsgType {
 
     public static MsgType fromValue(byte b) throws IllegalArgumentException {
         int i = b & 0xe0;
-        MsgType mt = hash.get(i);
+        MsgType mt = TYPES[i >> 5];
         if (mt == null) {
             throw new IllegalArgumentException("msg type of byte value " + i + " not found");
         }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.insteon.internal.device;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.insteon.internal.driver.Driver;
+import org.openhab.binding.insteon.internal.message.FieldKey;
+import org.openhab.binding.insteon.internal.message.Msg;
+
+/**
+ * Tests the request queue of the {@link InsteonDevice}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InsteonDeviceTest {
+    // long enough for the request queue manager to never process the queue during the test
+    private static final long POLL_DELAY = 600000L;
+
+    private final Driver driver = mock(Driver.class);
+    private final List<Msg> written = new ArrayList<>();
+    private int pollingFeatures = 0;
+    private @NonNullByDefault({}) InsteonDevice device;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DeviceType deviceType = DeviceTypeLoader.instance().getDeviceType("F00.00.11");
+        assertNotNull(deviceType);
+        device = InsteonDevice.makeDevice(deviceType);
+        device.setAddress(new InsteonAddress("AA.BB.CC"));
+        device.setDriver(driver);
+        for (DeviceFeature feature : device.getFeatures().values()) {
+            feature.addListener(mock(DeviceFeatureListener.class));
+            if (feature.makePollMsg() != null) {
+                pollingFeatures++;
+            }
+        }
+        doAnswer(invocation -> written.add(invocation.getArgument(0))).when(driver).writeMessage(any(Msg.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestQueueManager.destroyInstance();
+    }
+
+    private void processRequestQueue() {
+        long now = System.currentTimeMillis();
+        while (device.processRequestQueue(now) > 0) {
+            // the reply to the query has been received
+            device.setFeatureQueried(null);
+        }
+    }
+
+    @Test
+    public void testPoll() throws Exception {
+        device.doPoll(POLL_DELAY);
+        processRequestQueue();
+
+        assertTrue(pollingFeatures > 0);
+        assertEquals(pollingFeatures, written.size());
+        for (Msg msg : written) {
+            assertEquals(new InsteonAddress("AA.BB.CC"), msg.getAddress(FieldKey.TO_ADDRESS));
+        }
+    }
+
+    @Test
+    public void testDuplicateQueriesMerged() throws Exception {
+        device.doPoll(POLL_DELAY);
+        device.doPoll(POLL_DELAY / 2);
+        device.doPoll(POLL_DELAY);
+        processRequestQueue();
+
+        assertEquals(pollingFeatures, written.size());
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.insteon.internal.driver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.insteon.internal.device.InsteonAddress;
+import org.openhab.binding.insteon.internal.message.InvalidMessageTypeException;
+import org.openhab.binding.insteon.internal.message.Msg;
+
+/**
+ * Simulates an Insteon modem behind a tcp port, like a PLM exposed by ser2net.
+ * The modem has no link records, answers the modem info query, and acknowledges
+ * messages sent to devices. Every device replies to a direct message with an
+ * ACK of direct, that has the configured level in command2.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class LoopbackModem implements Runnable {
+    private static final byte ACK = 0x06;
+    private static final byte NACK = 0x15;
+    private static final byte ACK_OF_DIRECT = 0x2B;
+
+    private final InsteonAddress address;
+    private final ServerSocket serverSocket;
+    private final Thread thread;
+    // length of the messages sent by the host, by command number
+    private final Map<Byte, Integer> messageLengths = new HashMap<>();
+    private volatile byte level = (byte) 0xFF;
+    private volatile int receivedMessages = 0;
+    private @Nullable Socket socket;
+
+    public LoopbackModem(InsteonAddress address) throws IOException, InvalidMessageTypeException {
+        this.address = address;
+        for (String type : new String[] { "GetIMInfo", "GetFirstALLLinkRecord", "GetNextALLLinkRecord",
+                "SendStandardMessage" }) {
+            Msg m = Msg.makeMessage(type);
+            messageLengths.put(m.getCommandNumber(), m.getLength());
+        }
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        thread = new Thread(this, "insteon-loopback-modem");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the port name to use for the driver
+     */
+    public String getPortName() {
+        return "/tcp/" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    public void setLevel(byte level) {
+        this.level = level;
+    }
+
+    public int getReceivedMessages() {
+        return receivedMessages;
+    }
+
+    public void close() throws IOException {
+        serverSocket.close();
+        Socket socket = this.socket;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void run() {
+        try (Socket socket = serverSocket.accept()) {
+            this.socket = socket;
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            byte[] buf = new byte[32];
+            while (true) {
+                if (readFully(in, buf, 0, 2) < 0) {
+                    return;
+                }
+                Integer length = messageLengths.get(buf[1]);
+                if (buf[0] != 0x02 || length == null) {
+                    out.write(NACK);
+                    continue;
+                }
+                if (readFully(in, buf, 2, length - 2) < 0) {
+                    return;
+                }
+                if (buf[1] == 0x62 && (buf[5] & 0x10) != 0) {
+                    // extended message, read user data
+                    length += 14;
+                    if (readFully(in, buf, length - 14, 14) < 0) {
+                        return;
+                    }
+                }
+                receivedMessages++;
+                out.write(reply(buf, length));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // modem closed
+        }
+    }
+
+    private byte[] reply(byte[] msg, int length) {
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        switch (msg[1]) {
+            case 0x60:
+                // modem info: address, category, sub category, firmware version
+                reply.write(msg, 0, 2);
+                reply.write(address.getHighByte());
+                reply.write(address.getMiddleByte());
+                reply.write(address.getLowByte());
+                reply.write(new byte[] { 0x03, 0x15, (byte) 0x9B, ACK }, 0, 4);
+                break;
+            case 0x69:
+            case 0x6A:
+                // no (more) link records
+                reply.write(msg, 0, 2);
+                reply.write(NACK);
+                break;
+            case 0x62:
+                reply.write(msg, 0, length);
+                reply.write(ACK);
+                // reply of the device
+                reply.write(new byte[] { 0x02, 0x50, msg[2], msg[3], msg[4] }, 0, 5);
+                reply.write(address.getHighByte());
+                reply.write(address.getMiddleByte());
+                reply.write(address.getLowByte());
+                reply.write(new byte[] { ACK_OF_DIRECT, msg[6], level }, 0, 3);
+                break;
+            default:
+                break;
+        }
+        return reply.toByteArray();
+    }
+
+    private static int readFully(InputStream in, byte[] buf, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(buf, offset + read, length - read);
+            if (n < 0) {
+                return -1;
+            }
+            read += n;
+        }
+        return read;
+    }
+}
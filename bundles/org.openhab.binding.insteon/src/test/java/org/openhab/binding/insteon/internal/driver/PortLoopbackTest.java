@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.insteon.internal.driver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.insteon.internal.device.InsteonAddress;
+import org.openhab.binding.insteon.internal.message.FieldKey;
+import org.openhab.binding.insteon.internal.message.Msg;
+import org.openhab.binding.insteon.internal.message.MsgType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the {@link Port} against a {@link LoopbackModem}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PortLoopbackTest {
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int QUERIES = 50;
+    private static final InsteonAddress MODEM_ADDRESS = new InsteonAddress("11.22.33");
+    private static final InsteonAddress DEVICE_ADDRESS = new InsteonAddress("AA.BB.CC");
+
+    private final Logger logger = LoggerFactory.getLogger(PortLoopbackTest.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final CountDownLatch initialized = new CountDownLatch(1);
+    private final BlockingQueue<Msg> received = new LinkedBlockingQueue<>();
+    private @Nullable LoopbackModem modem;
+    private @Nullable Driver driver;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        LoopbackModem modem = new LoopbackModem(MODEM_ADDRESS);
+        this.modem = modem;
+        Driver driver = new Driver(modem.getPortName(), new DriverListener() {
+            @Override
+            public void driverCompletelyInitialized() {
+                initialized.countDown();
+            }
+
+            @Override
+            public void disconnected() {
+            }
+        }, null, scheduler);
+        this.driver = driver;
+        driver.addMsgListener(received::add);
+        driver.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Driver driver = this.driver;
+        if (driver != null) {
+            driver.stop();
+        }
+        LoopbackModem modem = this.modem;
+        if (modem != null) {
+            modem.close();
+        }
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testInitialization() throws Exception {
+        Driver driver = this.driver;
+        assertNotNull(driver);
+        assertTrue(initialized.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Driver not initialized");
+        assertTrue(driver.isRunning());
+        assertTrue(driver.isModemDBComplete());
+        assertTrue(driver.isMsgForUs(MODEM_ADDRESS));
+    }
+
+    @Test
+    public void testQueries() throws Exception {
+        Driver driver = this.driver;
+        LoopbackModem modem = this.modem;
+        assertNotNull(driver);
+        assertNotNull(modem);
+        assertTrue(initialized.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Driver not initialized");
+        received.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            byte level = (byte) (i * 5);
+            modem.setLevel(level);
+
+            Msg query = Msg.makeMessage("SendStandardMessage");
+            query.setAddress(FieldKey.TO_ADDRESS, DEVICE_ADDRESS);
+            query.setByte(FieldKey.MESSAGE_FLAGS, (byte) 0x0F);
+            query.setByte(FieldKey.COMMAND1, (byte) 0x19);
+            query.setByte(FieldKey.COMMAND2, (byte) 0x00);
+            driver.writeMessage(query);
+
+            Msg echo = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(echo, "No echo received");
+            assertFalse(echo.isUnsolicited());
+            assertEquals(0x06, echo.getByte(FieldKey.ACK_NACK));
+            assertEquals(DEVICE_ADDRESS, echo.getAddress(FieldKey.TO_ADDRESS));
+
+            Msg reply = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(reply, "No reply received");
+            assertTrue(reply.isUnsolicited());
+            assertTrue(reply.isOfType(MsgType.ACK_OF_DIRECT));
+            assertEquals(0x50, reply.getByte(FieldKey.CMD));
+            assertEquals(DEVICE_ADDRESS, reply.getAddr(FieldKey.FROM_ADDRESS));
+            assertEquals(MODEM_ADDRESS, reply.getAddr(FieldKey.TO_ADDRESS));
+            assertEquals(0x19, reply.getByte(FieldKey.COMMAND1));
+            assertEquals(level, reply.getByte(FieldKey.COMMAND2));
+            // compiled keys and field names access the same fields
+            assertEquals(reply.getByte("command2"), reply.getByte(FieldKey.COMMAND2));
+            assertEquals(reply.getAddress("fromAddress"), reply.getAddress(FieldKey.FROM_ADDRESS));
+        }
+        long duration = System.nanoTime() - start;
+
+        assertTrue(received.isEmpty());
+        logger.debug("{} queries answered by the loopback modem in {} ms", QUERIES,
+                TimeUnit.NANOSECONDS.toMillis(duration));
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.group.ChannelGroup;
+
+/**
+ * The {@link MjpegFrame} class builds the parts of a multipart MJPEG stream from JPEG snapshots. The JPEG is wrapped
+ * and not copied into the frame, and the frame is a reference counted buffer that a {@link ChannelGroup} shares with
+ * all of its channels.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MjpegFrame {
+    public static final String BOUNDARY = "thisMjpegStream";
+    private static final byte[] FOOTER = { '\r', '\n' };
+    private static final int HEADER_CAPACITY = 80;
+
+    /**
+     * Creates a frame of the MJPEG stream. The snapshot must not be changed as long as the frame is in use.
+     *
+     * @param allocator allocates the header of the frame
+     * @param jpg the snapshot shown by the frame
+     * @return the frame, which has to be released by the receiver
+     */
+    public static ByteBuf create(ByteBufAllocator allocator, byte[] jpg) {
+        return create(allocator, Unpooled.wrappedBuffer(jpg));
+    }
+
+    /**
+     * Creates a frame of the MJPEG stream that takes over the reference of the given buffer.
+     *
+     * @param allocator allocates the header of the frame
+     * @param jpg the snapshot shown by the frame, it is released together with the frame
+     * @return the frame, which has to be released by the receiver
+     */
+    public static ByteBuf create(ByteBufAllocator allocator, ByteBuf jpg) {
+        ByteBuf header = allocator.buffer(HEADER_CAPACITY);
+        header.writeCharSequence("--" + BOUNDARY + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: "
+                + jpg.readableBytes() + "\r\n\r\n", StandardCharsets.US_ASCII);
+        CompositeByteBuf frame = allocator.compositeBuffer(3);
+        frame.addComponents(true, header, jpg, Unpooled.wrappedBuffer(FOOTER));
+        return frame;
+    }
+
+    /**
+     * Sends a frame to all channels of the group. The channels write duplicates of the same frame, which is released
+     * once the last channel has written it.
+     */
+    public static void send(byte[] jpg, ChannelGroup channelGroup) {
+        if (channelGroup.isEmpty()) {
+            return;
+        }
+        channelGroup.writeAndFlush(create(ByteBufAllocator.DEFAULT, jpg));
+    }
+
+    /**
+     * Sends a frame to all channels of the group and takes over the reference of the given buffer.
+     */
+    public static void send(ByteBuf jpg, ChannelGroup channelGroup) {
+        if (channelGroup.isEmpty()) {
+            jpg.release();
+            return;
+        }
+        channelGroup.writeAndFlush(create(ByteBufAllocator.DEFAULT, jpg));
+    }
+}
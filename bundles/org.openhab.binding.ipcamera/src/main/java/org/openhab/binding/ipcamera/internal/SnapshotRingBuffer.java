@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SnapshotRingBuffer} keeps the latest snapshots for the GIF preroll in a fixed size ring, so adding a
+ * snapshot once the ring is full replaces the oldest one without allocating. It is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SnapshotRingBuffer implements Iterable<byte[]> {
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[][] snapshots;
+    private int start;
+    private int size;
+
+    public SnapshotRingBuffer(int capacity) {
+        snapshots = new byte[Math.max(0, capacity)][];
+        Arrays.fill(snapshots, EMPTY);
+    }
+
+    public int getCapacity() {
+        return snapshots.length;
+    }
+
+    /**
+     * Changes the number of snapshots that are kept, the latest snapshots are kept if the capacity is reduced.
+     */
+    public void setCapacity(int capacity) {
+        int newCapacity = Math.max(0, capacity);
+        if (newCapacity == snapshots.length) {
+            return;
+        }
+        byte[][] newSnapshots = new byte[newCapacity][];
+        Arrays.fill(newSnapshots, EMPTY);
+        int newSize = Math.min(size, newCapacity);
+        for (int i = 0; i < newSize; i++) {
+            newSnapshots[i] = get(size - newSize + i);
+        }
+        snapshots = newSnapshots;
+        start = 0;
+        size = newSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the snapshot, replacing the oldest snapshot when the ring is full.
+     */
+    public void add(byte[] snapshot) {
+        if (snapshots.length == 0) {
+            return;
+        }
+        if (size < snapshots.length) {
+            snapshots[(start + size++) % snapshots.length] = snapshot;
+        } else {
+            snapshots[start] = snapshot;
+            start = (start + 1) % snapshots.length;
+        }
+    }
+
+    /**
+     * @param index position of the snapshot, 0 is the oldest one
+     */
+    public byte[] get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        }
+        return snapshots[(start + index) % snapshots.length];
+    }
+
+    public void clear() {
+        Arrays.fill(snapshots, EMPTY);
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Iterates over the snapshots from the oldest to the latest one.
+     */
+    @Override
+    public Iterator<byte[]> iterator() {
+        return new Iterator<byte[]>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+}
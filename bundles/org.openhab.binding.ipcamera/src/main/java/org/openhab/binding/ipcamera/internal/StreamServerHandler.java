@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -53,13 +55,13 @@ import io.netty.util.ReferenceCountUtil;
 
 @NonNullByDefault
 public class StreamServerHandler extends ChannelInboundHandlerAdapter {
+    private static final int MAX_CONTENT_COMPONENTS = 1024;
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private IpCameraHandler ipCameraHandler;
     private boolean handlingMjpeg = false; // used to remove ctx from group when handler is removed.
     private boolean handlingSnapshotStream = false; // used to remove ctx from group when handler is removed.
-    private byte[] incomingJpeg = new byte[0];
+    private @Nullable CompositeByteBuf incomingContent;
     private String whiteList = "";
-    private int recievedBytes = 0;
     private boolean updateSnapshot = false;
     private boolean onvifEvent = false;
 
@@ -176,27 +178,33 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             }
             if (msg instanceof HttpContent) {
                 HttpContent content = (HttpContent) msg;
-                if (recievedBytes == 0) {
-                    incomingJpeg = new byte[content.content().readableBytes()];
-                    content.content().getBytes(0, incomingJpeg, 0, content.content().readableBytes());
-                } else {
-                    byte[] temp = incomingJpeg;
-                    incomingJpeg = new byte[recievedBytes + content.content().readableBytes()];
-                    System.arraycopy(temp, 0, incomingJpeg, 0, temp.length);
-                    content.content().getBytes(0, incomingJpeg, temp.length, content.content().readableBytes());
+                CompositeByteBuf localContent = incomingContent;
+                if (localContent == null) {
+                    localContent = ctx.alloc().compositeBuffer(MAX_CONTENT_COMPONENTS);
+                    incomingContent = localContent;
                 }
-                recievedBytes = incomingJpeg.length;
+                // keep the received buffers instead of copying them, the message itself is released below.
+                localContent.addComponent(true, content.content().retain());
                 if (content instanceof LastHttpContent) {
+                    incomingContent = null;
                     if (updateSnapshot) {
-                        ipCameraHandler.processSnapshot(incomingJpeg);
+                        try {
+                            ipCameraHandler.processSnapshot(ByteBufUtil.getBytes(localContent));
+                        } finally {
+                            localContent.release();
+                        }
                     } else if (onvifEvent) {
-                        ipCameraHandler.onvifCamera.eventRecieved(new String(incomingJpeg, StandardCharsets.UTF_8));
-                    } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
-                        if (recievedBytes > 1000) {
-                            ipCameraHandler.sendMjpegFrame(incomingJpeg, ipCameraHandler.mjpegChannelGroup);
+                        try {
+                            ipCameraHandler.onvifCamera.eventRecieved(localContent.toString(StandardCharsets.UTF_8));
+                        } finally {
+                            localContent.release();
                         }
+                    } else if (localContent.readableBytes() > 1000) {
+                        // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
+                        ipCameraHandler.sendMjpegFrame(localContent, ipCameraHandler.mjpegChannelGroup);
+                    } else {
+                        localContent.release();
                     }
-                    recievedBytes = 0;
                 }
             }
         } finally {
@@ -208,7 +216,7 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
         ipCameraHandler.lockCurrentSnapshot.lock();
         try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(ipCameraHandler.currentSnapshot);
+            ByteBuf snapshotData = Unpooled.wrappedBuffer(ipCameraHandler.currentSnapshot);
             response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
             response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
@@ -280,6 +288,11 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
 
     @Override
     public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+        CompositeByteBuf localContent = incomingContent;
+        if (localContent != null) {
+            incomingContent = null;
+            localContent.release();
+        }
         if (ctx == null) {
             return;
         }
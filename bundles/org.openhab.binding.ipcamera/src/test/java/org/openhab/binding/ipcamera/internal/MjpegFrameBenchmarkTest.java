@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+/**
+ * Streams {@link MjpegFrame}s to many local clients and measures the throughput of the fan-out. Every client has to
+ * share the same frame instead of a copy, and the frame has to be released once all clients have written it. The number
+ * of frames can be set with the system property {@value #FRAMES_PROPERTY}, by default only a few frames are streamed
+ * to keep the build fast.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MjpegFrameBenchmarkTest {
+
+    private static final String FRAMES_PROPERTY = "ipcamera.benchmark.frames";
+    private static final int DEFAULT_FRAMES = 50;
+    private static final int WARMUP_FRAMES = 10;
+    private static final int CLIENTS = 100;
+    private static final int JPEG_SIZE = 100_000;
+    private static final String HEADER = "--thisMjpegStream\r\ncontent-type: image/jpeg\r\ncontent-length: ";
+
+    private final Logger logger = LoggerFactory.getLogger(MjpegFrameBenchmarkTest.class);
+
+    private final ChannelGroup clientGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final List<EmbeddedChannel> clients = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        for (EmbeddedChannel client : clients) {
+            client.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    public void testFrameWrapsSnapshot() {
+        byte[] jpg = createJpeg(1000);
+        ByteBuf frame = MjpegFrame.create(ByteBufAllocator.DEFAULT, jpg);
+        String header = HEADER + "1000\r\n\r\n";
+
+        assertEquals(header.length() + jpg.length + 2, frame.readableBytes());
+        assertEquals(header, frame.toString(0, header.length(), StandardCharsets.US_ASCII));
+        assertEquals("\r\n", frame.toString(frame.readableBytes() - 2, 2, StandardCharsets.US_ASCII));
+
+        // the snapshot is part of the frame and not a copy of it
+        jpg[0] = 42;
+        assertEquals(42, frame.getByte(header.length()));
+        assertTrue(frame.release());
+    }
+
+    @Test
+    public void testFrameIsReleasedWithoutClients() {
+        ByteBuf jpg = Unpooled.wrappedBuffer(createJpeg(1000));
+
+        MjpegFrame.send(jpg, clientGroup);
+
+        assertEquals(0, jpg.refCnt());
+    }
+
+    @Test
+    public void testStreamingToManyClients() {
+        for (int i = 0; i < CLIENTS; i++) {
+            EmbeddedChannel client = new EmbeddedChannel();
+            clients.add(client);
+            clientGroup.add(client);
+        }
+        byte[] jpg = createJpeg(JPEG_SIZE);
+        final int frames = Integer.getInteger(FRAMES_PROPERTY, DEFAULT_FRAMES);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            streamFrame(jpg);
+        }
+        long bytes = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            bytes += streamFrame(jpg);
+        }
+        final long duration = Math.max(1, System.nanoTime() - start);
+
+        String header = HEADER + JPEG_SIZE + "\r\n\r\n";
+        assertEquals((long) frames * CLIENTS * (header.length() + JPEG_SIZE + 2), bytes);
+        logger.info("Streamed {} frames to {} clients ({} bytes) in {} ms: {} frames/s", frames, CLIENTS, bytes,
+                TimeUnit.NANOSECONDS.toMillis(duration),
+                (long) frames * CLIENTS * TimeUnit.SECONDS.toNanos(1) / duration);
+    }
+
+    /**
+     * Sends one frame to all clients, checks that they share the same frame and releases what they have written.
+     *
+     * @return the number of bytes written by all clients
+     */
+    private long streamFrame(byte[] jpg) {
+        MjpegFrame.send(jpg, clientGroup);
+
+        long bytes = 0;
+        int remaining = clients.size();
+        for (EmbeddedChannel client : clients) {
+            ByteBuf written = client.readOutbound();
+            assertNotNull(written, "Expected every client to write the frame");
+            // every client holds a reference of the same frame
+            assertEquals(remaining--, written.refCnt(), "Expected all clients to share the same frame");
+            bytes += written.readableBytes();
+            written.release();
+            if (remaining == 0) {
+                assertEquals(0, written.refCnt(), "Expected the frame to be released after all clients wrote it");
+            }
+        }
+        return bytes;
+    }
+
+    private static byte[] createJpeg(int size) {
+        byte[] jpg = new byte[size];
+        for (int i = 0; i < size; i++) {
+            jpg[i] = (byte) i;
+        }
+        return jpg;
+    }
+}
@@ -28,6 +28,7 @@ import org.openhab.binding.lcn.internal.common.LcnAddr;
 import org.openhab.binding.lcn.internal.common.LcnAddrMod;
 import org.openhab.binding.lcn.internal.common.LcnChannelGroup;
 import org.openhab.binding.lcn.internal.common.LcnException;
+import org.openhab.binding.lcn.internal.common.PckMessageRouter;
 import org.openhab.binding.lcn.internal.connection.Connection;
 import org.openhab.binding.lcn.internal.connection.ModInfo;
 import org.openhab.binding.lcn.internal.converter.Converter;
@@ -75,6 +76,7 @@ public class LcnModuleHandler extends BaseThingHandler {
     private final Map<LcnChannelGroup, AbstractLcnModuleSubHandler> subHandlers = new HashMap<>();
     private final List<AbstractLcnModuleSubHandler> metadataSubHandlers = new ArrayList<>();
     private final Map<ChannelUID, Converter> converters = new HashMap<>();
+    private volatile PckMessageRouter<AbstractLcnModuleSubHandler> statusMessageRouter = new PckMessageRouter<>();
 
     static {
         VALUE_CONVERTERS.put("temperature", Converters.TEMPERATURE);
@@ -109,6 +111,12 @@ public class LcnModuleHandler extends BaseThingHandler {
             metadataSubHandlers.add(new LcnModuleMetaAckSubHandler(this, info));
             metadataSubHandlers.add(new LcnModuleMetaFirmwareSubHandler(this, info));
 
+            // route the status messages by their type to the sub handlers
+            PckMessageRouter<AbstractLcnModuleSubHandler> router = new PckMessageRouter<>();
+            subHandlers.values().forEach(h -> h.getPckStatusMessagePatterns().forEach(p -> router.addRoute(p, h)));
+            metadataSubHandlers.forEach(h -> h.getPckStatusMessagePatterns().forEach(p -> router.addRoute(p, h)));
+            statusMessageRouter = router;
+
             // initialize converters
             for (Channel channel : thing.getChannels()) {
                 Object unitObject = channel.getConfiguration().get("unit");
@@ -256,9 +264,7 @@ public class LcnModuleHandler extends BaseThingHandler {
      * @param pck the message without line termination
      */
     public void handleStatusMessage(String pck) {
-        subHandlers.values().forEach(h -> h.tryParse(pck));
-
-        metadataSubHandlers.forEach(h -> h.tryParse(pck));
+        statusMessageRouter.route(pck, AbstractLcnModuleSubHandler::handleMatchedStatusMessage);
     }
 
     private Optional<Integer> channelUidToChannelNumber(ChannelUID channelUid, LcnChannelGroup channelGroup)
@@ -427,6 +433,7 @@ public class LcnModuleHandler extends BaseThingHandler {
 
     @Override
     public void dispose() {
+        statusMessageRouter = new PckMessageRouter<>();
         metadataSubHandlers.clear();
         subHandlers.clear();
         converters.clear();
@@ -24,6 +24,7 @@ import org.openhab.binding.lcn.internal.common.LcnAddrMod;
 import org.openhab.binding.lcn.internal.common.LcnDefs;
 import org.openhab.binding.lcn.internal.common.LcnDefs.OutputPortDimMode;
 import org.openhab.binding.lcn.internal.common.LcnException;
+import org.openhab.binding.lcn.internal.common.PckMessageRouter;
 import org.openhab.binding.lcn.internal.connection.Connection;
 import org.openhab.binding.lcn.internal.connection.ConnectionCallback;
 import org.openhab.binding.lcn.internal.connection.ConnectionSettings;
@@ -96,13 +97,7 @@ public class PckGatewayHandler extends BaseBridgeHandler {
                 @Override
                 public void onPckMessageReceived(String message) {
                     pckListener.ifPresent(l -> l.accept(message));
-                    getThing().getThings().stream().filter(t -> t.getStatus() == ThingStatus.ONLINE).map(t -> {
-                        LcnModuleHandler handler = (LcnModuleHandler) t.getHandler();
-                        if (handler == null) {
-                            logger.warn("Failed to process PCK message: Handler not set");
-                        }
-                        return handler;
-                    }).filter(h -> h != null).forEach(h -> h.handleStatusMessage(message));
+                    routeStatusMessage(message);
                 }
             });
 
@@ -112,6 +107,33 @@ public class PckGatewayHandler extends BaseBridgeHandler {
         }
     }
 
+    /**
+     * Hands a PCK message only to the handlers of the module, which sent the message. Messages without a module address
+     * are not processed by the module handlers.
+     *
+     * The address of a handler is looked up for every message, as it changes when the configuration of the Thing is
+     * updated.
+     *
+     * @param message the message without line termination
+     */
+    void routeStatusMessage(String message) {
+        int physicalSegmentId = PckMessageRouter.getPhysicalSegmentId(message);
+        if (physicalSegmentId < 0) {
+            return;
+        }
+
+        LcnAddrMod address = new LcnAddrMod(toLogicalSegmentId(physicalSegmentId),
+                PckMessageRouter.getModuleId(message));
+        getThing().getThings().stream().filter(t -> t.getStatus() == ThingStatus.ONLINE).map(t -> {
+            LcnModuleHandler handler = (LcnModuleHandler) t.getHandler();
+            if (handler == null) {
+                logger.warn("Failed to process PCK message: Handler not set");
+            }
+            return handler;
+        }).filter(h -> h != null && address.equals(h.getStatusMessageAddress()))
+                .forEach(h -> h.handleStatusMessage(message));
+    }
+
     @Override
     public Collection<Class<? extends ThingHandlerService>> getServices() {
         return Collections.singleton(LcnModuleDiscoveryService.class);
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lcn.internal.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.lcn.internal.LcnBindingConstants;
+
+/**
+ * Routes incoming PCK status messages to the targets, which registered a Pattern for the message type.
+ * <p>
+ * A PCK status message starts with a fixed prefix, which contains the message kind and the address of the sending
+ * module, e.g. "=M000005" or "+M004000005". The message type is identified by the literal characters following the
+ * address, e.g. "A" for output status messages or ".TL" for the LED and logic operation status. Instead of matching
+ * each message against all Patterns, the router classifies the message once by its prefix and matches only the
+ * Patterns registered for the message type.
+ * <p>
+ * Patterns, whose address part or message type cannot be determined, are matched against all messages.
+ *
+ * @param <T> the type of the targets
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PckMessageRouter<T> {
+    /** Address part of the status messages of modules, e.g. "=M000005" */
+    private static final String STATUS_ADDRESS_REGEX = LcnBindingConstants.ADDRESS_REGEX;
+    /** Address part of acknowledges, e.g. "-M000005" */
+    private static final String ACK_ADDRESS_REGEX = "-M(?<segId>\\d{3})(?<modId>\\d{3})";
+    /** Address part of host commands, e.g. "+M004000005" */
+    private static final String HOST_ADDRESS_REGEX = "\\+M(?<hostId>\\d{3})(?<segId>\\d{3})(?<modId>\\d{3})";
+
+    private static final char KIND_STATUS = 'S';
+    private static final char KIND_ACK = 'A';
+    private static final char KIND_HOST = 'H';
+
+    private static final int ADDRESS_LENGTH = 6;
+
+    private static class Route<T> {
+        private final Pattern pattern;
+        private final List<T> targets = new ArrayList<>();
+
+        private Route(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    private final Map<String, List<Route<T>>> routes = new HashMap<>();
+    private final List<Route<T>> unclassifiedRoutes = new ArrayList<>();
+    private final Map<Pattern, Route<T>> routesByPattern = new HashMap<>();
+    private int maxMessageTypeLength = 0;
+
+    /**
+     * Registers a target for the messages matching the given Pattern. The Pattern is matched only once per message,
+     * even if it is registered for several targets.
+     *
+     * @param pattern the Pattern of the messages
+     * @param target the target, which shall receive the matched messages
+     */
+    public void addRoute(Pattern pattern, T target) {
+        Route<T> route = routesByPattern.get(pattern);
+        if (route == null) {
+            route = new Route<>(pattern);
+            routesByPattern.put(pattern, route);
+
+            String key = getRoutingKey(pattern);
+            if (key != null) {
+                routes.computeIfAbsent(key, k -> new ArrayList<>()).add(route);
+                maxMessageTypeLength = Math.max(maxMessageTypeLength, key.length() - 1);
+            } else {
+                unclassifiedRoutes.add(route);
+            }
+        }
+        route.targets.add(target);
+    }
+
+    /**
+     * Routes a PCK message to the targets of the Patterns matching the message.
+     *
+     * @param pck the message without line termination
+     * @param consumer invoked with each target and the Matcher of the matching Pattern
+     */
+    public void route(String pck, BiConsumer<T, Matcher> consumer) {
+        int messageTypeStart = getMessageTypeStart(pck);
+        if (messageTypeStart >= 0) {
+            String kind = String.valueOf(getKind(pck.charAt(0)));
+            int maxLength = Math.min(maxMessageTypeLength, pck.length() - messageTypeStart);
+            for (int length = 0; length <= maxLength; length++) {
+                List<Route<T>> candidates = routes
+                        .get(kind.concat(pck.substring(messageTypeStart, messageTypeStart + length)));
+                if (candidates != null) {
+                    candidates.forEach(route -> match(route, pck, consumer));
+                }
+            }
+        }
+        unclassifiedRoutes.forEach(route -> match(route, pck, consumer));
+    }
+
+    private void match(Route<T> route, String pck, BiConsumer<T, Matcher> consumer) {
+        Matcher matcher = route.pattern.matcher(pck);
+        if (matcher.matches()) {
+            route.targets.forEach(target -> consumer.accept(target, matcher));
+        }
+    }
+
+    /**
+     * Gets the physical segment id of the sending module from the prefix of a PCK status message.
+     *
+     * @param pck the message without line termination
+     * @return the physical segment id or -1, if the message has no module address
+     */
+    public static int getPhysicalSegmentId(String pck) {
+        int messageTypeStart = getMessageTypeStart(pck);
+        return messageTypeStart < 0 ? -1 : parseId(pck, messageTypeStart - ADDRESS_LENGTH);
+    }
+
+    /**
+     * Gets the module id of the sending module from the prefix of a PCK status message.
+     *
+     * @param pck the message without line termination
+     * @return the module id or -1, if the message has no module address
+     */
+    public static int getModuleId(String pck) {
+        int messageTypeStart = getMessageTypeStart(pck);
+        return messageTypeStart < 0 ? -1 : parseId(pck, messageTypeStart - ADDRESS_LENGTH / 2);
+    }
+
+    /**
+     * Gets the position of the message type, which follows the fixed prefix of a PCK status message.
+     *
+     * @param pck the message
+     * @return the position or -1, if the message does not start with a module address
+     */
+    private static int getMessageTypeStart(String pck) {
+        if (pck.length() < 2 || pck.charAt(1) != 'M') {
+            return -1;
+        }
+        int addressStart;
+        switch (getKind(pck.charAt(0))) {
+            case KIND_STATUS:
+            case KIND_ACK:
+                addressStart = 2;
+                break;
+            case KIND_HOST:
+                // host id precedes the module address
+                addressStart = 2 + ADDRESS_LENGTH / 2;
+                break;
+            default:
+                return -1;
+        }
+        int messageTypeStart = addressStart + ADDRESS_LENGTH;
+        if (pck.length() < messageTypeStart) {
+            return -1;
+        }
+        for (int i = 2; i < messageTypeStart; i++) {
+            if (!isDigit(pck.charAt(i))) {
+                return -1;
+            }
+        }
+        return messageTypeStart;
+    }
+
+    private static char getKind(char prefix) {
+        switch (prefix) {
+            case ':':
+            case '=':
+            case '%':
+                return KIND_STATUS;
+            case '-':
+                return KIND_ACK;
+            case '+':
+                return KIND_HOST;
+            default:
+                return 0;
+        }
+    }
+
+    private static int parseId(String pck, int start) {
+        return (pck.charAt(start) - '0') * 100 + (pck.charAt(start + 1) - '0') * 10 + pck.charAt(start + 2) - '0';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Determines the routing key of a Pattern, which consists of the message kind and the literal characters of the
+     * message type following the address.
+     *
+     * @param pattern the Pattern
+     * @return the routing key or null, if the Pattern cannot be classified
+     */
+    static @Nullable String getRoutingKey(Pattern pattern) {
+        String regex = pattern.pattern();
+        char kind;
+        int position;
+        if (regex.startsWith(STATUS_ADDRESS_REGEX)) {
+            kind = KIND_STATUS;
+            position = STATUS_ADDRESS_REGEX.length();
+        } else if (regex.startsWith(ACK_ADDRESS_REGEX)) {
+            kind = KIND_ACK;
+            position = ACK_ADDRESS_REGEX.length();
+        } else if (regex.startsWith(HOST_ADDRESS_REGEX)) {
+            kind = KIND_HOST;
+            position = HOST_ADDRESS_REGEX.length();
+        } else {
+            return null;
+        }
+        if (hasAlternatives(regex, position)) {
+            // the message type is not fixed
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder().append(kind);
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            char literal;
+            int next;
+            if (c == '\\' && position + 1 < regex.length() && regex.charAt(position + 1) == '.') {
+                literal = '.';
+                next = position + 2;
+            } else if (Character.isLetterOrDigit(c) || c == '!') {
+                literal = c;
+                next = position + 1;
+            } else {
+                break;
+            }
+            if (next < regex.length() && "?*{".indexOf(regex.charAt(next)) >= 0) {
+                // optional or repeated character, the message type ends before
+                break;
+            }
+            key.append(literal);
+            position = next;
+        }
+        return key.toString();
+    }
+
+    private static boolean hasAlternatives(String regex, int start) {
+        boolean characterClass = false;
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                characterClass = true;
+            } else if (c == ']') {
+                characterClass = false;
+            } else if (c == '|' && !characterClass) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -122,16 +122,25 @@ public abstract class AbstractLcnModuleSubHandler implements ILcnModuleSubHandle
      */
     public void tryParse(String pck) {
         Optional<Matcher> firstSuccessfulMatcher = getPckStatusMessagePatterns().stream().map(p -> p.matcher(pck))
-                .filter(Matcher::matches).filter(m -> handler.isMyAddress(m.group("segId"), m.group("modId")))
-                .findAny();
+                .filter(Matcher::matches).findAny();
 
-        firstSuccessfulMatcher.ifPresent(matcher -> {
+        firstSuccessfulMatcher.ifPresent(this::handleMatchedStatusMessage);
+    }
+
+    /**
+     * Processes a PCK message, which has already been matched against one of the Patterns of this sub handler. Fails
+     * silently, if the message has been sent by another module or cannot be processed.
+     *
+     * @param matcher the pre-matched matcher
+     */
+    public void handleMatchedStatusMessage(Matcher matcher) {
+        if (handler.isMyAddress(matcher.group("segId"), matcher.group("modId"))) {
             try {
                 handleStatusMessage(matcher);
             } catch (LcnException e) {
                 logger.warn("Parse error: {}", e.getMessage());
             }
-        });
+        }
     }
 
     /**
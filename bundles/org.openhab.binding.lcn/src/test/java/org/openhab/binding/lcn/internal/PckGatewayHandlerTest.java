@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lcn.internal;
+
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.thing.Bridge;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+
+/**
+ * Test class for the routing of status messages by the {@link PckGatewayHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class PckGatewayHandlerTest {
+    private static final ThingUID BRIDGE_UID = new ThingUID(LcnBindingConstants.THING_TYPE_PCK_GATEWAY, "gateway");
+    private static final String MESSAGE_MODULE_5 = "=M000005A1050";
+    private static final String MESSAGE_MODULE_7 = "=M000007A1050";
+
+    private @Mock @NonNullByDefault({}) Bridge bridge;
+    private @Mock @NonNullByDefault({}) Thing thing;
+    private @Mock @NonNullByDefault({}) ThingHandlerCallback callback;
+    private final Configuration configuration = new Configuration();
+    private @NonNullByDefault({}) PckGatewayHandler gatewayHandler;
+    private @NonNullByDefault({}) LcnModuleHandler moduleHandler;
+
+    @BeforeEach
+    public void setUp() {
+        gatewayHandler = new PckGatewayHandler(bridge);
+        when(bridge.getHandler()).thenReturn(gatewayHandler);
+        when(bridge.getThings()).thenReturn(List.of(thing));
+        when(callback.getBridge(BRIDGE_UID)).thenReturn(bridge);
+
+        configuration.put("segmentId", BigDecimal.ZERO);
+        configuration.put("moduleId", BigDecimal.valueOf(5));
+        when(thing.getBridgeUID()).thenReturn(BRIDGE_UID);
+        when(thing.getConfiguration()).thenReturn(configuration);
+        when(thing.getStatus()).thenReturn(ThingStatus.ONLINE);
+
+        moduleHandler = spy(new LcnModuleHandler(thing));
+        moduleHandler.setCallback(callback);
+        when(thing.getHandler()).thenReturn(moduleHandler);
+        moduleHandler.initialize();
+    }
+
+    @Test
+    public void testMessagesAreRoutedByModuleAddress() {
+        gatewayHandler.routeStatusMessage(MESSAGE_MODULE_5);
+        gatewayHandler.routeStatusMessage(MESSAGE_MODULE_7);
+        gatewayHandler.routeStatusMessage("$io:#LCN:connected");
+
+        verify(moduleHandler).handleStatusMessage(MESSAGE_MODULE_5);
+        verify(moduleHandler, never()).handleStatusMessage(MESSAGE_MODULE_7);
+        verify(moduleHandler, never()).handleStatusMessage("$io:#LCN:connected");
+    }
+
+    @Test
+    public void testMessagesAreRoutedToNewAddressAfterReinitialization() {
+        // a configuration update disposes and initializes the handler without notifying the bridge handler
+        configuration.put("moduleId", BigDecimal.valueOf(7));
+        moduleHandler.dispose();
+        moduleHandler.initialize();
+
+        gatewayHandler.routeStatusMessage(MESSAGE_MODULE_5);
+        gatewayHandler.routeStatusMessage(MESSAGE_MODULE_7);
+
+        verify(moduleHandler, never()).handleStatusMessage(MESSAGE_MODULE_5);
+        verify(moduleHandler).handleStatusMessage(MESSAGE_MODULE_7);
+    }
+
+    @Test
+    public void testOfflineModulesDoNotReceiveMessages() {
+        when(thing.getStatus()).thenReturn(ThingStatus.OFFLINE);
+
+        gatewayHandler.routeStatusMessage(MESSAGE_MODULE_5);
+
+        verify(moduleHandler, never()).handleStatusMessage(MESSAGE_MODULE_5);
+    }
+}
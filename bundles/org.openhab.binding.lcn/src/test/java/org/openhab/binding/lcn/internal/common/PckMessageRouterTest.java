@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lcn.internal.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.openhab.binding.lcn.internal.LcnBindingConstants;
+import org.openhab.binding.lcn.internal.LcnModuleHandler;
+import org.openhab.binding.lcn.internal.connection.ModInfo;
+import org.openhab.binding.lcn.internal.subhandler.AbstractLcnModuleSubHandler;
+import org.openhab.binding.lcn.internal.subhandler.LcnModuleMetaAckSubHandler;
+import org.openhab.binding.lcn.internal.subhandler.LcnModuleMetaFirmwareSubHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@link PckMessageRouter}. Replays a captured PCK trace.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PckMessageRouterTest {
+    private static final String TRACE = "pck-trace.txt";
+    private static final String ITERATIONS_PROPERTY = "lcn.benchmark.iterations";
+    private static final int DEFAULT_ITERATIONS = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(PckMessageRouterTest.class);
+
+    @Test
+    public void testRoutingKeys() {
+        assertEquals("SA", PckMessageRouter.getRoutingKey(
+                Pattern.compile(LcnBindingConstants.ADDRESS_REGEX + "A(?<outputId>\\d)(?<percent>\\d+)")));
+        assertEquals("S.TL", PckMessageRouter.getRoutingKey(Pattern.compile(
+                LcnBindingConstants.ADDRESS_REGEX + "\\.TL(?<ledStates>[AEBF]{12})(?<logicOpStates>[NTV]{4})")));
+        assertEquals("S.", PckMessageRouter.getRoutingKey(LcnBindingConstants.MEASUREMENT_PATTERN_BEFORE_2013));
+        assertEquals("A!", PckMessageRouter.getRoutingKey(LcnModuleMetaAckSubHandler.PATTERN_POS));
+        assertEquals("H.STH", PckMessageRouter.getRoutingKey(Pattern.compile(
+                "\\+M(?<hostId>\\d{3})(?<segId>\\d{3})(?<modId>\\d{3})\\.STH(?<byte0>\\d{3})(?<byte1>\\d{3})")));
+        assertEquals("S.SN", PckMessageRouter.getRoutingKey(Pattern.compile(LcnBindingConstants.ADDRESS_REGEX
+                + "\\.SN(?<sn>[0-9|A-F]{10})(?<manu>[0-9|A-F]{2})FW(?<fw>[0-9|A-F]{6})HW(?<hwType>\\d+)")));
+        assertEquals("S", PckMessageRouter.getRoutingKey(Pattern.compile(LcnBindingConstants.ADDRESS_REGEX + "x?A")));
+        assertNull(PckMessageRouter.getRoutingKey(Pattern.compile("\\$io:(?<text>.*)")));
+        assertNull(PckMessageRouter.getRoutingKey(Pattern.compile(LcnBindingConstants.ADDRESS_REGEX + "A|B")));
+    }
+
+    @Test
+    public void testAddress() {
+        assertEquals(0, PckMessageRouter.getPhysicalSegmentId("=M000005A1050"));
+        assertEquals(5, PckMessageRouter.getModuleId("=M000005A1050"));
+        assertEquals(10, PckMessageRouter.getPhysicalSegmentId("%M010022.A00112345"));
+        assertEquals(22, PckMessageRouter.getModuleId("%M010022.A00112345"));
+        assertEquals(7, PckMessageRouter.getModuleId("-M000007!"));
+        assertEquals(123, PckMessageRouter.getPhysicalSegmentId("+M004123005.STH065001"));
+        assertEquals(5, PckMessageRouter.getModuleId("+M004123005.STH065001"));
+        assertEquals(-1, PckMessageRouter.getPhysicalSegmentId("$io:#LCN:connected"));
+        assertEquals(-1, PckMessageRouter.getModuleId("=M0005"));
+        assertEquals(-1, PckMessageRouter.getModuleId("=Mabc005A1050"));
+    }
+
+    @Test
+    public void testMatchOncePerPattern() {
+        Pattern pattern = Pattern.compile(LcnBindingConstants.ADDRESS_REGEX + "A(?<outputId>\\d)(?<percent>\\d+)");
+        PckMessageRouter<String> router = new PckMessageRouter<>();
+        router.addRoute(pattern, "first");
+        router.addRoute(pattern, "second");
+        router.addRoute(Pattern.compile(LcnBindingConstants.ADDRESS_REGEX + "Rx(?<byteValue>\\d+)"), "relay");
+
+        List<String> received = new ArrayList<>();
+        router.route("=M000005A1050", (target, matcher) -> received.add(target + matcher.group("percent")));
+        router.route("=M000005O1050", (target, matcher) -> received.add(target));
+
+        assertEquals(List.of("first050", "second050"), received);
+    }
+
+    @Test
+    public void testReplayEqualsSubHandlerParsing() {
+        List<String> trace = readTrace();
+
+        LcnModuleHandler expectedHandler = mockModuleHandler(false);
+        ModInfo expectedInfo = mockModInfo(false);
+        List<AbstractLcnModuleSubHandler> subHandlers = createSubHandlers(expectedHandler, expectedInfo);
+        trace.forEach(pck -> subHandlers.forEach(h -> h.tryParse(pck)));
+
+        LcnModuleHandler handler = mockModuleHandler(false);
+        ModInfo info = mockModInfo(false);
+        PckMessageRouter<AbstractLcnModuleSubHandler> router = createRouter(handler, info);
+        trace.forEach(pck -> router.route(pck, AbstractLcnModuleSubHandler::handleMatchedStatusMessage));
+
+        List<String> expected = describeInvocations(expectedHandler, expectedInfo);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, describeInvocations(handler, info));
+    }
+
+    @Test
+    public void testReplayBenchmark() {
+        List<String> trace = readTrace();
+        int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+
+        List<AbstractLcnModuleSubHandler> subHandlers = createSubHandlers(mockModuleHandler(true), mockModInfo(true));
+        PckMessageRouter<AbstractLcnModuleSubHandler> router = createRouter(mockModuleHandler(true),
+                mockModInfo(true));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            trace.forEach(pck -> subHandlers.forEach(h -> h.tryParse(pck)));
+        }
+        long subHandlerParsing = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            trace.forEach(pck -> router.route(pck, AbstractLcnModuleSubHandler::handleMatchedStatusMessage));
+        }
+        long routing = System.nanoTime() - start;
+
+        logger.info("Replayed {} PCK messages: all sub handlers {} ms, routed {} ms", iterations * trace.size(),
+                TimeUnit.NANOSECONDS.toMillis(subHandlerParsing), TimeUnit.NANOSECONDS.toMillis(routing));
+    }
+
+    private List<String> readTrace() {
+        InputStream stream = PckMessageRouterTest.class.getResourceAsStream(TRACE);
+        assertNotNull(stream, "Trace not found: " + TRACE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().filter(l -> !l.isBlank()).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new AssertionError("Failed to read trace", e);
+        }
+    }
+
+    private static LcnModuleHandler mockModuleHandler(boolean stubOnly) {
+        LcnModuleHandler handler = stubOnly ? mock(LcnModuleHandler.class, withSettings().stubOnly())
+                : mock(LcnModuleHandler.class);
+        // the module S000M005, which also receives the global status messages of segment 004
+        when(handler.isMyAddress(anyString(), anyString())).thenAnswer(i -> {
+            String segmentId = i.getArgument(0);
+            return ("000".equals(segmentId) || "004".equals(segmentId)) && "005".equals(i.getArgument(1));
+        });
+        return handler;
+    }
+
+    private static ModInfo mockModInfo(boolean stubOnly) {
+        ModInfo info = stubOnly ? mock(ModInfo.class, withSettings().stubOnly()) : mock(ModInfo.class);
+        when(info.getLastRequestedVarWithoutTypeInResponse()).thenReturn(Variable.VARIABLE3);
+        return info;
+    }
+
+    private static List<AbstractLcnModuleSubHandler> createSubHandlers(LcnModuleHandler handler, ModInfo info) {
+        List<AbstractLcnModuleSubHandler> subHandlers = new ArrayList<>();
+        for (LcnChannelGroup type : LcnChannelGroup.values()) {
+            subHandlers.add(type.createSubHandler(handler, info));
+        }
+        subHandlers.add(new LcnModuleMetaAckSubHandler(handler, info));
+        subHandlers.add(new LcnModuleMetaFirmwareSubHandler(handler, info));
+        return subHandlers;
+    }
+
+    private static PckMessageRouter<AbstractLcnModuleSubHandler> createRouter(LcnModuleHandler handler,
+            ModInfo info) {
+        PckMessageRouter<AbstractLcnModuleSubHandler> router = new PckMessageRouter<>();
+        for (AbstractLcnModuleSubHandler subHandler : createSubHandlers(handler, info)) {
+            subHandler.getPckStatusMessagePatterns().forEach(p -> router.addRoute(p, subHandler));
+        }
+        return router;
+    }
+
+    private static List<String> describeInvocations(Object... mocks) {
+        List<String> invocations = new ArrayList<>();
+        for (Object mock : mocks) {
+            for (Invocation invocation : mockingDetails(mock).getInvocations()) {
+                String name = invocation.getMethod().getName();
+                if (!"isMyAddress".equals(name) && !name.startsWith("get")) {
+                    invocations.add(invocation.toString());
+                }
+            }
+        }
+        invocations.sort(null);
+        return invocations;
+    }
+}
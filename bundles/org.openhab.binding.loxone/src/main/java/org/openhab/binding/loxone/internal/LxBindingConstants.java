@@ -57,4 +57,8 @@ public class LxBindingConstants {
     // Location as configured on the Miniserver - it may be different to the Thing location property, which is user
     // defined and influences the grouping of items in the UI
     public static final String MINISERVER_PROPERTY_PHYSICAL_LOCATION = "physicalLocation";
+
+    // State update statistics, refreshed with each keep-alive message
+    public static final String MINISERVER_PROPERTY_STATE_QUEUE_DEPTH = "stateUpdateQueueDepth";
+    public static final String MINISERVER_PROPERTY_STATE_COALESCING_RATIO = "stateUpdateCoalescingRatio";
 }
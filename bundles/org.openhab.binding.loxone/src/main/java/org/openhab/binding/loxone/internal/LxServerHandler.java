@@ -24,8 +24,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -41,7 +39,6 @@ import org.openhab.binding.loxone.internal.types.LxConfig.LxServerInfo;
 import org.openhab.binding.loxone.internal.types.LxErrorCode;
 import org.openhab.binding.loxone.internal.types.LxResponse;
 import org.openhab.binding.loxone.internal.types.LxState;
-import org.openhab.binding.loxone.internal.types.LxStateUpdate;
 import org.openhab.binding.loxone.internal.types.LxUuid;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.thing.Channel;
@@ -99,7 +96,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     // Data structures
     private final Map<LxUuid, LxControl> controls = new HashMap<>();
     private final Map<ChannelUID, LxControl> channels = new HashMap<>();
-    private final BlockingQueue<LxStateUpdate> stateUpdateQueue = new LinkedBlockingQueue<>();
+    private final LxStateUpdateQueue stateUpdateQueue = new LxStateUpdateQueue();
 
     private LxDynamicStateDescriptionProvider dynamicStateDescriptionProvider;
     private final Logger logger = LoggerFactory.getLogger(LxServerHandler.class);
@@ -458,13 +455,27 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     }
 
     /**
-     * Put a new state update event to the queue for processing and signal thread to process it
+     * Put a new numeric state update event to the queue for processing and signal thread to process it. If the state
+     * is already waiting in the queue, only its value is replaced.
      *
-     * @param uuid state uuid (null indicates websocket session should be closed)
+     * @param data binary message with the state uuid
+     * @param offset offset of the state uuid in the message
      * @param value new state value
      */
-    void queueStateUpdate(LxUuid uuid, Object value) {
-        stateUpdateQueue.add(new LxStateUpdate(uuid, value));
+    void queueStateUpdate(byte[] data, int offset, double value) {
+        stateUpdateQueue.put(data, offset, value);
+    }
+
+    /**
+     * Put a new state update event to the queue for processing and signal thread to process it. If the state is
+     * already waiting in the queue, only its value is replaced.
+     *
+     * @param data binary message with the state uuid
+     * @param offset offset of the state uuid in the message
+     * @param value new state value
+     */
+    void queueStateUpdate(byte[] data, int offset, Object value) {
+        stateUpdateQueue.put(data, offset, value);
     }
 
     /**
@@ -472,17 +483,32 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
      * state UUID and update their value, which will trigger corresponding control state update method in each control
      * that has this state.
      *
-     * @param update Miniserver's update event
+     * @param uuid state uuid
+     * @param value new state value
      */
-    private void updateStateValue(LxStateUpdate update) {
-        Map<LxUuid, LxState> perStateUuid = states.get(update.getUuid());
+    private void updateStateValue(LxUuid uuid, Object value) {
+        Map<LxUuid, LxState> perStateUuid = states.get(uuid);
         if (perStateUuid != null) {
             perStateUuid.forEach((controlUuid, state) -> {
-                state.setStateValue(update.getValue());
+                state.setStateValue(value);
             });
         }
     }
 
+    /**
+     * Publish statistics of the state update queue as thing properties.
+     */
+    private void updateStateQueueProperties() {
+        int depth = stateUpdateQueue.getMaxQueueDepth();
+        double ratio = stateUpdateQueue.getCoalescingRatio();
+        logger.debug("[{}] State updates received {}, applied {}, dropped {}, max queue depth {}, coalescing ratio {}",
+                debugId, stateUpdateQueue.getReceivedCount(), stateUpdateQueue.getAppliedCount(),
+                stateUpdateQueue.getDroppedCount(), depth, ratio);
+        thing.setProperty(LxBindingConstants.MINISERVER_PROPERTY_STATE_QUEUE_DEPTH, String.valueOf(depth));
+        thing.setProperty(LxBindingConstants.MINISERVER_PROPERTY_STATE_COALESCING_RATIO,
+                String.format("%.3f", ratio));
+    }
+
     /**
      * Add a new control, its states, subcontrols and channels to the handler structures.
      * Handler maintains maps of all controls (main controls + subcontrols), all channels for all controls and all
@@ -664,15 +690,14 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         private void processStateUpdates() throws InterruptedException {
             while (sessionActive.get()) {
                 logger.debug("[{}] Sleeping for {} seconds.", debugId, bindingConfig.keepAlivePeriod - elapsed);
-                LxStateUpdate update = stateUpdateQueue.poll(bindingConfig.keepAlivePeriod - elapsed, TimeUnit.SECONDS);
+                int updates = stateUpdateQueue.drain(bindingConfig.keepAlivePeriod - elapsed, TimeUnit.SECONDS,
+                        LxServerHandler.this::updateStateValue);
                 elapsed = Duration.between(lastKeepAlive, Instant.now()).getSeconds();
-                if (update == null || elapsed >= bindingConfig.keepAlivePeriod) {
+                if (updates == 0 || elapsed >= bindingConfig.keepAlivePeriod) {
                     sendKeepAlive();
+                    updateStateQueueProperties();
                     elapsed = 0;
                 }
-                if (update != null) {
-                    updateStateValue(update);
-                }
             }
         }
 
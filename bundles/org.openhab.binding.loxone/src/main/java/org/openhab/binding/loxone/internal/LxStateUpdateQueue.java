@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+import org.openhab.binding.loxone.internal.types.LxUuid;
+
+/**
+ * A queue of state updates received from the Miniserver, where only the latest value of each state is kept.
+ * <p>
+ * States are identified by the binary form of their UUID as received in the event tables, so queuing an update of a
+ * known state does not allocate any objects. If a state receives a new value before the previous value was processed,
+ * the previous value is replaced and the state keeps its position in the queue. Updates are taken out of the queue by a
+ * single drainer thread.
+ *
+ * @author agent - Initial contribution
+ */
+class LxStateUpdateQueue {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // open addressing hash table from the binary UUID to the state slot
+    private long[] keysHigh = new long[INITIAL_CAPACITY * 2];
+    private long[] keysLow = new long[INITIAL_CAPACITY * 2];
+    private int[] table = newTable(INITIAL_CAPACITY * 2);
+
+    // per state slot data
+    private int slotCount;
+    private LxUuid[] uuids = new LxUuid[INITIAL_CAPACITY];
+    private double[] numbers = new double[INITIAL_CAPACITY];
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private boolean[] pending = new boolean[INITIAL_CAPACITY];
+
+    // FIFO of pending slots, each slot is queued at most once
+    private int[] ring = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    // statistics
+    private long received;
+    private long applied;
+    private long dropped;
+    private int maxDepth;
+
+    // drainer buffers, only used by the drainer thread
+    private LxUuid[] drainUuids = new LxUuid[INITIAL_CAPACITY];
+    private Object[] drainValues = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Queues a new numeric value of a state.
+     *
+     * @param data buffer with the binary UUID of the state
+     * @param offset offset of the UUID in the buffer
+     * @param value new state value
+     */
+    void put(byte[] data, int offset, double value) {
+        lock.lock();
+        try {
+            int slot = getSlot(data, offset);
+            numbers[slot] = value;
+            objects[slot] = null;
+            enqueue(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a new value of a state, that is not a number.
+     *
+     * @param data buffer with the binary UUID of the state
+     * @param offset offset of the UUID in the buffer
+     * @param value new state value
+     */
+    void put(byte[] data, int offset, Object value) {
+        lock.lock();
+        try {
+            int slot = getSlot(data, offset);
+            objects[slot] = value;
+            enqueue(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for state updates and passes all queued updates to the consumer. Must be called from one thread only. The
+     * consumer is called without holding any lock, so new updates can be queued in the meantime.
+     *
+     * @param timeout maximum time to wait for an update
+     * @param unit unit of the timeout
+     * @param consumer receives state UUID and the latest value of all queued states
+     * @return number of updates passed to the consumer, 0 if the timeout elapsed
+     * @throws InterruptedException when interrupted while waiting
+     */
+    int drain(long timeout, TimeUnit unit, BiConsumer<LxUuid, Object> consumer) throws InterruptedException {
+        int count;
+        lock.lock();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return 0;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            count = size;
+            if (drainUuids.length < count) {
+                drainUuids = new LxUuid[uuids.length];
+                drainValues = new Object[uuids.length];
+            }
+            for (int i = 0; i < count; i++) {
+                int slot = ring[(head + i) % ring.length];
+                pending[slot] = false;
+                drainUuids[i] = uuids[slot];
+                drainValues[i] = objects[slot] != null ? objects[slot] : Double.valueOf(numbers[slot]);
+            }
+            head = (head + count) % ring.length;
+            size = 0;
+            applied += count;
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < count; i++) {
+            consumer.accept(drainUuids[i], drainValues[i]);
+            drainValues[i] = null;
+        }
+        return count;
+    }
+
+    /**
+     * Removes all queued updates, they are counted as dropped.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            dropped += size;
+            while (size > 0) {
+                pending[ring[head]] = false;
+                objects[ring[head]] = null;
+                head = (head + 1) % ring.length;
+                size--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of states waiting to be processed
+     */
+    int getQueueDepth() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return highest number of states that were waiting to be processed at the same time
+     */
+    int getMaxQueueDepth() {
+        lock.lock();
+        try {
+            return maxDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of updates received
+     */
+    long getReceivedCount() {
+        lock.lock();
+        try {
+            return received;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of updates passed to the drainer
+     */
+    long getAppliedCount() {
+        lock.lock();
+        try {
+            return applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of queued updates removed by {@link #clear()} without being passed to the drainer
+     */
+    long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return ratio of received updates that were replaced by a newer value before being processed (0.0 - 1.0)
+     */
+    double getCoalescingRatio() {
+        lock.lock();
+        try {
+            if (received == 0) {
+                return 0.0;
+            }
+            return (double) (received - applied - dropped - size) / received;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(int slot) {
+        received++;
+        if (!pending[slot]) {
+            pending[slot] = true;
+            ring[(head + size) % ring.length] = slot;
+            size++;
+            if (size > maxDepth) {
+                maxDepth = size;
+            }
+            notEmpty.signal();
+        }
+    }
+
+    private int getSlot(byte[] data, int offset) {
+        long high = getLong(data, offset);
+        long low = getLong(data, offset + 8);
+        int mask = table.length - 1;
+        int index = hash(high, low) & mask;
+        while (table[index] >= 0) {
+            if (keysHigh[index] == high && keysLow[index] == low) {
+                return table[index];
+            }
+            index = (index + 1) & mask;
+        }
+        // a state that was not seen before
+        if (slotCount == uuids.length) {
+            growSlots();
+            return getSlot(data, offset);
+        }
+        int slot = slotCount++;
+        uuids[slot] = new LxUuid(data, offset);
+        keysHigh[index] = high;
+        keysLow[index] = low;
+        table[index] = slot;
+        return slot;
+    }
+
+    private void growSlots() {
+        int capacity = uuids.length * 2;
+        uuids = Arrays.copyOf(uuids, capacity);
+        numbers = Arrays.copyOf(numbers, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+
+        int[] newRing = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            newRing[i] = ring[(head + i) % ring.length];
+        }
+        ring = newRing;
+        head = 0;
+
+        long[] oldHigh = keysHigh;
+        long[] oldLow = keysLow;
+        int[] oldTable = table;
+        keysHigh = new long[capacity * 2];
+        keysLow = new long[capacity * 2];
+        table = newTable(capacity * 2);
+        int mask = table.length - 1;
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] >= 0) {
+                int index = hash(oldHigh[i], oldLow[i]) & mask;
+                while (table[index] >= 0) {
+                    index = (index + 1) & mask;
+                }
+                keysHigh[index] = oldHigh[i];
+                keysLow[index] = oldLow[i];
+                table[index] = oldTable[i];
+            }
+        }
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] newTable = new int[capacity];
+        Arrays.fill(newTable, -1);
+        return newTable;
+    }
+
+    private static int hash(long high, long low) {
+        long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -238,9 +238,8 @@ public class LxWebSocket {
                     case EVENT_TABLE_OF_VALUE_STATES:
                         stopResponseTimeout();
                         while (length > 0) {
-                            Double value = ByteBuffer.wrap(data, offset + 16, 8).order(ByteOrder.LITTLE_ENDIAN)
-                                    .getDouble();
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
+                            // decoded in place, the queue keeps only the latest value of each state
+                            thingHandler.queueStateUpdate(data, offset, getDoubleLittleEndian(data, offset + 16));
                             offset += 24;
                             length -= 24;
                         }
@@ -251,7 +250,7 @@ public class LxWebSocket {
                             int textLen = ByteBuffer.wrap(data, offset + 32, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
                             String value = new String(data, offset + 36, textLen);
                             int size = 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
+                            thingHandler.queueStateUpdate(data, offset, value);
                             offset += size;
                             length -= size;
                         }
@@ -638,4 +637,19 @@ public class LxWebSocket {
         logger.debug("[{}] Miniserver response timeout", debugId);
         disconnect(LxErrorCode.COMMUNICATION_ERROR, "Miniserver response timeout occured");
     }
+
+    /**
+     * Decode a little endian double value from the binary message without creating intermediate objects.
+     *
+     * @param data binary message
+     * @param offset offset of the value in the message
+     * @return decoded value
+     */
+    private static double getDoubleLittleEndian(byte[] data, int offset) {
+        long bits = 0;
+        for (int i = 7; i >= 0; i--) {
+            bits = (bits << 8) | (data[offset + i] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
 }
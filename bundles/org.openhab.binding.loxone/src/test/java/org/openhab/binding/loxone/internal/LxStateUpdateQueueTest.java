@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.loxone.internal.types.LxUuid;
+
+/**
+ * Test class for {@link LxStateUpdateQueue}
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class LxStateUpdateQueueTest {
+    private LxStateUpdateQueue queue;
+    private List<LxUuid> uuids;
+    private List<Object> values;
+
+    @BeforeEach
+    public void setup() {
+        queue = new LxStateUpdateQueue();
+        uuids = new ArrayList<>();
+        values = new ArrayList<>();
+    }
+
+    @Test
+    public void testBinaryUuid() throws InterruptedException {
+        // value state table entry as sent by the Miniserver
+        byte[] data = { 0x33, 0x22, 0x11, 0x0f, 0x55, 0x44, 0x77, 0x66, (byte) 0x88, (byte) 0x99, (byte) 0xaa,
+                (byte) 0xbb, (byte) 0xcc, (byte) 0xdd, (byte) 0xee, (byte) 0xff };
+        queue.put(data, 0, 1.5);
+        assertEquals(1, drain());
+        assertEquals(new LxUuid("0f112233-4455-6677-8899aabbccddeeff"), uuids.get(0));
+        assertEquals(1.5, values.get(0));
+    }
+
+    @Test
+    public void testLatestValueWins() throws InterruptedException {
+        byte[] data = table(3);
+        queue.put(data, 0, 1.0);
+        queue.put(data, 16, 2.0);
+        queue.put(data, 0, 3.0);
+        queue.put(data, 32, "text");
+        queue.put(data, 16, 4.0);
+        queue.put(data, 32, 5.0);
+
+        assertEquals(3, queue.getQueueDepth());
+        assertEquals(3, drain());
+        assertThat(uuids, contains(new LxUuid(data, 0), new LxUuid(data, 16), new LxUuid(data, 32)));
+        assertThat(values, contains(3.0, 4.0, 5.0));
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testTextValue() throws InterruptedException {
+        byte[] data = table(1);
+        queue.put(data, 0, 1.0);
+        queue.put(data, 0, "text");
+        assertEquals(1, drain());
+        assertThat(values, contains("text"));
+    }
+
+    @Test
+    public void testStatistics() throws InterruptedException {
+        byte[] data = table(2);
+        assertEquals(0.0, queue.getCoalescingRatio());
+        queue.put(data, 0, 1.0);
+        queue.put(data, 0, 2.0);
+        queue.put(data, 0, 3.0);
+        queue.put(data, 16, 4.0);
+        assertEquals(2, drain());
+        assertEquals(4, queue.getReceivedCount());
+        assertEquals(2, queue.getAppliedCount());
+        assertEquals(2, queue.getMaxQueueDepth());
+        assertEquals(0.5, queue.getCoalescingRatio());
+
+        queue.put(data, 16, 5.0);
+        assertEquals(0.4, queue.getCoalescingRatio(), 0.0001);
+        queue.clear();
+        assertEquals(0, queue.getQueueDepth());
+        assertEquals(0, drain());
+        assertEquals(5, queue.getReceivedCount());
+        assertEquals(2, queue.getAppliedCount());
+        assertEquals(1, queue.getDroppedCount());
+        // dropped updates were not replaced by a newer value
+        assertEquals(0.4, queue.getCoalescingRatio(), 0.0001);
+    }
+
+    @Test
+    public void testManyStates() throws InterruptedException {
+        final int count = 1000;
+        byte[] data = table(count);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < count; i++) {
+                queue.put(data, i * 16, (double) (round * count + i));
+            }
+        }
+        assertEquals(count, drain());
+        for (int i = 0; i < count; i++) {
+            assertEquals(new LxUuid(data, i * 16), uuids.get(i));
+            assertEquals((double) (2 * count + i), values.get(i));
+        }
+    }
+
+    @Test
+    public void testDrainTimeout() throws InterruptedException {
+        long start = System.nanoTime();
+        assertEquals(0, queue.drain(50, TimeUnit.MILLISECONDS, (uuid, value) -> fail()));
+        assertThat(System.nanoTime() - start, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)));
+    }
+
+    @Test
+    public void testDrainWakesUp() throws InterruptedException {
+        byte[] data = table(1);
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.put(data, 0, 7.0);
+        });
+        producer.start();
+        assertEquals(1, queue.drain(10, TimeUnit.SECONDS, (uuid, value) -> values.add(value)));
+        assertThat(values, contains(7.0));
+        producer.join();
+    }
+
+    private int drain() throws InterruptedException {
+        return queue.drain(0, TimeUnit.SECONDS, (uuid, value) -> {
+            uuids.add(uuid);
+            values.add(value);
+        });
+    }
+
+    private byte[] table(int count) {
+        byte[] data = new byte[count * 16];
+        for (int i = 0; i < count; i++) {
+            data[i * 16] = (byte) i;
+            data[i * 16 + 1] = (byte) (i >> 8);
+            data[i * 16 + 15] = (byte) 0x5a;
+        }
+        return data;
+    }
+}
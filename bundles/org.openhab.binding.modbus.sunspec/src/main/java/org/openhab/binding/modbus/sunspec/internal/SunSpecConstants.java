@@ -76,6 +76,7 @@ public class SunSpecConstants {
     public static final String PROPERTY_BLOCK_ADDRESS = "blockAddress";
     public static final String PROPERTY_BLOCK_LENGTH = "blockLength";
     public static final String PROPERTY_UNIQUE_ADDRESS = "uniqueAddress";
+    public static final String PROPERTY_UNIT_ID = "unitId";
 
     // Channel group ids
     public static final String GROUP_DEVICE_INFO = "deviceInformation";
@@ -146,4 +147,8 @@ public class SunSpecConstants {
     public static final int SUNSPEC_ID_SIZE = 2;
     // Size of any block header in words
     public static final int MODEL_HEADER_SIZE = 2;
+    // Size of the common block in words, without the header
+    public static final int COMMON_BLOCK_SIZE = 66;
+    // Maximum number of words that can be read with one request
+    public static final int MAX_READ_SIZE = 125;
 }
@@ -14,14 +14,18 @@ package org.openhab.binding.modbus.sunspec.internal.discovery;
 
 import static org.openhab.binding.modbus.sunspec.internal.SunSpecConstants.SUPPORTED_THING_TYPES_UIDS;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.modbus.discovery.ModbusDiscoveryListener;
 import org.openhab.binding.modbus.discovery.ModbusDiscoveryParticipant;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.thing.ThingTypeUID;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
@@ -48,7 +52,31 @@ public class SunspecDiscoveryParticipant implements ModbusDiscoveryParticipant {
     public void startDiscovery(ModbusEndpointThingHandler handler, ModbusDiscoveryListener listener) {
         logger.trace("Starting sunspec discovery");
         try {
-            new SunspecDiscoveryProcess(handler, listener).detectModel();
+            ModbusCommunicationInterface comms = handler.getCommunicationInterface();
+            if (comms == null) {
+                throw new EndpointNotInitializedException();
+            }
+            int firstSlaveId = handler.getSlaveId();
+            int lastSlaveId = Math.max(firstSlaveId, handler.getDiscoveryMaxSlaveId());
+            SunspecDiscoveryRequestQueue requestQueue = new SunspecDiscoveryRequestQueue(comms,
+                    handler.getDiscoveryMaxRequests());
+            // Model block layouts of the devices discovered in this run
+            SunspecModelLayoutCache layoutCache = new SunspecModelLayoutCache();
+
+            // Scan the slave ids in parallel, and report the end of discovery when all of them have finished
+            AtomicInteger processesRunning = new AtomicInteger(lastSlaveId - firstSlaveId + 1);
+            Runnable processFinished = () -> {
+                if (processesRunning.decrementAndGet() == 0) {
+                    logger.trace("Sunspec discovery finished");
+                    listener.discoveryFinished();
+                }
+            };
+            List<SunspecDiscoveryProcess> processes = new ArrayList<>();
+            for (int slaveId = firstSlaveId; slaveId <= lastSlaveId; slaveId++) {
+                processes.add(new SunspecDiscoveryProcess(handler, listener, requestQueue, layoutCache, slaveId,
+                        slaveId == firstSlaveId, processFinished));
+            }
+            processes.forEach(SunspecDiscoveryProcess::detectModel);
         } catch (EndpointNotInitializedException ex) {
             logger.debug("Could not start discovery process");
             listener.discoveryFinished();
@@ -14,16 +14,19 @@ package org.openhab.binding.modbus.sunspec.internal.discovery;
 
 import static org.openhab.binding.modbus.sunspec.internal.SunSpecConstants.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.discovery.ModbusDiscoveryListener;
-import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.sunspec.internal.dto.CommonModelBlock;
 import org.openhab.binding.modbus.sunspec.internal.dto.ModelBlock;
@@ -32,7 +35,6 @@ import org.openhab.core.config.discovery.DiscoveryResult;
 import org.openhab.core.config.discovery.DiscoveryResultBuilder;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
 import org.openhab.core.io.transport.modbus.ModbusBitUtilities;
-import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
 import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
@@ -50,6 +52,12 @@ import org.slf4j.LoggerFactory;
  * It scans trough the defined model items and notifies the
  * discovery service about the discovered devices
  *
+ * The registers are read ahead in as large requests as possible, so that
+ * usually the SunSpec ID, the common block and several model headers are
+ * received with one request. Devices with an already known model block layout
+ * are detected with a single request, after checking that the header of their
+ * first model block matches the known layout.
+ *
  * @author Nagy Attila Gabor - Initial contribution
  */
 @NonNullByDefault
@@ -73,9 +81,15 @@ public class SunspecDiscoveryProcess {
     private final ModbusDiscoveryListener listener;
 
     /**
-     * The endpoint's slave id
+     * The slave id scanned by this process
+     */
+    private final int slaveId;
+
+    /**
+     * True if the slave id is the one of the endpoint, false
+     * if it is another slave id scanned on the same endpoint
      */
-    private int slaveId;
+    private final boolean endpointSlave;
 
     /**
      * Number of maximum retries
@@ -109,27 +123,66 @@ public class SunspecDiscoveryProcess {
     private @Nullable CommonModelBlock lastCommonBlock = null;
 
     /**
-     * Communication interface to the endpoint
+     * Queue for the requests to the endpoint, shared by
+     * all discovery processes running on it
+     */
+    private final SunspecDiscoveryRequestQueue requestQueue;
+
+    /**
+     * Model block layouts of the devices already discovered
      */
-    private ModbusCommunicationInterface comms;
+    private final SunspecModelLayoutCache layoutCache;
+
+    /**
+     * Called when this process has finished
+     */
+    private final Runnable finishedCallback;
+
+    /**
+     * Registers received with the last request, and their start address
+     */
+    private @Nullable ModbusRegisterArray buffer = null;
+    private int bufferAddress = 0;
+
+    /**
+     * Read more registers than needed with a request. This is turned off
+     * if the device fails requests reaching past its register map.
+     */
+    private boolean readAhead = true;
+
+    /**
+     * Model blocks found after the last common block, with addresses
+     * relative to its end. This is stored in the layout cache
+     * when the next common block or the end is reached.
+     */
+    private @Nullable List<ModelBlock> layout = null;
+
+    /**
+     * End address of the last common block
+     */
+    private int layoutAddress = 0;
 
     /**
      * New instances of this class should get a reference to the handler
      *
-     * @throws EndpointNotInitializedException
+     * @param handler the endpoint handler
+     * @param listener listener for the discovered devices
+     * @param requestQueue queue for the requests to the endpoint
+     * @param layoutCache cache of the known model block layouts
+     * @param slaveId the slave id to scan
+     * @param endpointSlave true if slave id is the slave id of the endpoint
+     * @param finishedCallback called when the process has finished
      */
-    public SunspecDiscoveryProcess(ModbusEndpointThingHandler handler, ModbusDiscoveryListener listener)
-            throws EndpointNotInitializedException {
+    public SunspecDiscoveryProcess(ModbusEndpointThingHandler handler, ModbusDiscoveryListener listener,
+            SunspecDiscoveryRequestQueue requestQueue, SunspecModelLayoutCache layoutCache, int slaveId,
+            boolean endpointSlave, Runnable finishedCallback) {
         this.handler = handler;
-
-        ModbusCommunicationInterface localComms = handler.getCommunicationInterface();
-        if (localComms != null) {
-            this.comms = localComms;
-        } else {
-            throw new EndpointNotInitializedException();
-        }
-        slaveId = handler.getSlaveId();
         this.listener = listener;
+        this.requestQueue = requestQueue;
+        this.layoutCache = layoutCache;
+        this.slaveId = slaveId;
+        this.endpointSlave = endpointSlave;
+        this.finishedCallback = finishedCallback;
         commonBlockParser = new CommonModelParser();
         possibleAddresses = new ConcurrentLinkedQueue<>();
         // Preferred and alternate base registers
@@ -141,9 +194,6 @@ public class SunspecDiscoveryProcess {
 
     /**
      * Start model detection
-     *
-     * @param uid the thing type to look for
-     * @throws EndpointNotInitializedException
      */
     public void detectModel() {
 
@@ -153,15 +203,11 @@ public class SunspecDiscoveryProcess {
         }
         // Try the next address from the possibles
         baseAddress = possibleAddresses.poll();
-        logger.trace("Beginning scan for SunSpec device at address {}", baseAddress);
+        logger.trace("Beginning scan for SunSpec device {} at address {}", slaveId, baseAddress);
 
-        ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(slaveId,
-                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, baseAddress, // Start address
-                SUNSPEC_ID_SIZE, // number or words to return
-                maxTries);
-
-        comms.submitOneTimePoll(request, result -> result.getRegisters().ifPresent(this::headerReceived),
-                this::handleError);
+        // Read the common block and the next model header with the same request
+        read(baseAddress, SUNSPEC_ID_SIZE + MODEL_HEADER_SIZE + COMMON_BLOCK_SIZE + MODEL_HEADER_SIZE,
+                SUNSPEC_ID_SIZE, true, this::headerReceived);
     }
 
     /**
@@ -173,8 +219,8 @@ public class SunspecDiscoveryProcess {
         Optional<DecimalType> id = ModbusBitUtilities.extractStateFromRegisters(registers, 0, ValueType.UINT32);
 
         if (!id.isPresent() || id.get().longValue() != SUNSPEC_ID) {
-            logger.debug("Could not find SunSpec DID at address {}, received: {}, expected: {}", baseAddress, id,
-                    SUNSPEC_ID);
+            logger.debug("Could not find SunSpec DID at address {} of device {}, received: {}, expected: {}",
+                    baseAddress, slaveId, id, SUNSPEC_ID);
             detectModel();
             return;
         }
@@ -189,14 +235,12 @@ public class SunspecDiscoveryProcess {
      * Look for a valid model block at the current base address
      */
     private void lookForModelBlock() {
-
-        ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(slaveId,
-                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, baseAddress, // Start address
-                MODEL_HEADER_SIZE, // number or words to return
-                maxTries);
-
-        comms.submitOneTimePoll(request, result -> result.getRegisters().ifPresent(this::modelBlockReceived),
-                this::handleError);
+        ModbusRegisterArray registers = getBuffered(baseAddress, MODEL_HEADER_SIZE);
+        if (registers != null) {
+            modelBlockReceived(registers);
+            return;
+        }
+        read(baseAddress, MAX_READ_SIZE, MODEL_HEADER_SIZE, false, this::modelBlockReceived);
     }
 
     /**
@@ -223,13 +267,16 @@ public class SunspecDiscoveryProcess {
         blocksFound++;
 
         if (block.moduleID == FINAL_BLOCK) {
+            layoutFinished(true);
             parsingFinished();
         } else {
             baseAddress += block.length;
             if (block.moduleID == COMMON_BLOCK) {
+                layoutFinished(false);
                 readCommonBlock(block); // This is an asynchronous task
                 return;
             } else {
+                addToLayout(block);
                 createDiscoveryResult(block);
                 lookForModelBlock();
             }
@@ -243,25 +290,122 @@ public class SunspecDiscoveryProcess {
      * @param block
      */
     private void readCommonBlock(ModelBlock block) {
-        ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(slaveId,
-                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, block.address, // Start address
-                block.length, // number or words to return
-                maxTries);
-
-        comms.submitOneTimePoll(request, result -> result.getRegisters().ifPresent(this::parseCommonBlock),
-                this::handleError);
+        layoutAddress = block.address + block.length;
+        ModbusRegisterArray registers = getBuffered(block.address, block.length);
+        if (registers != null) {
+            parseCommonBlock(registers);
+            return;
+        }
+        read(block.address, block.length, block.length, false, this::parseCommonBlock);
     }
 
     /**
      * We've read the details of a common block now parse it, and
      * store for later use
      *
+     * If the layout of the following model blocks is already known
+     * the model blocks are taken from the cache
+     *
      * @param registers
      */
     private void parseCommonBlock(ModbusRegisterArray registers) {
         logger.trace("Got common block data: {}", registers);
-        lastCommonBlock = commonBlockParser.parse(registers);
-        lookForModelBlock(); // Continue parsing
+        CommonModelBlock commonBlock = commonBlockParser.parse(registers);
+        lastCommonBlock = commonBlock;
+
+        List<ModelBlock> cachedLayout = layoutCache.get(commonBlock);
+        if (cachedLayout == null || cachedLayout.isEmpty() || cachedLayout.get(0).moduleID == FINAL_BLOCK) {
+            layout = new ArrayList<>();
+            lookForModelBlock(); // Continue parsing
+            return;
+        }
+
+        // Check the header of the first model block before trusting the known layout,
+        // usually it has already been received together with the common block
+        int firstBlockAddress = layoutAddress + cachedLayout.get(0).address;
+        ModbusRegisterArray registers = getBuffered(firstBlockAddress, MODEL_HEADER_SIZE);
+        if (registers != null) {
+            verifyLayout(commonBlock, cachedLayout, registers);
+            return;
+        }
+        read(firstBlockAddress, MODEL_HEADER_SIZE, MODEL_HEADER_SIZE, false,
+                header -> verifyLayout(commonBlock, cachedLayout, header));
+    }
+
+    /**
+     * We received the header of the first model block of a device with a known layout.
+     * If it matches the first block of the layout the model blocks are taken from the layout,
+     * otherwise all model blocks are read from the device.
+     *
+     * @param commonBlock the common block of the device
+     * @param cachedLayout the known layout of the model blocks
+     * @param registers the header of the first model block
+     */
+    private void verifyLayout(CommonModelBlock commonBlock, List<ModelBlock> cachedLayout,
+            ModbusRegisterArray registers) {
+        ModelBlock firstBlock = cachedLayout.get(0);
+        Optional<DecimalType> moduleID = ModbusBitUtilities.extractStateFromRegisters(registers, 0, ValueType.UINT16);
+        Optional<DecimalType> blockLength = ModbusBitUtilities.extractStateFromRegisters(registers, 1,
+                ValueType.UINT16);
+        if (!moduleID.isPresent() || !blockLength.isPresent() || moduleID.get().intValue() != firstBlock.moduleID
+                || blockLength.get().intValue() + MODEL_HEADER_SIZE != firstBlock.length) {
+            logger.debug("Device {} does not match the known model block layout of {} {}, reading all blocks", slaveId,
+                    commonBlock.manufacturer, commonBlock.model);
+            layout = new ArrayList<>();
+            lookForModelBlock(); // Continue parsing
+            return;
+        }
+
+        logger.debug("Using known model block layout of {} {} for device {}", commonBlock.manufacturer,
+                commonBlock.model, slaveId);
+        for (ModelBlock cachedBlock : cachedLayout) {
+            if (cachedBlock.moduleID == FINAL_BLOCK) {
+                parsingFinished();
+                return;
+            }
+            ModelBlock block = new ModelBlock();
+            block.address = layoutAddress + cachedBlock.address;
+            block.moduleID = cachedBlock.moduleID;
+            block.length = cachedBlock.length;
+            blocksFound++;
+            baseAddress = block.address + block.length;
+            createDiscoveryResult(block);
+        }
+        lookForModelBlock(); // Continue parsing after the known blocks
+    }
+
+    /**
+     * Record a model block found after a common block
+     */
+    private void addToLayout(ModelBlock block) {
+        List<ModelBlock> localLayout = layout;
+        if (localLayout != null) {
+            ModelBlock relativeBlock = new ModelBlock();
+            relativeBlock.address = block.address - layoutAddress;
+            relativeBlock.moduleID = block.moduleID;
+            relativeBlock.length = block.length;
+            localLayout.add(relativeBlock);
+        }
+    }
+
+    /**
+     * Store the recorded model blocks of the last common block in the cache
+     *
+     * @param last true if there are no more blocks on the device
+     */
+    private void layoutFinished(boolean last) {
+        List<ModelBlock> localLayout = layout;
+        CommonModelBlock commonBlock = lastCommonBlock;
+        if (localLayout == null || commonBlock == null) {
+            return;
+        }
+        if (last) {
+            ModelBlock finalBlock = new ModelBlock();
+            finalBlock.moduleID = FINAL_BLOCK;
+            localLayout.add(finalBlock);
+        }
+        layoutCache.put(commonBlock, localLayout);
+        layout = null;
     }
 
     /**
@@ -288,7 +432,9 @@ public class SunspecDiscoveryProcess {
             logger.warn("Found model block but no corresponding thing type UID present: {}", block.moduleID);
             return;
         }
-        ThingUID thingUID = new ThingUID(thingTypeUID, handler.getUID(), Integer.toString(block.address));
+        // Keep the identifiers of the devices at the endpoint's own slave id unchanged
+        String id = endpointSlave ? Integer.toString(block.address) : slaveId + "-" + block.address;
+        ThingUID thingUID = new ThingUID(thingTypeUID, handler.getUID(), id);
 
         Map<String, Object> properties = new HashMap<>();
         properties.put(PROPERTY_VENDOR, commonBlock.manufacturer);
@@ -297,11 +443,19 @@ public class SunspecDiscoveryProcess {
         properties.put(PROPERTY_VERSION, commonBlock.version);
         properties.put(PROPERTY_BLOCK_ADDRESS, block.address);
         properties.put(PROPERTY_BLOCK_LENGTH, block.length);
-        properties.put(PROPERTY_UNIQUE_ADDRESS, handler.getUID().getAsString() + ":" + block.address);
+        String label = commonBlock.manufacturer + " " + commonBlock.model;
+        if (endpointSlave) {
+            properties.put(PROPERTY_UNIQUE_ADDRESS, handler.getUID().getAsString() + ":" + block.address);
+        } else {
+            properties.put(PROPERTY_UNIT_ID, slaveId);
+            properties.put(PROPERTY_UNIQUE_ADDRESS,
+                    handler.getUID().getAsString() + ":" + slaveId + ":" + block.address);
+            label += " (" + slaveId + ")";
+        }
 
         DiscoveryResult result = DiscoveryResultBuilder.create(thingUID).withProperties(properties)
-                .withRepresentationProperty(PROPERTY_UNIQUE_ADDRESS).withBridge(handler.getUID())
-                .withLabel(commonBlock.manufacturer + " " + commonBlock.model).build();
+                .withRepresentationProperty(PROPERTY_UNIQUE_ADDRESS).withBridge(handler.getUID()).withLabel(label)
+                .build();
 
         listener.thingDiscovered(result);
     }
@@ -311,30 +465,106 @@ public class SunspecDiscoveryProcess {
      * Now we have to report back to the handler the common block and the block we were looking for
      */
     private void parsingFinished() {
-        listener.discoveryFinished();
+        finishedCallback.run();
     }
 
     /**
-     * Handle errors received during communication
+     * Get registers from the response of the last request
+     *
+     * @param address start address of the registers
+     * @param length number of registers
+     * @return the registers or null if they were not received with the last request
      */
-    private void handleError(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
-        if (blocksFound > 1 && failure.getCause() instanceof ModbusSlaveErrorResponseException) {
-            int code = ((ModbusSlaveErrorResponseException) failure.getCause()).getExceptionCode();
-            if (code == ModbusSlaveErrorResponseException.ILLEGAL_DATA_ACCESS
-                    || code == ModbusSlaveErrorResponseException.ILLEGAL_DATA_VALUE) {
-                // It is very likely that the slave does not report an end block (0xffff) after the main blocks
-                // so we treat this situation as normal.
-                logger.debug(
-                        "Seems like slave device does not report an end block. Continuing with the dectected blocks");
-                parsingFinished();
+    private @Nullable ModbusRegisterArray getBuffered(int address, int length) {
+        ModbusRegisterArray localBuffer = buffer;
+        if (localBuffer == null || address < bufferAddress
+                || address + length > bufferAddress + localBuffer.size()) {
+            return null;
+        }
+        int offset = (address - bufferAddress) * 2;
+        return new ModbusRegisterArray(Arrays.copyOfRange(localBuffer.getBytes(), offset, offset + length * 2));
+    }
+
+    /**
+     * Read registers from the device
+     *
+     * @param address start address
+     * @param length number of registers to read if reading ahead
+     * @param minLength number of registers needed
+     * @param probe true if it is not known yet whether the device is present
+     * @param callback called with the registers needed
+     */
+    private void read(int address, int length, int minLength, boolean probe,
+            Consumer<ModbusRegisterArray> callback) {
+        int readLength = readAhead ? Math.max(minLength, Math.min(length, MAX_READ_SIZE)) : minLength;
+        // Do not spend retries on slave ids without a device when scanning other slave ids
+        int tries = probe && !endpointSlave ? 1 : maxTries;
+        ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(slaveId,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, address, // Start address
+                readLength, // number or words to return
+                tries);
+
+        requestQueue.submit(request, result -> {
+            Optional<ModbusRegisterArray> registers = result.getRegisters();
+            if (!registers.isPresent()) {
+                // Continue with the next base address, so that the discovery does not stall
+                logger.debug("Received no registers from device {} at address {}", slaveId, address);
+                detectModel();
                 return;
             }
+            buffer = registers.get();
+            bufferAddress = address;
+            callback.accept(registers.get());
+        }, failure -> {
+            if (readLength > minLength && isIllegalAddress(failure)) {
+                // The device does not allow reading past the end of its register map,
+                // read only the registers needed from now on
+                logger.debug("Device {} refused reading ahead at address {}, reading {} registers only", slaveId,
+                        address, minLength);
+                readAhead = false;
+                read(address, minLength, minLength, probe, callback);
+                return;
+            }
+            handleError(failure, probe);
+        });
+    }
+
+    /**
+     * Check if the request failed because the device reported invalid register address
+     */
+    private static boolean isIllegalAddress(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+        if (failure.getCause() instanceof ModbusSlaveErrorResponseException) {
+            int code = ((ModbusSlaveErrorResponseException) failure.getCause()).getExceptionCode();
+            return code == ModbusSlaveErrorResponseException.ILLEGAL_DATA_ACCESS
+                    || code == ModbusSlaveErrorResponseException.ILLEGAL_DATA_VALUE;
+        }
+        return false;
+    }
+
+    /**
+     * Handle errors received during communication
+     */
+    private void handleError(AsyncModbusFailure<ModbusReadRequestBlueprint> failure, boolean probe) {
+        if (blocksFound > 1 && isIllegalAddress(failure)) {
+            // It is very likely that the slave does not report an end block (0xffff) after the main blocks
+            // so we treat this situation as normal.
+            logger.debug("Seems like slave device does not report an end block. Continuing with the dectected blocks");
+            layoutFinished(true);
+            parsingFinished();
+            return;
         }
 
         String cls = failure.getCause().getClass().getName();
         String msg = failure.getCause().getMessage();
 
-        logger.warn("Error with read at address {}: {} {}", baseAddress, cls, msg);
+        if (probe && !endpointSlave && !(failure.getCause() instanceof ModbusSlaveErrorResponseException)) {
+            // No response at all, there is no device with this slave id
+            logger.debug("No response from device {} at address {}: {} {}", slaveId, baseAddress, cls, msg);
+            parsingFinished();
+            return;
+        }
+
+        logger.warn("Error with read at address {} of device {}: {} {}", baseAddress, slaveId, cls, msg);
 
         detectModel();
     }
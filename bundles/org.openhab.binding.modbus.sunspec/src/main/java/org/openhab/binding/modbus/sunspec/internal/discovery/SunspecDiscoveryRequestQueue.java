@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.discovery;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+
+/**
+ * Submits the requests of the discovery processes running in parallel on one endpoint.
+ * At most the given number of requests are in flight at the same time, the rest are
+ * queued and submitted in the order they were received.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SunspecDiscoveryRequestQueue {
+
+    /**
+     * Communication interface to the endpoint
+     */
+    private final ModbusCommunicationInterface comms;
+
+    /**
+     * Maximum number of requests in flight
+     */
+    private final int maxRequests;
+
+    /**
+     * Requests waiting for a previous request to finish
+     */
+    private final Queue<Runnable> queuedRequests = new ArrayDeque<>();
+
+    /**
+     * Number of requests submitted but not finished yet
+     */
+    private int requestsInFlight = 0;
+
+    public SunspecDiscoveryRequestQueue(ModbusCommunicationInterface comms, int maxRequests) {
+        this.comms = comms;
+        this.maxRequests = Math.max(1, maxRequests);
+    }
+
+    /**
+     * Submit a read request, or queue it if too many requests are in flight
+     *
+     * @param request the request to submit
+     * @param resultCallback called with the result of the request
+     * @param failureCallback called if the request fails
+     */
+    public void submit(ModbusReadRequestBlueprint request, ModbusReadCallback resultCallback,
+            ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        Runnable submission = () -> comms.submitOneTimePoll(request, result -> {
+            requestFinished();
+            resultCallback.handle(result);
+        }, failure -> {
+            requestFinished();
+            failureCallback.handle(failure);
+        });
+
+        synchronized (this) {
+            if (requestsInFlight >= maxRequests) {
+                queuedRequests.add(submission);
+                return;
+            }
+            requestsInFlight++;
+        }
+        submission.run();
+    }
+
+    /**
+     * A request has finished, submit the next queued request in its place
+     */
+    private void requestFinished() {
+        @Nullable
+        Runnable next;
+        synchronized (this) {
+            next = queuedRequests.poll();
+            if (next == null) {
+                requestsInFlight--;
+                return;
+            }
+        }
+        next.run();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.discovery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.modbus.sunspec.internal.dto.CommonModelBlock;
+import org.openhab.binding.modbus.sunspec.internal.dto.ModelBlock;
+
+/**
+ * Cache of the model blocks following the common block of a device.
+ *
+ * Devices of the same manufacturer, model and version lay out their model blocks
+ * the same way, so once the blocks of one device are known the discovery can skip
+ * reading the model headers of the other devices.
+ *
+ * The cache lives for a single discovery run only, and the discovery checks the
+ * header of the first model block of a device before it uses a cached layout.
+ *
+ * The addresses of the cached blocks are relative to the end of the common block.
+ * The layout ends with a block of type {@code FINAL_BLOCK} if there are no more
+ * blocks on the device, otherwise the discovery continues after the last block.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SunspecModelLayoutCache {
+
+    private final Map<String, List<ModelBlock>> layouts = new ConcurrentHashMap<>();
+
+    /**
+     * Get the layout of the model blocks following the given common block
+     *
+     * @param commonBlock the common block of the device
+     * @return the cached blocks or null if the layout is not known yet
+     */
+    public @Nullable List<ModelBlock> get(CommonModelBlock commonBlock) {
+        return layouts.get(key(commonBlock));
+    }
+
+    /**
+     * Store the layout of the model blocks following the given common block
+     *
+     * @param commonBlock the common block of the device
+     * @param blocks the blocks following the common block with relative addresses
+     */
+    public void put(CommonModelBlock commonBlock, List<ModelBlock> blocks) {
+        layouts.put(key(commonBlock), new ArrayList<>(blocks));
+    }
+
+    private static String key(CommonModelBlock commonBlock) {
+        return commonBlock.manufacturer + "\u0000" + commonBlock.model + "\u0000" + commonBlock.version;
+    }
+}
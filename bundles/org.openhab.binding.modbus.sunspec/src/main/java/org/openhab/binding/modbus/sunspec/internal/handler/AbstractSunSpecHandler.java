@@ -180,6 +180,24 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Load the slave id from the properties
+     * This is set by the auto discovery process for devices found at
+     * other slave ids than the one of the bridge
+     */
+    private @Nullable Integer getUnitIdFromProperties() {
+        String unitId = thing.getProperties().get(PROPERTY_UNIT_ID);
+        if (unitId == null || unitId.isEmpty()) {
+            return null;
+        }
+        try {
+            return (int) Double.parseDouble(unitId);
+        } catch (NumberFormatException ex) {
+            logger.debug("Could not parse unit id property, error: {}", ex.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Load configuration from main configuration
      */
@@ -286,7 +304,8 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
         }
 
         try {
-            slaveId = slaveEndpointThingHandler.getSlaveId();
+            Integer unitId = getUnitIdFromProperties();
+            slaveId = unitId != null ? unitId : slaveEndpointThingHandler.getSlaveId();
             comms = slaveEndpointThingHandler.getCommunicationInterface();
         } catch (EndpointNotInitializedException e) {
             // this will be handled below as endpoint remains null
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.modbus.sunspec.internal.SunSpecConstants.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.modbus.discovery.ModbusDiscoveryListener;
+import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
+import org.openhab.core.config.discovery.DiscoveryResult;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests the SunSpec discovery against simulated devices behind a mocked {@link ModbusCommunicationInterface}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SunspecDiscoveryProcessTest {
+
+    private static final ThingUID BRIDGE_UID = new ThingUID("modbus", "tcp", "bridge");
+    private static final int BASE_ADDRESS = 40000;
+
+    private final SunspecDiscoveryParticipant participant = new SunspecDiscoveryParticipant();
+    private final Map<Integer, int[]> devices = new HashMap<>();
+    private final List<ModbusReadRequestBlueprint> requests = new ArrayList<>();
+    private final List<DiscoveryResult> results = new ArrayList<>();
+    private int finished;
+    private boolean answerWithoutRegisters;
+
+    private ModbusEndpointThingHandler handler;
+    private ModbusDiscoveryListener listener;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+        doAnswer(invocation -> {
+            ModbusReadRequestBlueprint request = invocation.getArgument(0);
+            ModbusReadCallback resultCallback = invocation.getArgument(1);
+            ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback = invocation.getArgument(2);
+            requests.add(request);
+
+            int[] device = devices.get(request.getUnitID());
+            int offset = request.getReference() - BASE_ADDRESS;
+            if (device == null || offset < 0) {
+                failureCallback.handle(new AsyncModbusFailure<>(request, new Exception("No response")));
+            } else if (answerWithoutRegisters) {
+                resultCallback.handle(new AsyncModbusReadResult(request, new BitArray(request.getDataLength())));
+            } else {
+                resultCallback.handle(
+                        new AsyncModbusReadResult(request, registers(device, offset, request.getDataLength())));
+            }
+            return null;
+        }).when(comms).submitOneTimePoll(any(), any(), any());
+
+        handler = mock(ModbusEndpointThingHandler.class);
+        when(handler.getUID()).thenReturn(BRIDGE_UID);
+        when(handler.getCommunicationInterface()).thenReturn(comms);
+        when(handler.getSlaveId()).thenReturn(1);
+        when(handler.getDiscoveryMaxRequests()).thenReturn(1);
+
+        listener = mock(ModbusDiscoveryListener.class);
+        doAnswer(invocation -> results.add(invocation.getArgument(0))).when(listener).thingDiscovered(any());
+        doAnswer(invocation -> finished++).when(listener).discoveryFinished();
+    }
+
+    /**
+     * Creates the register map of a device starting at the base address
+     *
+     * @param model the model of the common block
+     * @param blocks pairs of model id and length of the model blocks following the common block
+     */
+    private static int[] device(String model, int... blocks) {
+        List<Integer> registers = new ArrayList<>();
+        registers.add(0x5375); // "Su"
+        registers.add(0x6e53); // "nS"
+        registers.add(COMMON_BLOCK);
+        registers.add(COMMON_BLOCK_SIZE);
+        addString(registers, "ACME", 16); // manufacturer
+        addString(registers, model, 16);
+        addString(registers, "", 8); // options
+        addString(registers, "1.0", 8); // version
+        addString(registers, "SN-" + model, 16);
+        registers.add(1); // device address
+        registers.add(0); // pad
+        for (int i = 0; i < blocks.length; i += 2) {
+            registers.add(blocks[i]);
+            registers.add(blocks[i + 1]);
+            for (int j = 0; j < blocks[i + 1]; j++) {
+                registers.add(0);
+            }
+        }
+        registers.add(FINAL_BLOCK);
+        registers.add(0);
+        return registers.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void addString(List<Integer> registers, String value, int length) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < length; i++) {
+            int high = i * 2 < bytes.length ? bytes[i * 2] & 0xff : 0;
+            int low = i * 2 + 1 < bytes.length ? bytes[i * 2 + 1] & 0xff : 0;
+            registers.add(high << 8 | low);
+        }
+    }
+
+    /**
+     * Registers of a device, reading past the end of its register map returns zeros
+     */
+    private static ModbusRegisterArray registers(int[] device, int offset, int length) {
+        byte[] bytes = new byte[length * 2];
+        for (int i = 0; i < length && offset + i < device.length; i++) {
+            bytes[i * 2] = (byte) (device[offset + i] >> 8);
+            bytes[i * 2 + 1] = (byte) device[offset + i];
+        }
+        return new ModbusRegisterArray(bytes);
+    }
+
+    private void discover(int maxSlaveId) throws Exception {
+        when(handler.getDiscoveryMaxSlaveId()).thenReturn(maxSlaveId);
+        participant.startDiscovery(handler, listener);
+    }
+
+    private long requestCount(int slaveId) {
+        return requests.stream().filter(request -> request.getUnitID() == slaveId).count();
+    }
+
+    private List<String> discoveredThings() {
+        return results.stream().map(result -> result.getThingUID().getAsString()).collect(Collectors.toList());
+    }
+
+    private String thingUID(int moduleID, String id) {
+        return new ThingUID(SUPPORTED_THING_TYPES_UIDS.get(moduleID), BRIDGE_UID, id).getAsString();
+    }
+
+    @Test
+    public void devicesAreDiscoveredAtAllSlaveIds() throws Exception {
+        devices.put(1, device("Inverter", INVERTER_THREE_PHASE, 50));
+        devices.put(2, device("Meter", METER_SINGLE_PHASE, 105));
+
+        discover(3);
+
+        assertThat(discoveredThings(), is(equalTo(
+                List.of(thingUID(INVERTER_THREE_PHASE, "40070"), thingUID(METER_SINGLE_PHASE, "2-40070")))));
+        assertThat(results.get(0).getProperties().get(PROPERTY_UNIT_ID), is(nullValue()));
+        assertThat(results.get(1).getProperties().get(PROPERTY_UNIT_ID), is(equalTo(2)));
+        // the slave id without a device is probed with a single request only
+        assertThat(requestCount(3), is(equalTo(1L)));
+        assertThat(finished, is(equalTo(1)));
+    }
+
+    @Test
+    public void knownLayoutIsUsedAfterCheckingTheFirstBlock() throws Exception {
+        devices.put(1, device("Inverter", INVERTER_THREE_PHASE, 50, METER_SINGLE_PHASE, 105));
+        devices.put(2, device("Inverter", INVERTER_THREE_PHASE, 50, METER_SINGLE_PHASE, 105));
+
+        discover(2);
+
+        assertThat(discoveredThings(),
+                is(equalTo(List.of(thingUID(INVERTER_THREE_PHASE, "40070"), thingUID(METER_SINGLE_PHASE, "40122"),
+                        thingUID(INVERTER_THREE_PHASE, "2-40070"), thingUID(METER_SINGLE_PHASE, "2-40122")))));
+        assertThat(requestCount(1), is(equalTo(2L)));
+        // the header of the first model block is received together with the common block
+        assertThat(requestCount(2), is(equalTo(1L)));
+        assertThat(finished, is(equalTo(1)));
+    }
+
+    @Test
+    public void differentLayoutOfSameModelIsRead() throws Exception {
+        devices.put(1, device("Inverter", INVERTER_THREE_PHASE, 50));
+        devices.put(2, device("Inverter", METER_SINGLE_PHASE, 105, INVERTER_THREE_PHASE, 50));
+
+        discover(2);
+
+        assertThat(discoveredThings(), is(equalTo(List.of(thingUID(INVERTER_THREE_PHASE, "40070"),
+                thingUID(METER_SINGLE_PHASE, "2-40070"), thingUID(INVERTER_THREE_PHASE, "2-40177")))));
+        assertThat(finished, is(equalTo(1)));
+    }
+
+    @Test
+    public void layoutIsNotKeptForTheNextDiscovery() throws Exception {
+        // the device could have been updated in the meantime
+        devices.put(1, device("Inverter", INVERTER_THREE_PHASE, 50));
+        discover(1);
+        assertThat(requestCount(1), is(equalTo(2L)));
+
+        requests.clear();
+        discover(1);
+        assertThat(requestCount(1), is(equalTo(2L)));
+        assertThat(finished, is(equalTo(2)));
+    }
+
+    @Test
+    public void discoveryFinishesWithoutRegistersInResponse() throws Exception {
+        devices.put(1, device("Inverter", INVERTER_THREE_PHASE, 50));
+        devices.put(2, device("Inverter", INVERTER_THREE_PHASE, 50));
+        answerWithoutRegisters = true;
+
+        discover(2);
+
+        assertThat(results.isEmpty(), is(true));
+        assertThat(finished, is(equalTo(1)));
+    }
+}
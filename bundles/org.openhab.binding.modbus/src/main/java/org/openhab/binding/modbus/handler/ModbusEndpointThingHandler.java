@@ -50,4 +50,24 @@ public interface ModbusEndpointThingHandler extends Identifiable<ThingUID> {
      * @return boolean true if the discovery is enabled
      */
     public boolean isDiscoveryEnabled();
+
+    /**
+     * Get the highest slave id scanned by discovery. Discovery participants supporting it scan the slave ids from
+     * {@link #getSlaveId()} up to this one.
+     *
+     * @return highest slave id to discover, equal to the slave id of this endpoint if only it should be discovered
+     * @throws EndpointNotInitializedException in case the initialization is not complete
+     */
+    public default int getDiscoveryMaxSlaveId() throws EndpointNotInitializedException {
+        return getSlaveId();
+    }
+
+    /**
+     * Get the maximum number of requests a discovery participant may have in flight on this endpoint at the same time
+     *
+     * @return maximum number of concurrent discovery requests, at least 1
+     */
+    public default int getDiscoveryMaxRequests() {
+        return 1;
+    }
 }
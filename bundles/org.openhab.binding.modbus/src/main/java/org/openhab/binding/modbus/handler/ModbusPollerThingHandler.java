@@ -21,7 +21,10 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.internal.AtomicStampedValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.ModbusPollCoalescer;
+import org.openhab.binding.modbus.internal.ModbusWriteCoalescer;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
+import org.openhab.binding.modbus.internal.handler.AbstractModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
 import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
@@ -183,10 +186,12 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     private @NonNullByDefault({}) ModbusPollerConfiguration config;
     private long cacheMillis;
     private volatile @Nullable PollTask pollTask;
+    private volatile @Nullable ModbusPollCoalescer pollCoalescer;
     private volatile @Nullable ModbusReadRequestBlueprint request;
     private volatile boolean disposed;
     private volatile List<ModbusDataThingHandler> childCallbacks = new CopyOnWriteArrayList<>();
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusWriteCoalescer writeCoalescer;
 
     private ReadCallbackDelegator callbackDelegator = new ReadCallbackDelegator();
 
@@ -305,9 +310,16 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             logger.debug("Unregistering polling from ModbusManager");
             comms.unregisterRegularPoll(localPollTask);
         }
+        ModbusPollCoalescer localPollCoalescer = this.pollCoalescer;
+        if (localPollCoalescer != null) {
+            logger.debug("Unregistering polling from endpoint");
+            localPollCoalescer.unregisterRegularPoll(callbackDelegator);
+        }
         this.pollTask = null;
+        this.pollCoalescer = null;
         request = null;
         comms = null;
+        writeCoalescer = null;
         updateStatus(ThingStatus.OFFLINE);
     }
 
@@ -320,7 +332,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     @SuppressWarnings("null")
     private synchronized void registerPollTask() throws EndpointNotInitializedException {
         logger.trace("registerPollTask()");
-        if (pollTask != null) {
+        if (pollTask != null || pollCoalescer != null) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR);
             logger.debug("pollTask should be unregistered before registering a new one!");
             return;
@@ -341,6 +353,9 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             return;
         }
         this.comms = localComms;
+        this.writeCoalescer = slaveEndpointThingHandler instanceof AbstractModbusEndpointThingHandler
+                ? ((AbstractModbusEndpointThingHandler<?, ?>) slaveEndpointThingHandler).getWriteCoalescer()
+                : null;
         ModbusReadFunctionCode localFunctionCode = functionCode;
         if (localFunctionCode == null) {
             return;
@@ -350,9 +365,19 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                 localFunctionCode, config.getStart(), config.getLength(), config.getMaxTries());
         this.request = localRequest;
 
+        // Endpoint merges regular polls of its pollers when configured so
+        ModbusPollCoalescer localPollCoalescer = slaveEndpointThingHandler instanceof AbstractModbusEndpointThingHandler
+                ? ((AbstractModbusEndpointThingHandler<?, ?>) slaveEndpointThingHandler).getPollCoalescer()
+                : null;
         if (config.getRefresh() <= 0L) {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
+        } else if (localPollCoalescer != null) {
+            logger.debug("Registering polling with endpoint, merging it with polling of other pollers");
+            localPollCoalescer.registerRegularPoll(localRequest, config.getRefresh(), callbackDelegator,
+                    callbackDelegator);
+            pollCoalescer = localPollCoalescer;
+            updateStatus(ThingStatus.ONLINE);
         } else {
             logger.debug("Registering polling with ModbusManager");
             pollTask = localComms.registerRegularPoll(localRequest, config.getRefresh(), 0, callbackDelegator,
@@ -410,6 +435,15 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         return comms;
     }
 
+    /**
+     * Get write coalescer of the endpoint associated with this poller
+     *
+     * @return write coalescer, or <code>null</code> in case the endpoint does not merge writes
+     */
+    public @Nullable ModbusWriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
+
     /**
      * Refresh the data
      *
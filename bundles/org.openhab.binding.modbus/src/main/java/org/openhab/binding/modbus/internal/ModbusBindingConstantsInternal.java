@@ -49,6 +49,11 @@ public class ModbusBindingConstantsInternal {
     public static final String CHANNEL_LAST_WRITE_SUCCESS = "lastWriteSuccess";
     public static final String CHANNEL_LAST_WRITE_ERROR = "lastWriteError";
 
+    // List of endpoint properties
+    public static final String PROPERTY_COALESCED_POLLS = "coalescedPolls";
+    public static final String PROPERTY_COALESCED_POLL_REQUESTS = "coalescedPollRequests";
+    public static final String PROPERTY_SAVED_POLL_REQUESTS_PER_MINUTE = "savedPollRequestsPerMinute";
+
     public static final String[] DATA_CHANNELS = { CHANNEL_SWITCH, CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER,
             CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
 
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Decoder of the polled data of a data thing, prepared once from the data thing configuration.
+ *
+ * The decoder remembers the registers (or the bit) it decoded last. Polled data is decoded only when the words read
+ * by the data thing have changed, and the channel states are transformed only when the decoded value has changed.
+ * Transformations using a transformation service are executed on every poll, since their output might depend on
+ * something else than the polled value.
+ *
+ * Decoder is not thread-safe, the data thing handler calls it while synchronized.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusDataDecoder {
+
+    private static final DecimalType ONE = new DecimalType(BigDecimal.ONE);
+
+    /**
+     * Channel updated from the polled data
+     */
+    private static class DecodedChannel {
+        private final String channelId;
+        private final ChannelUID uid;
+        private final List<Class<? extends State>> acceptedDataTypes;
+        private final @Nullable State trueState;
+        private final @Nullable State falseState;
+        private @Nullable State state;
+        private boolean stateValid;
+
+        DecodedChannel(ThingUID thingUID, String channelId, List<Class<? extends State>> acceptedDataTypes) {
+            this.channelId = channelId;
+            this.uid = new ChannelUID(thingUID, channelId);
+            this.acceptedDataTypes = acceptedDataTypes;
+            if (acceptedDataTypes.contains(OnOffType.class)) {
+                trueState = OnOffType.ON;
+                falseState = OnOffType.OFF;
+            } else if (acceptedDataTypes.contains(OpenClosedType.class)) {
+                trueState = OpenClosedType.OPEN;
+                falseState = OpenClosedType.CLOSED;
+            } else {
+                trueState = null;
+                falseState = null;
+            }
+        }
+    }
+
+    private final ValueType valueType;
+    private final Transformation transformation;
+    private final DecodedChannel[] channels;
+    private final int extractIndex;
+    private final int firstRegister;
+    private final int[] lastRegisters;
+    private boolean hasData;
+    private State numericState = UnDefType.UNDEF;
+    private boolean boolValue;
+
+    /**
+     * Constructor
+     *
+     * @param thingUID uid of the data thing
+     * @param channelAcceptedTypes data channels of the data thing, with the data types accepted by each channel
+     * @param valueType value type of the polled data
+     * @param index index of the read data, relative to the start of the poll
+     * @param subIndex index of the data inside the register (Y in readStart=X.Y), or 0
+     * @param transformation read transformation
+     */
+    public ModbusDataDecoder(ThingUID thingUID, Map<String, List<Class<? extends State>>> channelAcceptedTypes,
+            ValueType valueType, int index, int subIndex, Transformation transformation) {
+        this.valueType = valueType;
+        this.transformation = transformation;
+        this.channels = channelAcceptedTypes.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(entry -> new DecodedChannel(thingUID, entry.getKey(), entry.getValue()))
+                .toArray(DecodedChannel[]::new);
+        // with <16 bit types, extractIndex is the index of the N'th 1-bit/8-bit item. Each register has 16/1 or 16/8
+        // items, respectively. With >=16 bit types, extractIndex is the index of the first register.
+        int bits = valueType.getBits();
+        this.extractIndex = bits >= 16 ? index : index * (16 / bits) + subIndex;
+        this.firstRegister = index;
+        this.lastRegisters = new int[Math.max(1, bits / 16)];
+    }
+
+    /**
+     * Decode polled registers
+     *
+     * @param registers registers of the poll
+     * @return whether the decoded value has changed since the previous poll
+     */
+    public boolean decode(ModbusRegisterArray registers) {
+        int end = firstRegister + lastRegisters.length;
+        if (hasData && end <= registers.size()) {
+            boolean unchanged = true;
+            for (int i = 0; i < lastRegisters.length; i++) {
+                if (registers.getRegister(firstRegister + i) != lastRegisters[i]) {
+                    unchanged = false;
+                    break;
+                }
+            }
+            if (unchanged) {
+                return false;
+            }
+        }
+        if (end <= registers.size()) {
+            for (int i = 0; i < lastRegisters.length; i++) {
+                lastRegisters[i] = registers.getRegister(firstRegister + i);
+            }
+            hasData = true;
+        } else {
+            // malformed response, let the extraction report it
+            hasData = false;
+        }
+        State state = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, valueType)
+                .map(decimal -> (State) decimal).orElse(UnDefType.UNDEF);
+        return update(state, !state.equals(DecimalType.ZERO));
+    }
+
+    /**
+     * Decode polled bits
+     *
+     * @param bits bits of the poll
+     * @return whether the decoded value has changed since the previous poll
+     */
+    public boolean decode(BitArray bits) {
+        boolean bit = bits.getBit(firstRegister);
+        if (hasData && bit == boolValue) {
+            return false;
+        }
+        hasData = true;
+        return update(bit ? ONE : DecimalType.ZERO, bit);
+    }
+
+    private boolean update(State state, boolean bool) {
+        boolean changed = !state.equals(numericState) || bool != boolValue;
+        numericState = state;
+        boolValue = bool;
+        if (changed) {
+            for (DecodedChannel channel : channels) {
+                channel.stateValid = false;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return numeric state of the last decoded data (or UNDEF with floating point NaN or infinity)
+     */
+    public State getNumericState() {
+        return numericState;
+    }
+
+    /**
+     * @return boolean value of the last decoded data
+     */
+    public boolean getBoolValue() {
+        return boolValue;
+    }
+
+    /**
+     * @return number of data channels
+     */
+    public int getChannelCount() {
+        return channels.length;
+    }
+
+    public String getChannelId(int channel) {
+        return channels[channel].channelId;
+    }
+
+    public ChannelUID getChannelUID(int channel) {
+        return channels[channel].uid;
+    }
+
+    public List<Class<? extends State>> getAcceptedDataTypes(int channel) {
+        return channels[channel].acceptedDataTypes;
+    }
+
+    /**
+     * Get the state of a channel, corresponding to the last decoded data
+     *
+     * @param channel index of the channel
+     * @param context bundle context used to look up the transformation service
+     * @return transformed state, or null if the transformation was unsuccessful
+     */
+    public @Nullable State getChannelState(int channel, BundleContext context) {
+        DecodedChannel decodedChannel = channels[channel];
+        if (decodedChannel.stateValid) {
+            return decodedChannel.state;
+        }
+        State state;
+        State boolLikeState = boolValue ? decodedChannel.trueState : decodedChannel.falseState;
+        if (transformation.isIdentityTransform() && boolLikeState != null) {
+            // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
+            state = boolLikeState;
+        } else {
+            // Numeric states always go through transformation. This allows value of 17.5 to be converted to
+            // 17.5% with percent types (instead of raising error)
+            state = transformation.transformState(context, decodedChannel.acceptedDataTypes, numericState);
+        }
+        decodedChannel.state = state;
+        decodedChannel.stateValid = !transformation.hasTransformationService();
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("ModbusDataDecoder(valueType=").append(valueType).append(", extractIndex=")
+                .append(extractIndex).append(", lastRegisters=").append(Arrays.toString(lastRegisters))
+                .append(", transformation=")
+                .append(transformation.isIdentityTransform() ? "<identity>" : transformation).append(')')
+                .toString();
+    }
+}
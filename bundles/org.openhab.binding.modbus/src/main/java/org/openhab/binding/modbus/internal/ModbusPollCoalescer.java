@@ -0,0 +1,346 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the regular polls of several pollers into as few requests as possible.
+ *
+ * Polls are merged when they share slave id, function code, poll period and maximum tries. Polls are merged into
+ * one request as long as the request stays within the protocol limits and the number of registers (or bits) between
+ * two polls is at most the configured gap. The response of a merged request is split back into the original requests
+ * and passed to the callbacks of each poller, as if the request of the poller had been executed on its own.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollCoalescer {
+
+    /**
+     * Polls that can be merged with each other
+     */
+    private static class GroupKey {
+        private final int slaveId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+        private final int maxTries;
+
+        GroupKey(ModbusReadRequestBlueprint request, long pollPeriodMillis) {
+            this.slaveId = request.getUnitID();
+            this.functionCode = request.getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.maxTries = request.getMaxTries();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            GroupKey other = (GroupKey) obj;
+            return slaveId == other.slaveId && functionCode == other.functionCode
+                    && pollPeriodMillis == other.pollPeriodMillis && maxTries == other.maxTries;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(slaveId, functionCode, pollPeriodMillis, maxTries);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("GroupKey(slaveId=%d, functionCode=%s, pollPeriodMillis=%d, maxTries=%d)", slaveId,
+                    functionCode, pollPeriodMillis, maxTries);
+        }
+    }
+
+    /**
+     * Regular poll registered by a poller
+     */
+    private static class Registration {
+        private final ModbusReadRequestBlueprint request;
+        private final GroupKey key;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+
+        Registration(ModbusReadRequestBlueprint request, GroupKey key, ModbusReadCallback resultCallback,
+                ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.key = key;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+
+        int getStart() {
+            return request.getReference();
+        }
+
+        int getEnd() {
+            return request.getReference() + request.getDataLength();
+        }
+    }
+
+    /**
+     * Merged request, splitting the response to the merged registrations
+     */
+    private class MergedPoll implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final ModbusReadRequestBlueprint request;
+        private final List<Registration> members;
+
+        MergedPoll(ModbusReadRequestBlueprint request, List<Registration> members) {
+            this.request = request;
+            this.members = members;
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            savedRequests.addAndGet(members.size() - 1);
+            result.getRegisters().ifPresent(registers -> {
+                byte[] bytes = registers.getBytes();
+                for (Registration member : members) {
+                    int from = (member.getStart() - request.getReference()) * 2;
+                    ModbusRegisterArray memberRegisters = new ModbusRegisterArray(
+                            Arrays.copyOfRange(bytes, from, from + member.request.getDataLength() * 2));
+                    member.resultCallback.handle(new AsyncModbusReadResult(member.request, memberRegisters));
+                }
+            });
+            result.getBits().ifPresent(bits -> {
+                for (Registration member : members) {
+                    int from = member.getStart() - request.getReference();
+                    BitArray memberBits = new BitArray(member.request.getDataLength());
+                    for (int i = 0; i < memberBits.size(); i++) {
+                        memberBits.setBit(i, bits.getBit(from + i));
+                    }
+                    member.resultCallback.handle(new AsyncModbusReadResult(member.request, memberBits));
+                }
+            });
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            savedRequests.addAndGet(members.size() - 1);
+            for (Registration member : members) {
+                member.failureCallback.handle(new AsyncModbusFailure<>(member.request, failure.getCause()));
+            }
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollCoalescer.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final int maxGap;
+    private final Runnable statisticsListener;
+    private final Map<ModbusReadCallback, Registration> registrations = new LinkedHashMap<>();
+    private final Map<GroupKey, List<PollTask>> groupPollTasks = new HashMap<>();
+    private final Map<GroupKey, Integer> groupRequestCounts = new HashMap<>();
+    private final AtomicLong savedRequests = new AtomicLong();
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param comms communication interface used to register the merged polls
+     * @param maxGap maximum number of registers (or coils and discrete inputs) that are read in addition to the
+     *            polled ones, to fill the gap between two polls
+     * @param statisticsListener called when the registered polls, and thus the statistics, have changed
+     */
+    public ModbusPollCoalescer(ModbusCommunicationInterface comms, int maxGap, Runnable statisticsListener) {
+        this.comms = comms;
+        this.maxGap = Math.max(0, maxGap);
+        this.statisticsListener = statisticsListener;
+    }
+
+    /**
+     * Register regular poll. Polls are executed with the merged polls of the same group, starting immediately.
+     *
+     * @param request request to poll
+     * @param pollPeriodMillis poll interval, in milliseconds
+     * @param resultCallback callback receiving the data of the request. Used to identify the registration.
+     * @param failureCallback callback receiving errors of the request
+     */
+    public void registerRegularPoll(ModbusReadRequestBlueprint request, long pollPeriodMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            Registration registration = new Registration(request, new GroupKey(request, pollPeriodMillis),
+                    resultCallback, failureCallback);
+            Registration previous = registrations.put(resultCallback, registration);
+            if (previous != null && !previous.key.equals(registration.key)) {
+                replan(previous.key);
+            }
+            replan(registration.key);
+        }
+        statisticsListener.run();
+    }
+
+    /**
+     * Unregister regular poll
+     *
+     * @param resultCallback result callback given on registration
+     * @return whether a poll was registered with the callback
+     */
+    public boolean unregisterRegularPoll(ModbusReadCallback resultCallback) {
+        synchronized (this) {
+            Registration registration = registrations.remove(resultCallback);
+            if (registration == null) {
+                return false;
+            }
+            if (!closed) {
+                replan(registration.key);
+            }
+        }
+        statisticsListener.run();
+        return true;
+    }
+
+    /**
+     * Unregister all merged polls. No polls are registered after this.
+     */
+    public synchronized void close() {
+        closed = true;
+        groupPollTasks.values().forEach(tasks -> tasks.forEach(comms::unregisterRegularPoll));
+        groupPollTasks.clear();
+        groupRequestCounts.clear();
+        registrations.clear();
+    }
+
+    /**
+     * @return number of regular polls registered by pollers
+     */
+    public synchronized int getPollCount() {
+        return registrations.size();
+    }
+
+    /**
+     * @return number of regular polls actually registered, after merging
+     */
+    public synchronized int getRequestCount() {
+        return groupRequestCounts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * @return number of requests per minute that are saved by merging the polls
+     */
+    public synchronized long getSavedRequestsPerMinute() {
+        Map<GroupKey, Integer> pollCounts = new HashMap<>();
+        registrations.values().forEach(registration -> pollCounts.merge(registration.key, 1, Integer::sum));
+        long saved = 0;
+        for (Map.Entry<GroupKey, Integer> entry : pollCounts.entrySet()) {
+            int requests = groupRequestCounts.getOrDefault(entry.getKey(), 0);
+            saved += (entry.getValue() - requests) * 60000L / entry.getKey().pollPeriodMillis;
+        }
+        return saved;
+    }
+
+    /**
+     * @return number of requests saved by merging the polls, since the start
+     */
+    public long getSavedRequestCount() {
+        return savedRequests.get();
+    }
+
+    /**
+     * Re-register the merged polls of a group
+     */
+    private void replan(GroupKey key) {
+        List<PollTask> oldTasks = groupPollTasks.remove(key);
+        if (oldTasks != null) {
+            oldTasks.forEach(comms::unregisterRegularPoll);
+        }
+        groupRequestCounts.remove(key);
+
+        List<Registration> members = new ArrayList<>();
+        for (Registration registration : registrations.values()) {
+            if (registration.key.equals(key)) {
+                members.add(registration);
+            }
+        }
+        if (members.isEmpty()) {
+            return;
+        }
+        members.sort(Comparator.comparingInt(Registration::getStart).thenComparingInt(Registration::getEnd));
+
+        int maxLength;
+        switch (key.functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                maxLength = ModbusConstants.MAX_BITS_READ_COUNT;
+                break;
+            default:
+                maxLength = ModbusConstants.MAX_REGISTERS_READ_COUNT;
+                break;
+        }
+
+        List<PollTask> tasks = new ArrayList<>();
+        List<Registration> block = new ArrayList<>();
+        int blockStart = 0;
+        int blockEnd = 0;
+        for (Registration member : members) {
+            if (!block.isEmpty() && (member.getStart() - blockEnd > maxGap
+                    || Math.max(blockEnd, member.getEnd()) - blockStart > maxLength)) {
+                tasks.add(registerMergedPoll(key, block, blockStart, blockEnd));
+                block = new ArrayList<>();
+            }
+            if (block.isEmpty()) {
+                blockStart = member.getStart();
+                blockEnd = member.getEnd();
+            } else {
+                blockEnd = Math.max(blockEnd, member.getEnd());
+            }
+            block.add(member);
+        }
+        tasks.add(registerMergedPoll(key, block, blockStart, blockEnd));
+
+        groupPollTasks.put(key, tasks);
+        groupRequestCounts.put(key, tasks.size());
+        logger.debug("Polls of {} merged: {} polls registered as {} requests", key, members.size(), tasks.size());
+    }
+
+    private PollTask registerMergedPoll(GroupKey key, List<Registration> block, int start, int end) {
+        ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(key.slaveId, key.functionCode, start,
+                end - start, key.maxTries);
+        MergedPoll mergedPoll = new MergedPoll(request, block);
+        logger.trace("Registering merged poll {} for {} polls", request, block.size());
+        return comms.registerRegularPoll(request, key.pollPeriodMillis, 0, mergedPoll, mergedPoll);
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusWriteResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.core.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues writes for a short time and merges writes to contiguous registers (or coils) into single "write multiple
+ * registers" (FC16) or "write multiple coils" (FC15) requests.
+ *
+ * Only writes that use FC16 or FC15 themselves are merged, single register (FC6) and single coil (FC5) writes are
+ * submitted as they are, since the device might not support the "write multiple" function codes.
+ *
+ * Writes are merged only when they have same slave id, type and maximum tries, and do not write the same register
+ * (or coil) again. A write to a register already pending submits the pending writes first, so that writes to the same
+ * register are always executed in the order they were submitted. Writes that cannot be merged are submitted as they
+ * are, after the writes that were submitted before them.
+ *
+ * The response (or error) of a merged request is passed to the callbacks of each original write.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusWriteCoalescer {
+
+    /**
+     * Protocol limit of "write multiple registers" (FC16)
+     */
+    private static final int MAX_REGISTERS_WRITE_COUNT = 123;
+
+    /**
+     * Protocol limit of "write multiple coils" (FC15)
+     */
+    private static final int MAX_COILS_WRITE_COUNT = 1968;
+
+    /**
+     * Write submitted for execution
+     */
+    private static class PendingWrite {
+        private final int order;
+        private final ModbusWriteRequestBlueprint request;
+        private final ModbusWriteCallback resultCallback;
+        private final ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback;
+        private final int length;
+
+        PendingWrite(int order, ModbusWriteRequestBlueprint request, ModbusWriteCallback resultCallback,
+                ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback) {
+            this.order = order;
+            this.request = request;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+            if (request.getFunctionCode() == ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS) {
+                length = ((ModbusWriteRegisterRequestBlueprint) request).getRegisters().size();
+            } else if (request.getFunctionCode() == ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS) {
+                length = ((ModbusWriteCoilRequestBlueprint) request).getCoils().size();
+            } else {
+                length = 0;
+            }
+        }
+
+        boolean isMergeable() {
+            return length > 0;
+        }
+
+        boolean isMergeableWith(PendingWrite other) {
+            return request.getClass() == other.request.getClass()
+                    && request.getUnitID() == other.request.getUnitID()
+                    && request.getMaxTries() == other.request.getMaxTries();
+        }
+
+        boolean overlaps(PendingWrite other) {
+            return getStart() < other.getEnd() && other.getStart() < getEnd();
+        }
+
+        int getStart() {
+            return request.getReference();
+        }
+
+        int getEnd() {
+            return request.getReference() + length;
+        }
+    }
+
+    /**
+     * Request merged from several writes, passing the response to each write
+     */
+    private static class MergedWrite
+            implements ModbusWriteCallback, ModbusFailureCallback<ModbusWriteRequestBlueprint> {
+        private final List<PendingWrite> members;
+
+        MergedWrite(List<PendingWrite> members) {
+            this.members = members;
+        }
+
+        @Override
+        public void handle(AsyncModbusWriteResult result) {
+            for (PendingWrite member : members) {
+                member.resultCallback.handle(new AsyncModbusWriteResult(member.request, result.getResponse()));
+            }
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusWriteRequestBlueprint> failure) {
+            for (PendingWrite member : members) {
+                member.failureCallback.handle(new AsyncModbusFailure<>(member.request, failure.getCause()));
+            }
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusWriteCoalescer.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final AtomicLong savedRequests = new AtomicLong();
+    private List<PendingWrite> pending = new ArrayList<>();
+    private int order;
+    private @Nullable ScheduledFuture<?> flushJob;
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param comms communication interface used to submit the writes
+     * @param scheduler scheduler used to submit the queued writes
+     * @param windowMillis time to wait for further writes after the first queued write, in milliseconds
+     */
+    public ModbusWriteCoalescer(ModbusCommunicationInterface comms, ScheduledExecutorService scheduler,
+            long windowMillis) {
+        this.comms = comms;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Submit one time write. The write is queued and executed, possibly merged with other writes, after a short delay.
+     *
+     * @param request write request
+     * @param resultCallback callback to call with the response
+     * @param failureCallback callback to call in case of failure
+     */
+    public synchronized void submitOneTimeWrite(ModbusWriteRequestBlueprint request,
+            ModbusWriteCallback resultCallback, ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback) {
+        if (closed) {
+            logger.debug("Write {} submitted after the endpoint was disposed, ignoring it", request);
+            return;
+        }
+        PendingWrite write = new PendingWrite(order++, request, resultCallback, failureCallback);
+        if (!write.isMergeable()) {
+            // keep the order of writes
+            flush();
+            comms.submitOneTimeWrite(request, resultCallback, failureCallback);
+            return;
+        }
+        if (!pending.isEmpty()) {
+            PendingWrite first = pending.get(0);
+            if (!first.isMergeableWith(write) || pending.stream().anyMatch(other -> other.overlaps(write))) {
+                flush();
+            }
+        }
+        pending.add(write);
+        if (flushJob == null) {
+            flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Submit all queued writes immediately
+     */
+    public synchronized void flush() {
+        ScheduledFuture<?> localFlushJob = flushJob;
+        if (localFlushJob != null) {
+            localFlushJob.cancel(false);
+            flushJob = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PendingWrite> writes = pending;
+        pending = new ArrayList<>();
+        writes.sort(Comparator.comparingInt(PendingWrite::getStart));
+        int maxLength = writes.get(0).request instanceof ModbusWriteRegisterRequestBlueprint
+                ? MAX_REGISTERS_WRITE_COUNT
+                : MAX_COILS_WRITE_COUNT;
+
+        // split into contiguous blocks, submitted in order of their first write
+        List<List<PendingWrite>> blocks = new ArrayList<>();
+        List<PendingWrite> block = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            if (!block.isEmpty() && (write.getStart() != block.get(block.size() - 1).getEnd()
+                    || write.getEnd() - block.get(0).getStart() > maxLength)) {
+                blocks.add(block);
+                block = new ArrayList<>();
+            }
+            block.add(write);
+        }
+        blocks.add(block);
+        blocks.sort(Comparator.comparingInt(b -> b.stream().mapToInt(write -> write.order).min().orElse(0)));
+
+        for (List<PendingWrite> writesOfBlock : blocks) {
+            if (writesOfBlock.size() == 1) {
+                PendingWrite write = writesOfBlock.get(0);
+                comms.submitOneTimeWrite(write.request, write.resultCallback, write.failureCallback);
+            } else {
+                ModbusWriteRequestBlueprint request = mergedRequest(writesOfBlock);
+                MergedWrite mergedWrite = new MergedWrite(writesOfBlock);
+                savedRequests.addAndGet(writesOfBlock.size() - 1);
+                logger.debug("Submitting {} writes merged as {}, in total {} requests saved", writesOfBlock.size(),
+                        request, savedRequests.get());
+                comms.submitOneTimeWrite(request, mergedWrite, mergedWrite);
+            }
+        }
+    }
+
+    /**
+     * Submit queued writes and stop accepting writes
+     */
+    public synchronized void close() {
+        flush();
+        closed = true;
+    }
+
+    /**
+     * @return number of requests saved by merging writes, since the start
+     */
+    public long getSavedRequestCount() {
+        return savedRequests.get();
+    }
+
+    private static ModbusWriteRequestBlueprint mergedRequest(List<PendingWrite> writes) {
+        PendingWrite first = writes.get(0);
+        int start = first.getStart();
+        int length = writes.get(writes.size() - 1).getEnd() - start;
+        if (first.request instanceof ModbusWriteRegisterRequestBlueprint) {
+            byte[] bytes = new byte[length * 2];
+            for (PendingWrite write : writes) {
+                byte[] data = ((ModbusWriteRegisterRequestBlueprint) write.request).getRegisters().getBytes();
+                System.arraycopy(data, 0, bytes, (write.getStart() - start) * 2, data.length);
+            }
+            return new ModbusWriteRegisterRequestBlueprint(first.request.getUnitID(), start,
+                    new ModbusRegisterArray(bytes), true, first.request.getMaxTries());
+        } else {
+            BitArray bits = new BitArray(length);
+            for (PendingWrite write : writes) {
+                BitArray coils = ((ModbusWriteCoilRequestBlueprint) write.request).getCoils();
+                for (int i = 0; i < coils.size(); i++) {
+                    bits.setBit(write.getStart() - start + i, coils.getBit(i));
+                }
+            }
+            return new ModbusWriteCoilRequestBlueprint(first.request.getUnitID(), start, bits, true,
+                    first.request.getMaxTries());
+        }
+    }
+}
@@ -38,6 +38,11 @@ public class ModbusSerialConfiguration {
     private int connectMaxTries;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int discoveryMaxId;
+    private int discoveryMaxRequests;
+    private boolean coalescePolls;
+    private int coalescePollsMaxGap;
+    private int coalesceWritesMillis;
 
     public @Nullable String getPort() {
         return port;
@@ -158,4 +163,44 @@ public class ModbusSerialConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public int getDiscoveryMaxId() {
+        return discoveryMaxId;
+    }
+
+    public void setDiscoveryMaxId(int discoveryMaxId) {
+        this.discoveryMaxId = discoveryMaxId;
+    }
+
+    public int getDiscoveryMaxRequests() {
+        return discoveryMaxRequests;
+    }
+
+    public void setDiscoveryMaxRequests(int discoveryMaxRequests) {
+        this.discoveryMaxRequests = discoveryMaxRequests;
+    }
+
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    public int getCoalescePollsMaxGap() {
+        return coalescePollsMaxGap;
+    }
+
+    public void setCoalescePollsMaxGap(int coalescePollsMaxGap) {
+        this.coalescePollsMaxGap = coalescePollsMaxGap;
+    }
+
+    public int getCoalesceWritesMillis() {
+        return coalesceWritesMillis;
+    }
+
+    public void setCoalesceWritesMillis(int coalesceWritesMillis) {
+        this.coalesceWritesMillis = coalesceWritesMillis;
+    }
 }
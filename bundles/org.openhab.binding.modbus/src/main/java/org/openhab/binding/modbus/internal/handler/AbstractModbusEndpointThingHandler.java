@@ -16,7 +16,10 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
+import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusPollCoalescer;
+import org.openhab.binding.modbus.internal.ModbusWriteCoalescer;
 import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.io.transport.modbus.ModbusManager;
 import org.openhab.core.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -46,8 +49,13 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected volatile @Nullable E endpoint;
     protected ModbusManager modbusManager;
     protected volatile @Nullable EndpointPoolConfiguration poolConfiguration;
+    protected volatile boolean coalescePolls;
+    protected volatile int coalescePollsMaxGap;
+    protected volatile int coalesceWritesMillis;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusPollCoalescer pollCoalescer;
+    private volatile @Nullable ModbusWriteCoalescer writeCoalescer;
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, ModbusManager modbusManager) {
         super(bridge);
@@ -76,6 +84,12 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 }
                 try {
                     comms = modbusManager.newModbusCommunicationInterface(endpoint, poolConfiguration);
+                    pollCoalescer = coalescePolls
+                            ? new ModbusPollCoalescer(comms, coalescePollsMaxGap, this::updatePollCoalescingProperties)
+                            : null;
+                    writeCoalescer = coalesceWritesMillis > 0
+                            ? new ModbusWriteCoalescer(comms, scheduler, coalesceWritesMillis)
+                            : null;
                     updateStatus(ThingStatus.ONLINE);
                 } catch (IllegalArgumentException e) {
                     updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
@@ -93,6 +107,16 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        ModbusPollCoalescer localPollCoalescer = pollCoalescer;
+        if (localPollCoalescer != null) {
+            localPollCoalescer.close();
+            pollCoalescer = null;
+        }
+        ModbusWriteCoalescer localWriteCoalescer = writeCoalescer;
+        if (localWriteCoalescer != null) {
+            localWriteCoalescer.close();
+            writeCoalescer = null;
+        }
         try {
             ModbusCommunicationInterface localComms = comms;
             if (localComms != null) {
@@ -110,6 +134,37 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
         return comms;
     }
 
+    /**
+     * Get the poll coalescer of this endpoint, merging regular polls of pollers into fewer requests
+     *
+     * @return poll coalescer, or <code>null</code> in case polls are not merged or initialization is incomplete
+     */
+    public @Nullable ModbusPollCoalescer getPollCoalescer() {
+        return pollCoalescer;
+    }
+
+    /**
+     * Get the write coalescer of this endpoint, merging writes to contiguous registers or coils into fewer requests
+     *
+     * @return write coalescer, or <code>null</code> in case writes are not merged or initialization is incomplete
+     */
+    public @Nullable ModbusWriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
+
+    private void updatePollCoalescingProperties() {
+        ModbusPollCoalescer localPollCoalescer = pollCoalescer;
+        if (localPollCoalescer == null) {
+            return;
+        }
+        updateProperty(ModbusBindingConstantsInternal.PROPERTY_COALESCED_POLLS,
+                String.valueOf(localPollCoalescer.getPollCount()));
+        updateProperty(ModbusBindingConstantsInternal.PROPERTY_COALESCED_POLL_REQUESTS,
+                String.valueOf(localPollCoalescer.getRequestCount()));
+        updateProperty(ModbusBindingConstantsInternal.PROPERTY_SAVED_POLL_REQUESTS_PER_MINUTE,
+                String.valueOf(localPollCoalescer.getSavedRequestsPerMinute()));
+    }
+
     @Nullable
     public E getEndpoint() {
         return endpoint;
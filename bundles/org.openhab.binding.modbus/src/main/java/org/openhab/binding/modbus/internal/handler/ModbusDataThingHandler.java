@@ -14,11 +14,9 @@ package org.openhab.binding.modbus.internal.handler;
 
 import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
 
-import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +31,8 @@ import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusDataDecoder;
+import org.openhab.binding.modbus.internal.ModbusWriteCoalescer;
 import org.openhab.binding.modbus.internal.Transformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
@@ -60,9 +60,6 @@ import org.openhab.core.library.items.RollershutterItem;
 import org.openhab.core.library.items.StringItem;
 import org.openhab.core.library.items.SwitchItem;
 import org.openhab.core.library.types.DateTimeType;
-import org.openhab.core.library.types.DecimalType;
-import org.openhab.core.library.types.OnOffType;
-import org.openhab.core.library.types.OpenClosedType;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
@@ -75,7 +72,6 @@ import org.openhab.core.thing.binding.ThingHandlerCallback;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.RefreshType;
 import org.openhab.core.types.State;
-import org.openhab.core.types.UnDefType;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
@@ -128,6 +124,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile @Nullable ValueType readValueType;
     private volatile @Nullable ValueType writeValueType;
     private volatile @Nullable Transformation readTransformation;
+    private volatile @Nullable ModbusDataDecoder readDecoder;
     private volatile @Nullable Transformation writeTransformation;
     private volatile Optional<Integer> readIndex = Optional.empty();
     private volatile Optional<Integer> readSubIndex = Optional.empty();
@@ -138,6 +135,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile @Nullable ModbusReadRequestBlueprint readRequest;
     private volatile long updateUnchangedValuesEveryMillis;
     private volatile @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusWriteCoalescer writeCoalescer;
     private volatile boolean isWriteEnabled;
     private volatile boolean isReadEnabled;
     private volatile boolean writeParametersHavingTransformationOnly;
@@ -146,6 +144,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    // states of the current poll, swapped with channelLastState after the channels have been updated
+    private volatile Map<ChannelUID, State> channelStates = new HashMap<>(NUMER_OF_CHANNELS_HINT);
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -220,7 +220,19 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
 
         logger.trace("Submitting write task {} to endpoint {}", request, comms.getEndpoint());
-        comms.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+        submitOneTimeWrite(comms, request);
+    }
+
+    /**
+     * Submit write request, to be merged with other writes if the endpoint is configured so
+     */
+    private void submitOneTimeWrite(ModbusCommunicationInterface localComms, ModbusWriteRequestBlueprint request) {
+        ModbusWriteCoalescer localWriteCoalescer = writeCoalescer;
+        if (localWriteCoalescer != null) {
+            localWriteCoalescer.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+        } else {
+            localComms.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+        }
     }
 
     /**
@@ -320,7 +332,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         requests.stream().forEach(request -> {
             logger.trace("Submitting write request: {} to endpoint {} (based from transformation {})", request,
                     localComms.getEndpoint(), transformOutput);
-            localComms.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+            submitOneTimeWrite(localComms, request);
         });
     }
 
@@ -351,6 +363,9 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 ModbusEndpointThingHandler endpointHandler = (ModbusEndpointThingHandler) bridgeHandler;
                 slaveId = endpointHandler.getSlaveId();
                 comms = endpointHandler.getCommunicationInterface();
+                writeCoalescer = endpointHandler instanceof AbstractModbusEndpointThingHandler
+                        ? ((AbstractModbusEndpointThingHandler<?, ?>) endpointHandler).getWriteCoalescer()
+                        : null;
                 childOfEndpoint = true;
                 functionCode = null;
                 readRequest = null;
@@ -370,12 +385,14 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 slaveId = localReadRequest.getUnitID();
                 functionCode = localReadRequest.getFunctionCode();
                 comms = localPollerHandler.getCommunicationInterface();
+                writeCoalescer = localPollerHandler.getWriteCoalescer();
                 pollStart = localReadRequest.getReference();
                 childOfEndpoint = false;
             }
             validateAndParseReadParameters(localConfig);
             validateAndParseWriteParameters(localConfig);
             validateMustReadOrWrite();
+            readDecoder = createReadDecoder();
 
             updateStatusIfChanged(ThingStatus.ONLINE);
         } catch (ModbusConfigurationException | EndpointNotInitializedException e) {
@@ -393,6 +410,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         readValueType = null;
         writeValueType = null;
         readTransformation = null;
+        readDecoder = null;
         writeTransformation = null;
         readIndex = Optional.empty();
         readSubIndex = Optional.empty();
@@ -400,6 +418,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         pollStart = 0;
         slaveId = 0;
         comms = null;
+        writeCoalescer = null;
         functionCode = null;
         readRequest = null;
         isWriteEnabled = false;
@@ -412,6 +431,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        channelStates = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     }
 
     @Override
@@ -644,16 +664,17 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
     }
 
-    private boolean containsOnOff(List<Class<? extends State>> channelAcceptedDataTypes) {
-        return channelAcceptedDataTypes.stream().anyMatch(clz -> {
-            return clz.equals(OnOffType.class);
-        });
-    }
-
-    private boolean containsOpenClosed(List<Class<? extends State>> acceptedDataTypes) {
-        return acceptedDataTypes.stream().anyMatch(clz -> {
-            return clz.equals(OpenClosedType.class);
-        });
+    /**
+     * Prepare the decoder of polled data, so that the configuration does not need to be interpreted on every poll
+     */
+    private @Nullable ModbusDataDecoder createReadDecoder() {
+        ValueType readValueType = this.readValueType;
+        Transformation readTransformation = this.readTransformation;
+        if (!isReadEnabled || !readIndex.isPresent() || readValueType == null || readTransformation == null) {
+            return null;
+        }
+        return new ModbusDataDecoder(getThing().getUID(), CHANNEL_ID_TO_ACCEPTED_TYPES, readValueType,
+                readIndex.get() - pollStart, readSubIndex.orElse(0), readTransformation);
     }
 
     public synchronized void onReadResult(AsyncModbusReadResult result) {
@@ -675,39 +696,18 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
-        ValueType readValueType = this.readValueType;
-        if (readValueType == null) {
+        ModbusDataDecoder decoder = readDecoder;
+        if (decoder == null) {
             return;
         }
-        State numericState;
-
-        // extractIndex:
-        // e.g. with bit, extractIndex=4 means 5th bit (from right) ("10.4" -> 5th bit of register 10, "10.4" -> 5th bit
-        // of register 10)
-        // bit of second register)
-        // e.g. with 8bit integer, extractIndex=3 means high byte of second register
-        //
-        // with <16 bit types, this is the index of the N'th 1-bit/8-bit item. Each register has 16/2 items,
-        // respectively.
-        // with >=16 bit types, this is index of first register
-        int extractIndex;
-        if (readValueType.getBits() >= 16) {
-            // Invariant, checked in initialize
-            assert readSubIndex.orElse(0) == 0;
-            extractIndex = readIndex.get() - pollStart;
-        } else {
-            int subIndex = readSubIndex.orElse(0);
-            int itemsPerRegister = 16 / readValueType.getBits();
-            extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
+        boolean changed = decoder.decode(registers);
+        Map<ChannelUID, State> values = processUpdatedValue(decoder, changed);
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, decoder={} -> numeric value {} and boolValue={} (changed={}). Registers {} for request {}",
+                    thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), decoder,
+                    decoder.getNumericState(), decoder.getBoolValue(), changed, registers, request);
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
-        boolean boolValue = !numericState.equals(DecimalType.ZERO);
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
-        logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
-                boolValue, registers, request);
     }
 
     private synchronized void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
@@ -716,12 +716,18 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
-        boolean boolValue = bits.getBit(readIndex.get() - pollStart);
-        DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
-        logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
+        ModbusDataDecoder decoder = readDecoder;
+        if (decoder == null) {
+            return;
+        }
+        boolean changed = decoder.decode(bits);
+        Map<ChannelUID, State> values = processUpdatedValue(decoder, changed);
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={} (changed={}). Bits {} for request {}",
+                    thing.getUID(), values, readValueType, readIndex, decoder.getNumericState(),
+                    decoder.getBoolValue(), changed, bits, request);
+        }
     }
 
     private synchronized void onError(ModbusReadRequestBlueprint request, Exception error) {
@@ -813,70 +819,38 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     /**
      * Update linked channels
      *
-     * @param numericState numeric state corresponding to polled data (or UNDEF with floating point NaN or infinity)
-     * @param boolValue boolean value corresponding to polled data
+     * @param decoder decoder holding the polled data
+     * @param changed whether the polled data has changed since the previous poll
      * @return updated channel data
      */
-    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue) {
-        Transformation localReadTransformation = readTransformation;
-        if (localReadTransformation == null) {
-            // We should always have transformation available if thing is initalized properly
-            logger.trace("No transformation available, aborting processUpdatedValue");
-            return Collections.emptyMap();
-        }
-        Map<ChannelUID, State> states = new HashMap<>();
-        CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
-            ChannelUID channelUID = getChannelUID(channelId);
+    private Map<ChannelUID, State> processUpdatedValue(ModbusDataDecoder decoder, boolean changed) {
+        Map<ChannelUID, State> states = channelStates;
+        states.clear();
+        for (int channel = 0; channel < decoder.getChannelCount(); channel++) {
+            ChannelUID channelUID = decoder.getChannelUID(channel);
             if (!isLinked(channelUID)) {
-                return;
-            }
-            List<Class<? extends State>> acceptedDataTypes = CHANNEL_ID_TO_ACCEPTED_TYPES.get(channelId);
-            if (acceptedDataTypes.isEmpty()) {
-                return;
-            }
-
-            State boolLikeState;
-            if (containsOnOff(acceptedDataTypes)) {
-                boolLikeState = boolValue ? OnOffType.ON : OnOffType.OFF;
-            } else if (containsOpenClosed(acceptedDataTypes)) {
-                boolLikeState = boolValue ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-            } else {
-                boolLikeState = null;
+                continue;
             }
-
-            State transformedState;
-            if (localReadTransformation.isIdentityTransform()) {
-                if (boolLikeState != null) {
-                    // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
-                    transformedState = boolLikeState;
-                } else {
-                    // Numeric states always go through transformation. This allows value of 17.5 to be
-                    // converted to
-                    // 17.5% with percent types (instead of raising error)
-                    transformedState = localReadTransformation.transformState(bundleContext, acceptedDataTypes,
-                            numericState);
-                }
-            } else {
-                transformedState = localReadTransformation.transformState(bundleContext, acceptedDataTypes,
-                        numericState);
-            }
-
+            State transformedState = decoder.getChannelState(channel, bundleContext);
             if (transformedState != null) {
-                logger.trace(
-                        "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, transformedState, transformedState.getClass().getSimpleName(), numericState,
-                        readValueType, boolValue,
-                        localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
+                if (logger.isTraceEnabled()) {
+                    logger.trace(
+                            "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Decoder: {}",
+                            decoder.getChannelId(channel), transformedState,
+                            transformedState.getClass().getSimpleName(), decoder.getNumericState(), readValueType,
+                            decoder.getBoolValue(), decoder);
+                }
                 states.put(channelUID, transformedState);
-            } else {
-                String types = String.join(", ",
-                        acceptedDataTypes.stream().map(cls -> cls.getSimpleName()).toArray(String[]::new));
+            } else if (changed) {
+                // Warn only once per value, the transformation result is the same until the value changes
+                String types = String.join(", ", decoder.getAcceptedDataTypes(channel).stream()
+                        .map(cls -> cls.getSimpleName()).toArray(String[]::new));
                 logger.warn(
-                        "Channel {} will not be updated since transformation was unsuccessful. Channel is expecting the following data types [{}]. Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, types, numericState, readValueType, boolValue,
-                        localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
+                        "Channel {} will not be updated since transformation was unsuccessful. Channel is expecting the following data types [{}]. Input data: number value {} (value type '{}' taken into account) and bool value {}. Decoder: {}",
+                        decoder.getChannelId(channel), types, decoder.getNumericState(), readValueType,
+                        decoder.getBoolValue(), decoder);
             }
-        });
+        }
 
         ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
         if (isLinked(lastReadSuccessUID)) {
@@ -892,7 +866,11 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             long now = System.currentTimeMillis();
             // Update channels that have not been updated in a while, or when their values has changed
             states.forEach((uid, state) -> updateExpiredChannel(now, uid, state));
+            // Reuse the maps instead of allocating new ones on every poll
+            Map<ChannelUID, State> previousStates = channelLastState;
             channelLastState = states;
+            previousStates.clear();
+            channelStates = previousStates;
         }
     }
 
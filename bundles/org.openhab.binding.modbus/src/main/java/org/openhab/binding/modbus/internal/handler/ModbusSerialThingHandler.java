@@ -58,6 +58,9 @@ public class ModbusSerialThingHandler
         }
 
         this.config = config;
+        coalescePolls = config.isCoalescePolls();
+        coalescePollsMaxGap = config.getCoalescePollsMaxGap();
+        coalesceWritesMillis = config.getCoalesceWritesMillis();
 
         EndpointPoolConfiguration poolConfiguration = new EndpointPoolConfiguration();
         this.poolConfiguration = poolConfiguration;
@@ -85,6 +88,21 @@ public class ModbusSerialThingHandler
         }
     }
 
+    @Override
+    public int getDiscoveryMaxSlaveId() throws EndpointNotInitializedException {
+        ModbusSerialConfiguration config = this.config;
+        if (config == null) {
+            throw new EndpointNotInitializedException();
+        }
+        return Math.max(config.getId(), config.getDiscoveryMaxId());
+    }
+
+    @Override
+    public int getDiscoveryMaxRequests() {
+        ModbusSerialConfiguration config = this.config;
+        return config == null ? 1 : Math.max(1, config.getDiscoveryMaxRequests());
+    }
+
     @SuppressWarnings("null") // Since endpoint in Optional.map cannot be null
     @Override
     protected String formatConflictingParameterError() {
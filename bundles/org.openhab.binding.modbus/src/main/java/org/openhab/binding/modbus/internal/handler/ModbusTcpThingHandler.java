@@ -51,6 +51,9 @@ public class ModbusTcpThingHandler
         }
 
         this.config = config;
+        coalescePolls = config.isCoalescePolls();
+        coalescePollsMaxGap = config.getCoalescePollsMaxGap();
+        coalesceWritesMillis = config.getCoalesceWritesMillis();
         endpoint = new ModbusTCPSlaveEndpoint(host, config.getPort(), config.getRtuEncoded());
 
         EndpointPoolConfiguration poolConfiguration = new EndpointPoolConfiguration();
@@ -98,6 +101,21 @@ public class ModbusTcpThingHandler
         }
     }
 
+    @Override
+    public int getDiscoveryMaxSlaveId() throws EndpointNotInitializedException {
+        ModbusTcpConfiguration localConfig = config;
+        if (localConfig == null) {
+            throw new EndpointNotInitializedException();
+        }
+        return Math.max(localConfig.getId(), localConfig.getDiscoveryMaxId());
+    }
+
+    @Override
+    public int getDiscoveryMaxRequests() {
+        ModbusTcpConfiguration localConfig = config;
+        return localConfig == null ? 1 : Math.max(1, localConfig.getDiscoveryMaxRequests());
+    }
+
     @Override
     public Collection<Class<? extends ThingHandlerService>> getServices() {
         return Collections.singleton(ModbusEndpointDiscoveryService.class);
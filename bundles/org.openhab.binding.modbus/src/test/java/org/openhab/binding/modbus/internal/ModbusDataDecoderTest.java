@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+import org.osgi.framework.BundleContext;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusDataDecoderTest {
+
+    private static final ThingUID THING_UID = new ThingUID("modbus", "data", "decoder");
+    private static final Map<String, List<Class<? extends State>>> CHANNELS = new LinkedHashMap<>();
+    static {
+        CHANNELS.put("number", List.of(DecimalType.class, UnDefType.class));
+        CHANNELS.put("switch", List.of(OnOffType.class, UnDefType.class));
+        CHANNELS.put("contact", List.of(OpenClosedType.class, UnDefType.class));
+        CHANNELS.put("string", List.of(StringType.class, UnDefType.class));
+        CHANNELS.put("nothing", List.of());
+    }
+
+    private final BundleContext context = mock(BundleContext.class);
+
+    private static ModbusRegisterArray registers(int... registers) {
+        byte[] bytes = new byte[registers.length * 2];
+        for (int i = 0; i < registers.length; i++) {
+            bytes[i * 2] = (byte) (registers[i] >> 8);
+            bytes[i * 2 + 1] = (byte) registers[i];
+        }
+        return new ModbusRegisterArray(bytes);
+    }
+
+    private static ModbusDataDecoder decoder(ValueType valueType, int index, int subIndex, String transformation) {
+        return new ModbusDataDecoder(THING_UID, CHANNELS, valueType, index, subIndex,
+                new Transformation(transformation));
+    }
+
+    @Test
+    public void testChannelsWithoutAcceptedTypesAreSkipped() {
+        ModbusDataDecoder decoder = decoder(ValueType.INT16, 0, 0, "default");
+        assertThat(decoder.getChannelCount(), is(equalTo(4)));
+        assertThat(decoder.getChannelId(0), is(equalTo("number")));
+        assertThat(decoder.getChannelUID(0).getThingUID(), is(equalTo(THING_UID)));
+    }
+
+    @Test
+    public void testInt16() {
+        ModbusDataDecoder decoder = decoder(ValueType.INT16, 1, 0, "default");
+        assertThat(decoder.decode(registers(5, 0xfffd)), is(true));
+        assertThat(decoder.getNumericState(), is(equalTo(new DecimalType(-3))));
+        assertThat(decoder.getBoolValue(), is(true));
+        assertThat(decoder.getChannelState(0, context), is(equalTo(new DecimalType(-3))));
+        assertThat(decoder.getChannelState(1, context), is(equalTo(OnOffType.ON)));
+        assertThat(decoder.getChannelState(2, context), is(equalTo(OpenClosedType.OPEN)));
+        assertThat(decoder.getChannelState(3, context), is(equalTo(new StringType("-3"))));
+
+        assertThat(decoder.decode(registers(6, 0)), is(true));
+        assertThat(decoder.getChannelState(0, context), is(equalTo(new DecimalType(0))));
+        assertThat(decoder.getChannelState(1, context), is(equalTo(OnOffType.OFF)));
+        assertThat(decoder.getChannelState(2, context), is(equalTo(OpenClosedType.CLOSED)));
+    }
+
+    @Test
+    public void testUnchangedWordsAreNotDecodedAgain() {
+        ModbusDataDecoder decoder = decoder(ValueType.INT16, 1, 0, "default");
+        decoder.decode(registers(1, 2));
+        State numericState = decoder.getNumericState();
+        State numberState = decoder.getChannelState(0, context);
+        State stringState = decoder.getChannelState(3, context);
+
+        // replays the polls of a busy installation, can be used for profiling
+        for (int poll = 0; poll < 1000; poll++) {
+            // other registers of the poll change, the one read stays the same
+            assertThat(decoder.decode(registers(poll, 2)), is(false));
+            assertThat(decoder.getNumericState(), is(sameInstance(numericState)));
+            assertThat(decoder.getChannelState(0, context), is(sameInstance(numberState)));
+            assertThat(decoder.getChannelState(3, context), is(sameInstance(stringState)));
+        }
+    }
+
+    @Test
+    public void testFloat32() {
+        ModbusDataDecoder decoder = decoder(ValueType.FLOAT32, 0, 0, "default");
+        // 1.5
+        assertThat(decoder.decode(registers(0x3fc0, 0)), is(true));
+        assertThat(decoder.getNumericState(), is(equalTo(new DecimalType(1.5))));
+        // only the second register changes
+        assertThat(decoder.decode(registers(0x3fc0, 0x1)), is(true));
+        assertThat(decoder.decode(registers(0x3fc0, 0x1)), is(false));
+        // NaN
+        assertThat(decoder.decode(registers(0x7fc0, 0)), is(true));
+        assertThat(decoder.getNumericState(), is(equalTo(UnDefType.UNDEF)));
+        assertThat(decoder.getChannelState(0, context), is(equalTo(UnDefType.UNDEF)));
+    }
+
+    @Test
+    public void testSubIndex() {
+        ModbusDataDecoder bitDecoder = decoder(ValueType.BIT, 1, 4, "default");
+        assertThat(bitDecoder.decode(registers(0xffff, 0x10)), is(true));
+        assertThat(bitDecoder.getBoolValue(), is(true));
+        assertThat(bitDecoder.getChannelState(1, context), is(equalTo(OnOffType.ON)));
+        // other bits of the register change, but the decoded value is the same
+        assertThat(bitDecoder.decode(registers(0xffff, 0x11)), is(false));
+
+        ModbusDataDecoder int8Decoder = decoder(ValueType.INT8, 1, 1, "default");
+        assertThat(int8Decoder.decode(registers(0, 0xff02)), is(true));
+        assertThat(int8Decoder.getNumericState(), is(equalTo(new DecimalType(-1))));
+    }
+
+    @Test
+    public void testBits() {
+        ModbusDataDecoder decoder = decoder(ValueType.BIT, 2, 0, "default");
+        BitArray bits = new BitArray(3);
+        bits.setBit(2, true);
+        assertThat(decoder.decode(bits), is(true));
+        assertThat(decoder.getNumericState(), is(equalTo(new DecimalType(1))));
+        assertThat(decoder.getChannelState(2, context), is(equalTo(OpenClosedType.OPEN)));
+        bits.setBit(0, true);
+        assertThat(decoder.decode(bits), is(false));
+        bits.setBit(2, false);
+        assertThat(decoder.decode(bits), is(true));
+        assertThat(decoder.getChannelState(2, context), is(equalTo(OpenClosedType.CLOSED)));
+    }
+
+    @Test
+    public void testStaticTransformation() {
+        ModbusDataDecoder decoder = decoder(ValueType.INT16, 0, 0, "-3");
+        decoder.decode(registers(0));
+        assertThat(decoder.getChannelState(0, context), is(equalTo(new DecimalType(-3))));
+        // no smartness with bool like items when the transformation is not identity
+        assertThat(decoder.getChannelState(1, context), is(nullValue()));
+        assertThat(decoder.getChannelState(3, context), is(equalTo(new StringType("-3"))));
+    }
+}
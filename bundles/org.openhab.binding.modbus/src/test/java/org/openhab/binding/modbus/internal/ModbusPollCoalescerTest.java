@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusPollCoalescerTest {
+
+    /**
+     * Poller callback recording everything received
+     */
+    private static class Poller implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final ModbusReadRequestBlueprint request;
+        private final List<AsyncModbusReadResult> results = new ArrayList<>();
+        private final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+        Poller(ModbusReadFunctionCode functionCode, int start, int length) {
+            this(functionCode, start, length, 3);
+        }
+
+        Poller(ModbusReadFunctionCode functionCode, int start, int length, int maxTries) {
+            request = new ModbusReadRequestBlueprint(1, functionCode, start, length, maxTries);
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            failures.add(failure);
+        }
+    }
+
+    /**
+     * Poll registered to the communication interface
+     */
+    private static class RegisteredPoll {
+        private final ModbusReadRequestBlueprint request;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+
+        RegisteredPoll(ModbusReadRequestBlueprint request, ModbusReadCallback resultCallback,
+                ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+    }
+
+    private ModbusCommunicationInterface comms;
+    private ModbusPollCoalescer coalescer;
+    private final Map<PollTask, RegisteredPoll> registeredPolls = new LinkedHashMap<>();
+    private int statisticsUpdates;
+
+    @BeforeEach
+    public void setUp() {
+        comms = mock(ModbusCommunicationInterface.class);
+        doAnswer(invocation -> {
+            PollTask task = mock(PollTask.class);
+            registeredPolls.put(task, new RegisteredPoll(invocation.getArgument(0), invocation.getArgument(3),
+                    invocation.getArgument(4)));
+            return task;
+        }).when(comms).registerRegularPoll(any(), anyLong(), eq(0L), any(), any());
+        doAnswer(invocation -> registeredPolls.remove(invocation.getArgument(0)) != null).when(comms)
+                .unregisterRegularPoll(any());
+        coalescer = new ModbusPollCoalescer(comms, 2, () -> statisticsUpdates++);
+    }
+
+    private void register(Poller poller, long pollPeriodMillis) {
+        coalescer.registerRegularPoll(poller.request, pollPeriodMillis, poller, poller);
+    }
+
+    private List<RegisteredPoll> registeredPolls() {
+        return new ArrayList<>(registeredPolls.values());
+    }
+
+    private static ModbusRegisterArray registers(int start, int length) {
+        byte[] bytes = new byte[length * 2];
+        for (int i = 0; i < length; i++) {
+            bytes[i * 2] = (byte) ((start + i) >> 8);
+            bytes[i * 2 + 1] = (byte) (start + i);
+        }
+        return new ModbusRegisterArray(bytes);
+    }
+
+    @Test
+    public void testAdjacentAndGapPollsAreMerged() {
+        Poller first = new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5);
+        Poller second = new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 15, 3);
+        Poller third = new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 20, 2);
+        Poller far = new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 1);
+        register(first, 1000);
+        register(second, 1000);
+        register(third, 1000);
+        register(far, 1000);
+
+        List<RegisteredPoll> polls = registeredPolls();
+        assertThat(polls.size(), is(equalTo(2)));
+        assertThat(polls.get(0).request.getReference(), is(equalTo(10)));
+        assertThat(polls.get(0).request.getDataLength(), is(equalTo(12)));
+        assertThat(polls.get(0).request.getMaxTries(), is(equalTo(3)));
+        assertThat(polls.get(1).request.getReference(), is(equalTo(100)));
+        assertThat(polls.get(1).request.getDataLength(), is(equalTo(1)));
+
+        assertThat(coalescer.getPollCount(), is(equalTo(4)));
+        assertThat(coalescer.getRequestCount(), is(equalTo(2)));
+        assertThat(coalescer.getSavedRequestsPerMinute(), is(equalTo(120L)));
+        assertThat(statisticsUpdates, is(equalTo(4)));
+
+        polls.get(0).resultCallback.handle(new AsyncModbusReadResult(polls.get(0).request, registers(10, 12)));
+        assertThat(first.results.size(), is(equalTo(1)));
+        assertThat(first.results.get(0).getRequest(), is(sameInstance(first.request)));
+        ModbusRegisterArray firstRegisters = first.results.get(0).getRegisters().get();
+        assertThat(firstRegisters.size(), is(equalTo(5)));
+        assertThat(firstRegisters.getRegister(0), is(equalTo(10)));
+        assertThat(firstRegisters.getRegister(4), is(equalTo(14)));
+        ModbusRegisterArray secondRegisters = second.results.get(0).getRegisters().get();
+        assertThat(secondRegisters.size(), is(equalTo(3)));
+        assertThat(secondRegisters.getRegister(0), is(equalTo(15)));
+        ModbusRegisterArray thirdRegisters = third.results.get(0).getRegisters().get();
+        assertThat(thirdRegisters.size(), is(equalTo(2)));
+        assertThat(thirdRegisters.getRegister(1), is(equalTo(21)));
+        assertThat(far.results.size(), is(equalTo(0)));
+        assertThat(coalescer.getSavedRequestCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testIncompatiblePollsAreNotMerged() {
+        register(new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10), 1000);
+        register(new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 10), 500);
+        register(new Poller(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 10, 10), 1000);
+        register(new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 10, 1), 1000);
+
+        assertThat(registeredPolls().size(), is(equalTo(4)));
+        assertThat(coalescer.getSavedRequestsPerMinute(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testProtocolLimitsAreHonoured() {
+        register(new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100), 1000);
+        register(new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 25), 1000);
+        register(new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 125, 1), 1000);
+        register(new Poller(ModbusReadFunctionCode.READ_COILS, 0, 1999), 1000);
+        register(new Poller(ModbusReadFunctionCode.READ_COILS, 1999, 2), 1000);
+
+        List<RegisteredPoll> polls = registeredPolls();
+        assertThat(polls.size(), is(equalTo(4)));
+        assertThat(polls.get(0).request.getDataLength(), is(equalTo(125)));
+        assertThat(polls.get(1).request.getReference(), is(equalTo(125)));
+        assertThat(polls.get(2).request.getDataLength(), is(equalTo(1999)));
+        assertThat(polls.get(3).request.getReference(), is(equalTo(1999)));
+    }
+
+    @Test
+    public void testBitsAreSplit() {
+        Poller first = new Poller(ModbusReadFunctionCode.READ_COILS, 0, 3);
+        Poller second = new Poller(ModbusReadFunctionCode.READ_COILS, 4, 2);
+        register(first, 1000);
+        register(second, 1000);
+
+        List<RegisteredPoll> polls = registeredPolls();
+        assertThat(polls.size(), is(equalTo(1)));
+        BitArray bits = new BitArray(6);
+        bits.setBit(1, true);
+        bits.setBit(5, true);
+        polls.get(0).resultCallback.handle(new AsyncModbusReadResult(polls.get(0).request, bits));
+
+        BitArray firstBits = first.results.get(0).getBits().get();
+        assertThat(firstBits.size(), is(equalTo(3)));
+        assertThat(firstBits.getBit(0), is(false));
+        assertThat(firstBits.getBit(1), is(true));
+        BitArray secondBits = second.results.get(0).getBits().get();
+        assertThat(secondBits.size(), is(equalTo(2)));
+        assertThat(secondBits.getBit(0), is(false));
+        assertThat(secondBits.getBit(1), is(true));
+    }
+
+    @Test
+    public void testFailureIsPassedToAllPollers() {
+        Poller first = new Poller(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 3);
+        Poller second = new Poller(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 3, 2);
+        register(first, 1000);
+        register(second, 1000);
+
+        RegisteredPoll poll = registeredPolls().get(0);
+        Exception error = new Exception("Something failed!");
+        poll.failureCallback.handle(new AsyncModbusFailure<>(poll.request, error));
+
+        assertThat(first.failures.size(), is(equalTo(1)));
+        assertThat(first.failures.get(0).getRequest(), is(sameInstance(first.request)));
+        assertThat(first.failures.get(0).getCause(), is(sameInstance(error)));
+        assertThat(second.failures.size(), is(equalTo(1)));
+        assertThat(second.failures.get(0).getRequest(), is(sameInstance(second.request)));
+    }
+
+    @Test
+    public void testUnregisterAndClose() {
+        Poller first = new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 3);
+        Poller second = new Poller(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 2);
+        register(first, 1000);
+        register(second, 1000);
+
+        assertThat(coalescer.unregisterRegularPoll(first), is(true));
+        assertThat(coalescer.unregisterRegularPoll(first), is(false));
+        List<RegisteredPoll> polls = registeredPolls();
+        assertThat(polls.size(), is(equalTo(1)));
+        assertThat(polls.get(0).request.getReference(), is(equalTo(3)));
+        assertThat(polls.get(0).request.getDataLength(), is(equalTo(2)));
+
+        coalescer.close();
+        assertThat(registeredPolls().size(), is(equalTo(0)));
+        assertThat(coalescer.getPollCount(), is(equalTo(0)));
+        register(first, 1000);
+        assertThat(registeredPolls().size(), is(equalTo(0)));
+    }
+}
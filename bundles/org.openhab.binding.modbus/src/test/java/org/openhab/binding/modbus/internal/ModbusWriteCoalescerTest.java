@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusWriteResult;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.ModbusResponse;
+import org.openhab.core.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.core.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteRequestBlueprint;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusWriteCoalescerTest {
+
+    /**
+     * Data thing callback recording everything received
+     */
+    private static class Writer implements ModbusWriteCallback, ModbusFailureCallback<ModbusWriteRequestBlueprint> {
+        private final List<AsyncModbusWriteResult> results = new ArrayList<>();
+        private final List<AsyncModbusFailure<ModbusWriteRequestBlueprint>> failures = new ArrayList<>();
+
+        @Override
+        public void handle(AsyncModbusWriteResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusWriteRequestBlueprint> failure) {
+            failures.add(failure);
+        }
+    }
+
+    /**
+     * Write submitted to the communication interface
+     */
+    private static class SubmittedWrite {
+        private final ModbusWriteRequestBlueprint request;
+        private final ModbusWriteCallback resultCallback;
+        private final ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback;
+
+        SubmittedWrite(ModbusWriteRequestBlueprint request, ModbusWriteCallback resultCallback,
+                ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+    }
+
+    private final List<SubmittedWrite> submittedWrites = new ArrayList<>();
+    private final Writer writer = new Writer();
+    private ScheduledExecutorService scheduler;
+    private ModbusWriteCoalescer coalescer;
+
+    @BeforeEach
+    public void setUp() {
+        ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+        doAnswer(invocation -> {
+            submittedWrites.add(new SubmittedWrite(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2)));
+            return null;
+        }).when(comms).submitOneTimeWrite(any(), any(), any());
+        scheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        coalescer = new ModbusWriteCoalescer(comms, scheduler, 50);
+    }
+
+    private void writeRegister(int address, int... registers) {
+        writeRegister(true, address, registers);
+    }
+
+    private void writeRegister(boolean writeMultiple, int address, int... registers) {
+        byte[] bytes = new byte[registers.length * 2];
+        for (int i = 0; i < registers.length; i++) {
+            bytes[i * 2] = (byte) (registers[i] >> 8);
+            bytes[i * 2 + 1] = (byte) registers[i];
+        }
+        coalescer.submitOneTimeWrite(new ModbusWriteRegisterRequestBlueprint(1, address,
+                new ModbusRegisterArray(bytes), writeMultiple, 3), writer, writer);
+    }
+
+    private void writeCoil(int address, boolean value) {
+        writeCoil(true, address, value);
+    }
+
+    private void writeCoil(boolean writeMultiple, int address, boolean value) {
+        coalescer.submitOneTimeWrite(new ModbusWriteCoilRequestBlueprint(1, address, value, writeMultiple, 3), writer,
+                writer);
+    }
+
+    @Test
+    public void testContiguousRegistersAreMerged() {
+        writeRegister(12, 3);
+        writeRegister(10, 1);
+        writeRegister(11, 2);
+        writeRegister(13, 4, 5);
+        assertThat(submittedWrites.size(), is(equalTo(0)));
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(50L), eq(TimeUnit.MILLISECONDS));
+
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(1)));
+        ModbusWriteRegisterRequestBlueprint request = (ModbusWriteRegisterRequestBlueprint) submittedWrites
+                .get(0).request;
+        assertThat(request.getReference(), is(equalTo(10)));
+        assertThat(request.getRegisters().size(), is(equalTo(5)));
+        for (int i = 0; i < 5; i++) {
+            assertThat(request.getRegisters().getRegister(i), is(equalTo(i + 1)));
+        }
+        assertThat(coalescer.getSavedRequestCount(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void testResponseIsPassedToAllWrites() {
+        writeRegister(10, 1);
+        writeRegister(11, 2);
+        coalescer.flush();
+
+        SubmittedWrite submitted = submittedWrites.get(0);
+        ModbusResponse response = mock(ModbusResponse.class);
+        submitted.resultCallback.handle(new AsyncModbusWriteResult(submitted.request, response));
+        assertThat(writer.results.size(), is(equalTo(2)));
+        assertThat(writer.results.get(0).getRequest().getReference(), is(equalTo(10)));
+        assertThat(writer.results.get(1).getRequest().getReference(), is(equalTo(11)));
+        assertThat(writer.results.get(0).getResponse(), is(sameInstance(response)));
+
+        Exception error = new Exception("Something failed!");
+        submitted.failureCallback.handle(new AsyncModbusFailure<>(submitted.request, error));
+        assertThat(writer.failures.size(), is(equalTo(2)));
+        assertThat(writer.failures.get(1).getRequest().getReference(), is(equalTo(11)));
+        assertThat(writer.failures.get(1).getCause(), is(sameInstance(error)));
+    }
+
+    @Test
+    public void testWritesToSameRegisterKeepOrder() {
+        writeRegister(10, 1);
+        writeRegister(11, 2);
+        // second write to register 10 submits the pending writes first
+        writeRegister(10, 3);
+        assertThat(submittedWrites.size(), is(equalTo(1)));
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(2)));
+        assertThat(submittedWrites.get(0).request.getReference(), is(equalTo(10)));
+        assertThat(((ModbusWriteRegisterRequestBlueprint) submittedWrites.get(0).request).getRegisters().size(),
+                is(equalTo(2)));
+        ModbusWriteRegisterRequestBlueprint last = (ModbusWriteRegisterRequestBlueprint) submittedWrites.get(1).request;
+        assertThat(last.getRegisters().getRegister(0), is(equalTo(3)));
+    }
+
+    @Test
+    public void testGapsAreNotMerged() {
+        writeRegister(20, 2);
+        writeRegister(10, 1);
+        writeRegister(22, 3);
+        coalescer.flush();
+
+        // blocks are submitted in order of their first write
+        assertThat(submittedWrites.size(), is(equalTo(3)));
+        assertThat(submittedWrites.get(0).request.getReference(), is(equalTo(20)));
+        assertThat(submittedWrites.get(1).request.getReference(), is(equalTo(10)));
+        assertThat(submittedWrites.get(2).request.getReference(), is(equalTo(22)));
+        assertThat(coalescer.getSavedRequestCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testCoilsAreMerged() {
+        writeCoil(5, true);
+        writeCoil(6, false);
+        writeCoil(7, true);
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(1)));
+        ModbusWriteCoilRequestBlueprint request = (ModbusWriteCoilRequestBlueprint) submittedWrites.get(0).request;
+        assertThat(request.getReference(), is(equalTo(5)));
+        assertThat(request.getCoils().size(), is(equalTo(3)));
+        assertThat(request.getCoils().getBit(0), is(true));
+        assertThat(request.getCoils().getBit(1), is(false));
+        assertThat(request.getCoils().getBit(2), is(true));
+    }
+
+    @Test
+    public void testRegistersAndCoilsAreNotMerged() {
+        writeRegister(5, 1);
+        writeCoil(6, true);
+        writeRegister(7, 2);
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(3)));
+        assertThat(submittedWrites.get(1).request, is(instanceOf(ModbusWriteCoilRequestBlueprint.class)));
+    }
+
+    @Test
+    public void testSingleWritesArePassedThrough() {
+        writeRegister(10, 1);
+        writeRegister(false, 11, 2);
+        writeCoil(false, 5, true);
+        writeRegister(12, 3);
+        // the single writes submit the pending writes first, to keep the order
+        assertThat(submittedWrites.size(), is(equalTo(3)));
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(4)));
+        assertThat(submittedWrites.get(0).request.getReference(), is(equalTo(10)));
+        assertThat(submittedWrites.get(0).request.getFunctionCode(),
+                is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS)));
+        assertThat(submittedWrites.get(1).request.getFunctionCode(),
+                is(equalTo(ModbusWriteFunctionCode.WRITE_SINGLE_REGISTER)));
+        assertThat(submittedWrites.get(2).request.getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_COIL)));
+        assertThat(submittedWrites.get(3).request.getReference(), is(equalTo(12)));
+        assertThat(coalescer.getSavedRequestCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testMergedRequestsUseWriteMultiple() {
+        writeRegister(10, 1);
+        writeRegister(11, 2);
+        writeCoil(5, true);
+        writeCoil(6, false);
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(2)));
+        assertThat(submittedWrites.get(0).request.getFunctionCode(),
+                is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS)));
+        assertThat(submittedWrites.get(1).request.getFunctionCode(),
+                is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS)));
+    }
+
+    @Test
+    public void testProtocolLimitIsHonoured() {
+        for (int i = 0; i < 130; i++) {
+            writeRegister(i, i);
+        }
+        coalescer.flush();
+
+        assertThat(submittedWrites.size(), is(equalTo(2)));
+        assertThat(((ModbusWriteRegisterRequestBlueprint) submittedWrites.get(0).request).getRegisters().size(),
+                is(equalTo(123)));
+        assertThat(submittedWrites.get(1).request.getReference(), is(equalTo(123)));
+    }
+
+    @Test
+    public void testCloseSubmitsPendingWrites() {
+        writeRegister(10, 1);
+        coalescer.close();
+        assertThat(submittedWrites.size(), is(equalTo(1)));
+
+        writeRegister(11, 1);
+        coalescer.flush();
+        assertThat(submittedWrites.size(), is(equalTo(1)));
+    }
+}
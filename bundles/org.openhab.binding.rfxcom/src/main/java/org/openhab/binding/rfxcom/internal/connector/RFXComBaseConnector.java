@@ -66,4 +66,8 @@ public abstract class RFXComBaseConnector implements RFXComConnectorInterface {
     int read(byte[] buffer, int offset, int length) throws IOException {
         return in.read(buffer, offset, length);
     }
+
+    int available() throws IOException {
+        return in.available();
+    }
 }
@@ -51,25 +51,54 @@ public class RFXComStreamReader extends Thread {
     @Override
     public void run() {
         logger.debug("Data listener started");
-        byte[] buf = new byte[MAX_RFXCOM_MESSAGE_LEN];
+        // room for a partial packet plus whatever else the connector has buffered already
+        byte[] buf = new byte[2 * MAX_RFXCOM_MESSAGE_LEN];
+        int start = 0;
+        int end = 0;
+        int readTimeoutCount = 1;
 
         // The stream has (or SHOULD have) a read timeout set. Taking a
         // read timeout (read returns 0) between packets gives us a chance
-        // to check if we've been interrupted. Read interrupts during a
-        // packet are ignored but if too many timeouts occur we take it as
-        // meaning the RFXCOM has become missing presumed dead.
+        // to check if we've been interrupted. If too many timeouts occur
+        // during a packet we take it as meaning the RFXCOM has become
+        // missing presumed dead.
         try {
             while (!Thread.interrupted()) {
-                // First byte tells us how long the packet is
-                int bytesRead = connector.read(buf, 0, 1);
-                int packetLength = buf[0];
+                // Deliver all complete packets, the first byte tells us how long the packet is
+                while (start < end) {
+                    int packetLength = buf[start];
+                    if (packetLength <= 0) {
+                        start++;
+                    } else if (end - start > packetLength) {
+                        logger.trace("Message length is {} bytes", packetLength);
+                        connector.sendMsgToListeners(Arrays.copyOfRange(buf, start, start + packetLength + 1));
+                        start += packetLength + 1;
+                    } else {
+                        break;
+                    }
+                }
 
-                if (bytesRead > 0 && packetLength > 0) {
-                    logger.trace("Message length is {} bytes", packetLength);
-                    processMessage(buf, packetLength);
-                    connector.sendMsgToListeners(Arrays.copyOfRange(buf, 0, packetLength + 1));
+                // Keep the partial packet at the beginning of the buffer
+                if (start > 0) {
+                    System.arraycopy(buf, start, buf, 0, end - start);
+                    end -= start;
+                    start = 0;
+                }
+
+                // Ask for the rest of the current packet (or the length byte of the next one) and whatever is
+                // available already. Asking for more makes a connector with a read timeout wait for bytes that
+                // have not been sent yet.
+                int missing = end > 0 ? buf[0] + 1 - end : 1;
+                int length = Math.min(buf.length - end, Math.max(missing, connector.available()));
+                int bytesRead = connector.read(buf, end, length);
+                if (bytesRead > 0) {
+                    logger.trace("Received {} bytes", bytesRead);
+                    end += bytesRead;
+                    readTimeoutCount = 1;
                 } else if (bytesRead == -1) {
                     throw new IOException("End of stream");
+                } else if (end > 0 && readTimeoutCount++ == MAX_READ_TIMEOUTS) {
+                    throw new RFXComTimeoutException("Timeout during packet read");
                 }
             }
         } catch (IOException | RFXComTimeoutException e) {
@@ -79,22 +108,4 @@ public class RFXComStreamReader extends Thread {
 
         logger.debug("Data listener stopped");
     }
-
-    private void processMessage(byte[] buf, int packetLength) throws IOException, RFXComTimeoutException {
-        // Now read the rest of the packet
-        int bufferIndex = 1;
-        int readTimeoutCount = 1;
-        while (bufferIndex <= packetLength) {
-            int bytesRemaining = packetLength - bufferIndex + 1;
-            logger.trace("Waiting remaining {} bytes from the message", bytesRemaining);
-            int bytesRead = connector.read(buf, bufferIndex, bytesRemaining);
-            if (bytesRead > 0) {
-                logger.trace("Received {} bytes from the message", bytesRead);
-                bufferIndex += bytesRead;
-                readTimeoutCount = 1;
-            } else if (readTimeoutCount++ == MAX_READ_TIMEOUTS) {
-                throw new RFXComTimeoutException("Timeout during packet read");
-            }
-        }
-    }
 }
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rfxcom.internal.connector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rfxcom.internal.config.RFXComBridgeConfiguration;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComInterfaceMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting2Message;
+import org.openhab.binding.rfxcom.internal.messages.RFXComMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComMessageFactory;
+import org.openhab.binding.rfxcom.internal.messages.RFXComRainMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComTemperatureHumidityMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComTemperatureMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComWindMessage;
+import org.openhab.core.util.HexUtils;
+
+/**
+ * Test for the RFXCOM stream reader, using packets captured from a RFXtrx433E
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RFXComStreamReaderTest {
+    private static final String[] CAPTURED_PACKETS = { "1401070307436F7079726967687420524658434F4D",
+            "08500110000180BC69", "0850021DFB0100D770", "0A5201800F0201294C0349", "0A520211700200A72D0089",
+            "105601122F000087000000140000000079", "0B550217B6000000004D3C69", "0B11000600109B520B000080",
+            "08500502770000D389", "0850097200C300E089" };
+
+    private static final Class<?>[] EXPECTED_CLASSES = { RFXComInterfaceMessage.class, RFXComTemperatureMessage.class,
+            RFXComTemperatureMessage.class, RFXComTemperatureHumidityMessage.class,
+            RFXComTemperatureHumidityMessage.class, RFXComWindMessage.class, RFXComRainMessage.class,
+            RFXComLighting2Message.class, RFXComTemperatureMessage.class, RFXComTemperatureMessage.class };
+
+    private final List<byte[]> packets = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Delivers the data in chunks of the given size, optionally with timeouts (read returns 0) in between.
+     */
+    private static class ChunkedInputStream extends InputStream {
+        private final byte[] data;
+        private final int chunkSize;
+        private final int timeoutsBetweenChunks;
+        private int position;
+        private int timeouts;
+
+        ChunkedInputStream(byte[] data, int chunkSize, int timeoutsBetweenChunks) {
+            this.data = data;
+            this.chunkSize = chunkSize;
+            this.timeoutsBetweenChunks = timeoutsBetweenChunks;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int available() {
+            return timeouts < timeoutsBetweenChunks ? 0 : Math.min(chunkSize, data.length - position);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == data.length) {
+                return -1;
+            }
+            if (timeouts++ < timeoutsBetweenChunks) {
+                return 0;
+            }
+            timeouts = 0;
+            int count = Math.min(Math.min(chunkSize, length), data.length - position);
+            System.arraycopy(data, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+
+    /**
+     * Records the reads asking for more bytes than the rest of the current packet and than available, a connector
+     * with a read timeout (like JD2XX) would wait for these bytes until the timeout.
+     */
+    private static class PacketAwareInputStream extends ChunkedInputStream {
+        private final List<Integer> packetStarts = new ArrayList<>();
+        private int waitingReads;
+
+        PacketAwareInputStream(byte[] data, int chunkSize, int timeoutsBetweenChunks) {
+            super(data, chunkSize, timeoutsBetweenChunks);
+            for (int start = 0; start < data.length; start += data[start] + 1) {
+                packetStarts.add(start);
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int missing = 1;
+            if (super.position < super.data.length && !packetStarts.contains(super.position)) {
+                int packetEnd = packetStarts.stream().filter(start -> start > super.position).findFirst()
+                        .orElse(super.data.length);
+                missing = packetEnd - super.position;
+            }
+            if (length > Math.max(missing, available())) {
+                waitingReads++;
+            }
+            return super.read(buffer, offset, length);
+        }
+    }
+
+    private class TestConnector extends RFXComBaseConnector {
+        TestConnector(InputStream inputStream) {
+            in = inputStream;
+            addEventListener(new RFXComEventListener() {
+                @Override
+                public void packetReceived(byte[] data) {
+                    packets.add(data);
+                }
+
+                @Override
+                public void errorOccurred(String error) {
+                    errors.add(error);
+                }
+            });
+        }
+
+        @Override
+        public void connect(RFXComBridgeConfiguration device) {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public void sendMessage(byte[] data) {
+        }
+    }
+
+    private void readAll(byte[] data, int chunkSize, int timeoutsBetweenChunks) {
+        TestConnector connector = new TestConnector(new ChunkedInputStream(data, chunkSize, timeoutsBetweenChunks));
+        new RFXComStreamReader(connector, "RFXComStreamReaderTest").run();
+    }
+
+    private static byte[] corpus(int repetitions) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < repetitions; i++) {
+            for (String packet : CAPTURED_PACKETS) {
+                stream.writeBytes(HexUtils.hexToBytes(packet));
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private void assertCapturedPackets(int repetitions) throws RFXComException {
+        assertEquals(CAPTURED_PACKETS.length * repetitions, packets.size());
+        for (int i = 0; i < packets.size(); i++) {
+            int index = i % CAPTURED_PACKETS.length;
+            assertEquals(CAPTURED_PACKETS[index], HexUtils.bytesToHex(packets.get(i)));
+            RFXComMessage message = RFXComMessageFactory.createMessage(packets.get(i));
+            assertEquals(EXPECTED_CLASSES[index], message.getClass());
+        }
+    }
+
+    @Test
+    public void testSingleBytes() throws RFXComException {
+        readAll(corpus(1), 1, 0);
+
+        assertCapturedPackets(1);
+        assertEquals(List.of("End of stream"), errors);
+    }
+
+    @Test
+    public void testChunksWithTimeouts() throws RFXComException {
+        readAll(corpus(1), 7, 2);
+
+        assertCapturedPackets(1);
+        assertEquals(List.of("End of stream"), errors);
+    }
+
+    @Test
+    public void testManyPacketsPerRead() throws RFXComException {
+        // replays the capture as a busy installation would deliver it, can be used for profiling
+        readAll(corpus(1000), 4096, 0);
+
+        assertCapturedPackets(1000);
+    }
+
+    @Test
+    public void testReadsDoNotWaitForBytesNotSent() throws RFXComException {
+        for (int chunkSize : new int[] { 1, 3, 7, 64 }) {
+            packets.clear();
+            PacketAwareInputStream stream = new PacketAwareInputStream(corpus(2), chunkSize, 1);
+            new RFXComStreamReader(new TestConnector(stream), "RFXComStreamReaderTest").run();
+
+            assertCapturedPackets(2);
+            assertEquals(0, stream.waitingReads, "Reads waiting for bytes with chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testPaddingIsSkipped() {
+        byte[] packet = HexUtils.hexToBytes(CAPTURED_PACKETS[1]);
+        byte[] data = new byte[packet.length + 3];
+        System.arraycopy(packet, 0, data, 3, packet.length);
+
+        readAll(data, 5, 0);
+
+        assertEquals(1, packets.size());
+        assertArrayEquals(packet, packets.get(0));
+    }
+
+    @Test
+    public void testTimeoutDuringPacket() {
+        byte[] packet = HexUtils.hexToBytes(CAPTURED_PACKETS[1]);
+
+        readAll(packet, 4, 4);
+
+        assertTrue(packets.isEmpty());
+        assertEquals(List.of("Timeout during packet read"), errors);
+    }
+}
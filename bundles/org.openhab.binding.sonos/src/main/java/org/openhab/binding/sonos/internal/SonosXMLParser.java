@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +49,16 @@ public class SonosXMLParser {
 
     static final Logger LOGGER = LoggerFactory.getLogger(SonosXMLParser.class);
 
+    /**
+     * Creating an {@link XMLReader} is expensive compared to parsing the small documents sent by the Zone Players,
+     * so every thread keeps its readers and reuses them. The resource meta data is parsed while an entry is parsed,
+     * which is why it needs a reader of its own.
+     */
+    private static final ThreadLocal<@Nullable XMLReader> READER = new ThreadLocal<>();
+    private static final ThreadLocal<@Nullable XMLReader> RESOURCE_META_DATA_READER = new ThreadLocal<>();
+
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
     private static final MessageFormat METADATA_FORMAT = new MessageFormat(
             "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
                     + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
@@ -92,9 +103,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -110,18 +119,29 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosEntry> getEntriesFromString(String xml) {
-        EntryHandler handler = new EntryHandler();
+        List<SonosEntry> entries = new ArrayList<>();
+        getEntriesFromString(xml, entries::add);
+        return entries;
+    }
+
+    /**
+     * Passes the Entries of the given xml string to the handler as soon as they are parsed, without collecting them.
+     *
+     * @param xml
+     * @param handler receives the Entries in document order, returns false if no further Entries are needed
+     * @return false if the handler did not want further Entries, true otherwise
+     */
+    public static boolean getEntriesFromString(String xml, Predicate<SonosEntry> handler) {
+        EntryHandler entryHandler = new EntryHandler(handler);
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(entryHandler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         }
 
-        return handler.getArtists();
+        return !entryHandler.isStopped();
     }
 
     /**
@@ -133,12 +153,15 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static @Nullable SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
-        reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        XMLReader reader = RESOURCE_META_DATA_READER.get();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+            reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            RESOURCE_META_DATA_READER.set(reader);
+        }
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(reader, handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -157,9 +180,7 @@ public class SonosXMLParser {
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -173,9 +194,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -189,9 +208,7 @@ public class SonosXMLParser {
     public static Map<String, String> getRenderingControlFromXML(String xml) {
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -204,9 +221,7 @@ public class SonosXMLParser {
     public static Map<String, String> getAVTransportFromXML(String xml) {
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -219,9 +234,7 @@ public class SonosXMLParser {
     public static SonosMetaData getMetaDataFromXML(String xml) {
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
@@ -235,9 +248,7 @@ public class SonosXMLParser {
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -247,6 +258,26 @@ public class SonosXMLParser {
         return handler.getServices();
     }
 
+    private static void parse(DefaultHandler handler, InputSource input) throws IOException, SAXException {
+        XMLReader reader = READER.get();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+            READER.set(reader);
+        }
+        parse(reader, handler, input);
+    }
+
+    private static void parse(XMLReader reader, DefaultHandler handler, InputSource input)
+            throws IOException, SAXException {
+        reader.setContentHandler(handler);
+        try {
+            reader.parse(input);
+        } finally {
+            // do not keep the handler and its results reachable from the thread
+            reader.setContentHandler(NO_HANDLER);
+        }
+    }
+
     private static class EntryHandler extends DefaultHandler {
 
         // Maintain a set of elements about which it is unuseful to complain about.
@@ -265,10 +296,12 @@ public class SonosXMLParser {
         private StringBuilder desc = new StringBuilder();
         private @Nullable Element element;
 
-        private List<SonosEntry> artists = new ArrayList<>();
+        private final Predicate<SonosEntry> handler;
+        private boolean stopped;
 
-        EntryHandler() {
+        EntryHandler(Predicate<SonosEntry> handler) {
             // shouldn't be used outside of this package.
+            this.handler = handler;
         }
 
         @Override
@@ -329,7 +362,7 @@ public class SonosXMLParser {
         @Override
         public void characters(char @Nullable [] ch, int start, int length) throws SAXException {
             Element elt = element;
-            if (elt == null || ch == null) {
+            if (elt == null || ch == null || stopped) {
                 return;
             }
             switch (elt) {
@@ -368,6 +401,10 @@ public class SonosXMLParser {
             if (("container".equals(qName) || "item".equals(qName))) {
                 element = null;
 
+                if (stopped) {
+                    return;
+                }
+
                 int trackNumberVal = 0;
                 try {
                     trackNumberVal = Integer.parseInt(trackNumber.toString());
@@ -385,8 +422,9 @@ public class SonosXMLParser {
                     }
                 }
 
-                artists.add(new SonosEntry(id, title.toString(), parentId, album.toString(), albumArtUri.toString(),
-                        creator.toString(), upnpClass.toString(), res.toString(), trackNumberVal, md));
+                stopped = !handler.test(new SonosEntry(id, title.toString(), parentId, album.toString(),
+                        albumArtUri.toString(), creator.toString(), upnpClass.toString(), res.toString(),
+                        trackNumberVal, md));
                 title = new StringBuilder();
                 upnpClass = new StringBuilder();
                 res = new StringBuilder();
@@ -398,8 +436,8 @@ public class SonosXMLParser {
             }
         }
 
-        public List<SonosEntry> getArtists() {
-            return artists;
+        public boolean isStopped() {
+            return stopped;
         }
     }
 
@@ -936,10 +974,8 @@ public class SonosXMLParser {
     public static @Nullable String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            parse(roomNameHandler, new InputSource(url.openStream()));
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -975,10 +1011,8 @@ public class SonosXMLParser {
     public static @Nullable String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            parse(modelNameHandler, new InputSource(url.openStream()));
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -118,6 +119,9 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             SERVICE_AUDIO_IN, SERVICE_HT_CONTROL, SERVICE_CONTENT_DIRECTORY);
     protected static final int SUBSCRIPTION_DURATION = 1800;
 
+    private static final int BROWSE_PAGE_SIZE = 200;
+    private static final String BROWSE_FILTER = "dc:title,res,dc:creator,upnp:artist,upnp:album";
+
     private static final String ACTION_GET_ZONE_ATTRIBUTES = "GetZoneAttributes";
     private static final String ACTION_GET_ZONE_INFO = "GetZoneInfo";
     private static final String ACTION_GET_LED_STATE = "GetLEDState";
@@ -666,15 +670,13 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                     updateChannel(TUNEINSTATIONID);
                     break;
                 case "SavedQueuesUpdateID": // service ContentDirectoy
-                    for (SonosEntry entry : getPlayLists()) {
-                        options.add(new StateOption(entry.getTitle(), entry.getTitle()));
-                    }
+                    browseEntries("SQ:", BROWSE_FILTER,
+                            entry -> options.add(new StateOption(entry.getTitle(), entry.getTitle())));
                     stateDescriptionProvider.setStateOptions(new ChannelUID(getThing().getUID(), PLAYLIST), options);
                     break;
                 case "FavoritesUpdateID": // service ContentDirectoy
-                    for (SonosEntry entry : getFavorites()) {
-                        options.add(new StateOption(entry.getTitle(), entry.getTitle()));
-                    }
+                    browseEntries("FV:2", BROWSE_FILTER,
+                            entry -> options.add(new StateOption(entry.getTitle(), entry.getTitle())));
                     stateDescriptionProvider.setStateOptions(new ChannelUID(getThing().getUID(), FAVORITE), options);
                     break;
                 // For favorite radios, we should have checked the state variable named RadioFavoritesUpdateID
@@ -683,9 +685,8 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 case "ContainerUpdateIDs": // service ContentDirectoy
                     if (value.startsWith("R:0,") || stateDescriptionProvider
                             .getStateOptions(new ChannelUID(getThing().getUID(), RADIO)) == null) {
-                        for (SonosEntry entry : getFavoriteRadios()) {
-                            options.add(new StateOption(entry.getTitle(), entry.getTitle()));
-                        }
+                        browseEntries("R:0/0", BROWSE_FILTER,
+                                entry -> options.add(new StateOption(entry.getTitle(), entry.getTitle())));
                         stateDescriptionProvider.setStateOptions(new ChannelUID(getThing().getUID(), RADIO), options);
                     }
                     break;
@@ -1482,7 +1483,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public List<SonosEntry> getArtists() {
-        return getEntries("A:", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("A:", BROWSE_FILTER);
     }
 
     public List<SonosEntry> getAlbums(String filter) {
@@ -1490,7 +1491,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public List<SonosEntry> getAlbums() {
-        return getEntries("A:ALBUM", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("A:ALBUM", BROWSE_FILTER);
     }
 
     public List<SonosEntry> getTracks(String filter) {
@@ -1498,7 +1499,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public List<SonosEntry> getTracks() {
-        return getEntries("A:TRACKS", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("A:TRACKS", BROWSE_FILTER);
     }
 
     public List<SonosEntry> getQueue(String filter) {
@@ -1506,7 +1507,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public List<SonosEntry> getQueue() {
-        return getEntries("Q:0", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("Q:0", BROWSE_FILTER);
     }
 
     public long getQueueSize() {
@@ -1518,7 +1519,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public List<SonosEntry> getPlayLists() {
-        return getEntries("SQ:", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("SQ:", BROWSE_FILTER);
     }
 
     public List<SonosEntry> getFavoriteRadios(String filter) {
@@ -1526,7 +1527,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     public List<SonosEntry> getFavoriteRadios() {
-        return getEntries("R:0/0", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("R:0/0", BROWSE_FILTER);
     }
 
     /**
@@ -1535,51 +1536,74 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
      * @return
      */
     public List<SonosEntry> getFavorites() {
-        return getEntries("FV:2", "dc:title,res,dc:creator,upnp:artist,upnp:album");
+        return getEntries("FV:2", BROWSE_FILTER);
     }
 
     protected List<SonosEntry> getEntries(String type, String filter) {
+        List<SonosEntry> resultList = new ArrayList<>();
+        browseEntries(type, filter, resultList::add);
+        return resultList;
+    }
+
+    /**
+     * Browses the entries of the given type page by page and passes every page to the handler as soon as it is
+     * received, so that large queues or libraries are never held in memory at once.
+     *
+     * @param type - the object id of the container to browse
+     * @param filter - the properties to be returned for every entry
+     * @param handler - receives the entries in order, returns false if no further entries are needed
+     */
+    protected void browseEntries(String type, String filter, Predicate<SonosEntry> handler) {
         long startAt = 0;
 
         Map<String, String> inputs = new HashMap<>();
         inputs.put("ObjectID", type);
         inputs.put("BrowseFlag", "BrowseDirectChildren");
         inputs.put("Filter", filter);
-        inputs.put("StartingIndex", Long.toString(startAt));
-        inputs.put("RequestedCount", Integer.toString(200));
+        inputs.put("RequestedCount", Integer.toString(BROWSE_PAGE_SIZE));
         inputs.put("SortCriteria", "");
 
-        Map<String, String> result = service.invokeAction(this, SERVICE_CONTENT_DIRECTORY, "Browse", inputs);
-
-        String initialResult = result.get("Result");
-        if (initialResult == null) {
-            return Collections.emptyList();
-        }
-
-        long totalMatches = getResultEntry(result, "TotalMatches", type, filter);
-        long initialNumberReturned = getResultEntry(result, "NumberReturned", type, filter);
-
-        List<SonosEntry> resultList = SonosXMLParser.getEntriesFromString(initialResult);
-        startAt = startAt + initialNumberReturned;
-
-        while (startAt < totalMatches) {
+        long totalMatches;
+        do {
             inputs.put("StartingIndex", Long.toString(startAt));
-            result = service.invokeAction(this, SERVICE_CONTENT_DIRECTORY, "Browse", inputs);
 
             // Execute this action synchronously
-            String nextResult = result.get("Result");
-            if (nextResult == null) {
+            Map<String, String> result = service.invokeAction(this, SERVICE_CONTENT_DIRECTORY, "Browse", inputs);
+
+            String pageResult = result.get("Result");
+            if (pageResult == null) {
                 break;
             }
 
+            totalMatches = getResultEntry(result, "TotalMatches", type, filter);
             long numberReturned = getResultEntry(result, "NumberReturned", type, filter);
 
-            resultList.addAll(SonosXMLParser.getEntriesFromString(nextResult));
+            if (!SonosXMLParser.getEntriesFromString(pageResult, handler) || numberReturned == 0) {
+                break;
+            }
 
             startAt = startAt + numberReturned;
-        }
+        } while (startAt < totalMatches);
+    }
 
-        return resultList;
+    /**
+     * Searches the entries of the given type for the first one with the given title, without browsing the
+     * remaining entries once it is found.
+     *
+     * @param type - the object id of the container to browse
+     * @param title - the title of the entry
+     * @return the entry or null if there is no entry with this title
+     */
+    @Nullable SonosEntry findEntryByTitle(String type, String title) {
+        List<SonosEntry> found = new ArrayList<>(1);
+        browseEntries(type, BROWSE_FILTER, entry -> {
+            if (entry.getTitle().equals(title)) {
+                found.add(entry);
+                return false;
+            }
+            return true;
+        });
+        return found.isEmpty() ? null : found.get(0);
     }
 
     protected long getNbEntries(String type) {
@@ -1665,14 +1689,11 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
                         if (queued.getUpnpClass().contains("object.container.playlistContainer")) {
                             // we are playing a real 'saved' playlist
-                            List<SonosEntry> playLists = getPlayLists();
-                            for (SonosEntry someList : playLists) {
-                                if (someList.getTitle().equals(queued.getTitle())) {
-                                    savedState.entry = new SonosEntry(someList.getId(), someList.getTitle(),
-                                            someList.getParentId(), "", "", "", someList.getUpnpClass(),
-                                            someList.getRes());
-                                    break;
-                                }
+                            SonosEntry someList = findEntryByTitle("SQ:", queued.getTitle());
+                            if (someList != null) {
+                                savedState.entry = new SonosEntry(someList.getId(), someList.getTitle(),
+                                        someList.getParentId(), "", "", "", someList.getUpnpClass(),
+                                        someList.getRes());
                             }
                         } else if (queued.getUpnpClass().contains("object.container")) {
                             // we are playing some other sort of
@@ -1682,26 +1703,20 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
                             // save the playlist
                             String existingList = "";
-                            List<SonosEntry> playLists = getPlayLists();
-                            for (SonosEntry someList : playLists) {
-                                if (someList.getTitle().equals(TITLE_PREFIX + getUDN())) {
-                                    existingList = someList.getId();
-                                    break;
-                                }
+                            SonosEntry someList = findEntryByTitle("SQ:", TITLE_PREFIX + getUDN());
+                            if (someList != null) {
+                                existingList = someList.getId();
                             }
 
                             saveQueue(TITLE_PREFIX + getUDN(), existingList);
 
                             // get all the playlists and a ref to our
                             // saved list
-                            playLists = getPlayLists();
-                            for (SonosEntry someList : playLists) {
-                                if (someList.getTitle().equals(TITLE_PREFIX + getUDN())) {
-                                    savedState.entry = new SonosEntry(someList.getId(), someList.getTitle(),
-                                            someList.getParentId(), "", "", "", someList.getUpnpClass(),
-                                            someList.getRes());
-                                    break;
-                                }
+                            someList = findEntryByTitle("SQ:", TITLE_PREFIX + getUDN());
+                            if (someList != null) {
+                                savedState.entry = new SonosEntry(someList.getId(), someList.getTitle(),
+                                        someList.getParentId(), "", "", "", someList.getUpnpClass(),
+                                        someList.getRes());
                             }
                         }
                     } else {
@@ -3030,16 +3045,8 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     public void playFavorite(Command command) {
         if (command instanceof StringType) {
             String favorite = command.toString();
-            List<SonosEntry> favorites = getFavorites();
-
-            SonosEntry theEntry = null;
             // search for the appropriate favorite based on its name (title)
-            for (SonosEntry entry : favorites) {
-                if (entry.getTitle().equals(favorite)) {
-                    theEntry = entry;
-                    break;
-                }
-            }
+            SonosEntry theEntry = findEntryByTitle("FV:2", favorite);
 
             // set the URI of the group coordinator
             if (theEntry != null) {
@@ -3095,16 +3102,8 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     public void playPlayList(Command command) {
         if (command instanceof StringType) {
             String playlist = command.toString();
-            List<SonosEntry> playlists = getPlayLists();
-
-            SonosEntry theEntry = null;
             // search for the appropriate play list based on its name (title)
-            for (SonosEntry somePlaylist : playlists) {
-                if (somePlaylist.getTitle().equals(playlist)) {
-                    theEntry = somePlaylist;
-                    break;
-                }
-            }
+            SonosEntry theEntry = findEntryByTitle("SQ:", playlist);
 
             // set the URI of the group coordinator
             if (theEntry != null) {
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the parsing of browse results and the reuse of the readers by {@link SonosXMLParser}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SonosXMLParserTest {
+
+    private static final String DIDL_START = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\">";
+    private static final String DIDL_END = "</DIDL-Lite>";
+
+    private static final String ZONE_GROUPS = "<ZoneGroups><ZoneGroup Coordinator=\"RINCON_000E58000001\" "
+            + "ID=\"RINCON_000E58000001:42\"><ZoneGroupMember UUID=\"RINCON_000E58000001\" ZoneName=\"Kitchen\"/>"
+            + "<ZoneGroupMember UUID=\"RINCON_000E58000002\" ZoneName=\"Living Room\"/></ZoneGroup></ZoneGroups>";
+
+    private static String playlists(String... titles) {
+        StringBuilder xml = new StringBuilder(DIDL_START);
+        for (int i = 0; i < titles.length; i++) {
+            xml.append("<container id=\"SQ:").append(i).append("\" parentID=\"SQ:\" restricted=\"true\">")
+                    .append("<dc:title>").append(titles[i]).append("</dc:title>")
+                    .append("<res>file:///jffs/settings/savedqueues.rsq#").append(i).append("</res>")
+                    .append("<upnp:class>object.container.playlistContainer</upnp:class></container>");
+        }
+        return xml.append(DIDL_END).toString();
+    }
+
+    private static List<String> titles(List<SonosEntry> entries) {
+        return entries.stream().map(SonosEntry::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEntriesArePassedInDocumentOrder() {
+        List<SonosEntry> entries = new ArrayList<>();
+
+        assertTrue(SonosXMLParser.getEntriesFromString(playlists("Morning", "Evening", "Party"), entries::add));
+
+        assertEquals(List.of("Morning", "Evening", "Party"), titles(entries));
+        assertEquals("SQ:1", entries.get(1).getId());
+        assertEquals("SQ:", entries.get(1).getParentId());
+        assertEquals("file:///jffs/settings/savedqueues.rsq#1", entries.get(1).getRes());
+        assertEquals("object.container.playlistContainer", entries.get(1).getUpnpClass());
+    }
+
+    @Test
+    public void testParsingStopsWhenHandlerDeclinesFurtherEntries() {
+        List<SonosEntry> entries = new ArrayList<>();
+
+        assertFalse(SonosXMLParser.getEntriesFromString(playlists("Morning", "Evening", "Party"), entry -> {
+            entries.add(entry);
+            return !"Evening".equals(entry.getTitle());
+        }));
+
+        assertEquals(List.of("Morning", "Evening"), titles(entries));
+    }
+
+    @Test
+    public void testReaderIsReusedForDifferentDocuments() {
+        // all documents are parsed by the reader of this thread, no results may leak from one into the next
+        List<SonosEntry> entries = SonosXMLParser.getEntriesFromString(playlists("Morning", "Evening"));
+        assertEquals(List.of("Morning", "Evening"), titles(entries));
+
+        List<SonosZoneGroup> groups = SonosXMLParser.getZoneGroupFromXML(ZONE_GROUPS);
+        assertEquals(1, groups.size());
+        assertEquals("RINCON_000E58000001", groups.get(0).getCoordinator());
+        assertEquals(List.of("RINCON_000E58000001", "RINCON_000E58000002"), groups.get(0).getMembers());
+        assertEquals(List.of("Kitchen", "Living Room"), groups.get(0).getMemberZoneNames());
+
+        assertTrue(SonosXMLParser.getEntriesFromString(DIDL_START + "<container id=\"SQ:0\">").isEmpty());
+
+        assertEquals(List.of("Party"), titles(SonosXMLParser.getEntriesFromString(playlists("Party"))));
+    }
+
+    @Test
+    public void testResourceMetaDataIsParsedWhileEntriesAreParsed() {
+        String resourceMetaData = DIDL_START
+                + "<item id=\"F00092020s24861\" parentID=\"F00082064y1%3apopular\" restricted=\"true\">"
+                + "<dc:title>Radio Paradise</dc:title><upnp:class>object.item.audioItem.audioBroadcast</upnp:class>"
+                + "<desc id=\"cdudn\" nameSpace=\"urn:schemas-rinconnetworks-com:metadata-1-0/\">"
+                + "SA_RINCON65031_</desc></item>" + DIDL_END;
+        String favorites = DIDL_START + "<item id=\"FV:2/13\" parentID=\"FV:2\" restricted=\"false\">"
+                + "<dc:title>Paradise</dc:title><upnp:class>object.itemobject.item.sonos-favorite</upnp:class>"
+                + "<res>x-sonosapi-stream:s24861?sid=254</res><r:resMD>"
+                + resourceMetaData.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                + "</r:resMD></item>" + playlists("Morning").substring(DIDL_START.length());
+
+        List<SonosEntry> entries = SonosXMLParser.getEntriesFromString(favorites);
+
+        assertEquals(List.of("Paradise", "Morning"), titles(entries));
+        SonosResourceMetaData metaData = entries.get(0).getResourceMetaData();
+        assertNotNull(metaData);
+        assertEquals("Radio Paradise", metaData.getTitle());
+        assertEquals("SA_RINCON65031_", metaData.getDesc());
+        assertNull(entries.get(1).getResourceMetaData());
+    }
+}
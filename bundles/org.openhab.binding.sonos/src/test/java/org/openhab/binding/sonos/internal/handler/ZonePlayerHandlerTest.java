@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.sonos.internal.SonosEntry;
+import org.openhab.binding.sonos.internal.SonosStateDescriptionOptionProvider;
+import org.openhab.core.io.transport.upnp.UpnpIOService;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingRegistry;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests for the paged browsing of the content directory by the {@link ZonePlayerHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class ZonePlayerHandlerTest {
+    private static final List<String> PLAYLISTS = List.of("Morning", "Evening", "Party", "Dinner", "Workout");
+    // Zone Players may return fewer entries than requested
+    private static final int PAGE_SIZE = 2;
+
+    private @Mock @NonNullByDefault({}) ThingRegistry thingRegistry;
+    private @Mock @NonNullByDefault({}) Thing thing;
+    private @Mock @NonNullByDefault({}) UpnpIOService upnpIOService;
+    private @Mock @NonNullByDefault({}) SonosStateDescriptionOptionProvider stateDescriptionProvider;
+    private final List<Integer> startingIndexes = new ArrayList<>();
+    private @NonNullByDefault({}) ZonePlayerHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        when(thing.getUID()).thenReturn(new ThingUID("sonos", "PLAY1", "living"));
+        handler = new ZonePlayerHandler(thingRegistry, thing, upnpIOService, null, stateDescriptionProvider);
+    }
+
+    /**
+     * Answers Browse requests with pages of the given entries, an empty page is returned from the given index on.
+     */
+    private void expectBrowse(List<String> titles, int emptyFrom) {
+        when(upnpIOService.invokeAction(eq(handler), eq("ContentDirectory"), eq("Browse"), anyMap()))
+                .thenAnswer(invocation -> {
+                    Map<String, String> inputs = invocation.getArgument(3);
+                    int start = Integer.parseInt(inputs.get("StartingIndex"));
+                    startingIndexes.add(start);
+
+                    int end = start >= emptyFrom ? start : Math.min(start + PAGE_SIZE, titles.size());
+                    StringBuilder result = new StringBuilder("<DIDL-Lite "
+                            + "xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+                            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
+                            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\">");
+                    for (int i = start; i < end; i++) {
+                        result.append("<container id=\"SQ:").append(i).append("\" parentID=\"SQ:\">")
+                                .append("<dc:title>").append(titles.get(i)).append("</dc:title>")
+                                .append("<upnp:class>object.container.playlistContainer</upnp:class></container>");
+                    }
+                    result.append("</DIDL-Lite>");
+                    return Map.of("Result", result.toString(), "NumberReturned", Integer.toString(end - start),
+                            "TotalMatches", Integer.toString(titles.size()), "UpdateID", "1");
+                });
+    }
+
+    private static List<String> titles(List<SonosEntry> entries) {
+        return entries.stream().map(SonosEntry::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testAllPagesAreBrowsed() {
+        expectBrowse(PLAYLISTS, PLAYLISTS.size());
+
+        assertEquals(PLAYLISTS, titles(handler.getPlayLists()));
+        assertEquals(List.of(0, 2, 4), startingIndexes);
+    }
+
+    @Test
+    public void testFindEntryByTitleStopsBrowsingWhenFound() {
+        expectBrowse(PLAYLISTS, PLAYLISTS.size());
+
+        SonosEntry entry = handler.findEntryByTitle("SQ:", "Party");
+
+        assertNotNull(entry);
+        assertEquals("SQ:2", entry.getId());
+        assertEquals(List.of(0, 2), startingIndexes);
+    }
+
+    @Test
+    public void testFindEntryByTitleBrowsesAllPagesWhenNotFound() {
+        expectBrowse(PLAYLISTS, PLAYLISTS.size());
+
+        assertNull(handler.findEntryByTitle("SQ:", "Breakfast"));
+        assertEquals(List.of(0, 2, 4), startingIndexes);
+    }
+
+    @Test
+    public void testEmptyPageEndsBrowsing() {
+        // the Zone Player reports more matches than it returns
+        expectBrowse(PLAYLISTS, 2);
+
+        assertEquals(PLAYLISTS.subList(0, 2), titles(handler.getPlayLists()));
+        assertEquals(List.of(0, 2), startingIndexes);
+    }
+}
@@ -307,6 +307,41 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_PROCESS_PATH = "process#path";
 
+    /**
+     * Heap memory used by the JVM running openHAB
+     */
+    public static final String CHANNEL_JVM_HEAP_USED = "jvm#heapUsed";
+
+    /**
+     * Maximum heap memory of the JVM running openHAB
+     */
+    public static final String CHANNEL_JVM_HEAP_MAX = "jvm#heapMax";
+
+    /**
+     * Percents of the maximum heap memory used by the JVM running openHAB
+     */
+    public static final String CHANNEL_JVM_HEAP_USED_PERCENT = "jvm#heapUsedPercent";
+
+    /**
+     * Number of garbage collections of the JVM running openHAB
+     */
+    public static final String CHANNEL_JVM_GC_COUNT = "jvm#gcCount";
+
+    /**
+     * Accumulated garbage collection time of the JVM running openHAB
+     */
+    public static final String CHANNEL_JVM_GC_TIME = "jvm#gcTime";
+
+    /**
+     * Number of live threads of the JVM running openHAB
+     */
+    public static final String CHANNEL_JVM_THREADS = "jvm#threads";
+
+    /**
+     * Number of due tasks waiting for a thread of the thing handler thread pool
+     */
+    public static final String CHANNEL_JVM_THREAD_POOL_QUEUE = "jvm#threadPoolQueue";
+
     // Thing configuraion
     /**
      * Name of the configuration parameter of the thing that defines refresh time for High priority channels
@@ -20,7 +20,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -28,6 +30,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.systeminfo.internal.model.DeviceNotFoundException;
 import org.openhab.binding.systeminfo.internal.model.SysteminfoInterface;
 import org.openhab.core.config.core.Configuration;
+import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.thing.Channel;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
@@ -236,17 +239,33 @@ public class SysteminfoHandler extends BaseThingHandler {
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, TimeUnit.SECONDS);
     }
 
+    /**
+     * Updates the channels from a single snapshot of the system information, so the expensive queries like the
+     * process list are done only once per refresh cycle and all channels show the same state of the system.
+     *
+     * @param channels the channels to update
+     */
     private void publishData(Set<ChannelUID> channels) {
-        Iterator<ChannelUID> iter = channels.iterator();
-        while (iter.hasNext()) {
-            ChannelUID channeUID = iter.next();
-            if (isLinked(channeUID.getId())) {
-                publishDataForChannel(channeUID);
+        synchronized (systeminfo) {
+            systeminfo.takeSnapshot();
+            Iterator<ChannelUID> iter = channels.iterator();
+            while (iter.hasNext()) {
+                ChannelUID channeUID = iter.next();
+                if (isLinked(channeUID.getId())) {
+                    updateChannelState(channeUID);
+                }
             }
         }
     }
 
     private void publishDataForChannel(ChannelUID channelUID) {
+        synchronized (systeminfo) {
+            systeminfo.takeSnapshot();
+            updateChannelState(channelUID);
+        }
+    }
+
+    private void updateChannelState(ChannelUID channelUID) {
         State state = getInfoForChannel(channelUID);
         String channelID = channelUID.getId();
         updateState(channelID, state);
@@ -434,6 +453,27 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_PROCESS_THREADS:
                     state = systeminfo.getProcessThreads(deviceIndex);
                     break;
+                case CHANNEL_JVM_HEAP_USED:
+                    state = systeminfo.getJvmHeapUsed();
+                    break;
+                case CHANNEL_JVM_HEAP_MAX:
+                    state = systeminfo.getJvmHeapMax();
+                    break;
+                case CHANNEL_JVM_HEAP_USED_PERCENT:
+                    state = systeminfo.getJvmHeapUsedPercent();
+                    break;
+                case CHANNEL_JVM_GC_COUNT:
+                    state = systeminfo.getJvmGcCount();
+                    break;
+                case CHANNEL_JVM_GC_TIME:
+                    state = systeminfo.getJvmGcTime();
+                    break;
+                case CHANNEL_JVM_THREADS:
+                    state = systeminfo.getJvmThreads();
+                    break;
+                case CHANNEL_JVM_THREAD_POOL_QUEUE:
+                    state = getThreadPoolQueue();
+                    break;
                 default:
                     logger.debug("Channel with unknown ID: {} !", channelID);
             }
@@ -447,6 +487,25 @@ public class SysteminfoHandler extends BaseThingHandler {
         return state != null ? state : UnDefType.UNDEF;
     }
 
+    /**
+     * Counts the tasks of the thing handler thread pool, that are due but still wait for a free thread. Periodic tasks
+     * stay in the queue of a scheduled thread pool between their executions, so only the due ones are counted.
+     *
+     * @return number of waiting tasks or null, if the thread pool does not provide its queue
+     */
+    private @Nullable DecimalType getThreadPoolQueue() {
+        if (!(scheduler instanceof ThreadPoolExecutor)) {
+            return null;
+        }
+        int waitingTasks = 0;
+        for (Runnable task : ((ThreadPoolExecutor) scheduler).getQueue()) {
+            if (!(task instanceof Delayed) || ((Delayed) task).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+                waitingTasks++;
+            }
+        }
+        return new DecimalType(waitingTasks);
+    }
+
     /**
      * The device index is an optional part of the channelID - the last characters of the groupID. It is used to
      * identify unique device, when more than one devices are available (e.g. local disks with names C:\, D:\, E"\ - the
@@ -12,7 +12,15 @@
  */
 package org.openhab.binding.systeminfo.internal.model;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -73,6 +81,12 @@ public class OSHISysteminfo implements SysteminfoInterface {
     private @NonNullByDefault({}) PowerSource[] powerSources;
     private @NonNullByDefault({}) HWDiskStore[] drives;
 
+    // Snapshot of the dynamic information, sampled at first use after each call of takeSnapshot()
+    private final Map<Integer, @Nullable OSProcess> processes = new HashMap<>();
+    private final Set<Object> updatedDevices = Collections.newSetFromMap(new IdentityHashMap<>());
+    private double @Nullable [] systemLoadAverage;
+    private @Nullable MemoryUsage heapUsage;
+
     public static final int PRECISION_AFTER_DECIMAL_SIGN = 1;
 
     /**
@@ -104,6 +118,14 @@ public class OSHISysteminfo implements SysteminfoInterface {
         drives = hal.getDiskStores();
     }
 
+    @Override
+    public void takeSnapshot() {
+        processes.clear();
+        updatedDevices.clear();
+        systemLoadAverage = null;
+        heapUsage = null;
+    }
+
     private Object getDevice(Object @Nullable [] devices, int index) throws DeviceNotFoundException {
         if ((devices == null) || (devices.length <= index)) {
             throw new DeviceNotFoundException("Device with index: " + index + " can not be found!");
@@ -112,7 +134,13 @@ public class OSHISysteminfo implements SysteminfoInterface {
     }
 
     private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+        OSProcess process;
+        if (processes.containsKey(pid)) {
+            process = processes.get(pid);
+        } else {
+            process = operatingSystem.getProcess(pid);
+            processes.put(pid, process);
+        }
         if (process == null) {
             throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
         }
@@ -196,7 +224,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
+        if (updatedDevices.add(fileStore)) {
+            fileStore.updateAtrributes();
+        }
         long totalSpace = fileStore.getTotalSpace();
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
@@ -205,7 +235,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
+        if (updatedDevices.add(fileStore)) {
+            fileStore.updateAtrributes();
+        }
         long freeSpace = fileStore.getUsableSpace();
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
@@ -214,7 +246,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
+        if (updatedDevices.add(fileStore)) {
+            fileStore.updateAtrributes();
+        }
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -225,7 +259,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        fileStore.updateAtrributes();
+        if (updatedDevices.add(fileStore)) {
+            fileStore.updateAtrributes();
+        }
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         if (totalSpace > 0) {
@@ -240,7 +276,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        fileStore.updateAtrributes();
+        if (updatedDevices.add(fileStore)) {
+            fileStore.updateAtrributes();
+        }
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -277,7 +315,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
         NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
-        netInterface.updateAttributes();
+        if (updatedDevices.add(netInterface)) {
+            netInterface.updateAttributes();
+        }
         String[] ipAddresses = netInterface.getIPv4addr();
         String ipv4 = (String) getDevice(ipAddresses, 0);
         return new StringType(ipv4);
@@ -337,7 +377,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getBatteryRemainingTime(int index) throws DeviceNotFoundException {
         PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
-        powerSource.updateAttributes();
+        if (updatedDevices.add(powerSource)) {
+            powerSource.updateAttributes();
+        }
         double remainingTimeInSeconds = powerSource.getTimeRemainingEstimated();
         // The getTimeRemaining() method returns (-1.0) if is calculating or (-2.0) if the time is unlimited.
         BigDecimal remainingTime = getTimeInMinutes(remainingTimeInSeconds);
@@ -347,7 +389,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getBatteryRemainingCapacity(int index) throws DeviceNotFoundException {
         PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
-        powerSource.updateAttributes();
+        if (updatedDevices.add(powerSource)) {
+            powerSource.updateAttributes();
+        }
         double remainingCapacity = powerSource.getRemainingCapacityPercent();
         BigDecimal remainingCapacityPercents = getPercentsValue(remainingCapacity);
         return new DecimalType(remainingCapacityPercents);
@@ -523,7 +567,11 @@ public class OSHISysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
+        double[] processorLoads = systemLoadAverage;
+        if (processorLoads == null) {
+            processorLoads = cpu.getSystemLoadAverage(3);
+            systemLoadAverage = processorLoads;
+        }
         BigDecimal result = new BigDecimal(processorLoads[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
@@ -551,7 +599,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        if (updatedDevices.add(network)) {
+            network.updateAttributes();
+        }
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
@@ -559,7 +609,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        if (updatedDevices.add(network)) {
+            network.updateAttributes();
+        }
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
@@ -567,7 +619,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        if (updatedDevices.add(network)) {
+            network.updateAttributes();
+        }
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
@@ -575,7 +629,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        if (updatedDevices.add(network)) {
+            network.updateAttributes();
+        }
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
@@ -636,4 +692,65 @@ public class OSHISysteminfo implements SysteminfoInterface {
             return null;
         }
     }
+
+    private MemoryUsage getHeapUsage() {
+        MemoryUsage usage = heapUsage;
+        if (usage == null) {
+            usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            heapUsage = usage;
+        }
+        return usage;
+    }
+
+    @Override
+    public DecimalType getJvmHeapUsed() {
+        long usedHeap = getHeapUsage().getUsed();
+        return new DecimalType(getSizeInMB(usedHeap));
+    }
+
+    @Override
+    public @Nullable DecimalType getJvmHeapMax() {
+        long maxHeap = getHeapUsage().getMax();
+        // The maximum is undefined (-1) if no limit is set for the heap
+        return maxHeap > 0 ? new DecimalType(getSizeInMB(maxHeap)) : null;
+    }
+
+    @Override
+    public @Nullable DecimalType getJvmHeapUsedPercent() {
+        MemoryUsage usage = getHeapUsage();
+        long maxHeap = usage.getMax();
+        if (maxHeap > 0) {
+            double usedPercentDecimal = (double) usage.getUsed() / (double) maxHeap;
+            BigDecimal usedPercent = getPercentsValue(usedPercentDecimal);
+            return new DecimalType(usedPercent);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public DecimalType getJvmGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // The count is undefined (-1) if the collector does not provide it
+            count += Math.max(0, garbageCollector.getCollectionCount());
+        }
+        return new DecimalType(count);
+    }
+
+    @Override
+    public DecimalType getJvmGcTime() {
+        long timeInMillis = 0;
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // The time is undefined (-1) if the collector does not provide it
+            timeInMillis += Math.max(0, garbageCollector.getCollectionTime());
+        }
+        return new DecimalType(timeInMillis);
+    }
+
+    @Override
+    public DecimalType getJvmThreads() {
+        int threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+        return new DecimalType(threadCount);
+    }
 }
@@ -31,6 +31,13 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Takes a new snapshot of the dynamic system information. Information that is expensive to retrieve, like the
+     * process list or the attributes of a device, is sampled only once per snapshot, so all channels that are updated
+     * after a single call show the same state of the system.
+     */
+    public void takeSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -437,4 +444,43 @@ public interface SysteminfoInterface {
      * @throws DeviceNotFoundException - thrown if process with this PID can not be found
      */
     public @Nullable DecimalType getProcessThreads(int pid) throws DeviceNotFoundException;
+
+    // JVM info
+    /**
+     * Returns the size of the heap memory used by the JVM running openHAB.
+     *
+     * @return heap size in MB
+     */
+    public DecimalType getJvmHeapUsed();
+
+    /**
+     * Returns the maximum size of the heap memory of the JVM running openHAB.
+     *
+     * @return heap size in MB or null, if the heap size is not limited
+     */
+    public @Nullable DecimalType getJvmHeapMax();
+
+    /**
+     * Returns the heap memory used by the JVM running openHAB.
+     *
+     * @return percentage value /0-100/ of the maximum heap size or null, if the heap size is not limited
+     */
+    public @Nullable DecimalType getJvmHeapUsedPercent();
+
+    /**
+     * Returns the number of garbage collections since the JVM running openHAB has been started.
+     */
+    public DecimalType getJvmGcCount();
+
+    /**
+     * Returns the accumulated time the garbage collections took since the JVM running openHAB has been started.
+     *
+     * @return time in milliseconds
+     */
+    public DecimalType getJvmGcTime();
+
+    /**
+     * Returns the number of live threads in the JVM running openHAB.
+     */
+    public DecimalType getJvmThreads();
 }
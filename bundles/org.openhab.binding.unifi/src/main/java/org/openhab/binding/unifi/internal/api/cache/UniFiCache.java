@@ -15,6 +15,7 @@ package org.openhab.binding.unifi.internal.api.cache;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -88,6 +89,50 @@ public abstract class UniFiCache<T> {
         map.putAll(cache.map);
     }
 
+    /**
+     * Replaces the contents of this cache with the values of the given cache. A value that is unchanged compared to
+     * the value cached under the same key is not replaced, so the cached instance is kept and unchanged values can be
+     * recognized by their identity. Values missing in the given cache are removed.
+     *
+     * @param cache the cache with the current values
+     * @param unchanged tells if the cached value (first argument) is unchanged compared to the current value
+     * @return the number of new or changed values
+     */
+    public final int merge(UniFiCache<T> cache, BiPredicate<T, T> unchanged) {
+        Map<String, T> merged = new HashMap<>();
+        int changed = 0;
+        for (T value : cache.values()) {
+            T cached = getCached(value);
+            T mergedValue = value;
+            if (cached != null && unchanged.test(cached, value)) {
+                mergedValue = cached;
+            } else {
+                changed++;
+            }
+            for (String prefix : prefixes) {
+                String suffix = getSuffix(value, prefix);
+                if (StringUtils.isNotBlank(suffix)) {
+                    merged.put(prefix + SEPARATOR + suffix, mergedValue);
+                }
+            }
+        }
+        map = merged;
+        return changed;
+    }
+
+    private T getCached(T value) {
+        for (String prefix : prefixes) {
+            String suffix = getSuffix(value, prefix);
+            if (StringUtils.isNotBlank(suffix)) {
+                T cached = map.get(prefix + SEPARATOR + suffix);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        return null;
+    }
+
     public final Collection<T> values() {
         return map.values().stream().distinct().collect(Collectors.toList());
     }
@@ -13,6 +13,9 @@
 package org.openhab.binding.unifi.internal.api.model;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -47,16 +50,18 @@ public class UniFiController {
 
     private final Logger logger = LoggerFactory.getLogger(UniFiController.class);
 
-    private UniFiSiteCache sitesCache = new UniFiSiteCache();
+    private final UniFiSiteCache sitesCache = new UniFiSiteCache();
 
-    private UniFiDeviceCache devicesCache = new UniFiDeviceCache();
+    private final UniFiDeviceCache devicesCache = new UniFiDeviceCache();
 
-    private UniFiClientCache clientsCache = new UniFiClientCache();
+    private final UniFiClientCache clientsCache = new UniFiClientCache();
 
-    private UniFiClientCache insightsCache = new UniFiClientCache();
+    private final UniFiClientCache insightsCache = new UniFiClientCache();
 
     private final HttpClient httpClient;
 
+    private final Executor executor;
+
     private final String host;
 
     private final int port;
@@ -67,8 +72,10 @@ public class UniFiController {
 
     private final Gson gson;
 
-    public UniFiController(HttpClient httpClient, String host, int port, String username, String password) {
+    public UniFiController(HttpClient httpClient, String host, int port, String username, String password,
+            Executor executor) {
         this.httpClient = httpClient;
+        this.executor = executor;
         this.host = host;
         this.port = port;
         this.username = username;
@@ -113,11 +120,23 @@ public class UniFiController {
     }
 
     public void refresh() throws UniFiException {
+        // devices, clients and insights only depend on the sites, so they are fetched concurrently
+        UniFiSiteCache sites = getSites();
+        Collection<UniFiSite> siteValues = sites.values();
+        CompletableFuture<UniFiDeviceCache> devices = supplyAsync(() -> getDevices(siteValues));
+        CompletableFuture<UniFiClientCache> clients = supplyAsync(() -> getClients(siteValues));
+        CompletableFuture<UniFiClientCache> insights = supplyAsync(() -> getInsights(siteValues));
+        UniFiDeviceCache newDevicesCache = join(devices);
+        UniFiClientCache newClientsCache = join(clients);
+        UniFiClientCache newInsightsCache = join(insights);
         synchronized (this) {
-            sitesCache = getSites();
-            devicesCache = getDevices();
-            clientsCache = getClients();
-            insightsCache = getInsights();
+            // unchanged entities keep their instances, so handlers can skip them
+            int changedSites = sitesCache.merge(sites, this::isUnchanged);
+            int changedDevices = devicesCache.merge(newDevicesCache, this::isUnchanged);
+            int changedClients = clientsCache.merge(newClientsCache, this::isUnchanged);
+            int changedInsights = insightsCache.merge(newInsightsCache, this::isUnchanged);
+            logger.debug("Changed UniFi Site(s): {}, Device(s): {}, Client(s): {}, Insight(s): {}", changedSites,
+                    changedDevices, changedClients, changedInsights);
         }
     }
 
@@ -188,10 +207,40 @@ public class UniFiController {
 
     // Internal API
 
-    private <T> UniFiControllerRequest<T> newRequest(Class<T> responseType) {
+    protected final Gson getGson() {
+        return gson;
+    }
+
+    protected <T> UniFiControllerRequest<T> newRequest(Class<T> responseType) {
         return new UniFiControllerRequest<>(responseType, gson, httpClient, host, port);
     }
 
+    private <T> CompletableFuture<T> supplyAsync(UniFiSupplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return supplier.get();
+            } catch (UniFiException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws UniFiException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UniFiException) {
+                throw (UniFiException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUnchanged(Object cached, Object value) {
+        return cached.getClass().equals(value.getClass()) && gson.toJson(cached).equals(gson.toJson(value));
+    }
+
     private <T> @Nullable T executeRequest(UniFiControllerRequest<T> request) throws UniFiException {
         T result;
         try {
@@ -220,9 +269,8 @@ public class UniFiController {
         return cache;
     }
 
-    private UniFiDeviceCache getDevices() throws UniFiException {
+    private UniFiDeviceCache getDevices(Collection<UniFiSite> sites) throws UniFiException {
         UniFiDeviceCache cache = new UniFiDeviceCache();
-        Collection<UniFiSite> sites = sitesCache.values();
         for (UniFiSite site : sites) {
             cache.putAll(getDevices(site));
         }
@@ -243,9 +291,8 @@ public class UniFiController {
         return cache;
     }
 
-    private UniFiClientCache getClients() throws UniFiException {
+    private UniFiClientCache getClients(Collection<UniFiSite> sites) throws UniFiException {
         UniFiClientCache cache = new UniFiClientCache();
-        Collection<UniFiSite> sites = sitesCache.values();
         for (UniFiSite site : sites) {
             cache.putAll(getClients(site));
         }
@@ -266,9 +313,8 @@ public class UniFiController {
         return cache;
     }
 
-    private UniFiClientCache getInsights() throws UniFiException {
+    private UniFiClientCache getInsights(Collection<UniFiSite> sites) throws UniFiException {
         UniFiClientCache cache = new UniFiClientCache();
-        Collection<UniFiSite> sites = sitesCache.values();
         for (UniFiSite site : sites) {
             cache.putAll(getInsights(site));
         }
@@ -303,4 +349,9 @@ public class UniFiController {
             }
         };
     }
+
+    @FunctionalInterface
+    private interface UniFiSupplier<T> {
+        T get() throws UniFiException;
+    }
 }
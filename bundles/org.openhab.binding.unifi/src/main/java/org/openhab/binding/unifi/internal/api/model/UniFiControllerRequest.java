@@ -103,6 +103,10 @@ public class UniFiControllerRequest<T> {
         this.path = path;
     }
 
+    public String getPath() {
+        return path;
+    }
+
     public void setBodyParameter(String key, Object value) {
         this.bodyParameters.put(key, String.valueOf(value));
     }
@@ -124,9 +128,9 @@ public class UniFiControllerRequest<T> {
         return result;
     }
 
-    // Private API
+    // Protected API
 
-    private String getContent() throws UniFiException {
+    protected String getContent() throws UniFiException {
         String content;
         ContentResponse response = getContentResponse();
         int status = response.getStatus();
@@ -149,6 +153,8 @@ public class UniFiControllerRequest<T> {
         return content;
     }
 
+    // Private API
+
     private ContentResponse getContentResponse() throws UniFiException {
         Request request = newRequest();
         logger.trace(">> {} {}", request.getMethod(), request.getURI());
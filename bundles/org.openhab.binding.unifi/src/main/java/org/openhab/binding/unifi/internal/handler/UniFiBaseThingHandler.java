@@ -43,6 +43,8 @@ public abstract class UniFiBaseThingHandler<E, C> extends BaseThingHandler {
 
     private final Logger logger = LoggerFactory.getLogger(UniFiBaseThingHandler.class);
 
+    private @Nullable E refreshedEntity;
+
     public UniFiBaseThingHandler(Thing thing) {
         super(thing);
     }
@@ -64,6 +66,7 @@ public abstract class UniFiBaseThingHandler<E, C> extends BaseThingHandler {
         Class<?> clazz = (Class<?>) (((ParameterizedType) getClass().getGenericSuperclass())
                 .getActualTypeArguments()[1]);
         C config = (C) getConfigAs(clazz);
+        refreshedEntity = null;
         initialize(config);
     }
 
@@ -112,7 +115,9 @@ public abstract class UniFiBaseThingHandler<E, C> extends BaseThingHandler {
             UniFiController controller = getController();
             if (controller != null) {
                 E entity = getEntity(controller);
-                if (entity != null) {
+                // the controller keeps the instances of unchanged entities, so they don't need to be refreshed
+                if (entity != null && (entity != refreshedEntity || isRefreshRequired(entity))) {
+                    refreshedEntity = entity;
                     for (Channel channel : getThing().getChannels()) {
                         ChannelUID channelUID = channel.getUID();
                         refreshChannel(entity, channelUID);
@@ -122,6 +127,17 @@ public abstract class UniFiBaseThingHandler<E, C> extends BaseThingHandler {
         }
     }
 
+    /**
+     * Tells if the channels need to be refreshed, although the entity has not changed since the last refresh,
+     * e.g. because their states depend on the current time or on other entities.
+     *
+     * @param entity the unchanged entity
+     * @return true if the channels need to be refreshed
+     */
+    protected boolean isRefreshRequired(E entity) {
+        return false;
+    }
+
     protected abstract void initialize(@NonNull C config);
 
     protected abstract @Nullable E getEntity(UniFiController controller);
@@ -63,6 +63,12 @@ public class UniFiClientThingHandler extends UniFiBaseThingHandler<UniFiClient,
 
     private UniFiClientThingConfig config = new UniFiClientThingConfig();
 
+    private @Nullable Boolean refreshedClientHome;
+
+    private @Nullable UniFiDevice refreshedDevice;
+
+    private @Nullable UniFiSite refreshedSite;
+
     public UniFiClientThingHandler(Thing thing) {
         super(thing);
     }
@@ -149,11 +155,23 @@ public class UniFiClientThingHandler extends UniFiBaseThingHandler<UniFiClient,
         return online;
     }
 
+    @Override
+    protected boolean isRefreshRequired(UniFiClient client) {
+        // the client goes away after the 'consider home' time and shows the state of its device and site
+        UniFiDevice device = client.getDevice();
+        UniFiSite site = (device == null ? null : device.getSite());
+        return !Boolean.valueOf(isClientHome(client)).equals(refreshedClientHome) || device != refreshedDevice
+                || site != refreshedSite;
+    }
+
     @Override
     protected void refreshChannel(UniFiClient client, ChannelUID channelUID) {
         boolean clientHome = isClientHome(client);
         UniFiDevice device = client.getDevice();
         UniFiSite site = (device == null ? null : device.getSite());
+        refreshedClientHome = clientHome;
+        refreshedDevice = device;
+        refreshedSite = site;
         String channelID = channelUID.getIdWithoutGroup();
         State state = getDefaultState(channelID, clientHome);
         switch (channelID) {
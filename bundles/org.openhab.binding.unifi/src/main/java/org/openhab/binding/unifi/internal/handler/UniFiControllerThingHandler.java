@@ -16,6 +16,7 @@ import static org.openhab.core.thing.ThingStatus.OFFLINE;
 import static org.openhab.core.thing.ThingStatus.ONLINE;
 import static org.openhab.core.thing.ThingStatusDetail.*;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -30,6 +31,7 @@ import org.openhab.binding.unifi.internal.api.UniFiInvalidCredentialsException;
 import org.openhab.binding.unifi.internal.api.UniFiInvalidHostException;
 import org.openhab.binding.unifi.internal.api.UniFiSSLException;
 import org.openhab.binding.unifi.internal.api.model.UniFiController;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.ThingStatus;
@@ -55,6 +57,8 @@ public class UniFiControllerThingHandler extends BaseBridgeHandler {
         return UniFiBindingConstants.THING_TYPE_CONTROLLER.equals(thingTypeUID);
     }
 
+    private static final String REFRESH_POOL_NAME = "binding.unifi";
+
     private static final String STATUS_DESCRIPTION_COMMUNICATION_ERROR = "Error communicating with the UniFi controller";
 
     private static final String STATUS_DESCRIPTION_SSL_ERROR = "Error establishing an SSL connection with the UniFi controller";
@@ -73,6 +77,8 @@ public class UniFiControllerThingHandler extends BaseBridgeHandler {
 
     private final HttpClient httpClient;
 
+    private final ExecutorService refreshExecutor = ThreadPoolManager.getPool(REFRESH_POOL_NAME);
+
     public UniFiControllerThingHandler(Bridge bridge, HttpClient httpClient) {
         super(bridge);
         this.httpClient = httpClient;
@@ -88,7 +94,7 @@ public class UniFiControllerThingHandler extends BaseBridgeHandler {
         logger.debug("Initializing the UniFi Controller Handler with config = {}", config);
         try {
             controller = new UniFiController(httpClient, config.getHost(), config.getPort(), config.getUsername(),
-                    config.getPassword());
+                    config.getPassword(), refreshExecutor);
             controller.start();
             updateStatus(ONLINE);
         } catch (UniFiInvalidHostException e) {
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.unifi.internal.api.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.openhab.binding.unifi.internal.api.UniFiCommunicationException;
+import org.openhab.binding.unifi.internal.api.UniFiException;
+
+/**
+ * The {@link RecordedUniFiController} is a {@link UniFiController} that answers its requests with recorded responses
+ * of a controller instead of communicating with one. Every response is delayed by a fixed latency to simulate the
+ * round trip to the controller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RecordedUniFiController extends UniFiController {
+
+    public static final String PATH_SITES = "/api/self/sites";
+
+    public static final String PATH_DEVICES = "/api/s/default/stat/device";
+
+    public static final String PATH_CLIENTS = "/api/s/default/stat/sta";
+
+    public static final String PATH_INSIGHTS = "/api/s/default/stat/alluser";
+
+    private static final String EMPTY_RESPONSE = "{\"meta\":{\"rc\":\"ok\"},\"data\":[]}";
+
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final long latency;
+
+    public RecordedUniFiController(long latency, Executor executor) throws IOException {
+        super(new HttpClient(), "unifi.local", 8443, "admin", "secret", executor);
+        this.latency = latency;
+        setResponse(PATH_SITES, "sites.json");
+        setResponse(PATH_DEVICES, "devices.json");
+        setResponse(PATH_CLIENTS, "clients.json");
+        setResponse(PATH_INSIGHTS, "insights.json");
+    }
+
+    /**
+     * Sets the response to the requests of the path.
+     *
+     * @param path the path of the request
+     * @param resource the file containing the recorded response
+     */
+    public void setResponse(String path, String resource) throws IOException {
+        try (InputStream in = RecordedUniFiController.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Recorded response not found: " + resource);
+            }
+            responses.put(path, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    protected <T> UniFiControllerRequest<T> newRequest(Class<T> responseType) {
+        return new UniFiControllerRequest<>(responseType, getGson(), new HttpClient(), "unifi.local", 8443) {
+            @Override
+            protected String getContent() throws UniFiException {
+                requests.incrementAndGet();
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    throw new UniFiCommunicationException(e);
+                }
+                return responses.getOrDefault(getPath(), EMPTY_RESPONSE);
+            }
+        };
+    }
+}
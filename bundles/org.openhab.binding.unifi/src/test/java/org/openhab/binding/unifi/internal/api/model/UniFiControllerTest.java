@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.unifi.internal.api.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the refresh of the {@link UniFiController} against recorded responses of a controller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class UniFiControllerTest {
+
+    private static final long LATENCY_MILLIS = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(UniFiControllerTest.class);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        RecordedUniFiController controller = new RecordedUniFiController(0, executor);
+        controller.refresh();
+
+        UniFiSite site = controller.getSite("Home");
+        assertNotNull(site);
+        assertEquals("default", site.getName());
+
+        UniFiDevice device = controller.getDevice("80:2a:a8:00:00:01");
+        assertNotNull(device);
+        assertEquals("Living Room AP", device.getName());
+        assertSame(site, device.getSite());
+
+        UniFiClient phone = controller.getClient("my phone");
+        assertNotNull(phone);
+        assertTrue(phone instanceof UniFiWirelessClient);
+        assertEquals("aa:bb:cc:00:00:01", phone.getMac());
+        assertSame(device, phone.getDevice());
+        assertSame(phone, controller.getClient("192.168.1.10"));
+
+        UniFiClient nas = controller.getClient("nas");
+        assertNotNull(nas);
+        assertTrue(nas.isWired());
+
+        // only known from the insights
+        assertNotNull(controller.getClient("tablet"));
+        assertNull(controller.getClient("unknown"));
+    }
+
+    @Test
+    public void testUnchangedEntitiesAreKept() throws Exception {
+        RecordedUniFiController controller = new RecordedUniFiController(0, executor);
+        controller.refresh();
+        UniFiDevice device = controller.getDevice("80:2a:a8:00:00:01");
+        UniFiClient phone = controller.getClient("aa:bb:cc:00:00:01");
+        UniFiClient laptop = controller.getClient("aa:bb:cc:00:00:02");
+        assertNotNull(laptop);
+
+        controller.setResponse(RecordedUniFiController.PATH_CLIENTS, "clients_changed.json");
+        controller.refresh();
+
+        assertSame(device, controller.getDevice("80:2a:a8:00:00:01"));
+        assertSame(phone, controller.getClient("aa:bb:cc:00:00:01"));
+        UniFiClient changedLaptop = controller.getClient("aa:bb:cc:00:00:02");
+        assertNotNull(changedLaptop);
+        assertNotSame(laptop, changedLaptop);
+        assertEquals(28, ((UniFiWirelessClient) changedLaptop).getRssi());
+        assertSame(changedLaptop, controller.getClient("laptop"));
+        assertNull(controller.getClient("nas"));
+    }
+
+    @Test
+    public void testRefreshLatency() throws Exception {
+        RecordedUniFiController controller = new RecordedUniFiController(LATENCY_MILLIS, executor);
+
+        long start = System.nanoTime();
+        controller.refresh();
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        logger.debug("Refreshed {} recorded responses with a latency of {} ms each in {} ms", controller.getRequests(),
+                LATENCY_MILLIS, duration);
+        assertEquals(4, controller.getRequests());
+        // the sites are fetched first, then devices, clients and insights at the same time
+        assertTrue(duration < 3 * LATENCY_MILLIS, "Refresh took " + duration + " ms");
+    }
+}
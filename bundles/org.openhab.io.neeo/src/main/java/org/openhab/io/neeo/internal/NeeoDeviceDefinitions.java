@@ -27,8 +27,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.registry.RegistryChangeListener;
+import org.openhab.core.items.Item;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingRegistry;
+import org.openhab.core.thing.link.ItemChannelLink;
 import org.openhab.io.neeo.internal.models.NeeoDevice;
 import org.openhab.io.neeo.internal.models.NeeoDeviceChannel;
 import org.openhab.io.neeo.internal.models.NeeoDeviceType;
@@ -72,6 +75,21 @@ public class NeeoDeviceDefinitions {
     /** The file we store definitions in */
     private final File file = new File(NeeoConstants.FILENAME_DEVICEDEFINITIONS);
 
+    /** The search index over the exposed devices (null if it needs to be rebuilt) */
+    private @Nullable TokenSearchIndex searchIndex;
+
+    /** The listener that will invalidate the {@link #searchIndex} on any thing registry change */
+    private final RegistryChangeListener<Thing> thingListener = new SearchIndexInvalidator<>();
+
+    /** The listener that will invalidate the {@link #searchIndex} on any item registry change */
+    private final RegistryChangeListener<Item> itemListener = new SearchIndexInvalidator<>();
+
+    /**
+     * The listener that will invalidate the {@link #searchIndex} on any item channel link registry change (the exposed
+     * devices depend on the items linked to their channels)
+     */
+    private final RegistryChangeListener<ItemChannelLink> linkListener = new SearchIndexInvalidator<>();
+
     /**
      * Create the object based on the {@link ServiceContext} and will read the definitions from the {@link #file}
      *
@@ -106,6 +124,20 @@ public class NeeoDeviceDefinitions {
                 logger.debug("IOException reading {}: {}", file.toPath(), e.getMessage(), e);
             }
         }
+
+        context.getThingRegistry().addRegistryChangeListener(thingListener);
+        context.getItemRegistry().addRegistryChangeListener(itemListener);
+        context.getItemChannelLinkRegistry().addRegistryChangeListener(linkListener);
+    }
+
+    /**
+     * Stops listening to thing, item and link registry changes
+     */
+    public void close() {
+        context.getThingRegistry().removeRegistryChangeListener(thingListener);
+        context.getItemRegistry().removeRegistryChangeListener(itemListener);
+        context.getItemChannelLinkRegistry().removeRegistryChangeListener(linkListener);
+        invalidateSearchIndex();
     }
 
     /**
@@ -148,6 +180,7 @@ public class NeeoDeviceDefinitions {
         Objects.requireNonNull(device, "device cannot be null");
 
         uidToDevice.put(device.getUid(), device);
+        invalidateSearchIndex();
         save();
     }
 
@@ -162,6 +195,7 @@ public class NeeoDeviceDefinitions {
 
         final boolean found = uidToDevice.remove(uid) != null;
         if (found) {
+            invalidateSearchIndex();
             save();
         }
         return found;
@@ -184,6 +218,28 @@ public class NeeoDeviceDefinitions {
         return devices;
     }
 
+    /**
+     * Returns the {@link TokenSearchIndex} over the {@link #getExposed()} devices. The index is built lazily and
+     * reused until a definition, thing, item or link changes.
+     *
+     * @return a non-null {@link TokenSearchIndex}
+     */
+    public synchronized TokenSearchIndex getSearchIndex() {
+        TokenSearchIndex index = searchIndex;
+        if (index == null) {
+            index = TokenSearchIndex.build(context, getExposed());
+            searchIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Invalidates the search index (forcing a rebuild on the next search)
+     */
+    private synchronized void invalidateSearchIndex() {
+        searchIndex = null;
+    }
+
     /**
      *
      * Checks to see if the specified itemName is bound given the {@link NeeoDeviceKeys}. This method will find any
@@ -323,4 +379,26 @@ public class NeeoDeviceDefinitions {
     public @Nullable List<NeeoDeviceChannel> getNeeoDeviceChannel(String itemName) {
         return converter.getNeeoDeviceChannel(itemName);
     }
+
+    /**
+     * Registry listener that invalidates the {@link #searchIndex} on any change of the registry
+     *
+     * @param <E> the type of the registry elements
+     */
+    private class SearchIndexInvalidator<E> implements RegistryChangeListener<E> {
+        @Override
+        public void added(E element) {
+            invalidateSearchIndex();
+        }
+
+        @Override
+        public void removed(E element) {
+            invalidateSearchIndex();
+        }
+
+        @Override
+        public void updated(E oldElement, E element) {
+            invalidateSearchIndex();
+        }
+    }
 }
@@ -20,11 +20,7 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
-import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.openhab.core.binding.BindingInfo;
-import org.openhab.core.thing.Thing;
-import org.openhab.core.thing.type.ThingType;
 import org.openhab.io.neeo.internal.models.NeeoDevice;
 import org.openhab.io.neeo.internal.models.TokenScore;
 import org.slf4j.Logger;
@@ -51,7 +47,7 @@ public class TokenSearch {
     private final int searchLimit;
 
     /** The delimiter used to split search terms */
-    private static final char DELIMITER = ' ';
+    private static final char DELIMITER = TokenSearchIndex.DELIMITER;
 
     /**
      * Instantiates a new token search based on the {@link ServiceContext} and threshold
@@ -82,7 +78,9 @@ public class TokenSearch {
     }
 
     /**
-     * Searches the registry for all {@link NeeoDevice} matching the query
+     * Searches the registry for all {@link NeeoDevice} matching the query. The search is done against the
+     * {@link TokenSearchIndex} so that each distinct token is only scored once and only the devices having a matching
+     * token are touched.
      *
      * @param query the non-empty query
      * @return a non-null result
@@ -90,44 +88,46 @@ public class TokenSearch {
     public Result search(String query) {
         NeeoUtil.requireNotEmpty(query, "query cannot be empty");
 
-        final List<TokenScore<NeeoDevice>> results = new ArrayList<>();
-
         final String[] needles = StringUtils.split(query, DELIMITER);
-        int maxScore = -1;
-
-        for (NeeoDevice device : context.getDefinitions().getExposed()) {
-            int score = search(device.getName(), needles);
-            score += search("openhab", needles);
-            // score += searchAlgorithm(thing.getLocation(), needles);
-            score += search(device.getUid().getBindingId(), needles);
-
-            final Thing thing = context.getThingRegistry().get(device.getUid().asThingUID());
-            if (thing != null) {
-                final String location = thing.getLocation();
-                if (location != null && StringUtils.isNotEmpty(location)) {
-                    score += search(location, needles);
-                }
 
-                final Map<@NonNull String, String> properties = thing.getProperties();
-                final String vendor = properties.get(Thing.PROPERTY_VENDOR);
-                if (vendor != null && !vendor.isEmpty()) {
-                    score += search(vendor, needles);
-                }
-
-                final ThingType tt = context.getThingTypeRegistry().getThingType(thing.getThingTypeUID());
-                if (tt != null) {
-                    score += search(tt.getLabel(), needles);
+        final TokenSearchIndex index = context.getDefinitions().getSearchIndex();
+        final List<NeeoDevice> devices = index.getDevices();
+        if (devices.isEmpty()) {
+            return new Result(new ArrayList<>(), -1);
+        }
 
-                    final BindingInfo bi = context.getBindingInfoRegistry().getBindingInfo(tt.getBindingId());
-                    if (bi != null) {
-                        score += search(bi.getName(), needles);
+        // every device scores against "openhab"
+        final int baseScore = search("openhab", needles);
+
+        final int[] scores = new int[devices.size()];
+        final List<Integer> candidates = new ArrayList<>();
+        for (Map.Entry<String, int[]> posting : index.getPostings().entrySet()) {
+            final int tokenScore = searchAlgorithm(posting.getKey(), needles);
+            if (tokenScore > 0) {
+                for (int idx : posting.getValue()) {
+                    if (scores[idx] == 0) {
+                        candidates.add(idx);
                     }
+                    scores[idx] += tokenScore;
                 }
             }
+        }
 
-            maxScore = Math.max(maxScore, score);
+        int maxScore = baseScore;
+        for (int idx : candidates) {
+            maxScore = Math.max(maxScore, baseScore + scores[idx]);
+        }
 
-            results.add(new TokenScore<>(score, device));
+        final List<TokenScore<NeeoDevice>> results = new ArrayList<>();
+        if (1 - baseScore * (1d / maxScore) <= threshold) {
+            // devices without any matching token pass the threshold as well - need to score all of them
+            for (int idx = 0; idx < devices.size(); idx++) {
+                results.add(new TokenScore<>(baseScore + scores[idx], devices.get(idx)));
+            }
+        } else {
+            for (int idx : candidates) {
+                results.add(new TokenScore<>(baseScore + scores[idx], devices.get(idx)));
+            }
         }
 
         return new Result(applyThreshold(results, maxScore, threshold), maxScore);
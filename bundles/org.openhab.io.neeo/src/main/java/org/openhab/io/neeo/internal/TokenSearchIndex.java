@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.neeo.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.binding.BindingInfo;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.type.ThingType;
+import org.openhab.io.neeo.internal.models.NeeoDevice;
+
+/**
+ * An immutable inverted index over the searchable fields of all exposed {@link NeeoDevice}. Each distinct token (as
+ * split by {@link #DELIMITER}) maps to the posting list of devices containing that token (one posting per occurrence)
+ * so that a {@link TokenSearch} only needs to score each distinct token once and then only touches the devices that
+ * contain a matching token.
+ *
+ * The index is built by {@link NeeoDeviceDefinitions} and rebuilt whenever the definitions or the thing, item or
+ * item channel link registries change.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TokenSearchIndex {
+
+    /** The delimiter used to split searchable fields into tokens */
+    static final char DELIMITER = ' ';
+
+    /** The exposed devices (the posting lists refer to the index in this list) */
+    private final List<NeeoDevice> devices;
+
+    /** The postings for each distinct token (a device index will be repeated for each occurrence) */
+    private final Map<String, int[]> postings;
+
+    /**
+     * Creates the index from the exposed devices and postings
+     *
+     * @param devices the non-null list of exposed devices
+     * @param postings the non-null postings
+     */
+    private TokenSearchIndex(List<NeeoDevice> devices, Map<String, int[]> postings) {
+        this.devices = Collections.unmodifiableList(devices);
+        this.postings = Collections.unmodifiableMap(postings);
+    }
+
+    /**
+     * Builds the index from all the exposed devices of the {@link ServiceContext}. This is the only place where the
+     * thing, thing type and binding info registries are consulted.
+     *
+     * @param context the non-null service context
+     * @param exposed the non-null list of exposed devices
+     * @return a non-null index
+     */
+    static TokenSearchIndex build(ServiceContext context, List<NeeoDevice> exposed) {
+        Objects.requireNonNull(context, "context cannot be null");
+        Objects.requireNonNull(exposed, "exposed cannot be null");
+
+        final List<NeeoDevice> devices = new ArrayList<>(exposed);
+        final Map<String, List<Integer>> tokens = new HashMap<>();
+
+        for (int idx = 0; idx < devices.size(); idx++) {
+            final NeeoDevice device = devices.get(idx);
+            addTokens(tokens, idx, device.getName());
+            addTokens(tokens, idx, device.getUid().getBindingId());
+
+            final Thing thing = context.getThingRegistry().get(device.getUid().asThingUID());
+            if (thing != null) {
+                addTokens(tokens, idx, thing.getLocation());
+
+                final Map<@NonNull String, String> properties = thing.getProperties();
+                addTokens(tokens, idx, properties.get(Thing.PROPERTY_VENDOR));
+
+                final ThingType tt = context.getThingTypeRegistry().getThingType(thing.getThingTypeUID());
+                if (tt != null) {
+                    addTokens(tokens, idx, tt.getLabel());
+
+                    final BindingInfo bi = context.getBindingInfoRegistry().getBindingInfo(tt.getBindingId());
+                    if (bi != null) {
+                        addTokens(tokens, idx, bi.getName());
+                    }
+                }
+            }
+        }
+
+        final Map<String, int[]> postings = new HashMap<>(tokens.size());
+        for (Map.Entry<String, List<Integer>> entry : tokens.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        return new TokenSearchIndex(devices, postings);
+    }
+
+    /**
+     * Helper method to split the field into tokens and add a posting for each token
+     *
+     * @param tokens the non-null token map
+     * @param idx the device index
+     * @param field the possibly null, possibly empty field
+     */
+    private static void addTokens(Map<String, List<Integer>> tokens, int idx, @Nullable String field) {
+        if (field == null || StringUtils.isEmpty(field)) {
+            return;
+        }
+
+        for (String token : StringUtils.split(field, DELIMITER)) {
+            tokens.computeIfAbsent(token, k -> new ArrayList<>()).add(idx);
+        }
+    }
+
+    /**
+     * Returns the exposed devices. The device index used in the postings is the index into this list.
+     *
+     * @return a non-null, possibly empty unmodifiable list of devices
+     */
+    public List<NeeoDevice> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Returns the postings by distinct token
+     *
+     * @return a non-null, possibly empty unmodifiable map of token to device indexes
+     */
+    public Map<String, int[]> getPostings() {
+        return postings;
+    }
+}
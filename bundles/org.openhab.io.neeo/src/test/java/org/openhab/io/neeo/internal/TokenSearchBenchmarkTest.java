@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.neeo.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.thing.ThingRegistry;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.io.neeo.internal.models.NeeoDevice;
+import org.openhab.io.neeo.internal.models.NeeoDeviceType;
+import org.openhab.io.neeo.internal.models.NeeoThingUID;
+import org.osgi.service.component.ComponentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the {@link TokenSearch} over {@value #DEVICES} exposed devices, like the NEEO brain searches when a device
+ * is added. The number of searches can be set with the system property {@value #SEARCHES_PROPERTY}, e.g. to profile
+ * the search. By default only a few searches are run to keep the build fast.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TokenSearchBenchmarkTest {
+
+    private static final String SEARCHES_PROPERTY = "neeo.benchmark.searches";
+    private static final int DEFAULT_SEARCHES = 20;
+    private static final int WARMUP_SEARCHES = 5;
+    private static final int DEVICES = 2000;
+
+    private static final String[] BINDINGS = { "hue", "sonos", "zwave", "mqtt", "harmonyhub" };
+    private static final String[] ROOMS = { "Living Room", "Kitchen", "Bedroom", "Office", "Garage" };
+    private static final String[] KINDS = { "Lamp", "Speaker", "Switch", "Sensor", "TV" };
+    private static final String[] QUERIES = { "kitchen", "living lamp", "sonos speaker 42", "tv", "zw" };
+
+    private final Logger logger = LoggerFactory.getLogger(TokenSearchBenchmarkTest.class);
+
+    @Test
+    public void testSearchThroughput() {
+        final List<NeeoDevice> devices = new ArrayList<>();
+        for (int i = 0; i < DEVICES; i++) {
+            final ThingUID uid = new ThingUID(BINDINGS[i % BINDINGS.length], "device", "device" + i);
+            final String name = ROOMS[i / KINDS.length % ROOMS.length] + " " + KINDS[i % KINDS.length] + " " + i;
+            devices.add(new NeeoDevice(new NeeoThingUID(uid), 0, NeeoDeviceType.ACCESSOIRE, "openHAB", name,
+                    Collections.emptyList(), null, null, null, null));
+        }
+
+        final ServiceContext context = mock(ServiceContext.class);
+        final ComponentContext componentContext = mock(ComponentContext.class);
+        final NeeoDeviceDefinitions definitions = mock(NeeoDeviceDefinitions.class);
+        when(context.getThingRegistry()).thenReturn(mock(ThingRegistry.class));
+        when(context.getComponentContext()).thenReturn(componentContext);
+        when(componentContext.getProperties()).thenReturn(new Hashtable<>());
+        when(context.getDefinitions()).thenReturn(definitions);
+
+        final long buildStart = System.nanoTime();
+        final TokenSearchIndex index = TokenSearchIndex.build(context, devices);
+        final long buildDuration = System.nanoTime() - buildStart;
+        when(definitions.getSearchIndex()).thenReturn(index);
+
+        final TokenSearch tokenSearch = new TokenSearch(context, 0.3);
+        final int searches = Integer.getInteger(SEARCHES_PROPERTY, DEFAULT_SEARCHES);
+
+        for (int i = 0; i < WARMUP_SEARCHES; i++) {
+            searchAll(tokenSearch);
+        }
+        int found = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            found += searchAll(tokenSearch);
+        }
+        final long duration = Math.max(1, System.nanoTime() - start);
+
+        assertEquals(DEVICES, index.getDevices().size());
+        assertTrue(found > 0, "Expected devices to be found");
+        final TokenSearch.Result result = tokenSearch.search("kitchen lamp");
+        assertFalse(result.getDevices().isEmpty(), "Expected kitchen lamps to be found");
+        for (int i = 0; i < result.getDevices().size(); i++) {
+            final String name = result.getDevices().get(i).getItem().getName();
+            assertTrue(name != null && name.startsWith("Kitchen"), "Unexpected device " + name);
+        }
+
+        final int queries = searches * QUERIES.length;
+        logger.info("Indexed {} devices in {} ms, ran {} searches in {} ms: {} searches/s", DEVICES,
+                TimeUnit.NANOSECONDS.toMillis(buildDuration), queries, TimeUnit.NANOSECONDS.toMillis(duration),
+                queries * TimeUnit.SECONDS.toNanos(1) / duration);
+    }
+
+    private static int searchAll(TokenSearch tokenSearch) {
+        int found = 0;
+        for (String query : QUERIES) {
+            found += tokenSearch.search(query).getDevices().size();
+        }
+        return found;
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.voice.googletts.internal;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.voice.ttscache.TTSDiskCache;
 
 /**
  * Voice service implementation.
@@ -49,10 +50,15 @@ class GoogleTTSConfig {
      */
     public Boolean purgeCache = Boolean.FALSE;
 
+    /**
+     * Maximum size of the cache in bytes.
+     */
+    public long cacheMaxSize = TTSDiskCache.getMaxSize(null);
+
     @Override
     public String toString() {
         return "GoogleTTSConfig{pitch=" + pitch + ", speakingRate=" + speakingRate + ", volumeGainDb=" + volumeGainDb
-                + ", purgeCache=" + purgeCache + '}';
+                + ", purgeCache=" + purgeCache + ", cacheMaxSize=" + cacheMaxSize + '}';
     }
 
     String toConfigString() {
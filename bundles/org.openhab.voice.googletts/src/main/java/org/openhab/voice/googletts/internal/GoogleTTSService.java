@@ -33,6 +33,7 @@ import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
 import org.openhab.core.voice.Voice;
 import org.openhab.voice.googletts.internal.protocol.AudioEncoding;
+import org.openhab.voice.ttscache.TTSDiskCache;
 import org.osgi.framework.Constants;
 import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.component.annotations.Activate;
@@ -229,6 +230,9 @@ public class GoogleTTSService implements TTSService {
             if (param != null) {
                 config.purgeCache = Boolean.parseBoolean(param);
             }
+
+            // cacheMaxSize
+            config.cacheMaxSize = TTSDiskCache.getMaxSize(newConfig);
             logger.trace("New configuration: {}", config.toString());
 
             if (config.clientId != null && !config.clientId.isEmpty() && config.clientSecret != null
@@ -14,16 +14,26 @@ package org.openhab.voice.marytts.internal;
 
 import static javax.sound.sampled.AudioSystem.NOT_SPECIFIED;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.io.IOUtils;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
+import org.openhab.voice.ttscache.TTSDiskCache;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,13 +49,29 @@ import marytts.modules.synthesis.Voice;
  * @author Kelly Davis - Initial contribution and API
  * @author Kai Kreuzer - Refactored to updated APIs and moved to openHAB
  */
-@Component
+@Component(configurationPid = MaryTTSService.SERVICE_PID, property = Constants.SERVICE_PID + "="
+        + MaryTTSService.SERVICE_PID)
+@ConfigurableService(category = "voice", label = "Mary Text-to-Speech", description_uri = "voice:marytts")
 public class MaryTTSService implements TTSService {
 
+    /**
+     * Cache folder under $userdata
+     */
+    private static final String CACHE_FOLDER_NAME = "cache";
+
+    static final String SERVICE_PID = "org.openhab.voice.marytts";
+
+    /**
+     * The cached audio is the raw audio data without WAVE header
+     */
+    private static final String CACHE_FORMAT = "raw";
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
     private MaryInterface marytts;
 
+    private TTSDiskCache cache;
+
     /**
      * Set of supported voices
      */
@@ -56,8 +82,10 @@ public class MaryTTSService implements TTSService {
      */
     private Set<AudioFormat> audioFormats;
 
-    protected void activate() {
+    protected void activate(Map<String, Object> config) {
         try {
+            File cacheFolder = new File(new File(OpenHAB.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID);
+            cache = new TTSDiskCache(cacheFolder, TTSDiskCache.getMaxSize(config));
             marytts = new LocalMaryInterface();
             voices = initVoices();
             audioFormats = initAudioFormats();
@@ -66,6 +94,13 @@ public class MaryTTSService implements TTSService {
         }
     }
 
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        if (cache != null) {
+            cache.setMaxSize(TTSDiskCache.getMaxSize(config));
+        }
+    }
+
     @Override
     public Set<org.openhab.core.voice.Voice> getAvailableVoices() {
         return voices;
@@ -114,17 +149,34 @@ public class MaryTTSService implements TTSService {
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
 
+        try {
+            File audioFile = cache.getOrCreate(voice.getLabel(), CACHE_FORMAT, text,
+                    () -> new ByteArrayInputStream(generateAudio(text, voice)));
+            if (audioFile == null) {
+                throw new TTSException("Error generating an AudioStream");
+            }
+            return new MaryTTSAudioStream(Files.readAllBytes(audioFile.toPath()), maryTTSVoiceAudioFormat);
+        } catch (SynthesisException | IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        }
+    }
+
+    /**
+     * Generates the raw audio data for the text
+     *
+     * @param text The text to speak
+     * @param voice The voice to use
+     * @return The raw audio data
+     */
+    private byte[] generateAudio(String text, org.openhab.core.voice.Voice voice)
+            throws SynthesisException, IOException {
         // Synchronize on marytts
         synchronized (marytts) {
             // Set voice (Each voice supports only a single AudioFormat)
             marytts.setLocale(voice.getLocale());
             marytts.setVoice(voice.getLabel());
 
-            try {
-                return new MaryTTSAudioStream(marytts.generateAudio(text), maryTTSVoiceAudioFormat);
-            } catch (SynthesisException | IOException e) {
-                throw new TTSException("Error generating an AudioStream", e);
-            }
+            return IOUtils.toByteArray(marytts.generateAudio(text));
         }
     }
 
@@ -22,7 +22,6 @@ import org.openhab.core.audio.AudioException;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
 import org.openhab.core.audio.FixedLengthAudioStream;
-import org.openhab.core.voice.Voice;
 
 /**
  * Implementation of {@link AudioStream} for {@link PicoTTSService}
@@ -30,19 +29,23 @@ import org.openhab.core.voice.Voice;
  * @author Florian Schmidt - Initial Contribution
  */
 class PicoTTSAudioStream extends FixedLengthAudioStream {
-    private final Voice voice;
-    private final String text;
     private final AudioFormat audioFormat;
     private final InputStream inputStream;
 
-    private long length;
-    private File file;
+    private final long length;
+    private final File file;
 
-    public PicoTTSAudioStream(String text, Voice voice, AudioFormat audioFormat) throws AudioException {
-        this.text = text;
-        this.voice = voice;
+    /**
+     * Creates the stream for an audio file generated by pico2wave
+     *
+     * @param file the (cached) audio file
+     * @param audioFormat the format of the audio file
+     */
+    public PicoTTSAudioStream(File file, AudioFormat audioFormat) throws AudioException {
+        this.file = file;
         this.audioFormat = audioFormat;
-        this.inputStream = createInputStream();
+        this.length = file.length();
+        this.inputStream = getFileInputStream(file);
     }
 
     @Override
@@ -50,66 +53,31 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
         return audioFormat;
     }
 
-    private InputStream createInputStream() throws AudioException {
-        String outputFile = generateOutputFilename();
-        String[] command = getCommand(outputFile);
-
-        try {
-            Process process = Runtime.getRuntime().exec(command);
-            process.waitFor();
-            file = new File(outputFile);
-            this.length = file.length();
-            return getFileInputStream(file);
-        } catch (IOException e) {
-            throw new AudioException("Error while executing '" + command + "'", e);
-        } catch (InterruptedException e) {
-            throw new AudioException("The '" + command + "' has been interrupted", e);
-        }
-    }
-
     private InputStream getFileInputStream(File file) throws AudioException {
-        if (file == null) {
-            throw new IllegalArgumentException("file must not be null");
-        }
         if (file.exists()) {
             try {
                 return new FileInputStream(file);
             } catch (FileNotFoundException e) {
-                throw new AudioException("Cannot open temporary audio file '" + file.getName() + ".");
+                throw new AudioException("Cannot open audio file '" + file.getName() + ".");
             }
         } else {
-            throw new AudioException("Temporary file '" + file.getName() + "' not found!");
+            throw new AudioException("Audio file '" + file.getName() + "' not found!");
         }
     }
 
-    /**
-     * Generates a unique, absolute output filename
-     *
-     * @return Unique, absolute output filename
-     */
-    private String generateOutputFilename() throws AudioException {
-        try {
-            File tempFile = File.createTempFile(Integer.toString(text.hashCode()), ".wav");
-            tempFile.deleteOnExit();
-            return tempFile.getAbsolutePath();
-        } catch (IOException e) {
-            throw new AudioException("Unable to create temp file.", e);
-        }
+    @Override
+    public int read() throws IOException {
+        return inputStream.read();
     }
 
-    /**
-     * Gets the command used to generate an audio file {@code outputFile}
-     *
-     * @param outputFile The absolute filename of the command's output
-     * @return The command used to generate the audio file {@code outputFile}
-     */
-    private String[] getCommand(String outputFile) {
-        return new String[] { "pico2wave", "-l=" + this.voice.getLabel(), "-w=" + outputFile, this.text };
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return inputStream.read(b, off, len);
     }
 
     @Override
-    public int read() throws IOException {
-        return inputStream.read();
+    public void close() throws IOException {
+        inputStream.close();
     }
 
     @Override
@@ -119,10 +87,6 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
 
     @Override
     public InputStream getClonedStream() throws AudioException {
-        if (file != null) {
-            return getFileInputStream(file);
-        } else {
-            throw new AudioException("No temporary audio file available.");
-        }
+        return getFileInputStream(file);
     }
 }
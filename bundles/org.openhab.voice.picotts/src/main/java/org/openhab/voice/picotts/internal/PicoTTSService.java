@@ -12,25 +12,45 @@
  */
 package org.openhab.voice.picotts.internal;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.openhab.core.OpenHAB;
 import org.openhab.core.audio.AudioException;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
 import org.openhab.core.voice.Voice;
+import org.openhab.voice.ttscache.TTSDiskCache;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 
 /**
  * @author Florian Schmidt - Initial Contribution
  */
-@Component
+@Component(configurationPid = PicoTTSService.SERVICE_PID, property = Constants.SERVICE_PID + "="
+        + PicoTTSService.SERVICE_PID)
+@ConfigurableService(category = "voice", label = "PicoTTS", description_uri = "voice:picotts")
 public class PicoTTSService implements TTSService {
+    /**
+     * Cache folder under $userdata
+     */
+    private static final String CACHE_FOLDER_NAME = "cache";
+
+    static final String SERVICE_PID = "org.openhab.voice.picotts";
+
     private final Set<Voice> voices = Stream
             .of(new PicoTTSVoice("de-DE"), new PicoTTSVoice("en-US"), new PicoTTSVoice("en-GB"),
                     new PicoTTSVoice("es-ES"), new PicoTTSVoice("fr-FR"), new PicoTTSVoice("it-IT"))
@@ -39,6 +59,19 @@ public class PicoTTSService implements TTSService {
     private final Set<AudioFormat> audioFormats = Collections.singleton(
             new AudioFormat(AudioFormat.CONTAINER_WAVE, AudioFormat.CODEC_PCM_SIGNED, false, 16, null, 16000L));
 
+    private TTSDiskCache cache;
+
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        File cacheFolder = new File(new File(OpenHAB.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID);
+        cache = new TTSDiskCache(cacheFolder, TTSDiskCache.getMaxSize(config));
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        cache.setMaxSize(TTSDiskCache.getMaxSize(config));
+    }
+
     @Override
     public Set<Voice> getAvailableVoices() {
         return this.voices;
@@ -68,10 +101,54 @@ public class PicoTTSService implements TTSService {
         }
 
         try {
-            return new PicoTTSAudioStream(text, voice, requestedFormat);
+            File audioFile = cache.getOrCreate(voice.getLabel(), "wav", text, () -> generateAudio(text, voice));
+            if (audioFile == null) {
+                throw new TTSException("Could not generate audio with pico2wave");
+            }
+            return new PicoTTSAudioStream(audioFile, requestedFormat);
         } catch (AudioException e) {
             throw new TTSException(e);
+        } catch (IOException e) {
+            throw new TTSException("Error while generating audio: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs pico2wave to generate the audio into a temporary file
+     *
+     * @param text the text to speak
+     * @param voice the voice to use
+     * @return the stream of the generated audio (the temporary file will be removed on close)
+     * @throws IOException if pico2wave could not be executed or did not produce any audio
+     */
+    private InputStream generateAudio(String text, Voice voice) throws IOException {
+        File tempFile = File.createTempFile(Integer.toString(text.hashCode()), ".wav");
+        tempFile.deleteOnExit();
+        String[] command = new String[] { "pico2wave", "-l=" + voice.getLabel(), "-w=" + tempFile.getAbsolutePath(),
+                text };
+        int exitValue;
+        try {
+            Process process = Runtime.getRuntime().exec(command);
+            exitValue = process.waitFor();
+        } catch (IOException e) {
+            tempFile.delete();
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tempFile.delete();
+            throw new IOException("pico2wave has been interrupted", e);
+        }
+        if (exitValue != 0 || tempFile.length() == 0) {
+            tempFile.delete();
+            throw new IOException("pico2wave failed with exit code " + exitValue);
         }
+        return new FileInputStream(tempFile) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                tempFile.delete();
+            }
+        };
     }
 
     @Override
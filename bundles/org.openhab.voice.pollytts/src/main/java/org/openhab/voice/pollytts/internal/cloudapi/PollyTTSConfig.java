@@ -17,6 +17,8 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.openhab.voice.ttscache.TTSDiskCache;
+
 /**
  * This class implements the PollyTTS configuration.
  *
@@ -35,7 +37,7 @@ public class PollyTTSConfig {
     private String serviceRegion = "eu-west-1";
     private int expireDate = 0;
     private String audioFormat = "default";
-    private long lastDelete;
+    private long cacheMaxSize;
 
     public PollyTTSConfig(Map<String, Object> config) {
         assertValidConfig(config);
@@ -46,6 +48,7 @@ public class PollyTTSConfig {
         audioFormat = config.getOrDefault(AUDIO_FORMAT, audioFormat).toString();
         expireDate = (int) Double
                 .parseDouble(config.getOrDefault(CACHE_EXPIRATION, Double.toString(expireDate)).toString());
+        cacheMaxSize = TTSDiskCache.getMaxSize(config);
     }
 
     private void assertValidConfig(Map<String, Object> config) {
@@ -79,24 +82,17 @@ public class PollyTTSConfig {
     }
 
     /**
-     * returns audio format specified for audio
+     * get the maximum size in bytes of all cache files
      */
-    public String getAudioFormat() {
-        return audioFormat;
+    public long getCacheMaxSize() {
+        return cacheMaxSize;
     }
 
     /**
-     * get the date when cache was cleaned last
-     */
-    public long getLastDelete() {
-        return lastDelete;
-    }
-
-    /**
-     * set the date when cache was cleaned last
+     * returns audio format specified for audio
      */
-    public void setLastDelete(long lastDelete) {
-        this.lastDelete = lastDelete;
+    public String getAudioFormat() {
+        return audioFormat;
     }
 
     @Override
@@ -104,7 +100,8 @@ public class PollyTTSConfig {
         StringBuilder builder = new StringBuilder();
         builder.append("PollyTTSConfig [accessKey=").append(accessKey).append(", secretKey=").append(secretKey)
                 .append(", serviceRegion=").append(serviceRegion).append(", expireDate=").append(expireDate)
-                .append(", audioFormat=").append(audioFormat).append(", lastDelete=").append(lastDelete).append("]");
+                .append(", cacheMaxSize=").append(cacheMaxSize).append(", audioFormat=").append(audioFormat)
+                .append("]");
         return builder.toString();
     }
 }
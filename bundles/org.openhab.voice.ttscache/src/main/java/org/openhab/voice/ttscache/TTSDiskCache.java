@@ -0,0 +1,415 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file system cache for synthesized audio that can be shared by all TTS services.
+ *
+ * Each entry is stored as an audio file named {@code <voice>_<md5 of text>.<format>} together with a {@code .txt} file
+ * holding the text for transparency. All entries are kept in an in-memory index (in least recently used order) so a
+ * lookup never reads from the file system. The time stamp of a used audio file is updated, it is the access time of
+ * the entry when the index is loaded again. When the total size of the audio files exceeds the configured limit (or
+ * entries are older than the configured maximum age) the least recently used entries are purged asynchronously.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TTSDiskCache {
+
+    /** The name of the service configuration parameter holding the maximum size of the cache in MB */
+    public static final String CONFIG_MAX_SIZE = "cacheMaxSize";
+
+    /** The default maximum size in MB of all cached audio files */
+    public static final int DEFAULT_MAX_SIZE_MB = 64;
+
+    /** The number of locks used to synthesize the audio of different texts in parallel */
+    private static final int LOCK_STRIPES = 32;
+
+    private static final String TEXT_EXTENSION = ".txt";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String THREAD_POOL_NAME = "ttscache";
+
+    /** How often entries will be checked for their age */
+    private static final long AGE_CHECK_INTERVAL = TimeUnit.DAYS.toMillis(1);
+
+    private final Logger logger = LoggerFactory.getLogger(TTSDiskCache.class);
+
+    private final File cacheFolder;
+    private volatile long maxSize;
+    private final long maxAge;
+
+    /** Only one thread at a time synthesizes and stores the audio of the same file */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final ExecutorService executor = ThreadPoolManager.getPool(THREAD_POOL_NAME);
+    private final AtomicBoolean purgeScheduled = new AtomicBoolean();
+
+    /** The index of all cached audio files in access order, guarded by itself */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    private volatile long lastAgeCheck;
+
+    /**
+     * Supplies the synthesized audio when the cache does not contain it yet.
+     *
+     * @param <E> the service specific exception thrown when the audio could not be synthesized
+     */
+    @FunctionalInterface
+    public interface AudioSupplier<E extends Exception> {
+        /**
+         * Synthesizes the audio
+         *
+         * @return the audio stream (will be closed by the cache) or null if nothing could be synthesized
+         * @throws IOException if the audio could not be read
+         * @throws E if the audio could not be synthesized
+         */
+        @Nullable
+        InputStream get() throws IOException, E;
+    }
+
+    /**
+     * Creates a cache without any age limit
+     *
+     * @param cacheFolder the folder to keep the audio files in (will be created if necessary)
+     * @param maxSize the maximum size in bytes of all audio files
+     */
+    public TTSDiskCache(File cacheFolder, long maxSize) {
+        this(cacheFolder, maxSize, 0);
+    }
+
+    /**
+     * Creates a cache and indexes all audio files already present in the cache folder
+     *
+     * @param cacheFolder the folder to keep the audio files in (will be created if necessary)
+     * @param maxSize the maximum size in bytes of all audio files
+     * @param maxAgeDays the number of days an unused entry is kept (0 to disable)
+     */
+    public TTSDiskCache(File cacheFolder, long maxSize, int maxAgeDays) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.cacheFolder = cacheFolder;
+        this.maxSize = maxSize;
+        Arrays.setAll(locks, i -> new Object());
+        this.maxAge = TimeUnit.DAYS.toMillis(maxAgeDays);
+        this.lastAgeCheck = System.currentTimeMillis();
+
+        if (!cacheFolder.exists()) {
+            cacheFolder.mkdirs();
+        }
+        loadIndex();
+        schedulePurge();
+    }
+
+    /**
+     * Returns the cached audio file for the given voice, format and text or synthesizes it with the given supplier and
+     * adds it to the cache.
+     *
+     * @param voice the voice (or locale) used to synthesize the text
+     * @param format the audio format, used as file extension
+     * @param text the text that was synthesized
+     * @param supplier the supplier of the audio when it is not yet cached
+     * @return the audio file or null if the supplier returned no audio
+     * @throws IOException if the audio could not be read or written
+     * @throws E if the supplier could not synthesize the audio
+     */
+    public <E extends Exception> @Nullable File getOrCreate(String voice, String format, String text,
+            AudioSupplier<E> supplier) throws IOException, E {
+        return getOrCreate(voice, format, text, "", supplier);
+    }
+
+    /**
+     * Returns the cached audio file for the given voice, format, text and options or synthesizes it with the given
+     * supplier and adds it to the cache.
+     *
+     * @param voice the voice (or locale) used to synthesize the text
+     * @param format the audio format, used as file extension
+     * @param text the text that was synthesized
+     * @param options the service settings changing the synthesized audio (e.g. pitch or speaking rate), they are part
+     *            of the file name but not written to the text file
+     * @param supplier the supplier of the audio when it is not yet cached
+     * @return the audio file or null if the supplier returned no audio
+     * @throws IOException if the audio could not be read or written
+     * @throws E if the supplier could not synthesize the audio
+     */
+    public <E extends Exception> @Nullable File getOrCreate(String voice, String format, String text, String options,
+            AudioSupplier<E> supplier) throws IOException, E {
+        final String fileName = getFileName(voice, format, options + text);
+
+        final File cached = get(fileName);
+        if (cached != null) {
+            logger.debug("Audio file {} was found in cache.", fileName);
+            return cached;
+        }
+
+        synchronized (locks[Math.floorMod(fileName.hashCode(), LOCK_STRIPES)]) {
+            // another thread may have synthesized the same text while this one was waiting
+            final File created = get(fileName);
+            if (created != null) {
+                logger.debug("Audio file {} was found in cache.", fileName);
+                return created;
+            }
+
+            try (InputStream is = supplier.get()) {
+                if (is == null) {
+                    return null;
+                }
+                return put(fileName, is, text);
+            }
+        }
+    }
+
+    /**
+     * Changes the maximum size of all audio files, least recently used entries are purged if the cache is too large
+     *
+     * @param maxSize the maximum size in bytes of all audio files
+     */
+    public void setMaxSize(long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        schedulePurge();
+    }
+
+    /**
+     * Returns the maximum size in bytes configured by the {@link #CONFIG_MAX_SIZE} parameter of a service
+     * configuration, or the default size if the parameter is missing or invalid.
+     *
+     * @param config the service configuration, null for the default size
+     * @return the maximum size in bytes
+     */
+    public static long getMaxSize(@Nullable Map<String, Object> config) {
+        long sizeMB = DEFAULT_MAX_SIZE_MB;
+        Object value = config == null ? null : config.get(CONFIG_MAX_SIZE);
+        if (value instanceof Number) {
+            sizeMB = ((Number) value).longValue();
+        } else if (value != null) {
+            try {
+                sizeMB = Long.parseLong(Objects.toString(value).trim());
+            } catch (NumberFormatException e) {
+                LoggerFactory.getLogger(TTSDiskCache.class).warn("Invalid cache size '{}', using {} MB", value,
+                        DEFAULT_MAX_SIZE_MB);
+            }
+        }
+        return (sizeMB > 0 ? sizeMB : DEFAULT_MAX_SIZE_MB) * 1024 * 1024;
+    }
+
+    /**
+     * Removes all entries from the cache
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalSize = 0;
+        }
+        File[] files = cacheFolder.listFiles();
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+        logger.debug("Cache {} purged.", cacheFolder);
+    }
+
+    /**
+     * Returns the total size in bytes of all cached audio files
+     *
+     * @return the total size
+     */
+    public long getTotalSize() {
+        synchronized (entries) {
+            return totalSize;
+        }
+    }
+
+    /**
+     * Gets a unique file name for the given voice, format and text by creating a MD5 hash of the text.
+     *
+     * Sample: "en-US_00a2653ac5f77063bc4ea2fee87318d3.mp3"
+     *
+     * @param voice the voice (or locale) used to synthesize the text
+     * @param format the audio format
+     * @param text the text
+     * @return the file name
+     */
+    public static String getFileName(String voice, String format, String text) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] md5Hash = md.digest(text.getBytes(StandardCharsets.UTF_8));
+            String hash = String.format("%032x", new BigInteger(1, md5Hash));
+            return voice + "_" + hash + "." + format.toLowerCase(Locale.ROOT);
+        } catch (NoSuchAlgorithmException e) {
+            // should not happen, every Java platform has to support MD5
+            throw new IllegalStateException("MD5 is not supported", e);
+        }
+    }
+
+    private @Nullable File get(String fileName) {
+        final long now = System.currentTimeMillis();
+        final CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(fileName);
+            if (entry != null) {
+                entry.lastAccess = now;
+            }
+        }
+        if (entry != null) {
+            // the index is seeded from the time stamps of the files on the next start
+            entry.file.setLastModified(now);
+        }
+        if (maxAge > 0 && System.currentTimeMillis() - lastAgeCheck > AGE_CHECK_INTERVAL) {
+            schedulePurge();
+        }
+        return entry == null ? null : entry.file;
+    }
+
+    private File put(String fileName, InputStream audio, String text) throws IOException {
+        final File audioFile = new File(cacheFolder, fileName);
+        // a unique temporary file, so a partly written file is never visible under the name of the entry
+        final Path tempFile = Files.createTempFile(cacheFolder.toPath(), fileName, TEMP_EXTENSION);
+        try {
+            Files.copy(audio, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, audioFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        // write text to file for transparency too
+        // this allows to know which contents is in which audio file
+        Files.write(getTextFile(audioFile).toPath(), text.getBytes(StandardCharsets.UTF_8));
+
+        add(fileName, audioFile, System.currentTimeMillis());
+        logger.debug("Audio file {} was added to cache.", fileName);
+
+        schedulePurge();
+        return audioFile;
+    }
+
+    private void add(String fileName, File audioFile, long lastAccess) {
+        synchronized (entries) {
+            CacheEntry old = entries.put(fileName, new CacheEntry(audioFile, audioFile.length(), lastAccess));
+            if (old != null) {
+                totalSize -= old.size;
+            }
+            totalSize += audioFile.length();
+        }
+    }
+
+    /**
+     * Indexes the audio files already present in the cache folder, oldest first
+     */
+    private void loadIndex() {
+        File[] files = cacheFolder.listFiles(file -> file.isFile() && !file.getName().endsWith(TEXT_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_EXTENSION)) {
+                file.delete();
+            } else {
+                add(file.getName(), file, file.lastModified());
+            }
+        }
+        logger.debug("Indexed {} cached audio files in {}", files.length, cacheFolder);
+    }
+
+    private void schedulePurge() {
+        if (purgeScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    purge();
+                } finally {
+                    purgeScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache fits into {@link #maxSize} and all entries that have
+     * not been used for {@link #maxAge}
+     */
+    private void purge() {
+        final long now = System.currentTimeMillis();
+        lastAgeCheck = now;
+
+        int filesDeleted = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                CacheEntry entry = it.next().getValue();
+                boolean aged = maxAge > 0 && now - entry.lastAccess > maxAge;
+                if (totalSize <= maxSize && !aged) {
+                    if (maxAge == 0) {
+                        // entries are in access order - nothing more to remove
+                        break;
+                    }
+                    continue;
+                }
+                it.remove();
+                totalSize -= entry.size;
+                entry.file.delete();
+                getTextFile(entry.file).delete();
+                filesDeleted++;
+            }
+        }
+        if (filesDeleted > 0) {
+            logger.debug("Cache cleaner deleted '{}' files from {}", filesDeleted, cacheFolder);
+        }
+    }
+
+    private File getTextFile(File audioFile) {
+        String name = audioFile.getName();
+        int extensionPos = name.lastIndexOf('.');
+        return new File(cacheFolder, (extensionPos > 0 ? name.substring(0, extensionPos) : name) + TEXT_EXTENSION);
+    }
+
+    private static class CacheEntry {
+        private final File file;
+        private final long size;
+        private long lastAccess;
+
+        private CacheEntry(File file, long size, long lastAccess) {
+            this.file = file;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
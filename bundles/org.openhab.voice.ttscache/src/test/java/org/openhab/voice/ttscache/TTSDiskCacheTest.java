@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link TTSDiskCache}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TTSDiskCacheTest {
+
+    private static final byte[] AUDIO = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+    private @TempDir @NonNullByDefault({}) Path cacheFolder;
+
+    @Test
+    public void audioIsCachedOnce() throws IOException {
+        TTSDiskCache cache = new TTSDiskCache(cacheFolder.toFile(), TTSDiskCache.getMaxSize(null));
+        AtomicInteger calls = new AtomicInteger();
+
+        File first = cache.getOrCreate("en-US", "wav", "hello", () -> {
+            calls.incrementAndGet();
+            return new ByteArrayInputStream(AUDIO);
+        });
+        File second = cache.getOrCreate("en-US", "wav", "hello", () -> {
+            calls.incrementAndGet();
+            return new ByteArrayInputStream(AUDIO);
+        });
+
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertEquals(1, calls.get());
+        assertArrayEquals(AUDIO, Files.readAllBytes(first.toPath()));
+        assertEquals(AUDIO.length, cache.getTotalSize());
+    }
+
+    @Test
+    public void optionsAreHashedButNotWrittenToTextFile() throws IOException {
+        TTSDiskCache cache = new TTSDiskCache(cacheFolder.toFile(), TTSDiskCache.getMaxSize(null));
+
+        File slow = cache.getOrCreate("en-US", "wav", "hello", "rate=0.5", () -> new ByteArrayInputStream(AUDIO));
+        File fast = cache.getOrCreate("en-US", "wav", "hello", "rate=2.0", () -> new ByteArrayInputStream(AUDIO));
+        File plain = cache.getOrCreate("en-US", "wav", "hello", () -> new ByteArrayInputStream(AUDIO));
+
+        assertNotNull(slow);
+        assertNotNull(fast);
+        assertNotNull(plain);
+        assertNotEquals(slow, fast);
+        assertNotEquals(slow, plain);
+        assertEquals("hello", Files.readString(cacheFolder.resolve(slow.getName().replace(".wav", ".txt"))));
+        assertEquals("hello", Files.readString(cacheFolder.resolve(fast.getName().replace(".wav", ".txt"))));
+    }
+
+    @Test
+    public void timeStampIsUpdatedOnUse() throws IOException {
+        TTSDiskCache cache = new TTSDiskCache(cacheFolder.toFile(), TTSDiskCache.getMaxSize(null));
+        File audioFile = cache.getOrCreate("en-US", "wav", "hello", () -> new ByteArrayInputStream(AUDIO));
+        assertNotNull(audioFile);
+        long created = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(10);
+        assertTrue(audioFile.setLastModified(created));
+
+        cache.getOrCreate("en-US", "wav", "hello", () -> {
+            throw new IOException("audio should be cached");
+        });
+
+        assertTrue(audioFile.lastModified() > created + TimeUnit.DAYS.toMillis(9));
+    }
+
+    @Test
+    public void failedSynthesisIsNotCached() throws IOException {
+        TTSDiskCache cache = new TTSDiskCache(cacheFolder.toFile(), TTSDiskCache.getMaxSize(null));
+
+        assertThrows(IOException.class, () -> cache.getOrCreate("en-US", "wav", "hello", () -> {
+            throw new IOException("pico2wave failed with exit code 1");
+        }));
+        assertThrows(IOException.class, () -> cache.getOrCreate("en-US", "wav", "hello", () -> new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        }));
+
+        assertEquals(0, cache.getTotalSize());
+        assertArrayEquals(new String[0], cacheFolder.toFile().list());
+
+        File audioFile = cache.getOrCreate("en-US", "wav", "hello", () -> new ByteArrayInputStream(AUDIO));
+        assertNotNull(audioFile);
+        assertArrayEquals(AUDIO, Files.readAllBytes(audioFile.toPath()));
+    }
+
+    @Test
+    public void concurrentRequestsSynthesizeOnce() throws Exception {
+        TTSDiskCache cache = new TTSDiskCache(cacheFolder.toFile(), TTSDiskCache.getMaxSize(null));
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<File>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.getOrCreate("en-US", "wav", "hello", () -> {
+                    calls.incrementAndGet();
+                    Thread.sleep(50);
+                    return new ByteArrayInputStream(AUDIO);
+                })));
+            }
+            for (Future<File> result : results) {
+                assertArrayEquals(AUDIO, Files.readAllBytes(result.get(5, TimeUnit.SECONDS).toPath()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(AUDIO.length, cache.getTotalSize());
+    }
+
+    @Test
+    public void maxSizeIsReadFromConfiguration() {
+        assertEquals(64L * 1024 * 1024, TTSDiskCache.getMaxSize(null));
+        assertEquals(128L * 1024 * 1024, TTSDiskCache.getMaxSize(Map.of("cacheMaxSize", 128)));
+        assertEquals(16L * 1024 * 1024, TTSDiskCache.getMaxSize(Map.of("cacheMaxSize", "16")));
+        assertEquals(64L * 1024 * 1024, TTSDiskCache.getMaxSize(Map.of("cacheMaxSize", "abc")));
+        assertEquals(64L * 1024 * 1024, TTSDiskCache.getMaxSize(Map.of("cacheMaxSize", 0)));
+    }
+}
@@ -28,6 +28,7 @@ import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
 import org.openhab.core.voice.Voice;
+import org.openhab.voice.ttscache.TTSDiskCache;
 import org.openhab.voice.voicerss.internal.cloudapi.CachedVoiceRSSCloudImpl;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
@@ -52,6 +53,8 @@ public class VoiceRSSTTSService implements TTSService {
     private static final String CONFIG_API_KEY = "apiKey";
     private String apiKey;
 
+    private long cacheMaxSize = TTSDiskCache.getMaxSize(null);
+
     private final Logger logger = LoggerFactory.getLogger(VoiceRSSTTSService.class);
 
     /**
@@ -89,6 +92,10 @@ public class VoiceRSSTTSService implements TTSService {
     protected void modified(Map<String, Object> config) {
         if (config != null) {
             apiKey = config.containsKey(CONFIG_API_KEY) ? config.get(CONFIG_API_KEY).toString() : null;
+            cacheMaxSize = TTSDiskCache.getMaxSize(config);
+            if (voiceRssImpl != null) {
+                voiceRssImpl.setCacheMaxSize(cacheMaxSize);
+            }
         }
     }
 
@@ -213,7 +220,7 @@ public class VoiceRSSTTSService implements TTSService {
     }
 
     private CachedVoiceRSSCloudImpl initVoiceImplementation() {
-        return new CachedVoiceRSSCloudImpl(getCacheFolderName());
+        return new CachedVoiceRSSCloudImpl(getCacheFolderName(), cacheMaxSize);
     }
 
     private String getCacheFolderName() {
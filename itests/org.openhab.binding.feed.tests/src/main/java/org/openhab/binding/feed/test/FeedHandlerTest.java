@@ -114,6 +114,9 @@ public class FeedHandlerTest extends JavaOSGiTest {
 
         String feedContent;
         int httpStatus;
+        // By default the servlet answers conditional requests with the ETag of the content
+        boolean conditionalRequestsSupported = true;
+        int notModifiedResponses;
 
         public FeedServiceMock(String feedContentFile) {
             super();
@@ -129,6 +132,15 @@ public class FeedHandlerTest extends JavaOSGiTest {
         @Override
         protected void doGet(HttpServletRequest request, HttpServletResponse response)
                 throws ServletException, IOException {
+            String eTag = "\"" + Integer.toHexString(feedContent.hashCode()) + "\"";
+            if (conditionalRequestsSupported) {
+                if (httpStatus == HttpStatus.OK_200 && eTag.equals(request.getHeader("If-None-Match"))) {
+                    notModifiedResponses++;
+                    response.setStatus(HttpStatus.NOT_MODIFIED_304);
+                    return;
+                }
+                response.setHeader("ETag", eTag);
+            }
             response.getOutputStream().println(feedContent);
             // Recommended RSS MIME type - http://www.rssboard.org/rss-mime-type-application.txt
             // Atom MIME type is - application/atom+xml
@@ -333,6 +345,46 @@ public class FeedHandlerTest extends JavaOSGiTest {
         testIfItemStateIsUpdated(commandReceived, contentChanged);
     }
 
+    @Test
+    public void assertThatUnchangedContentIsRequestedConditionally() throws InterruptedException {
+        initializeDefaultFeedHandler();
+
+        waitForAssert(() -> {
+            assertThat("Feed Thing can not be initialized", feedThing.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+            assertThat("Item's state is not updated on initialize", currentItemState, is(notNullValue()));
+        });
+        StringType firstItemState = currentItemState;
+
+        // Before this time has expired, the refresh command will no trigger a request to the server
+        sleep(FeedBindingConstants.MINIMUM_REFRESH_TIME);
+
+        feedHandler.handleCommand(channelUID, RefreshType.REFRESH);
+
+        waitForAssert(() -> {
+            assertThat("Content is downloaded again!", servlet.notModifiedResponses, is(1));
+            assertThat(feedThing.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+            assertThat(currentItemState, is(equalTo(firstItemState)));
+        });
+    }
+
+    @Test
+    public void assertThatItemsStateIsNotUpdatedOnRefreshIfContentIsNotChangedWithoutConditionalRequests()
+            throws IOException, InterruptedException {
+        servlet.conditionalRequestsSupported = false;
+        boolean commandReceived = true;
+        boolean contentChanged = false;
+        testIfItemStateIsUpdated(commandReceived, contentChanged);
+    }
+
+    @Test
+    public void assertThatItemsStateIsUpdatedOnRefreshIfContentChangedWithoutConditionalRequests()
+            throws IOException, InterruptedException {
+        servlet.conditionalRequestsSupported = false;
+        boolean commandReceived = true;
+        boolean contentChanged = true;
+        testIfItemStateIsUpdated(commandReceived, contentChanged);
+    }
+
     @Test
     public void assertThatThingsStatusIsUpdatedWhenHTTP500ErrorCodeIsReceived() throws InterruptedException {
         testIfThingStatusIsUpdated(HttpStatus.INTERNAL_SERVER_ERROR_500);
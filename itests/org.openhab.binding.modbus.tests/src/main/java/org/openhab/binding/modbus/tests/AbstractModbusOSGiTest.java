@@ -227,6 +227,17 @@ public abstract class AbstractModbusOSGiTest extends JavaOSGiTest {
         doReturn(comms).when(mockedModbusManager).newModbusCommunicationInterface(any(), any());
     }
 
+    /**
+     * Let the mocked manager create communication interfaces using the real manager, for tests communicating with
+     * a simulated slave (see {@link ModbusSlaveSimulator})
+     */
+    protected void mockCommsToRealModbusManager() {
+        ModbusManager localRealModbusManager = realModbusManager;
+        assertNotNull(localRealModbusManager);
+        doAnswer(invocation -> localRealModbusManager.newModbusCommunicationInterface(invocation.getArgument(0),
+                invocation.getArgument(1))).when(mockedModbusManager).newModbusCommunicationInterface(any(), any());
+    }
+
     protected void swapModbusManagerToMocked() {
         assertNull(realModbusManager);
         realModbusManager = getService(ModbusManager.class);
@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.tests;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.events.Event;
+import org.openhab.core.events.EventFilter;
+import org.openhab.core.events.EventSubscriber;
+import org.openhab.core.items.GenericItem;
+import org.openhab.core.items.events.ItemStateEvent;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.thing.Bridge;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.builder.ChannelBuilder;
+import org.openhab.core.thing.binding.builder.ThingBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * End-to-end polling benchmark: N pollers and M data things poll a {@link ModbusSlaveSimulator} through the real
+ * Modbus transport, and the throughput, latency and allocation rate are reported.
+ *
+ * By default only a short smoke test with a few things is run to keep the build fast. Longer runs can be configured
+ * with the system properties {@value #DURATION_PROPERTY}, modbus.benchmark.pollers, modbus.benchmark.dataThings,
+ * modbus.benchmark.refreshMillis, modbus.benchmark.latencyMillis, modbus.benchmark.exceptionRate and
+ * modbus.benchmark.rtuEncoded.
+ *
+ * Latency is measured from the request arriving at the simulator to the item state update of a data thing. For this,
+ * the simulator writes a sequence number to the polled registers on each request.
+ *
+ * @author agent - Initial contribution
+ */
+public class ModbusPollingBenchmarkTest extends AbstractModbusOSGiTest {
+
+    private static final String ITEM_PREFIX = "benchmark_";
+    private static final String DURATION_PROPERTY = "modbus.benchmark.durationMillis";
+    private static final long DEFAULT_DURATION_MILLIS = 200;
+
+    /**
+     * Records the latency of the item state updates caused by the polls
+     */
+    private class LatencySubscriber implements EventSubscriber {
+
+        @Override
+        public Set<@NonNull String> getSubscribedEventTypes() {
+            return Collections.singleton(ItemStateEvent.TYPE);
+        }
+
+        @Override
+        public @Nullable EventFilter getEventFilter() {
+            return null;
+        }
+
+        @Override
+        public void receive(Event event) {
+            long now = System.nanoTime();
+            ItemStateEvent stateEvent = (ItemStateEvent) event;
+            if (!stateEvent.getItemName().startsWith(ITEM_PREFIX)
+                    || !(stateEvent.getItemState() instanceof DecimalType)) {
+                return;
+            }
+            updatedItems.add(stateEvent.getItemName());
+            int sequence = ((DecimalType) stateEvent.getItemState()).intValue() & 0xffff;
+            long requestNanos = requestReceivedNanos[sequence];
+            if (measuring && requestNanos != 0) {
+                synchronized (latencies) {
+                    latencies.add(now - requestNanos);
+                }
+            }
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollingBenchmarkTest.class);
+
+    private final int pollerCount = Integer.getInteger("modbus.benchmark.pollers", 2);
+    private final int dataThingCount = Integer.getInteger("modbus.benchmark.dataThings", 10);
+    private final long refreshMillis = Long.getLong("modbus.benchmark.refreshMillis", 50L);
+    private final long durationMillis = Long.getLong(DURATION_PROPERTY, DEFAULT_DURATION_MILLIS);
+    private final long latencyMillis = Long.getLong("modbus.benchmark.latencyMillis", 0L);
+    private final double exceptionRate = Double
+            .parseDouble(System.getProperty("modbus.benchmark.exceptionRate", "0"));
+    private final boolean rtuEncoded = Boolean.getBoolean("modbus.benchmark.rtuEncoded");
+
+    private final long[] requestReceivedNanos = new long[65536];
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Set<String> updatedItems = ConcurrentHashMap.newKeySet();
+    private final List<Long> latencies = new ArrayList<>();
+    private volatile boolean measuring;
+    private ModbusSlaveSimulator simulator;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        mockCommsToRealModbusManager();
+        simulator = new ModbusSlaveSimulator(rtuEncoded);
+        simulator.getRegisterMap(1);
+        simulator.setLatency(latencyMillis, latencyMillis);
+        simulator.setExceptionRate(exceptionRate, ModbusSlaveSimulator.EXCEPTION_SLAVE_DEVICE_FAILURE);
+        simulator.setRequestListener((unitId, functionCode, address, quantity, registers) -> {
+            int value = sequence.incrementAndGet() & 0xffff;
+            if (value == 0) {
+                // zero is the initial value of the registers
+                value = sequence.incrementAndGet() & 0xffff;
+            }
+            requestReceivedNanos[value] = System.nanoTime();
+            for (int i = 0; i < quantity; i++) {
+                registers.setHoldingRegister(address + i, value);
+            }
+        });
+        registerService(new LatencySubscriber());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        measuring = false;
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+
+    private Bridge createEndpoint() {
+        Configuration tcpConfig = new Configuration();
+        tcpConfig.put("host", simulator.getHost());
+        tcpConfig.put("port", simulator.getPort());
+        tcpConfig.put("id", 1);
+        tcpConfig.put("rtuEncoded", rtuEncoded);
+        tcpConfig.put("timeBetweenTransactionsMillis", 0);
+        Bridge endpoint = ModbusPollerThingHandlerTest.createTcpThingBuilder("benchmark").withConfiguration(tcpConfig)
+                .build();
+        addThing(endpoint);
+        return endpoint;
+    }
+
+    private Bridge createPoller(Bridge endpoint, int index, int start, int length) {
+        Configuration pollerConfig = new Configuration();
+        pollerConfig.put("refresh", refreshMillis);
+        pollerConfig.put("start", start);
+        pollerConfig.put("length", length);
+        pollerConfig.put("type", READ_TYPE_HOLDING_REGISTER);
+        pollerConfig.put("maxTries", 1);
+        Bridge poller = ModbusPollerThingHandlerTest.createPollerThingBuilder("benchmark" + index)
+                .withConfiguration(pollerConfig).withBridge(endpoint.getUID()).build();
+        addThing(poller);
+        return poller;
+    }
+
+    private Thing createDataThing(Bridge poller, int index, int register) {
+        ThingUID thingUID = new ThingUID(THING_TYPE_MODBUS_DATA, "benchmark" + index);
+        ChannelUID channelUID = new ChannelUID(thingUID, CHANNEL_NUMBER);
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", String.valueOf(register));
+        dataConfig.put("readValueType", "uint16");
+        dataConfig.put("readTransform", "default");
+        Thing dataThing = ThingBuilder.create(THING_TYPE_MODBUS_DATA, thingUID).withLabel("benchmark data " + index)
+                .withConfiguration(dataConfig).withChannel(ChannelBuilder.create(channelUID, "Number").build())
+                .withBridge(poller.getUID()).build();
+        addThing(dataThing);
+
+        String itemName = ITEM_PREFIX + index;
+        GenericItem item = coreItemFactory.createItem("Number", itemName);
+        assertNotNull(item);
+        addItem(item);
+        linkItem(itemName, channelUID);
+        return dataThing;
+    }
+
+    /**
+     * @return bytes allocated by all live threads, or -1 if not supported by the JVM
+     */
+    private static long allocatedBytes() {
+        try {
+            long[] threadIds = ManagementFactory.getThreadMXBean().getAllThreadIds();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            long[] allocated = (long[]) server.invoke(new ObjectName(ManagementFactory.THREAD_MXBEAN_NAME),
+                    "getThreadAllocatedBytes", new Object[] { threadIds }, new String[] { long[].class.getName() });
+            return Arrays.stream(allocated).filter(bytes -> bytes > 0).sum();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))] / 1e6;
+    }
+
+    @Test
+    public void testPollingThroughput() throws InterruptedException {
+        Bridge endpoint = createEndpoint();
+        assertThat(endpoint.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        int registersPerPoller = (dataThingCount + pollerCount - 1) / pollerCount;
+        List<Thing> dataThings = new ArrayList<>();
+        for (int p = 0; p < pollerCount; p++) {
+            int start = p * registersPerPoller;
+            Bridge poller = createPoller(endpoint, p, start, registersPerPoller);
+            for (int i = start; i < Math.min(start + registersPerPoller, dataThingCount); i++) {
+                dataThings.add(createDataThing(poller, i, i));
+            }
+        }
+        waitForAssert(() -> {
+            for (Thing dataThing : dataThings) {
+                assertThat(dataThing.getUID().toString(), dataThing.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+            }
+            assertThat(updatedItems.size(), is(equalTo(dataThingCount)));
+        }, 30000, 100);
+
+        // Measure
+        long requestsBefore = simulator.getRequestCount();
+        long allocatedBefore = allocatedBytes();
+        long startNanos = System.nanoTime();
+        measuring = true;
+        Thread.sleep(durationMillis);
+        measuring = false;
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long requests = simulator.getRequestCount() - requestsBefore;
+        long allocatedAfter = allocatedBytes();
+
+        long[] sortedLatencies;
+        synchronized (latencies) {
+            sortedLatencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        assertThat(requests, is(not(equalTo(0L))));
+        assertThat(sortedLatencies.length, is(not(equalTo(0))));
+        String allocationRate = allocatedBefore < 0 || allocatedAfter < 0 ? "n/a"
+                : String.format("%.1f MB/s", (allocatedAfter - allocatedBefore) / seconds / 1e6);
+        logger.info(
+                "Modbus polling benchmark ({}, {} pollers, {} data things, refresh {} ms, slave latency {} ms, exception rate {}): "
+                        + "{} requests/s, {} state updates/s, latency p50 {} ms, p90 {} ms, p99 {} ms, max {} ms, allocation rate {}",
+                rtuEncoded ? "RTU over TCP" : "TCP", pollerCount, dataThingCount, refreshMillis, latencyMillis,
+                exceptionRate, String.format("%.1f", requests / seconds),
+                String.format("%.1f", sortedLatencies.length / seconds),
+                String.format("%.2f", percentileMillis(sortedLatencies, 50)),
+                String.format("%.2f", percentileMillis(sortedLatencies, 90)),
+                String.format("%.2f", percentileMillis(sortedLatencies, 99)),
+                String.format("%.2f", percentileMillis(sortedLatencies, 100)), allocationRate);
+    }
+}
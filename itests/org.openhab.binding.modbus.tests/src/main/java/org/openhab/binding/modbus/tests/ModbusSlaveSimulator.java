@@ -0,0 +1,535 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.tests;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process Modbus slave, serving Modbus TCP or RTU over TCP requests from register maps held in memory.
+ *
+ * Supports the read and write functions used by the binding (function codes 1, 2, 3, 4, 5, 6, 15 and 16). Latency and
+ * errors (exception responses and dropped requests) can be injected to simulate slow or unreliable devices. Requests
+ * to unit ids without a register map are not answered, like a real gateway without the device would do.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusSlaveSimulator implements AutoCloseable {
+
+    public static final int EXCEPTION_ILLEGAL_FUNCTION = 1;
+    public static final int EXCEPTION_ILLEGAL_DATA_ADDRESS = 2;
+    public static final int EXCEPTION_ILLEGAL_DATA_VALUE = 3;
+    public static final int EXCEPTION_SLAVE_DEVICE_FAILURE = 4;
+
+    private static final int ADDRESS_SPACE = 65536;
+    private static final int MAX_BITS_READ_COUNT = 2000;
+    private static final int MAX_REGISTERS_READ_COUNT = 125;
+
+    /**
+     * Data of a single slave (unit id)
+     */
+    public static class RegisterMap {
+        private final int[] holdingRegisters = new int[ADDRESS_SPACE];
+        private final int[] inputRegisters = new int[ADDRESS_SPACE];
+        private final boolean[] coils = new boolean[ADDRESS_SPACE];
+        private final boolean[] discreteInputs = new boolean[ADDRESS_SPACE];
+
+        public synchronized int getHoldingRegister(int address) {
+            return holdingRegisters[address];
+        }
+
+        public synchronized void setHoldingRegister(int address, int value) {
+            holdingRegisters[address] = value & 0xffff;
+        }
+
+        public synchronized int getInputRegister(int address) {
+            return inputRegisters[address];
+        }
+
+        public synchronized void setInputRegister(int address, int value) {
+            inputRegisters[address] = value & 0xffff;
+        }
+
+        public synchronized boolean getCoil(int address) {
+            return coils[address];
+        }
+
+        public synchronized void setCoil(int address, boolean value) {
+            coils[address] = value;
+        }
+
+        public synchronized boolean getDiscreteInput(int address) {
+            return discreteInputs[address];
+        }
+
+        public synchronized void setDiscreteInput(int address, boolean value) {
+            discreteInputs[address] = value;
+        }
+    }
+
+    /**
+     * Listener called for each request before it is executed. Allows changing the register map for each request, for
+     * example to simulate changing measurements.
+     */
+    @FunctionalInterface
+    public interface RequestListener {
+        /**
+         * @param unitId unit id of the request
+         * @param functionCode function code of the request
+         * @param address first address of the request
+         * @param quantity number of registers or bits in the request
+         * @param registers register map of the unit
+         */
+        void requestReceived(int unitId, int functionCode, int address, int quantity, RegisterMap registers);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusSlaveSimulator.class);
+
+    private final boolean rtuEncoded;
+    private final ServerSocket serverSocket;
+    private final Map<Integer, RegisterMap> registerMaps = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong exceptionCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final Random random = new Random(1234);
+    private final Thread acceptThread;
+
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double exceptionRate;
+    private volatile int injectedExceptionCode = EXCEPTION_SLAVE_DEVICE_FAILURE;
+    private volatile double dropRate;
+    private volatile @Nullable RequestListener requestListener;
+    private volatile boolean closed;
+
+    /**
+     * Start simulator listening to an ephemeral port of the loopback interface
+     *
+     * @param rtuEncoded whether to use RTU over TCP framing instead of Modbus TCP
+     * @throws IOException when the server socket cannot be opened
+     */
+    public ModbusSlaveSimulator(boolean rtuEncoded) throws IOException {
+        this.rtuEncoded = rtuEncoded;
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptConnections, "ModbusSlaveSimulator-" + getPort());
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean isRtuEncoded() {
+        return rtuEncoded;
+    }
+
+    /**
+     * Get register map of a unit, creating it when missing. Only units with register map respond to requests.
+     *
+     * @param unitId unit id
+     * @return register map of the unit
+     */
+    public RegisterMap getRegisterMap(int unitId) {
+        return registerMaps.computeIfAbsent(unitId, id -> new RegisterMap());
+    }
+
+    /**
+     * Delay each response by a random time between the given bounds
+     *
+     * @param minLatencyMillis minimum delay, in milliseconds
+     * @param maxLatencyMillis maximum delay, in milliseconds
+     */
+    public void setLatency(long minLatencyMillis, long maxLatencyMillis) {
+        this.minLatencyMillis = minLatencyMillis;
+        this.maxLatencyMillis = Math.max(minLatencyMillis, maxLatencyMillis);
+    }
+
+    /**
+     * Respond to a share of the requests with an exception response
+     *
+     * @param exceptionRate share of requests responded with exception, between 0 and 1
+     * @param exceptionCode exception code to respond with
+     */
+    public void setExceptionRate(double exceptionRate, int exceptionCode) {
+        this.exceptionRate = exceptionRate;
+        this.injectedExceptionCode = exceptionCode;
+    }
+
+    /**
+     * Leave a share of the requests without response, making the master time out
+     *
+     * @param dropRate share of requests not responded, between 0 and 1
+     */
+    public void setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+    }
+
+    public void setRequestListener(@Nullable RequestListener requestListener) {
+        this.requestListener = requestListener;
+    }
+
+    /**
+     * @return number of requests received, including the failed and dropped ones
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return number of exception responses sent
+     */
+    public long getExceptionCount() {
+        return exceptionCount.get();
+    }
+
+    /**
+     * @return number of requests left without response
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return number of connections accepted
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing server socket: {}", e.getMessage());
+        }
+        for (Socket connection : connections) {
+            closeQuietly(connection);
+        }
+        try {
+            acceptThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptConnections() {
+        while (!closed) {
+            try {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                connections.add(connection);
+                connectionCount.incrementAndGet();
+                Thread thread = new Thread(() -> serve(connection),
+                        "ModbusSlaveSimulator-" + getPort() + "-" + connection.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Error accepting connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try (DataInputStream in = new DataInputStream(connection.getInputStream());
+                OutputStream out = connection.getOutputStream()) {
+            while (!closed) {
+                if (rtuEncoded) {
+                    serveRtuRequest(in, out);
+                } else {
+                    serveTcpRequest(in, out);
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            logger.trace("Connection {} closed: {}", connection, e.getMessage());
+        } catch (IOException e) {
+            logger.debug("Error serving connection {}: {}", connection, e.getMessage());
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private void serveTcpRequest(DataInputStream in, OutputStream out) throws IOException {
+        int transactionId = in.readUnsignedShort();
+        int protocolId = in.readUnsignedShort();
+        int length = in.readUnsignedShort();
+        if (length < 2 || length > 254) {
+            throw new IOException("Invalid MBAP length " + length);
+        }
+        int unitId = in.readUnsignedByte();
+        byte[] pdu = new byte[length - 1];
+        in.readFully(pdu);
+        byte @Nullable [] responsePdu = process(unitId, pdu);
+        if (responsePdu == null) {
+            return;
+        }
+        byte[] frame = new byte[7 + responsePdu.length];
+        frame[0] = (byte) (transactionId >> 8);
+        frame[1] = (byte) transactionId;
+        frame[2] = (byte) (protocolId >> 8);
+        frame[3] = (byte) protocolId;
+        frame[4] = (byte) ((responsePdu.length + 1) >> 8);
+        frame[5] = (byte) (responsePdu.length + 1);
+        frame[6] = (byte) unitId;
+        System.arraycopy(responsePdu, 0, frame, 7, responsePdu.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    private void serveRtuRequest(DataInputStream in, OutputStream out) throws IOException {
+        int unitId = in.readUnsignedByte();
+        int functionCode = in.readUnsignedByte();
+        byte[] pdu;
+        switch (functionCode) {
+            case 15:
+            case 16: {
+                byte[] header = new byte[5];
+                in.readFully(header);
+                int byteCount = header[4] & 0xff;
+                pdu = new byte[1 + header.length + byteCount];
+                System.arraycopy(header, 0, pdu, 1, header.length);
+                in.readFully(pdu, 1 + header.length, byteCount);
+                break;
+            }
+            default:
+                // all other supported requests have address and quantity (or value)
+                pdu = new byte[5];
+                in.readFully(pdu, 1, 4);
+                break;
+        }
+        pdu[0] = (byte) functionCode;
+        int crc = in.readUnsignedByte() | (in.readUnsignedByte() << 8);
+        byte[] frame = new byte[1 + pdu.length];
+        frame[0] = (byte) unitId;
+        System.arraycopy(pdu, 0, frame, 1, pdu.length);
+        if (crc != crc16(frame, frame.length)) {
+            logger.debug("Ignoring RTU request with invalid CRC from unit {}", unitId);
+            return;
+        }
+        byte @Nullable [] responsePdu = process(unitId, pdu);
+        if (responsePdu == null) {
+            return;
+        }
+        byte[] response = new byte[3 + responsePdu.length];
+        response[0] = (byte) unitId;
+        System.arraycopy(responsePdu, 0, response, 1, responsePdu.length);
+        int responseCrc = crc16(response, response.length - 2);
+        response[response.length - 2] = (byte) responseCrc;
+        response[response.length - 1] = (byte) (responseCrc >> 8);
+        out.write(response);
+        out.flush();
+    }
+
+    /**
+     * Execute request
+     *
+     * @return response PDU, or null if no response should be sent
+     */
+    private byte @Nullable [] process(int unitId, byte[] pdu) {
+        requestCount.incrementAndGet();
+        RegisterMap registers = registerMaps.get(unitId);
+        if (registers == null) {
+            logger.trace("No register map for unit {}, not responding", unitId);
+            droppedCount.incrementAndGet();
+            return null;
+        }
+        double dropRandom;
+        double exceptionRandom;
+        long latency;
+        synchronized (random) {
+            dropRandom = random.nextDouble();
+            exceptionRandom = random.nextDouble();
+            latency = minLatencyMillis + (maxLatencyMillis > minLatencyMillis
+                    ? (long) (random.nextDouble() * (maxLatencyMillis - minLatencyMillis))
+                    : 0);
+        }
+        if (dropRandom < dropRate) {
+            droppedCount.incrementAndGet();
+            return null;
+        }
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        int functionCode = pdu[0] & 0xff;
+        if (exceptionRandom < exceptionRate) {
+            return exception(functionCode, injectedExceptionCode);
+        }
+        if (pdu.length < 5) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_VALUE);
+        }
+        int address = readUnsignedShort(pdu, 1);
+        int quantity = readUnsignedShort(pdu, 3);
+        RequestListener listener = requestListener;
+        if (listener != null) {
+            listener.requestReceived(unitId, functionCode, address, quantity, registers);
+        }
+        synchronized (registers) {
+            switch (functionCode) {
+                case 1:
+                    return readBits(functionCode, address, quantity, registers.coils);
+                case 2:
+                    return readBits(functionCode, address, quantity, registers.discreteInputs);
+                case 3:
+                    return readRegisters(functionCode, address, quantity, registers.holdingRegisters);
+                case 4:
+                    return readRegisters(functionCode, address, quantity, registers.inputRegisters);
+                case 5:
+                    if (quantity != 0xff00 && quantity != 0) {
+                        return exception(functionCode, EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    registers.coils[address] = quantity == 0xff00;
+                    return pdu.clone();
+                case 6:
+                    registers.holdingRegisters[address] = quantity;
+                    return pdu.clone();
+                case 15:
+                    return writeCoils(functionCode, address, quantity, pdu, registers.coils);
+                case 16:
+                    return writeRegisters(functionCode, address, quantity, pdu, registers.holdingRegisters);
+                default:
+                    return exception(functionCode, EXCEPTION_ILLEGAL_FUNCTION);
+            }
+        }
+    }
+
+    private byte[] readBits(int functionCode, int address, int quantity, boolean[] bits) {
+        if (quantity < 1 || quantity > MAX_BITS_READ_COUNT) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_VALUE);
+        } else if (address + quantity > ADDRESS_SPACE) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_ADDRESS);
+        }
+        int byteCount = (quantity + 7) / 8;
+        byte[] response = new byte[2 + byteCount];
+        response[0] = (byte) functionCode;
+        response[1] = (byte) byteCount;
+        for (int i = 0; i < quantity; i++) {
+            if (bits[address + i]) {
+                response[2 + i / 8] |= 1 << (i % 8);
+            }
+        }
+        return response;
+    }
+
+    private byte[] readRegisters(int functionCode, int address, int quantity, int[] registers) {
+        if (quantity < 1 || quantity > MAX_REGISTERS_READ_COUNT) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_VALUE);
+        } else if (address + quantity > ADDRESS_SPACE) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_ADDRESS);
+        }
+        byte[] response = new byte[2 + quantity * 2];
+        response[0] = (byte) functionCode;
+        response[1] = (byte) (quantity * 2);
+        for (int i = 0; i < quantity; i++) {
+            response[2 + i * 2] = (byte) (registers[address + i] >> 8);
+            response[3 + i * 2] = (byte) registers[address + i];
+        }
+        return response;
+    }
+
+    private byte[] writeCoils(int functionCode, int address, int quantity, byte[] pdu, boolean[] coils) {
+        if (pdu.length < 6 || quantity < 1 || pdu.length - 6 < (quantity + 7) / 8) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_VALUE);
+        } else if (address + quantity > ADDRESS_SPACE) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_ADDRESS);
+        }
+        for (int i = 0; i < quantity; i++) {
+            coils[address + i] = (pdu[6 + i / 8] & (1 << (i % 8))) != 0;
+        }
+        return writeResponse(functionCode, address, quantity);
+    }
+
+    private byte[] writeRegisters(int functionCode, int address, int quantity, byte[] pdu, int[] registers) {
+        if (pdu.length < 6 || quantity < 1 || pdu.length - 6 < quantity * 2) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_VALUE);
+        } else if (address + quantity > ADDRESS_SPACE) {
+            return exception(functionCode, EXCEPTION_ILLEGAL_DATA_ADDRESS);
+        }
+        for (int i = 0; i < quantity; i++) {
+            registers[address + i] = readUnsignedShort(pdu, 6 + i * 2);
+        }
+        return writeResponse(functionCode, address, quantity);
+    }
+
+    private static byte[] writeResponse(int functionCode, int address, int quantity) {
+        return new byte[] { (byte) functionCode, (byte) (address >> 8), (byte) address, (byte) (quantity >> 8),
+                (byte) quantity };
+    }
+
+    private byte[] exception(int functionCode, int exceptionCode) {
+        exceptionCount.incrementAndGet();
+        return new byte[] { (byte) (functionCode | 0x80), (byte) exceptionCode };
+    }
+
+    private static int readUnsignedShort(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 8) | (data[offset + 1] & 0xff);
+    }
+
+    /**
+     * Modbus RTU CRC
+     */
+    static int crc16(byte[] data, int length) {
+        int crc = 0xffff;
+        for (int i = 0; i < length; i++) {
+            crc ^= data[i] & 0xff;
+            for (int bit = 0; bit < 8; bit++) {
+                if ((crc & 1) != 0) {
+                    crc = (crc >>> 1) ^ 0xa001;
+                } else {
+                    crc >>>= 1;
+                }
+            }
+        }
+        return crc;
+    }
+
+    private void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.trace("Error closing connection: {}", e.getMessage());
+        }
+    }
+}
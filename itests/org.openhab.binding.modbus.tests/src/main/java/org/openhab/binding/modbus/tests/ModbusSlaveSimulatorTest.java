@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.tests;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.AsyncModbusWriteResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.core.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.core.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.core.io.transport.modbus.exception.ModbusSlaveErrorResponseException;
+import org.openhab.core.io.transport.modbus.exception.ModbusTransportException;
+
+/**
+ * Tests for {@link ModbusSlaveSimulator}, using the real Modbus transport
+ *
+ * @author agent - Initial contribution
+ */
+public class ModbusSlaveSimulatorTest extends AbstractModbusOSGiTest {
+
+    private static final int UNIT_ID = 3;
+
+    private ModbusSlaveSimulator simulator;
+    private ModbusCommunicationInterface slaveComms;
+
+    @BeforeEach
+    public void setUp() {
+        mockCommsToRealModbusManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (slaveComms != null) {
+            slaveComms.close();
+        }
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+
+    private void startSimulator(boolean rtuEncoded) throws Exception {
+        simulator = new ModbusSlaveSimulator(rtuEncoded);
+        EndpointPoolConfiguration poolConfiguration = new EndpointPoolConfiguration();
+        poolConfiguration.setInterTransactionDelayMillis(0);
+        poolConfiguration.setConnectTimeoutMillis(1000);
+        slaveComms = mockedModbusManager.newModbusCommunicationInterface(
+                new ModbusTCPSlaveEndpoint(simulator.getHost(), simulator.getPort(), rtuEncoded), poolConfiguration);
+    }
+
+    private AsyncModbusReadResult read(ModbusReadFunctionCode functionCode, int start, int length, int maxTries)
+            throws Exception {
+        CompletableFuture<AsyncModbusReadResult> result = new CompletableFuture<>();
+        slaveComms.submitOneTimePoll(new ModbusReadRequestBlueprint(UNIT_ID, functionCode, start, length, maxTries),
+                result::complete, failure -> result.completeExceptionally(failure.getCause()));
+        return result.get(30, TimeUnit.SECONDS);
+    }
+
+    private AsyncModbusWriteResult write(ModbusWriteRequestBlueprint request) throws Exception {
+        CompletableFuture<AsyncModbusWriteResult> result = new CompletableFuture<>();
+        slaveComms.submitOneTimeWrite(request, result::complete,
+                failure -> result.completeExceptionally(failure.getCause()));
+        return result.get(30, TimeUnit.SECONDS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void testRegisters(boolean rtuEncoded) throws Exception {
+        startSimulator(rtuEncoded);
+        ModbusSlaveSimulator.RegisterMap registers = simulator.getRegisterMap(UNIT_ID);
+        registers.setHoldingRegister(10, 0x1234);
+        registers.setHoldingRegister(11, 0xfffd);
+        registers.setInputRegister(20, 7);
+
+        ModbusRegisterArray holding = read(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, 1).getRegisters()
+                .get();
+        assertThat(holding.getRegister(0), is(equalTo(0x1234)));
+        assertThat(holding.getRegister(1), is(equalTo(0xfffd)));
+        ModbusRegisterArray input = read(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 20, 1, 1).getRegisters().get();
+        assertThat(input.getRegister(0), is(equalTo(7)));
+
+        write(new ModbusWriteRegisterRequestBlueprint(UNIT_ID, 30,
+                new ModbusRegisterArray(new byte[] { 0, 1, 0, 2, 0, 3 }), true, 1));
+        write(new ModbusWriteRegisterRequestBlueprint(UNIT_ID, 40, new ModbusRegisterArray(new byte[] { 0, 9 }),
+                false, 1));
+        assertThat(registers.getHoldingRegister(30), is(equalTo(1)));
+        assertThat(registers.getHoldingRegister(32), is(equalTo(3)));
+        assertThat(registers.getHoldingRegister(40), is(equalTo(9)));
+        assertThat(simulator.getRequestCount(), is(equalTo(4L)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void testBits(boolean rtuEncoded) throws Exception {
+        startSimulator(rtuEncoded);
+        ModbusSlaveSimulator.RegisterMap registers = simulator.getRegisterMap(UNIT_ID);
+        registers.setCoil(1, true);
+        registers.setDiscreteInput(9, true);
+
+        BitArray coils = read(ModbusReadFunctionCode.READ_COILS, 0, 10, 1).getBits().get();
+        assertThat(coils.getBit(0), is(false));
+        assertThat(coils.getBit(1), is(true));
+        BitArray discreteInputs = read(ModbusReadFunctionCode.READ_INPUT_DISCRETES, 0, 10, 1).getBits().get();
+        assertThat(discreteInputs.getBit(9), is(true));
+
+        write(new ModbusWriteCoilRequestBlueprint(UNIT_ID, 5, true, false, 1));
+        BitArray writtenCoils = new BitArray(10);
+        writtenCoils.setBit(9, true);
+        write(new ModbusWriteCoilRequestBlueprint(UNIT_ID, 20, writtenCoils, true, 1));
+        assertThat(registers.getCoil(5), is(true));
+        assertThat(registers.getCoil(20), is(false));
+        assertThat(registers.getCoil(29), is(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void testInjectedException(boolean rtuEncoded) throws Exception {
+        startSimulator(rtuEncoded);
+        simulator.getRegisterMap(UNIT_ID);
+        simulator.setExceptionRate(1, ModbusSlaveSimulator.EXCEPTION_ILLEGAL_DATA_ADDRESS);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> read(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, 1));
+        assertThat(e.getCause(), is(instanceOf(ModbusSlaveErrorResponseException.class)));
+        assertThat(((ModbusSlaveErrorResponseException) e.getCause()).getExceptionCode(),
+                is(equalTo(ModbusSlaveSimulator.EXCEPTION_ILLEGAL_DATA_ADDRESS)));
+        assertThat(simulator.getExceptionCount(), is(equalTo(1L)));
+
+        simulator.setExceptionRate(0, ModbusSlaveSimulator.EXCEPTION_SLAVE_DEVICE_FAILURE);
+        read(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void testDroppedRequest(boolean rtuEncoded) throws Exception {
+        startSimulator(rtuEncoded);
+        simulator.getRegisterMap(UNIT_ID);
+        simulator.setDropRate(1);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> read(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, 1));
+        assertThat(e.getCause(), is(instanceOf(ModbusTransportException.class)));
+        assertThat(simulator.getDroppedCount(), is(equalTo(1L)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void testLatencyAndRequestListener(boolean rtuEncoded) throws Exception {
+        startSimulator(rtuEncoded);
+        simulator.setLatency(100, 100);
+        simulator.setRequestListener((unitId, functionCode, address, quantity, registers) -> registers
+                .setHoldingRegister(address, registers.getHoldingRegister(address) + 1));
+        simulator.getRegisterMap(UNIT_ID);
+
+        long start = System.nanoTime();
+        assertThat(read(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 1, 1).getRegisters().get().getRegister(0),
+                is(equalTo(1)));
+        assertThat(read(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 1, 1).getRegisters().get().getRegister(0),
+                is(equalTo(2)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+}
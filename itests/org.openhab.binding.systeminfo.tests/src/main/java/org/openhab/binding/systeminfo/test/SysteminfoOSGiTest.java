@@ -28,6 +28,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.openhab.binding.systeminfo.internal.SysteminfoBindingConstants;
 import org.openhab.binding.systeminfo.internal.SysteminfoHandlerFactory;
 import org.openhab.binding.systeminfo.internal.discovery.SysteminfoDiscoveryService;
@@ -958,6 +959,73 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
                 mockedProcessThreadsCount);
     }
 
+    @Test
+    public void assertChannelJvmHeapUsedIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_JVM_HEAP_USED;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedJvmHeapUsedValue = new DecimalType(256);
+        when(mockedSystemInfo.getJvmHeapUsed()).thenReturn(mockedJvmHeapUsedValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedJvmHeapUsedValue);
+    }
+
+    @Test
+    public void assertChannelJvmHeapUsedPercentIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_JVM_HEAP_USED_PERCENT;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedJvmHeapUsedPercentValue = new DecimalType(40.5);
+        when(mockedSystemInfo.getJvmHeapUsedPercent()).thenReturn(mockedJvmHeapUsedPercentValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedJvmHeapUsedPercentValue);
+    }
+
+    @Test
+    public void assertChannelJvmGcTimeIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_JVM_GC_TIME;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedJvmGcTimeValue = new DecimalType(1234);
+        when(mockedSystemInfo.getJvmGcTime()).thenReturn(mockedJvmGcTimeValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, mockedJvmGcTimeValue);
+    }
+
+    @Test
+    public void assertChannelJvmThreadsIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_JVM_THREADS;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedJvmThreadsValue = new DecimalType(120);
+        when(mockedSystemInfo.getJvmThreads()).thenReturn(mockedJvmThreadsValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedJvmThreadsValue);
+    }
+
+    @Test
+    public void assertSnapshotIsTakenBeforeChannelIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_MEMORY_USED;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedMemoryUsedValue = new DecimalType(1000);
+        when(mockedSystemInfo.getMemoryUsed()).thenReturn(mockedMemoryUsedValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, mockedMemoryUsedValue);
+
+        InOrder inOrder = inOrder(mockedSystemInfo);
+        inOrder.verify(mockedSystemInfo, atLeastOnce()).takeSnapshot();
+        inOrder.verify(mockedSystemInfo, atLeastOnce()).getMemoryUsed();
+    }
+
     @Test
     public void assertChannelProcessPathIsUpdatedWithPIDset() throws DeviceNotFoundException {
         String channnelID = SysteminfoBindingConstants.CHANNEL_PROCESS_PATH;